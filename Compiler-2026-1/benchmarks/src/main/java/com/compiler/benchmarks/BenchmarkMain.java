@@ -0,0 +1,54 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain
+ * -------------
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but writes results as
+ * JSON to {@code jmh-result.json} unless {@code -rf}/{@code -rff} say otherwise, so runs can be
+ * compared across commits, and enables the GC profiler unless other profilers are given with
+ * {@code -prof}.
+ */
+public class BenchmarkMain {
+
+    /** Default file for machine-readable results. */
+    public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public BenchmarkMain() {
+        // Utility class, no initialization required
+    }
+
+    /**
+     * Runs the benchmarks selected on the command line.
+     *
+     * @param args JMH command-line arguments, e.g. a benchmark regex or {@code -p corpus=numbers}.
+     * @throws Exception If the options are invalid or a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            // Allocation rate (gc.alloc.rate.norm) is part of every result by default
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,25 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CharCounter
+ * -----------
+ * Secondary JMH result for matchers: characters processed, reported by JMH as chars/s next to
+ * the primary operations/s score.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class CharCounter {
+    /** Characters processed during the iteration. */
+    public long chars;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        chars = 0;
+    }
+}
@@ -0,0 +1,136 @@
+package com.compiler.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Corpora
+ * -------
+ * Regular expressions used as benchmark inputs, selected by name through JMH {@code @Param}s.
+ *
+ * The regex syntax has no character classes, so classes such as [a-z] are spelled out as
+ * unions. Available corpora:
+ * - {@code keywords-small}: eight keywords joined with '|'.
+ * - {@code keywords-java}: the fifty Java keywords joined with '|'.
+ * - {@code identifiers}: a letter or '_' followed by letters, digits or '_'.
+ * - {@code numbers}: integers with an optional fraction and exponent.
+ * - {@code pathological-n}: {@code (a|b)*a(a|b){n}}, whose minimal DFA has 2^(n+1) states.
+ *
+ * It also defines the token rules of the synthetic language used by the throughput benchmarks.
+ */
+public class Corpora {
+
+    /** Eight common keywords. */
+    public static final String[] SMALL_KEYWORDS = {
+        "if", "else", "while", "for", "return", "int", "void", "class"
+    };
+
+    /** The reserved keywords of the Java language. */
+    public static final String[] JAVA_KEYWORDS = {
+        "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+        "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+        "for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long", "native",
+        "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp", "super",
+        "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void", "volatile", "while"
+    };
+
+    public Corpora() {
+        // Utility class, no initialization required
+    }
+
+    /**
+     * Returns the regular expression of a named corpus.
+     *
+     * @param name The corpus name (see the class comment).
+     * @return The regular expression.
+     */
+    public static String pattern(String name) {
+        if (name.startsWith("pathological-")) {
+            return pathological(Integer.parseInt(name.substring("pathological-".length())));
+        }
+        switch (name) {
+            case "keywords-small":
+                return String.join("|", SMALL_KEYWORDS);
+            case "keywords-java":
+                return String.join("|", JAVA_KEYWORDS);
+            case "identifiers":
+                return identifier();
+            case "numbers":
+                return number();
+            default:
+                throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+    }
+
+    /** Operators of the synthetic language. */
+    public static final String OPERATORS = "=|==|<|<=|>|>=|!=|\\+|-|\\*|/|%|&&";
+
+    /** Punctuation of the synthetic language. */
+    public static final String PUNCTUATION = ";|,|\\(|\\)|{|}|[|]";
+
+    /**
+     * Returns the token rules of the synthetic language written by {@link SourceGenerator},
+     * in priority order (keywords before identifiers).
+     *
+     * @return Rule names mapped to regular expressions.
+     */
+    public static Map<String, String> tokenRules() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (String keyword : SMALL_KEYWORDS) {
+            rules.put(keyword.toUpperCase(), keyword);
+        }
+        rules.put("IDENTIFIER", identifier());
+        rules.put("NUMBER", number());
+        rules.put("OPERATOR", OPERATORS);
+        rules.put("PUNCTUATION", PUNCTUATION);
+        return rules;
+    }
+
+    /**
+     * Returns a pattern accepting any sequence of tokens written without separators,
+     * the union of all token rules under a star.
+     *
+     * @return The regular expression.
+     */
+    public static String tokenSequence() {
+        return "(" + String.join("|", tokenRules().values()) + ")*";
+    }
+
+    /**
+     * Builds {@code (a|b)*a(a|b){n}}: the n-th symbol from the end is an 'a'.
+     *
+     * @param n The distance from the end.
+     * @return The regular expression.
+     */
+    public static String pathological(int n) {
+        return "(a|b)*a(a|b){" + n + "}";
+    }
+
+    /**
+     * Builds an identifier rule: (letter|_)(letter|digit|_)*.
+     */
+    private static String identifier() {
+        String letters = union('a', 'z') + "|" + union('A', 'Z') + "|_";
+        return "(" + letters + ")(" + letters + "|" + union('0', '9') + ")*";
+    }
+
+    /**
+     * Builds a number rule: digit+ (. digit+)? ((e|E) digit+)?.
+     */
+    private static String number() {
+        String digit = "(" + union('0', '9') + ")";
+        return digit + "+(." + digit + "+)?((e|E)" + digit + "+)?";
+    }
+
+    /**
+     * Spells out a character range as a union, e.g. "a|b|c".
+     */
+    private static String union(char from, char to) {
+        StringBuilder sb = new StringBuilder();
+        for (char c = from; c <= to; c++) {
+            if (sb.length() > 0) sb.append('|');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.compiler.lexer.DfaSimulator;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+
+/**
+ * MatchingThroughputBenchmark
+ * ---------------------------
+ * Steady-state throughput of {@link DfaSimulator#simulate} over generated sources.
+ *
+ * The pattern is {@link Corpora#tokenSequence()} and the input is a generated source with its
+ * whitespace removed, so the whole input is one accepted string and every character is read.
+ * NFA simulation is measured by {@link NfaMatchingThroughputBenchmark} on smaller inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class MatchingThroughputBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "100MB"})
+    public String size;
+
+    private String input;
+    private DFA dfa;
+    private final DfaSimulator simulator = new DfaSimulator();
+
+    @Setup
+    public void setUp() {
+        input = SourceGenerator.compact(SourceGenerator.generate(SourceGenerator.parseSize(size), SourceGenerator.DEFAULT_SEED));
+        NFA nfa = new RegexParser().parse(Corpora.tokenSequence());
+        dfa = NfaToDfaConverter.convertNfaToDfa(nfa);
+        if (!simulator.simulate(dfa, input)) {
+            throw new IllegalStateException("Generated input is not a token sequence");
+        }
+    }
+
+    @Benchmark
+    public boolean dfaSimulate(CharCounter counter) {
+        counter.chars += input.length();
+        return simulator.simulate(dfa, input);
+    }
+}
@@ -0,0 +1,50 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.compiler.lexer.NfaSimulator;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+
+/**
+ * NfaMatchingThroughputBenchmark
+ * ------------------------------
+ * Steady-state throughput of {@link NfaSimulator#simulate} on the same pattern and inputs as
+ * {@link MatchingThroughputBenchmark}. NFA simulation is orders of magnitude slower, so the
+ * default sizes stop at 1 MB; larger sizes can be selected with {@code -p size=100MB}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class NfaMatchingThroughputBenchmark {
+
+    @Param({"1KB", "64KB", "1MB"})
+    public String size;
+
+    private String input;
+    private NFA nfa;
+    private final NfaSimulator simulator = new NfaSimulator();
+
+    @Setup
+    public void setUp() {
+        input = SourceGenerator.compact(SourceGenerator.generate(SourceGenerator.parseSize(size), SourceGenerator.DEFAULT_SEED));
+        nfa = new RegexParser().parse(Corpora.tokenSequence());
+    }
+
+    @Benchmark
+    public boolean nfaSimulate(CharCounter counter) {
+        counter.chars += input.length();
+        return simulator.simulate(nfa, input);
+    }
+}
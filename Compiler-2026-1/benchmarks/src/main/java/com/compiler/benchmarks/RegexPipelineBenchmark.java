@@ -0,0 +1,79 @@
+package com.compiler.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.compiler.lexer.DfaMinimizer;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+import com.compiler.lexer.regex.ShuntingYard;
+
+/**
+ * RegexPipelineBenchmark
+ * ----------------------
+ * Average time of each stage of pattern compilation, measured separately: pattern to NFA
+ * (a single recursive-descent pass), subset construction and minimization. Each stage after
+ * the first starts from the output of the previous one, prepared once per trial.
+ *
+ * {@code toPostfix} measures the standalone {@link ShuntingYard} converter on the same
+ * pattern. It is not a pipeline stage: {@code parse} reads the pattern directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RegexPipelineBenchmark {
+
+    @Param({"keywords-small", "keywords-java", "identifiers", "numbers",
+            "pathological-4", "pathological-6", "pathological-8"})
+    public String corpus;
+
+    private String pattern;
+    private NFA nfa;
+    private DFA dfa;
+    private Set<Character> alphabet;
+
+    @Setup
+    public void setUp() {
+        pattern = Corpora.pattern(corpus);
+        nfa = new RegexParser().parse(pattern);
+        dfa = NfaToDfaConverter.convertNfaToDfa(nfa);
+        alphabet = NfaToDfaConverter.alphabetOf(nfa);
+    }
+
+    @Benchmark
+    public String toPostfix() {
+        return ShuntingYard.toPostfix(pattern);
+    }
+
+    @Benchmark
+    public NFA parse() {
+        return new RegexParser().parse(pattern);
+    }
+
+    @Benchmark
+    public DFA subsetConstruction() {
+        return NfaToDfaConverter.convertNfaToDfa(nfa);
+    }
+
+    @Benchmark
+    public DFA minimize() {
+        return DfaMinimizer.minimizeDfa(dfa, alphabet);
+    }
+}
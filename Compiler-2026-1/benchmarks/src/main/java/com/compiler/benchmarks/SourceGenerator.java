@@ -0,0 +1,221 @@
+package com.compiler.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * SourceGenerator
+ * ---------------
+ * Writes reproducible synthetic source files in a small C-like language whose tokens are
+ * described by {@link Corpora#tokenRules()}.
+ *
+ * The output is a sequence of class and function declarations with nested if/while/for blocks,
+ * assignments, arithmetic, comparisons, calls and returns, indented with spaces and separated
+ * by newlines. The same size and seed always give the same text, so results are comparable
+ * across runs and machines.
+ *
+ * Usage: {@code java -cp benchmarks.jar com.compiler.benchmarks.SourceGenerator <size> <file> [seed]},
+ * where size is a number of characters with an optional KB or MB suffix.
+ */
+public class SourceGenerator {
+
+    /** Seed used by the benchmarks. */
+    public static final long DEFAULT_SEED = 20261;
+
+    private static final String[] NAMES = {
+        "count", "index", "total", "value", "result", "buffer", "offset", "length", "node", "left",
+        "right", "parent", "key", "item", "size", "limit", "x", "y", "z", "tmp"
+    };
+    private static final String[] COMPARISONS = {"<", "<=", ">", ">=", "==", "!="};
+    private static final String[] ARITHMETIC = {"+", "-", "*", "/", "%"};
+
+    private final Random random;
+    private final StringBuilder out;
+    private final int size;
+
+    private SourceGenerator(int size, long seed) {
+        this.random = new Random(seed);
+        this.out = new StringBuilder(size + 256);
+        this.size = size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SourceGenerator <size> <file> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        String source = generate(parseSize(args[0]), seed);
+        Path file = Paths.get(args[1]);
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writer.write(source);
+        }
+    }
+
+    /**
+     * Generates a source text of exactly {@code size} characters.
+     *
+     * @param size The number of characters.
+     * @param seed The random seed.
+     * @return The source text.
+     */
+    public static String generate(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        SourceGenerator generator = new SourceGenerator(size, seed);
+        while (generator.out.length() < size) {
+            generator.declaration();
+        }
+        return generator.truncate();
+    }
+
+    /**
+     * Parses sizes such as "512", "1KB", "64KB" or "100MB" (powers of 1024).
+     *
+     * @param text The size text.
+     * @return The size in characters.
+     */
+    public static int parseSize(String text) {
+        String upper = text.trim().toUpperCase();
+        if (upper.endsWith("MB")) {
+            return Integer.parseInt(upper.substring(0, upper.length() - 2)) * 1024 * 1024;
+        }
+        if (upper.endsWith("KB")) {
+            return Integer.parseInt(upper.substring(0, upper.length() - 2)) * 1024;
+        }
+        return Integer.parseInt(upper);
+    }
+
+    /**
+     * Removes all whitespace, leaving a sequence of tokens accepted by {@link Corpora#tokenSequence()}.
+     *
+     * @param source The source text.
+     * @return The text without whitespace.
+     */
+    public static String compact(String source) {
+        StringBuilder sb = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void declaration() {
+        if (random.nextInt(4) == 0) {
+            line(0, "class " + typeName() + " {");
+            int fields = 1 + random.nextInt(4);
+            for (int i = 0; i < fields; i++) {
+                line(1, "int " + name() + " ;");
+            }
+            line(0, "}");
+        } else {
+            String type = random.nextBoolean() ? "int" : "void";
+            line(0, type + " " + name() + " ( int " + name() + " , int " + name() + " ) {");
+            block(1, 2 + random.nextInt(6));
+            if (type.equals("int")) {
+                line(1, "return " + expression() + " ;");
+            }
+            line(0, "}");
+        }
+        out.append('\n');
+    }
+
+    private void block(int depth, int statements) {
+        for (int i = 0; i < statements; i++) {
+            int kind = depth < 4 ? random.nextInt(10) : 0;
+            if (kind < 6) {
+                line(depth, name() + " = " + expression() + " ;");
+            } else if (kind < 8) {
+                line(depth, "if ( " + condition() + " ) {");
+                block(depth + 1, 1 + random.nextInt(3));
+                if (random.nextBoolean()) {
+                    line(depth, "} else {");
+                    block(depth + 1, 1 + random.nextInt(2));
+                }
+                line(depth, "}");
+            } else if (kind == 8) {
+                line(depth, "while ( " + condition() + " ) {");
+                block(depth + 1, 1 + random.nextInt(3));
+                line(depth, "}");
+            } else {
+                line(depth, "for ( " + name() + " = 0 ; " + condition() + " ; " + name() + " = " + expression() + " ) {");
+                block(depth + 1, 1 + random.nextInt(3));
+                line(depth, "}");
+            }
+        }
+    }
+
+    private String condition() {
+        String comparison = operand() + " " + pick(COMPARISONS) + " " + operand();
+        return random.nextInt(4) == 0 ? comparison + " && " + operand() + " " + pick(COMPARISONS) + " " + operand() : comparison;
+    }
+
+    private String expression() {
+        StringBuilder sb = new StringBuilder(operand());
+        int terms = random.nextInt(3);
+        for (int i = 0; i < terms; i++) {
+            sb.append(' ').append(pick(ARITHMETIC)).append(' ').append(operand());
+        }
+        return sb.toString();
+    }
+
+    private String operand() {
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            return name();
+        }
+        if (kind < 7) {
+            return random.nextBoolean() ? name() + " [ " + name() + " ]" : name() + " ( " + name() + " )";
+        }
+        if (kind < 9) {
+            return Integer.toString(random.nextInt(1000));
+        }
+        return random.nextInt(100) + "." + random.nextInt(100);
+    }
+
+    private String name() {
+        String base = pick(NAMES);
+        return random.nextInt(3) == 0 ? base + "_" + random.nextInt(10) : base;
+    }
+
+    private String typeName() {
+        String base = pick(NAMES);
+        return Character.toUpperCase(base.charAt(0)) + base.substring(1);
+    }
+
+    private String pick(String[] options) {
+        return options[random.nextInt(options.length)];
+    }
+
+    private void line(int depth, String text) {
+        for (int i = 0; i < depth; i++) {
+            out.append("    ");
+        }
+        out.append(text).append('\n');
+    }
+
+    /**
+     * Cuts the text to the requested size at a whitespace boundary and pads with spaces,
+     * so the result never ends in the middle of a token.
+     */
+    private String truncate() {
+        int end = Math.min(size, out.length());
+        while (end > 0 && end < out.length() && !Character.isWhitespace(out.charAt(end))) {
+            end--;
+        }
+        out.setLength(end);
+        while (out.length() < size) {
+            out.append(' ');
+        }
+        return out.toString();
+    }
+}
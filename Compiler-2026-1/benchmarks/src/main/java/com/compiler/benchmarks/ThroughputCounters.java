@@ -0,0 +1,29 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ThroughputCounters
+ * ------------------
+ * Secondary JMH results for the tokenizer: characters and tokens processed, reported by JMH
+ * as chars/s and tokens/s next to the primary operations/s score.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ThroughputCounters {
+    /** Characters processed during the iteration. */
+    public long chars;
+
+    /** Tokens produced during the iteration. */
+    public long tokens;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        chars = 0;
+        tokens = 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.compiler.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenStream;
+
+/**
+ * TokenizerThroughputBenchmark
+ * ----------------------------
+ * Steady-state throughput of full tokenization with {@link Lexer} over generated sources.
+ * Tokens are consumed from a {@link TokenStream} as they are produced, so even the 100 MB
+ * input does not keep its tokens in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class TokenizerThroughputBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "100MB"})
+    public String size;
+
+    private String input;
+    private Lexer lexer;
+
+    @Setup
+    public void setUp() {
+        input = SourceGenerator.generate(SourceGenerator.parseSize(size), SourceGenerator.DEFAULT_SEED);
+        lexer = new Lexer(Corpora.tokenRules());
+    }
+
+    @Benchmark
+    public void tokenize(ThroughputCounters counters, Blackhole blackhole) {
+        TokenStream stream = lexer.stream(input);
+        for (Token t = stream.next(); t != null; t = stream.next()) {
+            blackhole.consume(t);
+        }
+        counters.chars += input.length();
+        counters.tokens += stream.getTokenCount();
+    }
+}
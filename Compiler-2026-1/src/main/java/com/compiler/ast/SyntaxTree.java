@@ -0,0 +1,300 @@
+package com.compiler.ast;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * A parse tree stored in an arena of parallel {@code int[]}s, one slot per node.
+ * <p>
+ * A node is an int. Its kind is a {@link CompactGrammar} symbol ID: a terminal for a token
+ * (leaf) node, a non-terminal for a rule node, which also records its production. Children are
+ * linked through first-child and next-sibling slots, and each node stores its width, the number
+ * of tokens it spans, so the tree holds no objects besides the arrays and the tokens. Positions
+ * are not stored but accumulated by a {@link TreeCursor} as it moves; a subtree is therefore
+ * valid at any position and can be reused as is by an incremental reparse.
+ * <p>
+ * A {@linkplain TreeBuilder#reparsing reparsing} builder stores a left-recursive list, such as
+ * {@code P -> P S | S}, as one node whose children are all of its elements, and groups them
+ * under hidden nodes of kind {@link #NONE} in a tree balanced by width. An edit inside the list
+ * then replaces only the hidden nodes above the edited element, and the other groups are reused
+ * whole. {@link TreeCursor} and {@link TreeVisitor} step over hidden nodes; the first-child and
+ * next-sibling links include them.
+ * <p>
+ * Building a tree allocates only when the arrays grow; {@link #reset()} empties the arena for
+ * the next compilation unit while keeping its capacity. Trees are built by a
+ * {@link TreeBuilder} and read through {@link TreeCursor} or {@link TreeVisitor}.
+ */
+public class SyntaxTree {
+    /** Value of an absent node or production. */
+    public static final int NONE = -1;
+
+    private final CompactGrammar grammar;
+    private int[] kind = new int[64];
+    private int[] production = new int[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] width = new int[64];
+    private int nodeCount;
+    private Token[] tokens = new Token[64];
+    private int tokenCount;
+    private List<Token> shared;
+    private int root = NONE;
+
+    /**
+     * Creates an empty arena.
+     * @param grammar The grammar whose IDs are the node kinds.
+     */
+    public SyntaxTree(CompactGrammar grammar) {
+        this.grammar = grammar;
+    }
+
+    /**
+     * Empties the arena, keeping the arrays for reuse.
+     */
+    public void reset() {
+        Arrays.fill(tokens, 0, tokenCount, null);
+        nodeCount = 0;
+        tokenCount = 0;
+        shared = null;
+        root = NONE;
+    }
+
+    /**
+     * Makes the tree read its tokens from a list, which is shared rather than copied, and clears
+     * the root but keeps the nodes, whose subtrees a reparse of the new tokens may reuse.
+     */
+    void retain(List<Token> newTokens) {
+        Arrays.fill(tokens, 0, tokenCount, null);
+        tokenCount = 0;
+        shared = newTokens;
+        root = NONE;
+    }
+
+    /**
+     * Appends a token; a tree being rebuilt by {@link #retain} already has all of its tokens.
+     */
+    void addToken(Token token) {
+        if (tokenCount == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokenCount * 2);
+        }
+        tokens[tokenCount++] = token;
+    }
+
+    /**
+     * Adds a node without children.
+     * @param symbol The kind.
+     * @param rule   The production, or {@link #NONE} for a token node.
+     * @param tokens The width.
+     * @return The node.
+     */
+    int addNode(int symbol, int rule, int tokens) {
+        if (nodeCount == kind.length) {
+            int capacity = nodeCount * 2;
+            kind = Arrays.copyOf(kind, capacity);
+            production = Arrays.copyOf(production, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            width = Arrays.copyOf(width, capacity);
+        }
+        int node = nodeCount++;
+        kind[node] = symbol;
+        production[node] = rule;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        width[node] = tokens;
+        return node;
+    }
+
+    void setFirstChild(int node, int child) {
+        firstChild[node] = child;
+    }
+
+    void setNextSibling(int node, int sibling) {
+        nextSibling[node] = sibling;
+    }
+
+    void setWidth(int node, int tokens) {
+        width[node] = tokens;
+    }
+
+    void setRoot(int node) {
+        root = node;
+    }
+
+    /**
+     * Returns the grammar of the node kinds.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the root node.
+     * @return The root, or {@link #NONE} if the tree is empty.
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the number of nodes in the arena, including nodes no longer reachable from the
+     * root after an incremental reparse.
+     * @return The node count; nodes are 0 .. count-1.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of tokens in the tree.
+     * @return The token count.
+     */
+    public int getTokenCount() {
+        return shared == null ? tokenCount : shared.size();
+    }
+
+    /**
+     * Returns a token of the tree.
+     * @param index A token index.
+     * @return The token.
+     */
+    public Token getToken(int index) {
+        return shared == null ? tokens[index] : shared.get(index);
+    }
+
+    /**
+     * Returns the kind of a node.
+     * @param node A node.
+     * @return Its symbol ID, or {@link #NONE} for a hidden node.
+     */
+    public int getKind(int node) {
+        return kind[node];
+    }
+
+    /**
+     * Checks for a token node.
+     * @param node A node.
+     * @return true if the node is a leaf for a token.
+     */
+    public boolean isToken(int node) {
+        return production[node] == NONE;
+    }
+
+    /**
+     * Checks for a hidden node, which groups elements of a list.
+     * @param node A node.
+     * @return true if the node is hidden.
+     */
+    public boolean isHidden(int node) {
+        return kind[node] == NONE;
+    }
+
+    /**
+     * Returns the production of a rule node. A list node and a hidden node report the production
+     * that added their first element.
+     * @param node A node.
+     * @return The production index, or {@link #NONE} for a token node.
+     */
+    public int getProduction(int node) {
+        return production[node];
+    }
+
+    /**
+     * Returns the first child of a node.
+     * @param node A node.
+     * @return The child, or {@link #NONE}.
+     */
+    public int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * Returns the next sibling of a node.
+     * @param node A node.
+     * @return The sibling, or {@link #NONE}.
+     */
+    public int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * Returns the number of tokens a node spans.
+     * @param node A node.
+     * @return The width; 1 for a token node, 0 for a rule that matched no token.
+     */
+    public int getWidth(int node) {
+        return width[node];
+    }
+
+    /**
+     * Creates a cursor on the root.
+     * @return The cursor.
+     * @throws IllegalArgumentException if the tree has no root.
+     */
+    public TreeCursor cursor() {
+        if (root == NONE) {
+            throw new IllegalArgumentException("Syntax tree is empty");
+        }
+        return new TreeCursor(this, root);
+    }
+
+    /**
+     * Walks the tree depth-first from the root with a {@link TreeCursor}, so deep trees do not
+     * overflow the call stack.
+     * @param visitor The visitor.
+     */
+    public void accept(TreeVisitor visitor) {
+        if (root == NONE) {
+            return;
+        }
+        TreeCursor cursor = cursor();
+        while (true) {
+            if (visitor.enter(cursor) && cursor.gotoFirstChild()) {
+                continue;
+            }
+            visitor.exit(cursor);
+            while (!cursor.gotoNextSibling()) {
+                if (!cursor.gotoParent()) {
+                    return;
+                }
+                visitor.exit(cursor);
+            }
+        }
+    }
+
+    /**
+     * Renders the tree as an S-expression, e.g. {@code (E (T (F id:a)))}.
+     * @return The rendering, or an empty string for an empty tree.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        accept(new TreeVisitor() {
+            @Override
+            public boolean enter(TreeCursor cursor) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                int node = cursor.node();
+                if (isToken(node)) {
+                    sb.append(grammar.getName(kind[node])).append(':').append(cursor.token().lexeme);
+                } else {
+                    sb.append('(').append(grammar.getName(kind[node]));
+                }
+                return true;
+            }
+
+            @Override
+            public void exit(TreeCursor cursor) {
+                if (!isToken(cursor.node())) {
+                    sb.append(')');
+                }
+            }
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,367 @@
+package com.compiler.ast;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.ParseListener;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Builds a {@link SyntaxTree} from the events of either parser driver.
+ * <p>
+ * With a top-down parser, a rule node is created when the rule is entered and its children are
+ * appended as they are parsed; the open rules are an {@code int[]} stack. With a bottom-up
+ * parser, token and rule nodes wait on an {@code int[]} stack until a reduction pops the
+ * right-hand side and links it under the new rule node. Either way the builder allocates
+ * nothing per node beyond the arena's slots.
+ * <p>
+ * A bottom-up parser can also drive the builder directly through {@link #shift},
+ * {@link #reduce} and {@link #reuse}, the last one pushing a finished subtree of the arena.
+ * <p>
+ * A {@linkplain #reparsing reparsing} builder stores left-recursive lists balanced, as described
+ * in {@link SyntaxTree}. The first reduction of a list creates its node, and each reduction by a
+ * production {@code P -> P ...} adds the other children to it as one more element, instead of
+ * nesting the list one level deeper. The elements are pieces on a second stack until the list
+ * is popped, when they are linked under hidden nodes split by width. A reused hidden node is
+ * added to the list on top of the stack as one piece, however many elements it holds.
+ */
+public class TreeBuilder implements ParseListener {
+    private final SyntaxTree tree;
+    private final int[] rightLength;
+    private final boolean tokensGiven;
+    private boolean topDown;
+    private int position;
+    private int[] stack = new int[64];
+    private int[] lastChild = new int[64];
+    private int[] entered = new int[64];
+    private int top;
+
+    // Lists of a reparsing builder: recursive[p] for a production P -> P ..., list[A] for a
+    // non-terminal with one; open holds, for each stack entry, its first piece if it is a list
+    // being built, else -1
+    private final boolean[] recursive;
+    private final boolean[] list;
+    private int[] open = new int[64];
+    private int[] pieces = new int[64];
+    private int[] pieceProduction = new int[64];
+    private int pieceCount;
+    private int[] weight = new int[65];
+
+    /**
+     * Creates a builder that fills a new tree.
+     * @param grammar The grammar of the parser.
+     */
+    public TreeBuilder(CompactGrammar grammar) {
+        this(new SyntaxTree(grammar));
+    }
+
+    /**
+     * Creates a builder that fills an arena, which is reset first.
+     * @param tree The arena.
+     */
+    public TreeBuilder(SyntaxTree tree) {
+        this(tree, false);
+        tree.reset();
+    }
+
+    private TreeBuilder(SyntaxTree tree, boolean tokensGiven) {
+        this.tree = tree;
+        this.tokensGiven = tokensGiven;
+        CompactGrammar grammar = tree.getGrammar();
+        this.rightLength = new int[grammar.getProductionCount()];
+        for (int p = 0; p < rightLength.length; p++) {
+            rightLength[p] = grammar.getRight(p).length;
+        }
+        this.recursive = new boolean[rightLength.length];
+        this.list = new boolean[grammar.getSymbolCount()];
+        for (int p = 0; tokensGiven && p < rightLength.length; p++) {
+            int left = grammar.getLeft(p);
+            if (rightLength[p] > 0 && grammar.getRight(p)[0] == left) {
+                recursive[p] = true;
+                list[left] = true;
+            }
+        }
+    }
+
+    /**
+     * Creates a builder for a reparse: the arena keeps its nodes, so that subtrees of the
+     * previous tree can be {@linkplain #reuse reused}, and its tokens are replaced up front.
+     * Linking a reused subtree into the new tree overwrites its sibling link, so the previous
+     * tree is no longer valid once the reparse starts.
+     * @param tree   The arena holding the previous tree.
+     * @param tokens All tokens of the new input.
+     * @return The builder.
+     */
+    public static TreeBuilder reparsing(SyntaxTree tree, List<Token> tokens) {
+        tree.retain(tokens);
+        return new TreeBuilder(tree, true);
+    }
+
+    /**
+     * Returns the tree, after linking the lists still open on the stack. Its root is the last
+     * rule completed at the bottom of the stack, which is the whole input only if the parse
+     * accepted it.
+     * @return The tree.
+     */
+    public SyntaxTree getTree() {
+        finish(0);
+        return tree;
+    }
+
+    @Override
+    public void enterRule(int production, int offset) {
+        topDown = true;
+        int node = tree.addNode(tree.getGrammar().getLeft(production), production, 0);
+        if (top > 0) {
+            append(node);
+        }
+        push(node);
+    }
+
+    @Override
+    public void exitRule(int production, int start, int end) {
+        if (!topDown) {
+            reduce(production);
+            return;
+        }
+        int node = stack[--top];
+        tree.setWidth(node, position - entered[top]);
+        if (top == 0) {
+            tree.setRoot(node);
+        }
+    }
+
+    @Override
+    public void token(int terminal, Token token) {
+        shift(terminal, token);
+    }
+
+    /**
+     * Adds a token node for the next token.
+     * @param terminal The terminal ID.
+     * @param token    The token; ignored by a {@linkplain #reparsing reparsing} builder, which
+     *                 already has it.
+     * @return The node.
+     */
+    public int shift(int terminal, Token token) {
+        if (!tokensGiven) {
+            tree.addToken(token);
+        }
+        position++;
+        int node = tree.addNode(terminal, SyntaxTree.NONE, 1);
+        if (topDown) {
+            append(node);
+        } else {
+            push(node);
+        }
+        return node;
+    }
+
+    /**
+     * Pops the right-hand side of a production and pushes a rule node with it as children.
+     * @param production The production index.
+     * @return The node.
+     */
+    public int reduce(int production) {
+        int from = top - rightLength[production];
+        int left = tree.getGrammar().getLeft(production);
+        int node;
+        if (list[left]) {
+            node = reduceList(production, left, from);
+        } else {
+            finish(from);
+            node = tree.addNode(left, production, 0);
+            link(node, from, top);
+            top = from;
+            push(node);
+        }
+        if (top == 1) {
+            tree.setRoot(node);
+        }
+        return node;
+    }
+
+    private int reduceList(int production, int left, int from) {
+        if (recursive[production]) {
+            finish(from + 1);
+            int element = element(production, from + 1, top);
+            int node = openList(from);
+            top = from + 1;
+            add(node, element, production);
+            return node;
+        }
+        finish(from);
+        int element = element(production, from, top);
+        top = from;
+        int node = tree.addNode(left, production, 0);
+        push(node);
+        open[top - 1] = pieceCount;
+        add(node, element, production);
+        return node;
+    }
+
+    /**
+     * Links stack entries from .. to-1 as the children of a node and sets its width.
+     */
+    private void link(int node, int from, int to) {
+        int width = 0;
+        for (int i = from; i < to; i++) {
+            width += tree.getWidth(stack[i]);
+        }
+        tree.setWidth(node, width);
+        if (to > from) {
+            tree.setFirstChild(node, stack[from]);
+            for (int i = from; i < to - 1; i++) {
+                tree.setNextSibling(stack[i], stack[i + 1]);
+            }
+            tree.setNextSibling(stack[to - 1], SyntaxTree.NONE);
+        }
+    }
+
+    /**
+     * Returns the children a production adds to a list as one piece: the child itself if there
+     * is one, a hidden node over them if there are more, {@link SyntaxTree#NONE} if none.
+     */
+    private int element(int production, int from, int to) {
+        if (to - from <= 1) {
+            return to > from ? stack[from] : SyntaxTree.NONE;
+        }
+        int node = tree.addNode(SyntaxTree.NONE, production, 0);
+        link(node, from, to);
+        return node;
+    }
+
+    /**
+     * Returns the list at a stack entry, ready for more elements. A list that was reused whole
+     * is replaced by a new list node that holds its children as one piece.
+     */
+    private int openList(int entry) {
+        if (open[entry] >= 0) {
+            return stack[entry];
+        }
+        int reused = stack[entry];
+        int node = tree.addNode(tree.getKind(reused), tree.getProduction(reused), 0);
+        stack[entry] = node;
+        open[entry] = pieceCount;
+        add(node, tree.getFirstChild(reused), tree.getProduction(reused));
+        if (entry == 0) {
+            tree.setRoot(node);
+        }
+        return node;
+    }
+
+    private void add(int list, int piece, int production) {
+        if (piece == SyntaxTree.NONE) {
+            return;
+        }
+        if (pieceCount == pieces.length) {
+            pieces = Arrays.copyOf(pieces, pieceCount * 2);
+            pieceProduction = Arrays.copyOf(pieceProduction, pieceCount * 2);
+        }
+        pieces[pieceCount] = piece;
+        pieceProduction[pieceCount++] = production;
+        tree.setWidth(list, tree.getWidth(list) + tree.getWidth(piece));
+    }
+
+    /**
+     * Links the pieces of the open lists at stack entries from and above under their nodes.
+     * Those lists were opened in stack order, so their pieces are at the top of the piece stack.
+     */
+    private void finish(int from) {
+        for (int i = top - 1; i >= from; i--) {
+            int first = open[i];
+            if (first < 0) {
+                continue;
+            }
+            int count = pieceCount - first;
+            if (count > 0) {
+                if (weight.length <= count) {
+                    weight = new int[Math.max(count + 1, weight.length * 2)];
+                }
+                for (int k = 0; k < count; k++) {
+                    weight[k + 1] = weight[k] + tree.getWidth(pieces[first + k]) + 1;
+                }
+                tree.setFirstChild(stack[i], balance(first, 0, count));
+            }
+            pieceCount = first;
+            open[i] = -1;
+        }
+    }
+
+    /**
+     * Builds hidden nodes over the pieces first+lo .. first+hi-1, splitting them where their
+     * weights, each the width plus one, are closest to halves.
+     */
+    private int balance(int first, int lo, int hi) {
+        if (hi - lo == 1) {
+            int piece = pieces[first + lo];
+            tree.setNextSibling(piece, SyntaxTree.NONE);
+            return piece;
+        }
+        int half = (weight[lo] + weight[hi]) >>> 1;
+        int a = lo + 1;
+        int b = hi - 1;
+        while (a < b) {
+            int m = (a + b) >>> 1;
+            if (weight[m] >= half) {
+                b = m;
+            } else {
+                a = m + 1;
+            }
+        }
+        if (a > lo + 1 && half - weight[a - 1] < weight[a] - half) {
+            a--;
+        }
+        int left = balance(first, lo, a);
+        int right = balance(first, a, hi);
+        int node = tree.addNode(SyntaxTree.NONE, pieceProduction[first + lo], tree.getWidth(left) + tree.getWidth(right));
+        tree.setFirstChild(node, left);
+        tree.setNextSibling(left, right);
+        return node;
+    }
+
+    /**
+     * Pushes a subtree of the arena in place of the tokens it spans. A hidden node, which holds
+     * elements of a list, is added to the list on top of the stack instead.
+     * @param node The root of the subtree.
+     * @return The node pushed, or the list that received the hidden node.
+     */
+    public int reuse(int node) {
+        position += tree.getWidth(node);
+        if (tree.isHidden(node)) {
+            int list = openList(top - 1);
+            add(list, node, tree.getProduction(node));
+            return list;
+        }
+        push(node);
+        return node;
+    }
+
+    /**
+     * Appends a node to the children of the innermost open rule.
+     */
+    private void append(int node) {
+        int parent = stack[top - 1];
+        if (lastChild[top - 1] == SyntaxTree.NONE) {
+            tree.setFirstChild(parent, node);
+        } else {
+            tree.setNextSibling(lastChild[top - 1], node);
+        }
+        lastChild[top - 1] = node;
+    }
+
+    private void push(int node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+            lastChild = Arrays.copyOf(lastChild, top * 2);
+            entered = Arrays.copyOf(entered, top * 2);
+            open = Arrays.copyOf(open, top * 2);
+        }
+        stack[top] = node;
+        lastChild[top] = SyntaxTree.NONE;
+        entered[top] = position;
+        open[top] = -1;
+        top++;
+    }
+}
@@ -0,0 +1,165 @@
+package com.compiler.ast;
+
+import java.util.Arrays;
+
+import com.compiler.lexer.Token;
+
+/**
+ * A movable position in a {@link SyntaxTree}. The cursor remembers the path from the root and
+ * the first token index of each node on it, in two {@code int[]}s, so it needs neither parent
+ * links nor stored positions in the tree. Hidden nodes are kept on the path but never stopped
+ * at: their children are visited as children of the enclosing list node.
+ */
+public class TreeCursor {
+    private final SyntaxTree tree;
+    private int[] path = new int[16];
+    private int[] start = new int[16];
+    /** Depth of each node on the path, not counting hidden nodes. */
+    private int[] level = new int[16];
+    private int depth;
+
+    TreeCursor(SyntaxTree tree, int root) {
+        this.tree = tree;
+        this.path[0] = root;
+    }
+
+    /**
+     * Returns the tree of the cursor.
+     * @return The tree.
+     */
+    public SyntaxTree tree() {
+        return tree;
+    }
+
+    /**
+     * Returns the node under the cursor.
+     * @return The node.
+     */
+    public int node() {
+        return path[depth];
+    }
+
+    /**
+     * Returns the depth of the cursor.
+     * @return 0 at the root.
+     */
+    public int depth() {
+        return level[depth];
+    }
+
+    /**
+     * Returns the index of the first token of the node.
+     * @return The token index; equal to {@link #endToken()} if the node spans no token.
+     */
+    public int startToken() {
+        return start[depth];
+    }
+
+    /**
+     * Returns the index just past the last token of the node.
+     * @return The token index.
+     */
+    public int endToken() {
+        return start[depth] + tree.getWidth(path[depth]);
+    }
+
+    /**
+     * Returns the token of a token node.
+     * @return The token, or null for a rule node.
+     */
+    public Token token() {
+        return tree.isToken(path[depth]) ? tree.getToken(start[depth]) : null;
+    }
+
+    /**
+     * Returns the offset of the first character of the node.
+     * @return The offset; for a node without tokens, the end of the preceding token.
+     */
+    public int startOffset() {
+        int first = start[depth];
+        return first < endToken() ? tree.getToken(first).offset : offsetAfter(first);
+    }
+
+    /**
+     * Returns the offset just past the last character of the node.
+     * @return The offset; for a node without tokens, the end of the preceding token.
+     */
+    public int endOffset() {
+        return offsetAfter(endToken());
+    }
+
+    private int offsetAfter(int tokenIndex) {
+        return tokenIndex == 0 ? 0 : tree.getToken(tokenIndex - 1).getEnd();
+    }
+
+    /**
+     * Moves to the first child.
+     * @return false, without moving, if the node has no children.
+     */
+    public boolean gotoFirstChild() {
+        int child = tree.getFirstChild(path[depth]);
+        if (child == SyntaxTree.NONE) {
+            return false;
+        }
+        push(child, level[depth] + 1);
+        enterHidden();
+        return true;
+    }
+
+    /**
+     * Moves to the next sibling.
+     * @return false, without moving, if the node is the last child or the root.
+     */
+    public boolean gotoNextSibling() {
+        int d = depth;
+        while (d > 0) {
+            int sibling = tree.getNextSibling(path[d]);
+            if (sibling != SyntaxTree.NONE) {
+                depth = d;
+                start[d] += tree.getWidth(path[d]);
+                path[d] = sibling;
+                enterHidden();
+                return true;
+            }
+            if (!tree.isHidden(path[d - 1])) {
+                return false;
+            }
+            d--;
+        }
+        return false;
+    }
+
+    /**
+     * Moves to the parent.
+     * @return false, without moving, at the root.
+     */
+    public boolean gotoParent() {
+        if (depth == 0) {
+            return false;
+        }
+        do {
+            depth--;
+        } while (tree.isHidden(path[depth]));
+        return true;
+    }
+
+    /**
+     * Goes down from a hidden node to its first descendant that is not.
+     */
+    private void enterHidden() {
+        while (tree.isHidden(path[depth])) {
+            push(tree.getFirstChild(path[depth]), level[depth]);
+        }
+    }
+
+    private void push(int node, int nodeLevel) {
+        if (++depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+            start = Arrays.copyOf(start, depth * 2);
+            level = Arrays.copyOf(level, depth * 2);
+        }
+        path[depth] = node;
+        start[depth] = start[depth - 1];
+        level[depth] = nodeLevel;
+    }
+}
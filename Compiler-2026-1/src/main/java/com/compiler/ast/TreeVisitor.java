@@ -0,0 +1,24 @@
+package com.compiler.ast;
+
+/**
+ * Depth-first visitor of a {@link SyntaxTree}; see {@link SyntaxTree#accept(TreeVisitor)}.
+ * The cursor passed to each call is positioned on the visited node and must not be moved.
+ */
+public interface TreeVisitor {
+
+    /**
+     * Called before the children of a node.
+     * @param cursor The cursor on the node.
+     * @return true to visit the children, false to skip them.
+     */
+    default boolean enter(TreeCursor cursor) {
+        return true;
+    }
+
+    /**
+     * Called after the children of a node, or right after {@link #enter} if they were skipped.
+     * @param cursor The cursor on the node.
+     */
+    default void exit(TreeCursor cursor) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.compiler.lexer;
+
+/**
+ * DeterminizationBudget
+ * ---------------------
+ * Limits on the work subset construction may do for a single pattern.
+ *
+ * Memory is an estimate of the heap retained by the DFA under construction: a fixed cost per
+ * DFA state, per NFA configuration stored in a state and per transition. When either limit
+ * would be exceeded, {@link NfaToDfaConverter} stops expanding states and returns a hybrid
+ * matcher instead of a complete DFA.
+ */
+public class DeterminizationBudget {
+    /** Estimated bytes retained by a DFA state object and its transition map. */
+    static final long STATE_BYTES = 120;
+
+    /** Estimated bytes retained per NFA configuration referenced by a DFA state. */
+    static final long CONFIGURATION_BYTES = 64;
+
+    /** Estimated bytes retained per DFA transition. */
+    static final long TRANSITION_BYTES = 48;
+
+    /** A budget that never stops construction. */
+    public static final DeterminizationBudget UNLIMITED = new DeterminizationBudget(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    /** Maximum number of DFA states. */
+    public final int maxStates;
+
+    /** Maximum estimated memory in bytes. */
+    public final long maxMemoryBytes;
+
+    /**
+     * Constructs a budget.
+     *
+     * @param maxStates      Maximum number of DFA states (at least 1).
+     * @param maxMemoryBytes Maximum estimated memory in bytes.
+     */
+    public DeterminizationBudget(int maxStates, long maxMemoryBytes) {
+        if (maxStates < 1 || maxMemoryBytes < 1) {
+            throw new IllegalArgumentException("Budget limits must be positive");
+        }
+        this.maxStates = maxStates;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Creates a budget that only limits the number of DFA states.
+     *
+     * @param maxStates Maximum number of DFA states.
+     * @return The budget.
+     */
+    public static DeterminizationBudget ofStates(int maxStates) {
+        return new DeterminizationBudget(maxStates, Long.MAX_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        return "DeterminizationBudget{maxStates=" + maxStates + ", maxMemoryBytes=" + maxMemoryBytes + "}";
+    }
+}
@@ -0,0 +1,140 @@
+package com.compiler.lexer;
+
+import com.compiler.lexer.dfa.DFA;
+
+/**
+ * DeterminizationResult
+ * ---------------------
+ * Outcome of a budgeted subset construction, with diagnostics about how far it got.
+ *
+ * A complete result holds a DFA for the whole pattern. An incomplete one holds the DFA for the
+ * explored prefix of the automaton; use {@link #getMatcher()} to match with it, since the
+ * unexplored part is handled by NFA simulation.
+ */
+public class DeterminizationResult {
+    /**
+     * Reason why construction stopped before finishing.
+     */
+    public enum Limit {
+        /** Construction finished within budget. */
+        NONE,
+        /** The maximum number of DFA states was reached. */
+        STATES,
+        /** The estimated memory limit was reached. */
+        MEMORY
+    }
+
+    private final String patternName;
+    private final DFA dfa;
+    private final HybridMatcher matcher;
+    private final Limit limit;
+    private final int frontierStates;
+    private final int largestSubset;
+    private final long estimatedBytes;
+    private final long elapsedNanos;
+
+    DeterminizationResult(String patternName, DFA dfa, HybridMatcher matcher, Limit limit,
+                          int frontierStates, int largestSubset, long estimatedBytes, long elapsedNanos) {
+        this.patternName = patternName;
+        this.dfa = dfa;
+        this.matcher = matcher;
+        this.limit = limit;
+        this.frontierStates = frontierStates;
+        this.largestSubset = largestSubset;
+        this.estimatedBytes = estimatedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns whether the whole DFA was built within budget.
+     * @return True if the DFA is complete.
+     */
+    public boolean isComplete() {
+        return limit == Limit.NONE;
+    }
+
+    /**
+     * Returns the DFA. If the result is incomplete, frontier states have no transitions and the
+     * DFA on its own under-approximates the language.
+     * @return The (possibly partial) DFA.
+     */
+    public DFA getDfa() {
+        return dfa;
+    }
+
+    /**
+     * Returns a matcher for the full language, falling back to NFA simulation where needed.
+     * @return The hybrid matcher.
+     */
+    public HybridMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the name of the pattern, as given to the converter.
+     * @return The pattern name, or null if none was given.
+     */
+    public String getPatternName() {
+        return patternName;
+    }
+
+    /**
+     * Returns which limit stopped construction.
+     * @return The limit, or {@link Limit#NONE} if construction finished.
+     */
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of DFA states built, including frontier states.
+     * @return The number of DFA states.
+     */
+    public int getStateCount() {
+        return dfa.allStates.size();
+    }
+
+    /**
+     * Returns the number of DFA states left unexpanded.
+     * @return The number of frontier states.
+     */
+    public int getFrontierStates() {
+        return frontierStates;
+    }
+
+    /**
+     * Returns the largest number of NFA configurations in a single DFA state, a hint of how
+     * much nondeterminism the pattern carries.
+     * @return The size of the largest subset.
+     */
+    public int getLargestSubset() {
+        return largestSubset;
+    }
+
+    /**
+     * Returns the estimated memory retained by the DFA.
+     * @return The estimate in bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the time spent in subset construction.
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "DeterminizationResult{pattern=" + patternName
+                + ", complete=" + isComplete()
+                + ", limit=" + limit
+                + ", states=" + getStateCount()
+                + ", frontier=" + frontierStates
+                + ", largestSubset=" + largestSubset
+                + ", estimatedBytes=" + estimatedBytes + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.compiler.lexer;
+
+/**
+ * DfaComparisonResult
+ * -------------------
+ * Outcome of a language comparison performed by {@link DfaEquivalenceChecker}.
+ * When the checked property does not hold, a shortest witness string is attached.
+ */
+public class DfaComparisonResult {
+    /** Whether the checked property (equivalence, inclusion, empty intersection) holds. */
+    private final boolean holds;
+
+    /** Shortest string that violates the property, or null if the property holds. */
+    private final String counterexample;
+
+    /**
+     * Constructs a comparison result.
+     * @param holds True if the property holds.
+     * @param counterexample The violating string, or null if the property holds.
+     */
+    DfaComparisonResult(boolean holds, String counterexample) {
+        this.holds = holds;
+        this.counterexample = counterexample;
+    }
+
+    /**
+     * Returns whether the checked property holds.
+     * @return True if the property holds, false otherwise.
+     */
+    public boolean holds() {
+        return holds;
+    }
+
+    /**
+     * Returns a shortest string witnessing that the property does not hold.
+     * For equivalence it is accepted by exactly one automaton, for inclusion it is accepted by
+     * the first automaton only, and for intersection emptiness it is accepted by both.
+     * @return The counterexample, or null if the property holds.
+     */
+    public String getCounterexample() {
+        return counterexample;
+    }
+
+    @Override
+    public String toString() {
+        return holds ? "DfaComparisonResult{holds}" : "DfaComparisonResult{counterexample='" + counterexample + "'}";
+    }
+}
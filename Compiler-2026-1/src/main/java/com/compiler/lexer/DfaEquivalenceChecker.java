@@ -0,0 +1,266 @@
+package com.compiler.lexer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.dfa.DfaState;
+
+/**
+ * DfaEquivalenceChecker
+ * ---------------------
+ * Compares the languages of two DFAs without testing sample strings.
+ *
+ * Supported checks:
+ * - Equivalence: Hopcroft-Karp algorithm. States of both automata live in one union-find
+ *   structure and pairs of states are explored on the fly from the pair of start states, so the
+ *   product automaton is never built. Runs in near-linear time in the number of states.
+ * - Inclusion: breadth-first search of the product for a string accepted only by the first DFA.
+ * - Intersection emptiness: breadth-first search of the product for a string accepted by both.
+ *
+ * Missing transitions go to an implicit dead (rejecting) state. The alphabet is the union of the
+ * symbols used by both automata. When a check fails, the result carries a shortest witness string
+ * (lexicographically smallest among the shortest ones).
+ */
+public class DfaEquivalenceChecker {
+
+    public DfaEquivalenceChecker() {
+        // Utility class, no initialization required
+    }
+
+    /**
+     * Checks whether two DFAs accept the same language.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The result; on failure the counterexample is accepted by exactly one of the DFAs.
+     */
+    public static DfaComparisonResult checkEquivalence(DFA first, DFA second) {
+        char[] alphabet = alphabetOf(first, second);
+        IndexedDfa a = new IndexedDfa(first, alphabet);
+        IndexedDfa b = new IndexedDfa(second, alphabet);
+
+        // Union-find over the states of both automata; b's states are offset by a.size
+        int offset = a.size;
+        int[] parent = new int[a.size + b.size];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+
+        Deque<int[]> pending = new ArrayDeque<>();
+        parent[offset + b.start] = a.start;
+        pending.add(new int[]{a.start, b.start});
+
+        while (!pending.isEmpty()) {
+            int[] pair = pending.poll();
+            int p = pair[0];
+            int q = pair[1];
+            if (a.accepting[p] != b.accepting[q]) {
+                // Hopcroft-Karp only tells us the languages differ; find a shortest witness
+                return new DfaComparisonResult(false, shortestWitness(a, b, alphabet, (x, y) -> x != y));
+            }
+            for (int s = 0; s < alphabet.length; s++) {
+                int p2 = a.next(p, s);
+                int q2 = b.next(q, s);
+                int r1 = find(parent, p2);
+                int r2 = find(parent, offset + q2);
+                if (r1 != r2) {
+                    parent[r2] = r1;
+                    pending.add(new int[]{p2, q2});
+                }
+            }
+        }
+        return new DfaComparisonResult(true, null);
+    }
+
+    /**
+     * Checks whether the language of {@code subset} is included in the language of {@code superset}.
+     *
+     * @param subset   The DFA whose language should be contained.
+     * @param superset The DFA whose language should contain the other.
+     * @return The result; on failure the counterexample is accepted by {@code subset} only.
+     */
+    public static DfaComparisonResult checkInclusion(DFA subset, DFA superset) {
+        char[] alphabet = alphabetOf(subset, superset);
+        IndexedDfa a = new IndexedDfa(subset, alphabet);
+        IndexedDfa b = new IndexedDfa(superset, alphabet);
+        String witness = shortestWitness(a, b, alphabet, (x, y) -> x && !y);
+        return new DfaComparisonResult(witness == null, witness);
+    }
+
+    /**
+     * Checks whether two DFAs accept no common string, e.g. to detect overlapping token rules.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The result; on failure the counterexample is accepted by both DFAs.
+     */
+    public static DfaComparisonResult checkIntersectionEmpty(DFA first, DFA second) {
+        char[] alphabet = alphabetOf(first, second);
+        IndexedDfa a = new IndexedDfa(first, alphabet);
+        IndexedDfa b = new IndexedDfa(second, alphabet);
+        String witness = shortestWitness(a, b, alphabet, (x, y) -> x && y);
+        return new DfaComparisonResult(witness == null, witness);
+    }
+
+    /**
+     * Convenience wrapper for {@link #checkEquivalence(DFA, DFA)}.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return True if both DFAs accept the same language.
+     */
+    public static boolean areEquivalent(DFA first, DFA second) {
+        return checkEquivalence(first, second).holds();
+    }
+
+    /**
+     * Breadth-first search over the reachable part of the product automaton.
+     * Returns the first string (shortest, then lexicographically smallest) that leads to a pair
+     * of states satisfying the condition, or null if no such pair is reachable.
+     */
+    private static String shortestWitness(IndexedDfa a, IndexedDfa b, char[] alphabet, PairCondition condition) {
+        long width = b.size;
+        Set<Long> visited = new HashSet<>();
+
+        // BFS nodes stored in parallel arrays so the path can be rebuilt from parent links
+        int[] nodeP = new int[16];
+        int[] nodeQ = new int[16];
+        int[] nodeParent = new int[16];
+        char[] nodeSymbol = new char[16];
+        int count = 0;
+
+        nodeP[0] = a.start;
+        nodeQ[0] = b.start;
+        nodeParent[0] = -1;
+        count++;
+        visited.add(a.start * width + b.start);
+
+        for (int head = 0; head < count; head++) {
+            int p = nodeP[head];
+            int q = nodeQ[head];
+            if (condition.test(a.accepting[p], b.accepting[q])) {
+                StringBuilder sb = new StringBuilder();
+                for (int n = head; nodeParent[n] >= 0; n = nodeParent[n]) {
+                    sb.append(nodeSymbol[n]);
+                }
+                return sb.reverse().toString();
+            }
+            for (int s = 0; s < alphabet.length; s++) {
+                int p2 = a.next(p, s);
+                int q2 = b.next(q, s);
+                if (visited.add(p2 * width + q2)) {
+                    if (count == nodeP.length) {
+                        int capacity = count * 2;
+                        nodeP = Arrays.copyOf(nodeP, capacity);
+                        nodeQ = Arrays.copyOf(nodeQ, capacity);
+                        nodeParent = Arrays.copyOf(nodeParent, capacity);
+                        nodeSymbol = Arrays.copyOf(nodeSymbol, capacity);
+                    }
+                    nodeP[count] = p2;
+                    nodeQ[count] = q2;
+                    nodeParent[count] = head;
+                    nodeSymbol[count] = alphabet[s];
+                    count++;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the representative of an element, halving paths along the way.
+     */
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Collects the sorted union of the transition symbols of both DFAs.
+     */
+    private static char[] alphabetOf(DFA first, DFA second) {
+        Set<Character> symbols = new TreeSet<>();
+        for (DfaState s : first.allStates) {
+            symbols.addAll(s.transitions.keySet());
+        }
+        for (DfaState s : second.allStates) {
+            symbols.addAll(s.transitions.keySet());
+        }
+        char[] alphabet = new char[symbols.size()];
+        int i = 0;
+        for (char c : symbols) {
+            alphabet[i++] = c;
+        }
+        return alphabet;
+    }
+
+    /**
+     * Condition on the acceptance flags of a pair of product states.
+     */
+    private interface PairCondition {
+        boolean test(boolean firstAccepts, boolean secondAccepts);
+    }
+
+    /**
+     * Dense view of a DFA: states numbered 0..n-1 plus a dead state n, with a transition table
+     * indexed by state and alphabet position.
+     */
+    private static class IndexedDfa {
+        final int size;
+        final int start;
+        final boolean[] accepting;
+        final int[] table;
+        final int width;
+
+        IndexedDfa(DFA dfa, char[] alphabet) {
+            // DfaState equality compares NFA state sets, so states are indexed by identity
+            Map<DfaState, Integer> index = new IdentityHashMap<>();
+            List<DfaState> states = dfa.allStates;
+            for (DfaState s : states) {
+                index.putIfAbsent(s, index.size());
+            }
+            if (!index.containsKey(dfa.startState)) {
+                index.put(dfa.startState, index.size());
+            }
+
+            int dead = index.size();
+            this.size = dead + 1;
+            this.width = alphabet.length;
+            this.start = index.get(dfa.startState);
+            this.accepting = new boolean[size];
+            this.table = new int[size * width];
+            Arrays.fill(table, dead);
+
+            for (Map.Entry<DfaState, Integer> e : index.entrySet()) {
+                DfaState s = e.getKey();
+                int id = e.getValue();
+                accepting[id] = s.isFinal();
+                for (int c = 0; c < width; c++) {
+                    DfaState target = s.getTransition(alphabet[c]);
+                    if (target != null) {
+                        Integer t = index.get(target);
+                        if (t == null) {
+                            throw new IllegalArgumentException("Transition to a state outside the DFA: " + target);
+                        }
+                        table[id * width + c] = t;
+                    }
+                }
+            }
+        }
+
+        int next(int state, int symbolIndex) {
+            return table[state * width + symbolIndex];
+        }
+    }
+}
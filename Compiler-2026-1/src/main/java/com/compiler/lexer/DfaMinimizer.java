@@ -16,12 +16,21 @@
  */
 package com.compiler.lexer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.compiler.lexer.dfa.DFA;
 import com.compiler.lexer.dfa.DfaState;
+import com.compiler.lexer.nfa.State;
+import com.compiler.metrics.PipelineMetrics;
 
 
 /**
@@ -34,9 +43,9 @@ public class DfaMinimizer {
     /**
      * Default constructor for DfaMinimizer.
      */
-        public DfaMinimizer() {
-            // TODO: Implement constructor if needed
-        }
+    public DfaMinimizer() {
+        // Utility class, no initialization required
+    }
 
     /**
      * Minimizes a given DFA using the table-filling algorithm.
@@ -46,18 +55,81 @@ public class DfaMinimizer {
      * @return A minimized DFA equivalent to the original.
      */
     public static DFA minimizeDfa(DFA originalDfa, Set<Character> alphabet) {
-    // TODO: Implement minimizeDfa
-    /*
-     Pseudocode:
-     1. Collect and sort all DFA states
-     2. Initialize table of state pairs; mark pairs as distinguishable if one is final and the other is not
-     3. Iteratively mark pairs as distinguishable if their transitions lead to distinguishable states or only one has a transition
-     4. Partition states into equivalence classes (using union-find)
-     5. Create new minimized states for each partition
-     6. Reconstruct transitions for minimized states
-     7. Set start state and return minimized DFA
-    */
-    throw new UnsupportedOperationException("Not implemented");
+        long start = PipelineMetrics.start();
+
+        // 1. Collect and sort all DFA states
+        List<DfaState> allStates = new ArrayList<>(originalDfa.allStates);
+        allStates.sort(Comparator.comparingInt(s -> s.id));
+
+        // 2. Initialize the table: final vs non-final pairs are distinguishable
+        Map<Pair, Boolean> table = new HashMap<>();
+        for (int i = 0; i < allStates.size(); i++) {
+            for (int j = i + 1; j < allStates.size(); j++) {
+                DfaState s1 = allStates.get(i);
+                DfaState s2 = allStates.get(j);
+                table.put(new Pair(s1, s2), s1.isFinal() != s2.isFinal());
+            }
+        }
+
+        // 3. Mark pairs whose transitions lead to distinguishable pairs
+        boolean changed;
+        do {
+            changed = false;
+            for (Map.Entry<Pair, Boolean> entry : table.entrySet()) {
+                if (entry.getValue()) {
+                    continue;
+                }
+                Pair pair = entry.getKey();
+                for (char symbol : alphabet) {
+                    DfaState t1 = pair.s1.getTransition(symbol);
+                    DfaState t2 = pair.s2.getTransition(symbol);
+                    boolean distinguishable;
+                    if (t1 == null || t2 == null) {
+                        distinguishable = t1 != t2;
+                    } else {
+                        distinguishable = t1 != t2 && table.get(new Pair(t1, t2));
+                    }
+                    if (distinguishable) {
+                        entry.setValue(true);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        } while (changed);
+
+        // 4. Partition equivalent states
+        List<Set<DfaState>> partitions = createPartitions(allStates, table);
+
+        // 5. Create one minimized state per partition
+        Map<DfaState, DfaState> representative = new IdentityHashMap<>();
+        List<DfaState> minimizedStates = new ArrayList<>();
+        for (Set<DfaState> partition : partitions) {
+            Set<State> nfaStates = new HashSet<>();
+            boolean isFinal = false;
+            for (DfaState s : partition) {
+                nfaStates.addAll(s.nfaStates);
+                isFinal |= s.isFinal();
+            }
+            DfaState merged = new DfaState(nfaStates);
+            merged.setFinal(isFinal);
+            minimizedStates.add(merged);
+            for (DfaState s : partition) {
+                representative.put(s, merged);
+            }
+        }
+
+        // 6. Reconstruct transitions
+        for (DfaState original : allStates) {
+            DfaState merged = representative.get(original);
+            for (Map.Entry<Character, DfaState> t : original.transitions.entrySet()) {
+                merged.addTransition(t.getKey(), representative.get(t.getValue()));
+            }
+        }
+
+        // 7. Start state
+        PipelineMetrics.minimized(start, allStates.size(), minimizedStates.size());
+        return new DFA(representative.get(originalDfa.startState), minimizedStates);
     }
 
     /**
@@ -68,15 +140,22 @@ public class DfaMinimizer {
      * @return List of partitions, each containing equivalent states.
      */
     private static List<Set<DfaState>> createPartitions(List<DfaState> allStates, Map<Pair, Boolean> table) {
-    // TODO: Implement createPartitions
-    /*
-     Pseudocode:
-     1. Initialize each state as its own parent
-     2. For each pair not marked as distinguishable, union the states
-     3. Group states by their root parent
-     4. Return list of partitions
-    */
-    throw new UnsupportedOperationException("Not implemented");
+        // DfaState equality compares NFA state sets, so the union-find is keyed by identity
+        Map<DfaState, DfaState> parent = new IdentityHashMap<>();
+        for (DfaState s : allStates) {
+            parent.put(s, s);
+        }
+        for (Map.Entry<Pair, Boolean> entry : table.entrySet()) {
+            if (!entry.getValue()) {
+                union(parent, entry.getKey().s1, entry.getKey().s2);
+            }
+        }
+
+        Map<Integer, Set<DfaState>> groups = new LinkedHashMap<>();
+        for (DfaState s : allStates) {
+            groups.computeIfAbsent(find(parent, s).id, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(s);
+        }
+        return new ArrayList<>(groups.values());
     }
 
     /**
@@ -88,14 +167,13 @@ public class DfaMinimizer {
      * @return Root parent of the state.
      */
     private static DfaState find(Map<DfaState, DfaState> parent, DfaState state) {
-    // TODO: Implement find
-    /*
-     Pseudocode:d
-     If parent[state] == state, return state
-     Else, recursively find parent and apply path compression
-     Return parent[state]
-    */
-    throw new UnsupportedOperationException("Not implemented");
+        DfaState p = parent.get(state);
+        if (p == state) {
+            return state;
+        }
+        DfaState root = find(parent, p);
+        parent.put(state, root);
+        return root;
     }
 
     /**
@@ -106,13 +184,11 @@ public class DfaMinimizer {
      * @param s2 Second state.
      */
     private static void union(Map<DfaState, DfaState> parent, DfaState s1, DfaState s2) {
-    // TODO: Implement union
-    /*
-     Pseudocode:
-     Find roots of s1 and s2
-     If roots are different, set parent of one to the other
-    */
-    throw new UnsupportedOperationException("Not implemented");
+        DfaState r1 = find(parent, s1);
+        DfaState r2 = find(parent, s2);
+        if (r1 != r2) {
+            parent.put(r2, r1);
+        }
     }
 
     /**
@@ -129,32 +205,26 @@ public class DfaMinimizer {
          * @param s2 Second state.
          */
         public Pair(DfaState s1, DfaState s2) {
-            // TODO: Implement Pair constructor
-            /*
-             Pseudocode:
-             Assign s1 and s2 so that s1.id <= s2.id
-            */
-            throw new UnsupportedOperationException("Not implemented");
+            if (s1.id <= s2.id) {
+                this.s1 = s1;
+                this.s2 = s2;
+            } else {
+                this.s1 = s2;
+                this.s2 = s1;
+            }
         }
 
         @Override
         public boolean equals(Object o) {
-            // TODO: Implement equals
-            /*
-             Pseudocode:
-             Return true if both s1 and s2 ids match
-            */
-            throw new UnsupportedOperationException("Not implemented");
+            if (this == o) return true;
+            if (!(o instanceof Pair)) return false;
+            Pair other = (Pair) o;
+            return s1.id == other.s1.id && s2.id == other.s2.id;
         }
 
         @Override
         public int hashCode() {
-            // TODO: Implement hashCode
-            /*
-             Pseudocode:
-             Return hash of s1.id and s2.id
-            */
-            throw new UnsupportedOperationException("Not implemented");
+            return 31 * s1.id + s2.id;
         }
     }
 }
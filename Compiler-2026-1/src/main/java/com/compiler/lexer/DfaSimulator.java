@@ -2,6 +2,7 @@ package com.compiler.lexer;
 
 import com.compiler.lexer.dfa.DFA;
 import com.compiler.lexer.dfa.DfaState;
+import com.compiler.metrics.PipelineMetrics;
 
 /**
  * DfaSimulator
@@ -22,6 +23,13 @@ public class DfaSimulator {
      * @return True if the input is accepted by the DFA, false otherwise.
      */
     public boolean simulate(DFA dfa, String input) {
+        long start = PipelineMetrics.start();
+        boolean accepted = run(dfa, input);
+        PipelineMetrics.simulated(start, "dfa", input.length(), accepted);
+        return accepted;
+    }
+
+    private static boolean run(DFA dfa, String input) {
         DfaState currentState = dfa.startState;
 
         for (char c : input.toCharArray()) {
@@ -0,0 +1,88 @@
+package com.compiler.lexer;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.dfa.DfaState;
+import com.compiler.lexer.nfa.Configuration;
+import com.compiler.metrics.PipelineMetrics;
+
+/**
+ * HybridMatcher
+ * -------------
+ * Matches input against a partially determinized automaton.
+ *
+ * The matcher follows DFA transitions while they exist. When it reaches a frontier state
+ * (a DFA state that subset construction discovered but did not expand because its budget ran
+ * out), it continues with NFA simulation from that state's configurations. For a complete DFA
+ * the frontier is empty and matching is pure DFA simulation.
+ */
+public class HybridMatcher {
+    private final DFA dfa;
+    private final Map<DfaState, Set<Configuration>> frontier;
+
+    /**
+     * Constructs a hybrid matcher.
+     *
+     * @param dfa      The explored part of the automaton.
+     * @param frontier Configurations of each unexpanded DFA state, keyed by identity.
+     */
+    HybridMatcher(DFA dfa, Map<DfaState, Set<Configuration>> frontier) {
+        this.dfa = dfa;
+        this.frontier = frontier;
+    }
+
+    /**
+     * Checks whether the automaton accepts the whole input.
+     *
+     * @param input The input string to test.
+     * @return True if the input is accepted, false otherwise.
+     */
+    public boolean matches(String input) {
+        long start = PipelineMetrics.start();
+        DfaState currentState = dfa.startState;
+        boolean accepted = false;
+        int i = 0;
+
+        // Characters read on expanded DFA states count as cache hits, the rest as misses
+        for (; i < input.length(); i++) {
+            Set<Configuration> configurations = frontier.get(currentState);
+            if (configurations != null) {
+                accepted = simulateFrom(configurations, input, i);
+                currentState = null;
+                break;
+            }
+            currentState = currentState.getTransition(input.charAt(i));
+            if (currentState == null) {
+                break; // No valid transition, reject input
+            }
+        }
+        if (currentState != null) {
+            accepted = currentState.isFinal();
+        }
+
+        PipelineMetrics.simulated(start, "hybrid", input.length(), accepted, i, input.length() - i);
+        return accepted;
+    }
+
+    /**
+     * Returns whether the matcher can fall back to NFA simulation.
+     *
+     * @return True if some DFA states were left unexpanded.
+     */
+    public boolean isHybrid() {
+        return !frontier.isEmpty();
+    }
+
+    private boolean simulateFrom(Set<Configuration> configurations, String input, int from) {
+        Set<Configuration> currentStates = configurations;
+        for (int i = from; i < input.length(); i++) {
+            currentStates = NfaSimulator.step(currentStates, input.charAt(i));
+            if (currentStates.isEmpty()) {
+                return false;
+            }
+        }
+        return NfaSimulator.containsFinal(currentStates);
+    }
+}
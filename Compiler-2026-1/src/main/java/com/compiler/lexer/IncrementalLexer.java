@@ -0,0 +1,335 @@
+package com.compiler.lexer;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * IncrementalLexer
+ * ----------------
+ * Keeps the tokens of a document up to date as it is edited, running the DFA only around the
+ * edit.
+ *
+ * A token depends on every character the DFA examined to find it, which can go past its end
+ * while maximal munch looks for a longer match. For each token the lexer records that distance
+ * (its lookahead), so after an edit at offset e the first token to redo is the first one whose
+ * examined characters reach e; the tokens before it are kept. Lexing restarts at the end of the
+ * last kept token and stops as soon as a new token starts where an old token past the edit
+ * started (shifted by the edit): from there on the text and thus the tokens are the same.
+ * Tokens of the lexer's skip rules are not kept; the lookahead of the next token covers the
+ * characters examined to find them.
+ *
+ * The tokens live in a gap buffer whose gap follows the tokens of the last edit. Every edit
+ * since a token moved behind the gap came before it, so its offset is the one it was stored
+ * with, moved by how much the text length changed since; the token is recreated with that
+ * offset only when it is read. An edit thus costs the DFA work around it plus the move of the
+ * gap from the previous edit, which is nothing while typing in one place, however long the
+ * text after it. The text is kept the same way, in a {@link TextBuffer}.
+ */
+public class IncrementalLexer {
+    private final Lexer lexer;
+    private final int[] examined = new int[1];
+    private final List<Token> view = new TokenView();
+    private TextBuffer text;
+    private int length;
+
+    // Gap buffer: tokens [0, gapStart) and [gapEnd, capacity), with their lookahead and, behind
+    // the gap, the text length their offset was computed for
+    private Token[] tokens = new Token[0];
+    private int[] lookahead = new int[0];
+    private int[] stored = new int[0];
+    private int gapStart;
+    private int gapEnd;
+    private int maxLookahead;
+
+    // Output of relex
+    private final List<Token> fresh = new ArrayList<>();
+    private int[] freshLookahead = new int[64];
+    private int freshMax;
+    private int resync;
+
+    /**
+     * Creates an incremental lexer.
+     *
+     * @param lexer The lexer that defines the tokens.
+     */
+    public IncrementalLexer(Lexer lexer) {
+        this.lexer = lexer;
+    }
+
+    /**
+     * Tokenizes a whole document, replacing the previous one.
+     *
+     * @param text The text.
+     * @return The tokens, as by {@link #getTokens()}.
+     * @throws IllegalArgumentException If some part of the text matches no rule.
+     */
+    public List<Token> tokenize(String text) {
+        relex(text, 0, null, 0);
+        this.text = new TextBuffer(text);
+        this.length = text.length();
+        this.tokens = fresh.toArray(new Token[0]);
+        this.lookahead = Arrays.copyOf(freshLookahead, fresh.size());
+        this.stored = new int[fresh.size()];
+        Arrays.fill(stored, length);
+        this.gapStart = fresh.size();
+        this.gapEnd = fresh.size();
+        this.maxLookahead = freshMax;
+        return view;
+    }
+
+    /**
+     * Applies an edit to the document and updates its tokens.
+     *
+     * @param edit The edit.
+     * @return The range of tokens the edit replaced.
+     * @throws IllegalArgumentException If there is no document, the edit does not fit in it, or
+     *                                  some part of the new text matches no rule; the document
+     *                                  is then left unchanged.
+     */
+    public TokenChange edit(TextEdit edit) {
+        if (text == null) {
+            throw new IllegalArgumentException("No document has been tokenized");
+        }
+        edit.checkFits(length);
+        int count = size();
+        int delta = edit.getDelta();
+
+        // First token whose examined characters reach the edit; only a token ending less than
+        // maxLookahead characters before the edit can
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (end(mid) + maxLookahead > edit.offset) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        int first = low;
+        while (first < count && end(first) + lookahead[slot(first)] <= edit.offset) {
+            first++;
+        }
+        String removed = text.replace(edit.offset, edit.removedLength, edit.inserted);
+        try {
+            relex(text, first == 0 ? 0 : end(first - 1), edit, first);
+        } catch (IllegalArgumentException e) {
+            text.replace(edit.offset, edit.inserted.length(), removed);
+            throw e;
+        }
+        int last = resync;
+        int relexed = fresh.size();
+
+        // The reported range leaves out new tokens equal to the old ones at either end
+        int start = first;
+        int oldEnd = last;
+        int newEnd = first + relexed;
+        while (start < oldEnd && start < newEnd && same(start, 0, fresh.get(start - first))) {
+            start++;
+        }
+        while (oldEnd > start && newEnd > start && same(oldEnd - 1, delta, fresh.get(newEnd - 1 - first))) {
+            oldEnd--;
+            newEnd--;
+        }
+
+        // Splice at the gap: drop the replaced tokens behind it and append the new ones before
+        // it; the tokens after them stay behind the gap and move with the text length
+        moveGap(first);
+        Arrays.fill(tokens, gapEnd, gapEnd + last - first, null);
+        gapEnd += last - first;
+        if (gapEnd - gapStart < relexed) {
+            grow(count - (last - first) + relexed);
+        }
+        for (int i = 0; i < relexed; i++) {
+            tokens[gapStart] = fresh.get(i);
+            lookahead[gapStart++] = freshLookahead[i];
+        }
+
+        length = text.length();
+        maxLookahead = Math.max(maxLookahead, freshMax);
+        return new TokenChange(start, oldEnd, newEnd);
+    }
+
+    /**
+     * Returns the current text of the document.
+     *
+     * @return The text, or null before the first tokenization.
+     */
+    public String getText() {
+        return text == null ? null : text.toString();
+    }
+
+    /**
+     * Returns the tokens of the current text.
+     *
+     * @return A read-only view, updated in place by later edits.
+     */
+    public List<Token> getTokens() {
+        return view;
+    }
+
+    /**
+     * Returns the number of tokens the DFA matched during the last tokenization or edit.
+     *
+     * @return The relexed token count.
+     */
+    public int getRelexedCount() {
+        return fresh.size();
+    }
+
+    private int size() {
+        return tokens.length - (gapEnd - gapStart);
+    }
+
+    private int slot(int index) {
+        return index < gapStart ? index : index + gapEnd - gapStart;
+    }
+
+    /**
+     * Returns the offset of a token in the current text, without recreating it.
+     */
+    private int offset(int index) {
+        int slot = slot(index);
+        return slot < gapEnd ? tokens[slot].offset : tokens[slot].offset + length - stored[slot];
+    }
+
+    private int end(int index) {
+        return offset(index) + tokens[slot(index)].lexeme.length();
+    }
+
+    /**
+     * Returns a token, recreating it first if its offset has moved since it was stored.
+     */
+    private Token token(int index) {
+        int slot = slot(index);
+        Token t = tokens[slot];
+        if (slot >= gapEnd && stored[slot] != length) {
+            t = new Token(t.type, t.lexeme, t.offset + length - stored[slot]);
+            tokens[slot] = t;
+            stored[slot] = length;
+        }
+        return t;
+    }
+
+    /**
+     * Checks that an old token, moved by delta, is the same as a new one.
+     */
+    private boolean same(int index, int delta, Token after) {
+        Token before = tokens[slot(index)];
+        return offset(index) + delta == after.offset && before.type.equals(after.type) && before.lexeme.equals(after.lexeme);
+    }
+
+    /**
+     * Moves the gap to just before a token. The tokens that cross it from behind get their
+     * offset in the current text; those that go behind it record the current length.
+     */
+    private void moveGap(int index) {
+        while (gapStart > index) {
+            gapStart--;
+            gapEnd--;
+            tokens[gapEnd] = tokens[gapStart];
+            lookahead[gapEnd] = lookahead[gapStart];
+            stored[gapEnd] = length;
+            if (gapStart < gapEnd) {
+                tokens[gapStart] = null;
+            }
+        }
+        while (gapStart < index) {
+            tokens[gapStart] = token(gapStart);
+            lookahead[gapStart] = lookahead[gapEnd];
+            if (gapStart < gapEnd) {
+                tokens[gapEnd] = null;
+            }
+            gapStart++;
+            gapEnd++;
+        }
+    }
+
+    private void grow(int count) {
+        int capacity = Math.max(count, tokens.length * 2);
+        int suffix = tokens.length - gapEnd;
+        int newEnd = capacity - suffix;
+        Token[] newTokens = Arrays.copyOf(tokens, capacity);
+        int[] newLookahead = Arrays.copyOf(lookahead, capacity);
+        int[] newStored = Arrays.copyOf(stored, capacity);
+        System.arraycopy(tokens, gapEnd, newTokens, newEnd, suffix);
+        System.arraycopy(lookahead, gapEnd, newLookahead, newEnd, suffix);
+        System.arraycopy(stored, gapEnd, newStored, newEnd, suffix);
+        Arrays.fill(newTokens, gapStart, newEnd, null);
+        tokens = newTokens;
+        lookahead = newLookahead;
+        stored = newStored;
+        gapEnd = newEnd;
+    }
+
+    /**
+     * Runs the DFA from a position until the end of the text or, once past the edit, until a
+     * token would start where an old token after the edit started. Fills fresh,
+     * freshLookahead and freshMax, and sets resync to the index of that old token (the old
+     * token count if lexing reached the end).
+     */
+    private void relex(CharSequence input, int from, TextEdit edit, int first) {
+        fresh.clear();
+        freshMax = 0;
+        int count = size();
+        resync = count;
+        int old = first;
+        int position = from;
+        // Characters examined for skipped tokens since the last kept one; the next kept token
+        // depends on them too, since a longer skipped match could have swallowed it
+        int reach = 0;
+        while (true) {
+            position = lexer.skipWhitespace(input, position);
+            if (position >= input.length()) {
+                return;
+            }
+            if (edit != null && position >= edit.getNewEnd()) {
+                while (old < count && (offset(old) < edit.getOldEnd()
+                        || offset(old) + edit.getDelta() < position)) {
+                    old++;
+                }
+                // The old token's lookahead must also cover what the skipped tokens before it
+                // examined, or a later edit there could miss it
+                if (old < count && offset(old) + edit.getDelta() == position
+                        && reach <= end(old) + edit.getDelta() + lookahead[slot(old)]) {
+                    resync = old;
+                    return;
+                }
+            }
+            Token token = lexer.match(input, position, examined);
+            position = token.getEnd();
+            if (lexer.isSkipped(token)) {
+                reach = Math.max(reach, examined[0]);
+                continue;
+            }
+            int distance = Math.max(examined[0], reach) - token.getEnd();
+            reach = 0;
+            if (fresh.size() == freshLookahead.length) {
+                freshLookahead = Arrays.copyOf(freshLookahead, freshLookahead.length * 2);
+            }
+            freshLookahead[fresh.size()] = distance;
+            fresh.add(token);
+            freshMax = Math.max(freshMax, distance);
+        }
+    }
+
+    /**
+     * The live, read-only list of tokens.
+     */
+    private class TokenView extends AbstractList<Token> implements RandomAccess {
+        @Override
+        public Token get(int index) {
+            Objects.checkIndex(index, size());
+            return token(index);
+        }
+
+        @Override
+        public int size() {
+            return IncrementalLexer.this.size();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.compiler.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.dfa.DfaState;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.nfa.State;
+import com.compiler.lexer.nfa.Transition;
+import com.compiler.lexer.regex.RegexParser;
+import com.compiler.metrics.PipelineMetrics;
+
+/**
+ * Lexer
+ * -----
+ * Splits an input into tokens using a list of named regular expressions.
+ *
+ * The rules are combined into one NFA (a new start state with epsilon transitions to the start
+ * of every rule) and determinized once. Each DFA state remembers the rule it accepts: the first
+ * rule, in definition order, whose final NFA state it contains. The DFA is then flattened into
+ * a transition table indexed by state and symbol class.
+ *
+ * Tokenization uses maximal munch: from the current position the DFA runs as far as it can,
+ * and the longest prefix that reached an accepting state becomes the token. Ties between rules
+ * go to the rule defined first, so keywords should be defined before identifiers.
+ *
+ * What lies between tokens is decided at construction. By default every whitespace character
+ * between tokens is dropped, so no rule ever sees a space, newline or tab. A lexer built with
+ * skip rules drops nothing implicitly: the whole input must be covered by rules, and the tokens
+ * of the named skip rules (whitespace, comments) are matched like any other and then discarded.
+ * A language with significant newlines or indentation therefore declares its whitespace rules
+ * and skips only the ones it does not need.
+ */
+public class Lexer {
+    /** Symbol classes of ASCII characters, -1 if the character is outside the alphabet. */
+    private final int[] asciiClasses = new int[128];
+
+    /** Sorted symbols above ASCII; they take the last symbol classes, in order. */
+    private final char[] otherSymbols;
+
+    private final int classCount;
+    private final int[] table;
+    private final int[] accepting;
+    private final String[] ruleNames;
+
+    /** Names of the rules whose tokens are dropped, or null to drop whitespace instead. */
+    private final Set<String> skipped;
+
+    /**
+     * Builds a lexer from rules in priority order that drops whitespace between tokens.
+     *
+     * @param rules Rule names mapped to regular expressions; the iteration order is the priority.
+     * @throws IllegalArgumentException If there are no rules or a rule accepts the empty string.
+     */
+    public Lexer(Map<String, String> rules) {
+        this(rules, null);
+    }
+
+    /**
+     * Builds a lexer from rules in priority order that drops the tokens of some rules and
+     * nothing else.
+     *
+     * @param rules Rule names mapped to regular expressions; the iteration order is the priority.
+     * @param skip  The names of the rules whose tokens are dropped, or null to drop whitespace
+     *              between tokens instead.
+     * @throws IllegalArgumentException If there are no rules, a rule accepts the empty string or
+     *                                  a skipped name is not a rule.
+     */
+    public Lexer(Map<String, String> rules, Set<String> skip) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("A lexer needs at least one rule");
+        }
+        ruleNames = rules.keySet().toArray(new String[0]);
+        if (skip != null) {
+            for (String name : skip) {
+                if (!rules.containsKey(name)) {
+                    throw new IllegalArgumentException("Skipped rule is not defined: " + name);
+                }
+            }
+            skipped = new HashSet<>(skip);
+        } else {
+            skipped = null;
+        }
+
+        // 1. Combine the rules into one NFA and remember which rule each final state belongs to
+        RegexParser parser = new RegexParser();
+        State start = new State();
+        Map<State, Integer> ruleOf = new IdentityHashMap<>();
+        int rule = 0;
+        int counters = 0;
+        for (Map.Entry<String, String> e : rules.entrySet()) {
+            // Each rule's counters follow those of the earlier rules in the combined NFA
+            NFA nfa = parser.parse(e.getValue(), counters);
+            counters = Math.max(counters, nfa.counterCount);
+            start.transitions.add(new Transition(null, nfa.startState));
+            ruleOf.put(nfa.endState, rule++);
+        }
+        NFA combined = new NFA(start, new State(), counters);
+
+        // 2. Determinize
+        Set<Character> alphabet = NfaToDfaConverter.alphabetOf(combined);
+        DFA dfa = NfaToDfaConverter.convertNfaToDfa(combined, alphabet);
+
+        // 3. Symbol classes: one per alphabet symbol
+        Arrays.fill(asciiClasses, -1);
+        StringBuilder others = new StringBuilder();
+        int classes = 0;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClasses[c] = classes++;
+            } else {
+                others.append(c);
+            }
+        }
+        otherSymbols = others.toString().toCharArray();
+        classCount = classes + otherSymbols.length;
+
+        // 4. Flatten the DFA: state 0 is the start state, -1 is the dead state
+        Map<DfaState, Integer> index = new IdentityHashMap<>();
+        List<DfaState> states = new ArrayList<>();
+        index.put(dfa.startState, 0);
+        states.add(dfa.startState);
+        for (DfaState s : dfa.allStates) {
+            if (!index.containsKey(s)) {
+                index.put(s, states.size());
+                states.add(s);
+            }
+        }
+        table = new int[states.size() * classCount];
+        Arrays.fill(table, -1);
+        accepting = new int[states.size()];
+        for (int i = 0; i < states.size(); i++) {
+            DfaState s = states.get(i);
+            accepting[i] = -1;
+            for (State nfaState : s.nfaStates) {
+                Integer r = ruleOf.get(nfaState);
+                if (r != null && (accepting[i] < 0 || r < accepting[i])) {
+                    accepting[i] = r;
+                }
+            }
+            for (Map.Entry<Character, DfaState> t : s.transitions.entrySet()) {
+                table[i * classCount + classOf(t.getKey())] = index.get(t.getValue());
+            }
+        }
+        if (accepting[0] >= 0) {
+            throw new IllegalArgumentException("Rule accepts the empty string: " + ruleNames[accepting[0]]);
+        }
+    }
+
+    /**
+     * Tokenizes the whole input.
+     *
+     * @param input The input text.
+     * @return The tokens in order.
+     * @throws IllegalArgumentException If some part of the input matches no rule.
+     */
+    public List<Token> tokenize(CharSequence input) {
+        List<Token> tokens = new ArrayList<>();
+        TokenStream stream = stream(input);
+        for (Token t = stream.next(); t != null; t = stream.next()) {
+            tokens.add(t);
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns a stream that tokenizes the input on demand.
+     *
+     * @param input The input text.
+     * @return A token stream positioned at the start of the input.
+     */
+    public TokenStream stream(CharSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("Input must not be null");
+        }
+        return new TokenStream(this, input, PipelineMetrics.start());
+    }
+
+    /**
+     * Returns the number of states of the lexer's DFA.
+     *
+     * @return The state count.
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    /**
+     * Matches the longest token starting at the given position.
+     */
+    Token match(CharSequence input, int from) {
+        return match(input, from, null);
+    }
+
+    /**
+     * Matches the longest token starting at the given position and reports how far the DFA read
+     * to decide it: examined[0] receives the offset just past the last character examined, or
+     * the input length + 1 if the DFA was still running at the end of the input.
+     */
+    Token match(CharSequence input, int from, int[] examined) {
+        int state = 0;
+        int lastRule = -1;
+        int lastEnd = from;
+        int n = input.length();
+        int i = from;
+        for (; i < n; i++) {
+            int symbol = classOf(input.charAt(i));
+            if (symbol < 0) break;
+            state = table[state * classCount + symbol];
+            if (state < 0) break;
+            if (accepting[state] >= 0) {
+                lastRule = accepting[state];
+                lastEnd = i + 1;
+            }
+        }
+        if (examined != null) {
+            examined[0] = i + 1;
+        }
+        if (lastRule < 0) {
+            throw new IllegalArgumentException("Unexpected character '" + input.charAt(from) + "' at offset " + from);
+        }
+        return new Token(ruleNames[lastRule], input.subSequence(from, lastEnd).toString(), from);
+    }
+
+    /**
+     * Returns whether a token is dropped from the token stream.
+     */
+    boolean isSkipped(Token token) {
+        return skipped != null && skipped.contains(token.type);
+    }
+
+    /**
+     * Skips whitespace from the given position, unless the lexer drops skip rules instead.
+     */
+    int skipWhitespace(CharSequence input, int from) {
+        if (skipped != null) {
+            return from;
+        }
+        int i = from;
+        while (i < input.length() && Character.isWhitespace(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int i = Arrays.binarySearch(otherSymbols, c);
+        return i < 0 ? -1 : classCount - otherSymbols.length + i;
+    }
+}
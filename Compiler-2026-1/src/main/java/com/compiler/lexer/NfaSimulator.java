@@ -1,9 +1,14 @@
 package com.compiler.lexer;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Set;
 
+import com.compiler.lexer.nfa.Configuration;
 import com.compiler.lexer.nfa.NFA;
-import com.compiler.lexer.nfa.State;
+import com.compiler.lexer.nfa.Transition;
+import com.compiler.metrics.PipelineMetrics;
 
 /**
  * NfaSimulator
@@ -28,52 +33,109 @@ public class NfaSimulator {
     /**
      * Default constructor for NfaSimulator.
      */
-        public NfaSimulator() {
-            // TODO: Implement constructor if needed
-        }
+    public NfaSimulator() {
+        // No initialization needed
+    }
 
     /**
      * Simulates the NFA on the given input string.
      * Starts at the NFA's start state and processes each character, following transitions and epsilon closures.
      * If any final state is reached after processing the input, the string is accepted.
+     * Counter-augmented NFAs are simulated on configurations (state plus counter values).
      *
      * @param nfa The NFA to simulate.
      * @param input The input string to test.
      * @return True if the input is accepted by the NFA, false otherwise.
      */
     public boolean simulate(NFA nfa, String input) {
-        // TODO: Implement simulate
-        /*
-         Pseudocode:
-         1. Initialize currentStates with epsilon-closure of NFA start state
-         2. For each character in input:
-              - For each state in currentStates:
-                  - For each transition:
-                      - If transition symbol matches character:
-                          - Add epsilon-closure of destination state to nextStates
-              - Set currentStates to nextStates
-         3. After input, if any state in currentStates is final, return true
-         4. Otherwise, return false
-        */
-        throw new UnsupportedOperationException("Not implemented");
+        long start = PipelineMetrics.start();
+        boolean accepted = run(nfa, input);
+        PipelineMetrics.simulated(start, "nfa", input.length(), accepted);
+        return accepted;
+    }
+
+    private static boolean run(NFA nfa, String input) {
+        Set<Configuration> currentStates = startConfigurations(nfa);
+
+        for (int i = 0; i < input.length(); i++) {
+            currentStates = step(currentStates, input.charAt(i));
+            if (currentStates.isEmpty()) {
+                return false; // No thread survived, reject input
+            }
+        }
+
+        return containsFinal(currentStates);
+    }
+
+    /**
+     * Returns the epsilon-closure of the NFA's start configuration.
+     *
+     * @param nfa The NFA.
+     * @return The configurations the simulation starts in.
+     */
+    static Set<Configuration> startConfigurations(NFA nfa) {
+        Set<Configuration> closure = new HashSet<>();
+        addEpsilonClosure(nfa.getStartConfiguration(), closure);
+        return closure;
+    }
+
+    /**
+     * Follows all transitions labeled with the symbol, then takes the epsilon-closure.
+     *
+     * @param currentStates The current configurations.
+     * @param symbol The input symbol.
+     * @return The configurations after reading the symbol.
+     */
+    static Set<Configuration> step(Set<Configuration> currentStates, char symbol) {
+        Set<Configuration> nextStates = new HashSet<>();
+        for (Configuration c : currentStates) {
+            for (Transition t : c.state.transitions) {
+                if (t.symbol != null && t.symbol == symbol) {
+                    addEpsilonClosure(new Configuration(t.toState, c.counters), nextStates);
+                }
+            }
+        }
+        return nextStates;
     }
 
     /**
-     * Computes the epsilon-closure: all states reachable from 'start' using only epsilon (null) transitions.
+     * Checks whether any configuration is in a final state.
      *
-     * @param start The starting state.
-     * @param closureSet The set to accumulate reachable states.
+     * @param states The configurations to check.
+     * @return True if one of them is accepting.
      */
-    private void addEpsilonClosure(State start, Set<State> closureSet) {
-        // TODO: Implement addEpsilonClosure
-        /*
-         Pseudocode:
-         If start not in closureSet:
-             - Add start to closureSet
-             - For each transition in start:
-                 - If transition symbol is null:
-                     - Recursively add epsilon-closure of destination state
-        */
-        throw new UnsupportedOperationException("Not implemented");
+    static boolean containsFinal(Set<Configuration> states) {
+        for (Configuration c : states) {
+            if (c.state.isFinal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the epsilon-closure: all configurations reachable from 'start' using only epsilon (null) transitions.
+     * Counter guards are evaluated along the way, so loops over counters terminate once all values are seen.
+     *
+     * @param start The starting configuration.
+     * @param closureSet The set to accumulate reachable configurations.
+     */
+    static void addEpsilonClosure(Configuration start, Set<Configuration> closureSet) {
+        if (!closureSet.add(start)) {
+            return;
+        }
+        Deque<Configuration> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Configuration current = stack.pop();
+            for (Transition t : current.state.transitions) {
+                if (t.symbol == null) {
+                    Configuration next = current.follow(t);
+                    if (next != null && closureSet.add(next)) {
+                        stack.push(next);
+                    }
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
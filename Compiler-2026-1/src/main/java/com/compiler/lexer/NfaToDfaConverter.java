@@ -3,13 +3,28 @@ package com.compiler.lexer;
 import java.util.*;
 import com.compiler.lexer.dfa.DFA;
 import com.compiler.lexer.dfa.DfaState;
+import com.compiler.lexer.nfa.Configuration;
 import com.compiler.lexer.nfa.NFA;
 import com.compiler.lexer.nfa.State;
+import com.compiler.lexer.nfa.Transition;
+import com.compiler.metrics.PipelineMetrics;
 
 /**
  * NfaToDfaConverter
  * -----------------
  * Converts an NFA into a DFA using the subset construction algorithm.
+ *
+ * Subsets are built from NFA configurations (state plus counter values), so counter-augmented
+ * NFAs produced for bounded repetitions are expanded lazily: only counter values that are
+ * actually reachable become part of a DFA state.
+ *
+ * Only "important" configurations (those whose state has a symbol transition or is final) are
+ * kept in a subset. Subsets that differ only in pass-through epsilon states behave the same,
+ * so this keeps e.g. (0|1|...|9){1,20} at one DFA state per digit count instead of one per digit.
+ *
+ * Construction can run within a {@link DeterminizationBudget}. When the budget is exhausted,
+ * the converter stops instead of exhausting the heap and returns a {@link HybridMatcher} that
+ * uses the DFA built so far and NFA simulation beyond it.
  */
 public class NfaToDfaConverter {
 
@@ -17,6 +32,16 @@ public class NfaToDfaConverter {
         // Utility class, no initialization required
     }
 
+    /**
+     * Converts an NFA to a DFA, using every symbol that appears in the NFA as the alphabet.
+     *
+     * @param nfa The input NFA
+     * @return The resulting DFA
+     */
+    public static DFA convertNfaToDfa(NFA nfa) {
+        return convertNfaToDfa(nfa, alphabetOf(nfa));
+    }
+
     /**
      * Converts an NFA to a DFA using the subset construction algorithm.
      *
@@ -24,97 +49,173 @@ public class NfaToDfaConverter {
      * @param alphabet The input alphabet (set of characters)
      * @return The resulting DFA
      */
-    /* public static DFA convertNfaToDfa(NFA nfa, Set<Character> alphabet) {
-        // Step 1: initial DFA state = epsilon-closure of NFA start
-        Set<State> startClosure = epsilonClosure(Set.of(nfa.start));
-        DfaState startState = new DfaState(startClosure);
+    public static DFA convertNfaToDfa(NFA nfa, Set<Character> alphabet) {
+        return determinize(nfa, alphabet, DeterminizationBudget.UNLIMITED, null).getDfa();
+    }
+
+    /**
+     * Converts an NFA to a DFA within a budget. If the budget runs out, construction stops
+     * and the result's matcher falls back to NFA simulation for the unexplored part.
+     *
+     * @param nfa    The input NFA
+     * @param budget The state and memory budget
+     * @return The result with the (possibly partial) DFA, a matcher and diagnostics
+     */
+    public static DeterminizationResult convertWithBudget(NFA nfa, DeterminizationBudget budget) {
+        return determinize(nfa, alphabetOf(nfa), budget, null);
+    }
 
-        if (containsFinal(startClosure, nfa.accept)) {
-            startState.setFinal(true);
+    /**
+     * Converts several named patterns, each within the same budget. The results' diagnostics
+     * tell which patterns blew up.
+     *
+     * @param patterns The NFAs keyed by pattern name
+     * @param budget   The state and memory budget applied to each pattern
+     * @return The results keyed by pattern name, in the iteration order of the input
+     */
+    public static Map<String, DeterminizationResult> convertAll(Map<String, NFA> patterns, DeterminizationBudget budget) {
+        Map<String, DeterminizationResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, NFA> e : patterns.entrySet()) {
+            NFA nfa = e.getValue();
+            results.put(e.getKey(), determinize(nfa, alphabetOf(nfa), budget, e.getKey()));
         }
+        return results;
+    }
+
+    /**
+     * Subset construction with budget checks before every new DFA state.
+     */
+    private static DeterminizationResult determinize(NFA nfa, Set<Character> alphabet,
+                                                     DeterminizationBudget budget, String patternName) {
+        long startTime = System.nanoTime();
+        long metricsStart = PipelineMetrics.start();
 
-        List<DfaState> dfaStates = new ArrayList<>();
-        Queue<DfaState> unprocessed = new LinkedList<>();
+        // Step 1: initial DFA state = epsilon-closure of NFA start
+        Set<Configuration> startClosure = importantConfigurations(NfaSimulator.startConfigurations(nfa));
+        DfaState startState = createDfaState(startClosure);
+
+        Map<Set<Configuration>, DfaState> dfaStates = new HashMap<>();
+        List<DfaState> allStates = new ArrayList<>();
+        Queue<Set<Configuration>> unprocessed = new ArrayDeque<>();
+
+        dfaStates.put(startClosure, startState);
+        allStates.add(startState);
+        unprocessed.add(startClosure);
 
-        dfaStates.add(startState);
-        unprocessed.add(startState);
+        long estimatedBytes = stateBytes(startClosure);
+        int largestSubset = startClosure.size();
+        DeterminizationResult.Limit limit = DeterminizationResult.Limit.NONE;
 
         // Step 2: process states
+        expansion:
         while (!unprocessed.isEmpty()) {
-            DfaState current = unprocessed.poll();
+            Set<Configuration> current = unprocessed.peek();
+            DfaState currentState = dfaStates.get(current);
 
             for (char symbol : alphabet) {
                 // Compute move and closure
-                Set<Object> moveSet = move(current.getName(), symbol);
-                Set<State> closure = epsilonClosure(moveSet);
-
+                Set<Configuration> closure = importantConfigurations(NfaSimulator.step(current, symbol));
                 if (closure.isEmpty()) continue;
 
-                DfaState target = findDfaState(dfaStates, closure);
+                DfaState target = dfaStates.get(closure);
+                long bytes = DeterminizationBudget.TRANSITION_BYTES + (target == null ? stateBytes(closure) : 0);
+                if (target == null && allStates.size() >= budget.maxStates) {
+                    limit = DeterminizationResult.Limit.STATES;
+                } else if (estimatedBytes + bytes > budget.maxMemoryBytes) {
+                    limit = DeterminizationResult.Limit.MEMORY;
+                }
+                if (limit != DeterminizationResult.Limit.NONE) {
+                    // Abort cleanly: the state being expanded goes back to the frontier
+                    estimatedBytes -= currentState.transitions.size() * DeterminizationBudget.TRANSITION_BYTES;
+                    currentState.transitions.clear();
+                    break expansion;
+                }
                 if (target == null) {
-                    target = new DfaState(closure);
-                    if (containsFinal(closure, nfa.accept)) {
-                        target.setFinal(true);
-                    }
-                    dfaStates.add(target);
-                    unprocessed.add(target);
+                    target = createDfaState(closure);
+                    dfaStates.put(closure, target);
+                    allStates.add(target);
+                    unprocessed.add(closure);
+                    largestSubset = Math.max(largestSubset, closure.size());
                 }
-                current.addTransition(symbol, target);
+                currentState.addTransition(symbol, target);
+                estimatedBytes += bytes;
             }
+            unprocessed.poll();
+        }
+
+        // Whatever is still queued was discovered but not expanded
+        Map<DfaState, Set<Configuration>> frontier = new IdentityHashMap<>();
+        for (Set<Configuration> pending : unprocessed) {
+            frontier.put(dfaStates.get(pending), pending);
         }
 
-        return new DFA(startState, dfaStates);
-    } */
+        DFA dfa = new DFA(startState, allStates);
+        PipelineMetrics.subsetConstructed(metricsStart, patternName, allStates.size(), frontier.size(),
+                limit == DeterminizationResult.Limit.NONE);
+        return new DeterminizationResult(patternName, dfa, new HybridMatcher(dfa, frontier), limit,
+                frontier.size(), largestSubset, estimatedBytes, System.nanoTime() - startTime);
+    }
+
+    private static long stateBytes(Set<Configuration> configurations) {
+        return DeterminizationBudget.STATE_BYTES + configurations.size() * DeterminizationBudget.CONFIGURATION_BYTES;
+    }
 
     /**
-     * Computes the epsilon-closure of a set of NFA states.
+     * Collects every symbol used by a transition reachable from the NFA's start state.
+     *
+     * @param nfa The NFA.
+     * @return The sorted set of symbols.
      */
-/*     private static Set<State> epsilonClosure(Set<Object> moveSet) {
-        Stack<State> stack = new Stack<>();
-        Collection<? extends State> set;
-		stack.addAll(set);
-
-        while (!stack.isEmpty()) {
-            State state = stack.pop();
-            for (State epsTarget : state.getEpsilonTransitions()) {
-                if (closure.add(epsTarget)) {
-                    stack.push(epsTarget);
+    public static Set<Character> alphabetOf(NFA nfa) {
+        Set<Character> alphabet = new TreeSet<>();
+        Set<State> seen = new HashSet<>();
+        Deque<State> pending = new ArrayDeque<>();
+        seen.add(nfa.startState);
+        pending.push(nfa.startState);
+        while (!pending.isEmpty()) {
+            for (Transition t : pending.pop().transitions) {
+                if (t.symbol != null) {
+                    alphabet.add(t.symbol);
+                }
+                if (seen.add(t.toState)) {
+                    pending.push(t.toState);
                 }
             }
         }
-    } */
+        return alphabet;
+    }
 
     /**
-     * Returns the set of states reachable from a set of NFA states by a given symbol.
+     * Keeps the configurations whose state can read a symbol or accept.
      */
-/*     private static Set<Object> move(Set<State> states, char symbol) {
-        Set<State> result = new HashSet<>();
-        for (State s : states) {
-            for (var transition : s.getTransitions(symbol)) {
-                if (transition.symbol == symbol) {
-                    result.add(transition.to);
-                }
+    private static Set<Configuration> importantConfigurations(Set<Configuration> closure) {
+        Set<Configuration> important = new HashSet<>();
+        for (Configuration c : closure) {
+            if (c.state.isFinal() || hasSymbolTransition(c.state)) {
+                important.add(c);
             }
         }
+        return important;
+    }
 
-    } */
-
-    /**
-     * Finds an existing DFA state representing a given set of NFA states.
-     */
-    private static DfaState findDfaState(List<DfaState> dfaStates, Set<State> targetNfaStates) {
-        for (DfaState dfaState : dfaStates) {
-            if (dfaState.nfaStates.equals(targetNfaStates)) {
-                return dfaState;
+    private static boolean hasSymbolTransition(State state) {
+        for (Transition t : state.transitions) {
+            if (t.symbol != null) {
+                return true;
             }
         }
-        return null;
+        return false;
     }
 
     /**
-     * Checks if a closure contains the final NFA state.
+     * Creates the DFA state for a set of configurations. The DFA state records the NFA states
+     * involved; it is final if any of them is final.
      */
-    private static boolean containsFinal(Set<State> states, State finalState) {
-        return states.contains(finalState);
+    private static DfaState createDfaState(Set<Configuration> configurations) {
+        Set<State> nfaStates = new HashSet<>();
+        for (Configuration c : configurations) {
+            nfaStates.add(c.state);
+        }
+        return new DfaState(nfaStates);
     }
 }
@@ -0,0 +1,254 @@
+package com.compiler.lexer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.nfa.State;
+import com.compiler.lexer.nfa.Transition;
+import com.compiler.lexer.tdfa.TaggedDfa;
+
+/**
+ * TaggedDfaConverter
+ * ------------------
+ * Converts a tagged NFA (see {@code RegexParser.parseWithGroups}) into a {@link TaggedDfa}.
+ *
+ * The construction is a subset construction over ordered lists of NFA threads:
+ * - Epsilon closures are explored depth-first in transition order, and the first path that
+ *   reaches a state wins. This gives leftmost-first (greedy, Perl-like) priorities.
+ * - Only states with symbol transitions or that are final become slots of a DFA state;
+ *   two DFA states are the same if they have the same slots in the same order.
+ * - For every slot, the converter remembers which source slot it came from and which tags
+ *   were crossed on the way. These become the register operations of the transition.
+ */
+public class TaggedDfaConverter {
+
+    public TaggedDfaConverter() {
+        // Utility class, no initialization required
+    }
+
+    /**
+     * Converts a tagged NFA to a tagged DFA.
+     *
+     * @param nfa The tagged NFA.
+     * @return The resulting tagged DFA.
+     */
+    public static TaggedDfa convert(NFA nfa) {
+        Set<State> reachable = reachableStates(nfa.startState);
+        int tagCount = countTags(reachable);
+        char[] alphabet = alphabetOf(reachable);
+        int width = alphabet.length;
+
+        Map<List<Integer>, Integer> index = new HashMap<>();
+        List<List<State>> states = new ArrayList<>();
+        List<int[]> transitionRows = new ArrayList<>();
+        List<int[][]> opRows = new ArrayList<>();
+
+        // Start state: closure of the NFA start state, tags crossed hold position 0
+        Closure start = closure(List.of(nfa.startState), new int[]{-1});
+        int[] initialOps = new int[start.states.size() * tagCount];
+        for (int j = 0; j < start.states.size(); j++) {
+            for (int t = 0; t < tagCount; t++) {
+                initialOps[j * tagCount + t] = start.tags.get(j).get(t) ? TaggedDfa.SET_POSITION : TaggedDfa.UNSET;
+            }
+        }
+        intern(start, index, states);
+
+        for (int s = 0; s < states.size(); s++) {
+            List<State> slots = states.get(s);
+            int[] row = new int[width];
+            int[][] ops = new int[width][];
+
+            for (int c = 0; c < width; c++) {
+                char symbol = alphabet[c];
+                List<State> seeds = new ArrayList<>();
+                List<Integer> sources = new ArrayList<>();
+                for (int i = 0; i < slots.size(); i++) {
+                    for (Transition t : slots.get(i).transitions) {
+                        if (t.symbol != null && t.symbol == symbol) {
+                            seeds.add(t.toState);
+                            sources.add(i);
+                        }
+                    }
+                }
+                Closure target = closure(seeds, sources.stream().mapToInt(Integer::intValue).toArray());
+                if (target.states.isEmpty()) {
+                    row[c] = -1;
+                    continue;
+                }
+                row[c] = intern(target, index, states);
+
+                int[] targetOps = new int[target.states.size() * tagCount];
+                for (int j = 0; j < target.states.size(); j++) {
+                    int source = target.sources.get(j);
+                    BitSet crossed = target.tags.get(j);
+                    for (int t = 0; t < tagCount; t++) {
+                        targetOps[j * tagCount + t] = crossed.get(t) ? TaggedDfa.SET_POSITION : source * tagCount + t;
+                    }
+                }
+                ops[c] = targetOps;
+            }
+            transitionRows.add(row);
+            opRows.add(ops);
+        }
+
+        int stateCount = states.size();
+        int[] slotCount = new int[stateCount];
+        int[] finalSlot = new int[stateCount];
+        int[] transitions = new int[stateCount * width];
+        int[][] registerOps = new int[stateCount * width][];
+        for (int s = 0; s < stateCount; s++) {
+            List<State> slots = states.get(s);
+            slotCount[s] = slots.size();
+            finalSlot[s] = -1;
+            for (int j = 0; j < slots.size(); j++) {
+                if (slots.get(j).isFinal()) {
+                    finalSlot[s] = j;
+                    break;
+                }
+            }
+            System.arraycopy(transitionRows.get(s), 0, transitions, s * width, width);
+            System.arraycopy(opRows.get(s), 0, registerOps, s * width, width);
+        }
+        return new TaggedDfa(alphabet, tagCount, slotCount, transitions, registerOps, initialOps, finalSlot);
+    }
+
+    /**
+     * Result of a prioritized epsilon closure: the slots in priority order, the source slot of
+     * each one and the tags crossed on the path that reached it.
+     */
+    private static class Closure {
+        final List<State> states = new ArrayList<>();
+        final List<Integer> sources = new ArrayList<>();
+        final List<BitSet> tags = new ArrayList<>();
+    }
+
+    /**
+     * Computes the prioritized epsilon closure of the seeds, in seed order.
+     * A state reached through several paths keeps the first (highest priority) one.
+     */
+    private static Closure closure(List<State> seeds, int[] sources) {
+        Closure result = new Closure();
+        Set<State> visited = new HashSet<>();
+
+        // Explicit stack; pushing in reverse order reproduces the recursive visiting order
+        Deque<Object[]> stack = new ArrayDeque<>();
+        for (int i = seeds.size() - 1; i >= 0; i--) {
+            stack.push(new Object[]{seeds.get(i), sources[i], new BitSet()});
+        }
+        while (!stack.isEmpty()) {
+            Object[] entry = stack.pop();
+            State state = (State) entry[0];
+            int source = (Integer) entry[1];
+            BitSet crossed = (BitSet) entry[2];
+            if (!visited.add(state)) {
+                continue;
+            }
+            if (isSlot(state)) {
+                result.states.add(state);
+                result.sources.add(source);
+                result.tags.add(crossed);
+            }
+            List<Transition> transitions = state.transitions;
+            for (int k = transitions.size() - 1; k >= 0; k--) {
+                Transition t = transitions.get(k);
+                if (t.symbol != null || visited.contains(t.toState)) {
+                    continue;
+                }
+                BitSet next = crossed;
+                if (t.isTagged()) {
+                    next = (BitSet) crossed.clone();
+                    next.set(t.tag);
+                }
+                stack.push(new Object[]{t.toState, source, next});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A state becomes a slot if it can consume input or accept.
+     */
+    private static boolean isSlot(State state) {
+        if (state.isFinal()) {
+            return true;
+        }
+        for (Transition t : state.transitions) {
+            if (t.symbol != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the id of the DFA state with the closure's slots, creating it if needed.
+     */
+    private static int intern(Closure closure, Map<List<Integer>, Integer> index, List<List<State>> states) {
+        List<Integer> key = new ArrayList<>(closure.states.size());
+        for (State s : closure.states) {
+            key.add(s.id);
+        }
+        Integer id = index.get(key);
+        if (id == null) {
+            id = states.size();
+            index.put(key, id);
+            states.add(closure.states);
+        }
+        return id;
+    }
+
+    private static Set<State> reachableStates(State start) {
+        Set<State> seen = new HashSet<>();
+        Deque<State> pending = new ArrayDeque<>();
+        seen.add(start);
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            for (Transition t : pending.pop().transitions) {
+                if (seen.add(t.toState)) {
+                    pending.push(t.toState);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Number of tags used by the NFA, rounded up to whole groups.
+     */
+    private static int countTags(Set<State> states) {
+        int maxTag = -1;
+        for (State s : states) {
+            for (Transition t : s.transitions) {
+                maxTag = Math.max(maxTag, t.tag);
+            }
+        }
+        int tags = maxTag + 1;
+        return tags % 2 == 0 ? tags : tags + 1;
+    }
+
+    private static char[] alphabetOf(Set<State> states) {
+        Set<Character> symbols = new TreeSet<>();
+        for (State s : states) {
+            for (Transition t : s.transitions) {
+                if (t.symbol != null) {
+                    symbols.add(t.symbol);
+                }
+            }
+        }
+        char[] alphabet = new char[symbols.size()];
+        int i = 0;
+        for (char c : symbols) {
+            alphabet[i++] = c;
+        }
+        return alphabet;
+    }
+}
@@ -0,0 +1,87 @@
+package com.compiler.lexer;
+
+import java.util.Arrays;
+
+import com.compiler.lexer.tdfa.SubmatchResult;
+import com.compiler.lexer.tdfa.TaggedDfa;
+import com.compiler.metrics.PipelineMetrics;
+
+/**
+ * TaggedDfaSimulator
+ * ------------------
+ * Runs a {@link TaggedDfa} over an input string and extracts capture groups.
+ *
+ * The simulation makes a single pass over the input. Registers live in two buffers of
+ * {@code registerCount} entries that are swapped after every character, so the work per
+ * character is bounded by the size of the automaton and extraction is O(n) in the input.
+ */
+public class TaggedDfaSimulator {
+
+    public TaggedDfaSimulator() {
+        // No initialization needed
+    }
+
+    /**
+     * Matches the whole input against the tagged DFA.
+     *
+     * @param tdfa  The tagged DFA to simulate.
+     * @param input The input string to match.
+     * @return The capture groups of the match, or null if the input is rejected.
+     */
+    public SubmatchResult match(TaggedDfa tdfa, String input) {
+        long start = PipelineMetrics.start();
+        SubmatchResult result = run(tdfa, input);
+        PipelineMetrics.simulated(start, "tdfa", input.length(), result != null);
+        return result;
+    }
+
+    private static SubmatchResult run(TaggedDfa tdfa, String input) {
+        int width = tdfa.alphabet.length;
+        int[] current = new int[tdfa.registerCount];
+        int[] next = new int[tdfa.registerCount];
+
+        int[] init = tdfa.initialOps;
+        for (int k = 0; k < init.length; k++) {
+            current[k] = init[k] == TaggedDfa.SET_POSITION ? 0 : -1;
+        }
+
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            int symbol = Arrays.binarySearch(tdfa.alphabet, input.charAt(i));
+            if (symbol < 0) {
+                return null; // Symbol outside the alphabet, reject input
+            }
+            int transition = state * width + symbol;
+            int target = tdfa.transitions[transition];
+            if (target < 0) {
+                return null; // No valid transition, reject input
+            }
+            int[] ops = tdfa.registerOps[transition];
+            int position = i + 1;
+            for (int k = 0; k < ops.length; k++) {
+                int op = ops[k];
+                next[k] = op == TaggedDfa.SET_POSITION ? position : current[op];
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            state = target;
+        }
+
+        int slot = tdfa.finalSlot[state];
+        if (slot < 0) {
+            return null;
+        }
+
+        int groups = tdfa.getGroupCount();
+        int[] spans = new int[2 * (groups + 1)];
+        spans[0] = 0;
+        spans[1] = input.length();
+        int base = slot * tdfa.tagCount;
+        for (int g = 1; g <= groups; g++) {
+            spans[2 * g] = current[base + 2 * (g - 1)];
+            spans[2 * g + 1] = current[base + 2 * (g - 1) + 1];
+        }
+        return new SubmatchResult(input, spans);
+    }
+}
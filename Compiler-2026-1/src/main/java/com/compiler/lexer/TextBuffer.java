@@ -0,0 +1,108 @@
+package com.compiler.lexer;
+
+import java.util.Arrays;
+
+/**
+ * TextBuffer
+ * ----------
+ * The text of an edited document, as a gap buffer of chars. The gap follows the last
+ * replacement, so a replacement costs its own length plus the move of the gap from the previous
+ * one, not the length of the text after it.
+ */
+final class TextBuffer implements CharSequence {
+    private char[] chars;
+    private int gapStart;
+    private int gapEnd;
+    private String string;
+
+    /**
+     * Creates a buffer holding a text.
+     *
+     * @param text the text
+     */
+    TextBuffer(String text) {
+        this.chars = text.toCharArray();
+        this.gapStart = chars.length;
+        this.gapEnd = chars.length;
+        this.string = text;
+    }
+
+    @Override
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (end <= gapStart) {
+            return new String(chars, start, end - start);
+        }
+        if (start >= gapStart) {
+            return new String(chars, start + gapEnd - gapStart, end - start);
+        }
+        return new StringBuilder(end - start)
+                .append(chars, start, gapStart - start)
+                .append(chars, gapEnd, end - gapStart)
+                .toString();
+    }
+
+    /**
+     * Replaces a range of the text.
+     *
+     * @param offset   the offset of the first replaced character
+     * @param removed  the number of characters replaced
+     * @param inserted the text put in their place
+     * @return the removed characters
+     */
+    String replace(int offset, int removed, String inserted) {
+        moveGap(offset);
+        String old = new String(chars, gapEnd, removed);
+        gapEnd += removed;
+        if (gapEnd - gapStart < inserted.length()) {
+            int suffix = chars.length - gapEnd;
+            char[] grown = new char[Math.max(chars.length * 2, length() + inserted.length())];
+            System.arraycopy(chars, 0, grown, 0, gapStart);
+            System.arraycopy(chars, gapEnd, grown, grown.length - suffix, suffix);
+            gapEnd = grown.length - suffix;
+            chars = grown;
+        }
+        inserted.getChars(0, inserted.length(), chars, gapStart);
+        gapStart += inserted.length();
+        string = null;
+        return old;
+    }
+
+    private void moveGap(int offset) {
+        if (offset < gapStart) {
+            int n = gapStart - offset;
+            System.arraycopy(chars, offset, chars, gapEnd - n, n);
+            gapStart -= n;
+            gapEnd -= n;
+        } else if (offset > gapStart) {
+            int n = offset - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, n);
+            gapStart += n;
+            gapEnd += n;
+        }
+    }
+
+    /**
+     * Returns the text, which is built once per change.
+     *
+     * @return the text
+     */
+    @Override
+    public String toString() {
+        if (string == null) {
+            char[] text = Arrays.copyOf(chars, length());
+            System.arraycopy(chars, gapEnd, text, gapStart, chars.length - gapEnd);
+            string = new String(text);
+        }
+        return string;
+    }
+}
@@ -0,0 +1,92 @@
+package com.compiler.lexer;
+
+/**
+ * TextEdit
+ * --------
+ * A change to an input text: the characters in [offset, offset + removedLength) are replaced
+ * by the inserted text. Incremental lexing and parsing use it to find the damaged region and
+ * to shift the positions after it.
+ */
+public class TextEdit {
+    /** Offset of the first replaced character. */
+    public final int offset;
+
+    /** Number of characters removed. */
+    public final int removedLength;
+
+    /** The text inserted at the offset. */
+    public final String inserted;
+
+    /**
+     * Constructs an edit.
+     *
+     * @param offset        the offset of the first replaced character
+     * @param removedLength the number of characters removed
+     * @param inserted      the text inserted in their place
+     * @throws IllegalArgumentException if the offset or length is negative or the text is null
+     */
+    public TextEdit(int offset, int removedLength, String inserted) {
+        if (offset < 0 || removedLength < 0 || inserted == null) {
+            throw new IllegalArgumentException("Invalid edit at offset " + offset);
+        }
+        this.offset = offset;
+        this.removedLength = removedLength;
+        this.inserted = inserted;
+    }
+
+    /**
+     * Returns the offset just past the removed characters, in the old text.
+     *
+     * @return the end offset of the removal
+     */
+    public int getOldEnd() {
+        return offset + removedLength;
+    }
+
+    /**
+     * Returns the offset just past the inserted characters, in the new text.
+     *
+     * @return the end offset of the insertion
+     */
+    public int getNewEnd() {
+        return offset + inserted.length();
+    }
+
+    /**
+     * Returns how far the text after the edit moves.
+     *
+     * @return the inserted length minus the removed length
+     */
+    public int getDelta() {
+        return inserted.length() - removedLength;
+    }
+
+    /**
+     * Applies the edit.
+     *
+     * @param text the old text
+     * @return the new text
+     * @throws IllegalArgumentException if the edit does not fit in the text
+     */
+    public String apply(String text) {
+        checkFits(text.length());
+        return text.substring(0, offset) + inserted + text.substring(getOldEnd());
+    }
+
+    /**
+     * Checks that the edit fits in a text.
+     *
+     * @param length the length of the text
+     * @throws IllegalArgumentException if the removed characters go past its end
+     */
+    void checkFits(int length) {
+        if (getOldEnd() > length) {
+            throw new IllegalArgumentException("Edit at offset " + offset + " is past the end of the text");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "[" + offset + ", " + getOldEnd() + ") -> '" + inserted + "'";
+    }
+}
@@ -1,5 +1,63 @@
 package com.compiler.lexer;
 
+/**
+ * Represents a token produced by the lexer: the rule that matched, the matched text and
+ * its position in the input.
+ */
 public class Token {
-    
+    /** The name of the rule that matched (e.g. "IDENTIFIER"). */
+    public final String type;
+
+    /** The matched text. */
+    public final String lexeme;
+
+    /** Offset of the first character of the token in the input. */
+    public final int offset;
+
+    /**
+     * Constructs a token.
+     *
+     * @param type   the rule name
+     * @param lexeme the matched text
+     * @param offset the offset of the first character in the input
+     * @throws IllegalArgumentException if type or lexeme is null
+     */
+    public Token(String type, String lexeme, int offset) {
+        if (type == null || lexeme == null) {
+            throw new IllegalArgumentException("Type and lexeme must not be null");
+        }
+        this.type = type;
+        this.lexeme = lexeme;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the offset just past the last character of the token.
+     *
+     * @return the end offset (exclusive)
+     */
+    public int getEnd() {
+        return offset + lexeme.length();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Token)) return false;
+        Token other = (Token) obj;
+        return offset == other.offset && type.equals(other.type) && lexeme.equals(other.lexeme);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + lexeme.hashCode();
+        result = 31 * result + offset;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return type + "('" + lexeme + "')@" + offset;
+    }
 }
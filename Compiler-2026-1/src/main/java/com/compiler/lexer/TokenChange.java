@@ -0,0 +1,46 @@
+package com.compiler.lexer;
+
+/**
+ * TokenChange
+ * -----------
+ * The tokens replaced by an edit: tokens [start, oldEnd) of the old list became tokens
+ * [start, newEnd) of the new list. Tokens before start are unchanged, and tokens from oldEnd on
+ * are unchanged except that their offsets moved with the edit.
+ */
+public class TokenChange {
+    /** Index of the first changed token, in both lists. */
+    public final int start;
+
+    /** Index just past the last replaced token, in the old list. */
+    public final int oldEnd;
+
+    /** Index just past the last new token, in the new list. */
+    public final int newEnd;
+
+    /**
+     * Constructs a change.
+     *
+     * @param start  the index of the first changed token
+     * @param oldEnd the end of the replaced tokens in the old list
+     * @param newEnd the end of the new tokens in the new list
+     */
+    public TokenChange(int start, int oldEnd, int newEnd) {
+        this.start = start;
+        this.oldEnd = oldEnd;
+        this.newEnd = newEnd;
+    }
+
+    /**
+     * Checks whether the edit left every token in place, possibly moved.
+     *
+     * @return true if no token was replaced
+     */
+    public boolean isEmpty() {
+        return start == oldEnd && start == newEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + oldEnd + ") -> [" + start + ", " + newEnd + ")";
+    }
+}
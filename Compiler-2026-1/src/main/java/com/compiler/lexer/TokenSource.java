@@ -0,0 +1,18 @@
+package com.compiler.lexer;
+
+/**
+ * TokenSource
+ * -----------
+ * A pull-based supplier of tokens. Parsers read their input through this interface so they
+ * can run in lockstep with the lexer ({@link TokenStream}) instead of requiring the whole
+ * token list up front.
+ */
+public interface TokenSource {
+
+    /**
+     * Returns the next token.
+     *
+     * @return The next token, or null at the end of the input.
+     */
+    Token next();
+}
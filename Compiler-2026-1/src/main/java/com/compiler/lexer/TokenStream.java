@@ -0,0 +1,72 @@
+package com.compiler.lexer;
+
+import com.compiler.metrics.PipelineMetrics;
+
+/**
+ * TokenStream
+ * -----------
+ * Produces the tokens of one input on demand, so inputs of any size can be tokenized without
+ * holding every token in memory. Obtained from {@link Lexer#stream(CharSequence)}.
+ */
+public class TokenStream implements TokenSource {
+    private final Lexer lexer;
+    private final CharSequence input;
+    private int position;
+    private long tokenCount;
+    private final long metricsStart;
+    private boolean finished;
+
+    TokenStream(Lexer lexer, CharSequence input, long metricsStart) {
+        this.lexer = lexer;
+        this.input = input;
+        this.metricsStart = metricsStart;
+    }
+
+    /**
+     * Returns the next token.
+     *
+     * @return The next token, or null at the end of the input.
+     * @throws IllegalArgumentException If no rule matches at the current position.
+     */
+    @Override
+    public Token next() {
+        while (true) {
+            position = lexer.skipWhitespace(input, position);
+            if (position >= input.length()) {
+                finish();
+                return null;
+            }
+            Token token = lexer.match(input, position);
+            position = token.getEnd();
+            if (!lexer.isSkipped(token)) {
+                tokenCount++;
+                return token;
+            }
+        }
+    }
+
+    /**
+     * Returns the offset at which the next token will be searched.
+     *
+     * @return The current position in the input.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of tokens produced so far.
+     *
+     * @return The token count.
+     */
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    private void finish() {
+        if (!finished) {
+            finished = true;
+            PipelineMetrics.lexed(metricsStart, input.length(), tokenCount);
+        }
+    }
+}
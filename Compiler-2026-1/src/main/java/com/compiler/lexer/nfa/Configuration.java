@@ -0,0 +1,70 @@
+package com.compiler.lexer.nfa;
+
+import java.util.Arrays;
+
+/**
+ * A configuration of a (possibly counter-augmented) NFA: a state together with the values of
+ * the NFA's counters. For NFAs without counters the values array is empty and configurations
+ * behave exactly like states.
+ */
+public class Configuration {
+    /** Shared counter values of NFAs without counters. */
+    public static final int[] NO_COUNTERS = new int[0];
+
+    /** The NFA state. */
+    public final State state;
+
+    /** Counter values indexed by {@link Counter#index}; never modified after construction. */
+    public final int[] counters;
+
+    private final int hash;
+
+    /**
+     * Constructs a configuration.
+     *
+     * @param state    The NFA state.
+     * @param counters The counter values; the array is shared, not copied.
+     */
+    public Configuration(State state, int[] counters) {
+        this.state = state;
+        this.counters = counters;
+        this.hash = 31 * state.id + Arrays.hashCode(counters);
+    }
+
+    /**
+     * Follows an epsilon transition, evaluating its counter operation if it has one.
+     *
+     * @param t The epsilon transition.
+     * @return The resulting configuration, or null if the counter guard does not hold.
+     */
+    public Configuration follow(Transition t) {
+        if (t.counter == null) {
+            return new Configuration(t.toState, counters);
+        }
+        int value = t.counter.apply(t.counterOp, counters[t.counter.index]);
+        if (value < 0) {
+            return null;
+        }
+        int[] updated = counters.clone();
+        updated[t.counter.index] = value;
+        return new Configuration(t.toState, updated);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Configuration)) return false;
+        Configuration other = (Configuration) obj;
+        return state == other.state && Arrays.equals(counters, other.counters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return counters.length == 0 ? "q" + state.id : "q" + state.id + Arrays.toString(counters);
+    }
+}
@@ -0,0 +1,69 @@
+package com.compiler.lexer.nfa;
+
+/**
+ * Represents the counter of a bounded repetition {@code x{min,max}} in a counter-augmented NFA.
+ * <p>
+ * Instead of unrolling {@code x} max times, the NFA keeps a single copy of {@code x} and a
+ * counter holding the number of completed iterations. Counter operations are attached to
+ * epsilon transitions (see {@link CounterOp}) and are evaluated by the simulators on
+ * configurations (state plus counter values).
+ */
+public class Counter {
+    /** Marker for a repetition without upper bound. */
+    public static final int UNBOUNDED = -1;
+
+    /** Position of this counter in a configuration's counter values. */
+    public final int index;
+
+    /** Minimum number of iterations. */
+    public final int min;
+
+    /** Maximum number of iterations, or {@link #UNBOUNDED}. */
+    public final int max;
+
+    /**
+     * Constructs a counter.
+     *
+     * @param index Position of the counter in the NFA's counter values.
+     * @param min   Minimum number of iterations (at least 1 when a counter is used).
+     * @param max   Maximum number of iterations, or {@link #UNBOUNDED}.
+     */
+    public Counter(int index, int min, int max) {
+        if (min < 0 || (max != UNBOUNDED && max < min)) {
+            throw new IllegalArgumentException("Invalid repetition bounds {" + min + "," + max + "}");
+        }
+        this.index = index;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Applies an operation to the current value of the counter.
+     * Values count completed iterations; unbounded counters saturate once the minimum is
+     * reachable so that the number of distinct values stays finite.
+     *
+     * @param op    The operation to apply.
+     * @param value The current value.
+     * @return The new value, or -1 if the operation's guard does not hold.
+     */
+    public int apply(CounterOp op, int value) {
+        switch (op) {
+            case RESET:
+                return 0;
+            case REPEAT:
+                if (max == UNBOUNDED) {
+                    return Math.min(value + 1, Math.max(min - 1, 0));
+                }
+                return value + 1 < max ? value + 1 : -1;
+            case EXIT:
+                return value + 1 >= min ? 0 : -1;
+            default:
+                throw new IllegalArgumentException("Unknown counter operation: " + op);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Counter{index=" + index + ", min=" + min + ", max=" + (max == UNBOUNDED ? "inf" : max) + "}";
+    }
+}
@@ -0,0 +1,25 @@
+package com.compiler.lexer.nfa;
+
+/**
+ * Operations that epsilon transitions of a counter-augmented NFA perform on a {@link Counter}.
+ * <p>
+ * RESET: enters the repetition and starts the first iteration (value := 0).
+ * REPEAT: finishes an iteration and starts another one, allowed while below the maximum.
+ * EXIT: finishes an iteration and leaves the repetition, allowed once the minimum is reached.
+ */
+public enum CounterOp {
+    /**
+     * Enter the repetition.
+     */
+    RESET,
+
+    /**
+     * Loop back for another iteration.
+     */
+    REPEAT,
+
+    /**
+     * Leave the repetition.
+     */
+    EXIT
+}
@@ -1,5 +1,10 @@
 package com.compiler.lexer.nfa;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Represents a Non-deterministic Finite Automaton (NFA) with a start and end state.
  * <p>
@@ -17,6 +22,11 @@ public class NFA {
      */
     public final State endState;
 
+    /**
+     * Number of counters used by bounded repetitions in this NFA (see {@link Counter}).
+     */
+    public final int counterCount;
+
     public State accept;
 
     public Object start;
@@ -28,12 +38,24 @@ public class NFA {
      * @param end   The final (accepting) state.
      */
     public NFA(State start, State end) {
+        this(start, end, 0);
+    }
+
+    /**
+     * Constructs a new counter-augmented NFA.
+     *
+     * @param start        The initial state.
+     * @param end          The final (accepting) state.
+     * @param counterCount The number of counters used by the NFA's transitions.
+     */
+    public NFA(State start, State end, int counterCount) {
         if (start == null || end == null) {
             throw new IllegalArgumentException("Start and end states cannot be null");
         }
         this.startState = start;
         this.endState = end;
         this.endState.isFinal = true; // mark end state as accepting
+        this.counterCount = counterCount;
     }
 
     /**
@@ -44,4 +66,34 @@ public class NFA {
     public State getStartState() {
         return this.startState;
     }
+
+    /**
+     * Counts the states reachable from the start state.
+     *
+     * @return the number of reachable states
+     */
+    public int countStates() {
+        Set<State> visited = new HashSet<>();
+        Deque<State> pending = new ArrayDeque<>();
+        visited.add(startState);
+        pending.push(startState);
+        while (!pending.isEmpty()) {
+            for (Transition t : pending.pop().transitions) {
+                if (visited.add(t.toState)) {
+                    pending.push(t.toState);
+                }
+            }
+        }
+        return visited.size();
+    }
+
+    /**
+     * Returns the configuration the NFA starts in: the start state with all counters at zero.
+     *
+     * @return the initial configuration
+     */
+    public Configuration getStartConfiguration() {
+        int[] counters = counterCount == 0 ? Configuration.NO_COUNTERS : new int[counterCount];
+        return new Configuration(startState, counters);
+    }
 }
@@ -20,6 +20,26 @@ public class Transition {
      */
     public final State toState;
 
+    /**
+     * The tag recorded when this epsilon transition is taken, or {@link #NO_TAG}.
+     * Tags mark capture group boundaries: group g (1-based) opens with tag 2(g-1)
+     * and closes with tag 2(g-1)+1.
+     */
+    public final int tag;
+
+    /** Tag value of transitions that record nothing. */
+    public static final int NO_TAG = -1;
+
+    /**
+     * The counter updated when this epsilon transition is taken, or null.
+     */
+    public final Counter counter;
+
+    /**
+     * The operation performed on {@link #counter}, or null.
+     */
+    public final CounterOp counterOp;
+
     /**
      * Constructs a new transition with the given symbol and destination state.
      *
@@ -27,10 +47,50 @@ public class Transition {
      * @param toState The destination state.
      */
     public Transition(Character symbol, State toState) {
+        this(symbol, toState, NO_TAG, null, null);
+    }
+
+    /**
+     * Constructs a tagged epsilon transition.
+     *
+     * @param toState The destination state.
+     * @param tag     The tag recorded when the transition is taken.
+     */
+    public Transition(State toState, int tag) {
+        this(null, toState, tag, null, null);
+    }
+
+    /**
+     * Constructs an epsilon transition guarded by a counter operation.
+     *
+     * @param toState The destination state.
+     * @param counter The counter to update.
+     * @param op      The operation performed on the counter.
+     */
+    public Transition(State toState, Counter counter, CounterOp op) {
+        this(null, toState, NO_TAG, counter, op);
+        if (counter == null || op == null) {
+            throw new IllegalArgumentException("Counter and operation cannot be null");
+        }
+    }
+
+    private Transition(Character symbol, State toState, int tag, Counter counter, CounterOp counterOp) {
         if (toState == null) {
             throw new IllegalArgumentException("Destination state cannot be null");
         }
         this.symbol = symbol;
         this.toState = toState;
+        this.tag = tag;
+        this.counter = counter;
+        this.counterOp = counterOp;
+    }
+
+    /**
+     * Checks whether this transition records a tag.
+     *
+     * @return true if the transition is a tagged epsilon transition
+     */
+    public boolean isTagged() {
+        return tag != NO_TAG;
     }
 }
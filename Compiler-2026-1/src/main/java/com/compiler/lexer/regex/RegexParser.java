@@ -1,15 +1,46 @@
 package com.compiler.lexer.regex;
 
-import java.util.Stack;
-
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.lexer.nfa.Counter;
+import com.compiler.lexer.nfa.CounterOp;
 import com.compiler.lexer.nfa.NFA;
 import com.compiler.lexer.nfa.State;
 import com.compiler.lexer.nfa.Transition;
+import com.compiler.metrics.PipelineMetrics;
 
 /**
  * Parses regular expressions and constructs NFAs using Thompson's construction.
+ * <p>
+ * The parser is a single recursive-descent pass over the pattern that builds NFA fragments as
+ * it goes, with no intermediate postfix form:
+ * <pre>
+ *   alternation   := concatenation ('|' concatenation)*
+ *   concatenation := repetition+
+ *   repetition    := atom ('*' | '+' | '?' | '{m}' | '{m,}' | '{m,n}')*
+ *   atom          := '(' alternation ')' | '\' char | char
+ * </pre>
+ * Whitespace in the pattern is literal, like any other character that is not an operator; an
+ * escaped space ({@code "\ "}) is a space too, and {@code \n}, {@code \t} and {@code \r} stand for
+ * newline, tab and carriage return. Any other escaped character, including the operators, is a
+ * literal. A '{' that does not start a well-formed bound is a literal. Syntax errors are
+ * reported as {@link RegexSyntaxException} with the position of the offending character.
+ * <p>
+ * Bounded repetitions {@code x{m,n}} with small bounds are unrolled into copies of {@code x}.
+ * Larger bounds keep a single copy of {@code x} guarded by a {@link Counter}, so the size of
+ * the NFA does not depend on the bounds.
  */
 public class RegexParser {
+    /**
+     * Repetitions whose largest relevant bound is at most this value are unrolled.
+     */
+    public static final int UNROLL_LIMIT = 8;
+
     /**
      * Default constructor for RegexParser.
      */
@@ -20,90 +51,371 @@ public class RegexParser {
      *
      * @param infixRegex The regular expression in infix notation.
      * @return The constructed NFA.
+     * @throws RegexSyntaxException If the expression is malformed.
      */
     public NFA parse(String infixRegex) {
-        String postfix = ShuntingYard.toPostfix(infixRegex);
-        return buildNfaFromPostfix(postfix);
+        return parse(infixRegex, 0);
     }
 
     /**
-     * Builds an NFA from a postfix regular expression.
+     * Converts an infix regular expression to an NFA whose counters are numbered from a given
+     * index, so that it can be combined with NFAs that use the lower counters.
      *
-     * @param postfixRegex The regular expression in postfix notation.
-     * @return The constructed NFA.
+     * @param infixRegex   The regular expression in infix notation.
+     * @param firstCounter The index of the first counter.
+     * @return The constructed NFA; its counter count includes the counters below the first.
+     * @throws RegexSyntaxException If the expression is malformed.
+     */
+    public NFA parse(String infixRegex, int firstCounter) {
+        long start = PipelineMetrics.start();
+        NFA nfa = new Compilation(infixRegex, false, firstCounter).compile();
+        recordParse(start, infixRegex, nfa);
+        return nfa;
+    }
+
+    /**
+     * Converts an infix regular expression to a tagged NFA in which every parenthesized
+     * group is a capture group. Group g (numbered by its '(' from 1) is entered through an
+     * epsilon transition carrying tag 2(g-1) and left through one carrying tag 2(g-1)+1.
+     *
+     * @param infixRegex The regular expression in infix notation.
+     * @return The constructed tagged NFA.
+     * @throws RegexSyntaxException If the expression is malformed.
      */
-    private NFA buildNfaFromPostfix(String postfixRegex) {
-        Stack<NFA> stack = new Stack<>();
-
-        for (int i = 0; i < postfixRegex.length(); i++) {
-            char c = postfixRegex.charAt(i);
-
-            if (isOperand(c)) {
-                stack.push(createNfaForCharacter(c));
-            } else {
-                switch (c) {
-                    case '·':
-                        handleConcatenation(stack);
-                        break;
-                    case '|':
-                        handleUnion(stack);
-                        break;
-                    case '*':
-                        handleKleeneStar(stack);
-                        break;
-                    case '+':
-                        handlePlus(stack);
-                        break;
-                    case '?':
-                        handleOptional(stack);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Unknown operator: " + c);
+    public NFA parseWithGroups(String infixRegex) {
+        long start = PipelineMetrics.start();
+        NFA nfa = new Compilation(infixRegex, true, 0).compile();
+        recordParse(start, infixRegex, nfa);
+        return nfa;
+    }
+
+    /**
+     * Reports a finished parse; the NFA is only walked when instrumentation is enabled.
+     */
+    private static void recordParse(long start, String infixRegex, NFA nfa) {
+        if (start != 0L) {
+            PipelineMetrics.regexParsed(start, infixRegex, nfa.countStates(), nfa.counterCount);
+        }
+    }
+
+    /**
+     * State of one parse: the pattern, the read position, and the groups and counters created so far.
+     */
+    private static final class Compilation {
+        private final String pattern;
+        private final boolean captureGroups;
+        private final List<Counter> counters = new ArrayList<>();
+        private final int firstCounter;
+        private int pos;
+        private int groupCount;
+
+        Compilation(String pattern, boolean captureGroups, int firstCounter) {
+            if (pattern == null) {
+                throw new IllegalArgumentException("regex null");
+            }
+            this.pattern = pattern;
+            this.captureGroups = captureGroups;
+            this.firstCounter = firstCounter;
+        }
+
+        NFA compile() {
+            NFA nfa = alternation();
+            if (pos < pattern.length()) {
+                // alternation() only stops early at a ')' without a matching '('
+                throw error("Unmatched ')'", pos);
+            }
+            return counters.isEmpty() ? nfa : new NFA(nfa.startState, nfa.endState, firstCounter + counters.size());
+        }
+
+        private NFA alternation() {
+            NFA left = concatenation();
+            while (peek() == '|') {
+                pos++;
+                left = union(left, concatenation());
+            }
+            return left;
+        }
+
+        private NFA concatenation() {
+            NFA result = null;
+            for (int c = peek(); c >= 0 && c != '|' && c != ')'; c = peek()) {
+                NFA next = repetition();
+                result = result == null ? next : concatenate(result, next);
+            }
+            if (result == null) {
+                throw error("Expected an expression", pos);
+            }
+            return result;
+        }
+
+        private NFA repetition() {
+            NFA nfa = atom();
+            while (true) {
+                int c = peek();
+                if (c == '*') {
+                    nfa = kleeneStar(nfa);
+                } else if (c == '+') {
+                    nfa = plus(nfa);
+                } else if (c == '?') {
+                    nfa = optional(nfa);
+                } else if (c == '{' && boundEnd(pattern, pos) >= 0) {
+                    nfa = bound(nfa);
+                    continue;
+                } else {
+                    return nfa;
+                }
+                pos++;
+            }
+        }
+
+        /**
+         * Parses "{m}", "{m,}" or "{m,n}" at the current position and applies it.
+         */
+        private NFA bound(NFA nfa) {
+            int open = pos;
+            int close = boundEnd(pattern, pos);
+            String[] bounds = pattern.substring(open + 1, close).split(",", -1);
+            pos = close + 1;
+            try {
+                int min = Integer.parseInt(bounds[0]);
+                int max = bounds.length == 1 ? min
+                        : bounds[1].isEmpty() ? Counter.UNBOUNDED : Integer.parseInt(bounds[1]);
+                if (max != Counter.UNBOUNDED && max < min) {
+                    throw error("Invalid repetition bounds {" + min + "," + max + "}", open);
+                }
+                // Tagged NFAs are determinized without counter support, so always unroll them
+                return repeat(nfa, min, max, counters, firstCounter, captureGroups);
+            } catch (NumberFormatException e) {
+                throw error("Repetition bound too large", open);
+            }
+        }
+
+        private NFA atom() {
+            int at = pos;
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(': {
+                    int group = ++groupCount;
+                    NFA inner = alternation();
+                    if (peek() != ')') {
+                        throw error("Missing ')' for group opened", at);
+                    }
+                    pos++;
+                    return captureGroups ? group(inner, group) : inner;
                 }
+                case '*':
+                case '+':
+                case '?':
+                    throw error("Nothing to repeat", at);
+                case '{':
+                    if (boundEnd(pattern, at) >= 0) {
+                        throw error("Nothing to repeat", at);
+                    }
+                    return character(c);
+                case '\\':
+                    if (pos >= pattern.length()) {
+                        throw error("Dangling escape at end of regex", at);
+                    }
+                    return character(unescape(pattern.charAt(pos++)));
+                default:
+                    return character(c);
+            }
+        }
+
+        /**
+         * Returns the next character without consuming it, or -1 at the end.
+         */
+        private int peek() {
+            return pos < pattern.length() ? pattern.charAt(pos) : -1;
+        }
+
+        private RegexSyntaxException error(String message, int index) {
+            return new RegexSyntaxException(message, pattern, index);
+        }
+    }
+
+    /**
+     * If a well-formed bound ('{m}', '{m,}' or '{m,n}' with decimal m and n) starts at
+     * position start, returns the position of its closing '}', otherwise -1.
+     */
+    static int boundEnd(String regex, int start) {
+        int n = regex.length();
+        if (start >= n || regex.charAt(start) != '{') return -1;
+        int i = start + 1;
+        int digits = 0;
+        while (i < n && Character.isDigit(regex.charAt(i))) { i++; digits++; }
+        if (digits == 0 || i >= n) return -1;
+        if (regex.charAt(i) == ',') {
+            i++;
+            while (i < n && Character.isDigit(regex.charAt(i))) i++;
+        }
+        return i < n && regex.charAt(i) == '}' ? i : -1;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Applies a bounded repetition {m,n} (max is {@link Counter#UNBOUNDED} for {m,}).
+     * Small bounds are unrolled: x{2,4} becomes x x (x (x)?)?. Large bounds become a counter loop.
+     */
+    private static NFA repeat(NFA nfa, int min, int max, List<Counter> counters, int firstCounter, boolean alwaysUnroll) {
+        int largest = max == Counter.UNBOUNDED ? min : max;
+        if (alwaysUnroll || largest <= UNROLL_LIMIT) {
+            return unroll(nfa, min, max);
+        }
+
+        Counter counter = new Counter(firstCounter + counters.size(), min, max);
+        counters.add(counter);
+
+        State start = new State();
+        State end = new State();
+        start.transitions.add(new Transition(nfa.startState, counter, CounterOp.RESET));
+        if (min == 0) {
+            start.transitions.add(new Transition(null, end));
+        }
+        nfa.endState.transitions.add(new Transition(nfa.startState, counter, CounterOp.REPEAT));
+        nfa.endState.transitions.add(new Transition(end, counter, CounterOp.EXIT));
+        nfa.endState.isFinal = false;
+
+        return new NFA(start, end);
+    }
+
+    /**
+     * Expands a repetition into copies of the fragment.
+     */
+    private static NFA unroll(NFA body, int min, int max) {
+        int optional = max == Counter.UNBOUNDED ? 0 : max - min;
+        int total = min + (max == Counter.UNBOUNDED ? 1 : optional);
+        if (total == 0) {
+            // x{0} and x{0,0} match only the empty string
+            State start = new State();
+            State end = new State();
+            start.transitions.add(new Transition(null, end));
+            return new NFA(start, end);
+        }
+
+        // Copy before wiring anything, while the body is still a closed fragment
+        List<NFA> copies = new ArrayList<>();
+        copies.add(body);
+        for (int k = 1; k < total; k++) {
+            copies.add(copyFragment(body));
+        }
+
+        NFA required = null;
+        for (int k = 0; k < min; k++) {
+            required = required == null ? copies.get(k) : concatenate(required, copies.get(k));
+        }
+        NFA rest = null;
+        if (max == Counter.UNBOUNDED) {
+            rest = kleeneStar(copies.get(min));
+        } else if (optional > 0) {
+            // Nest the optional copies, (x(x(x)?)?)?, to keep epsilon closures small
+            rest = optional(copies.get(total - 1));
+            for (int k = total - 2; k >= min; k--) {
+                rest = optional(concatenate(copies.get(k), rest));
             }
         }
+        if (required == null) {
+            return rest;
+        }
+        return rest == null ? required : concatenate(required, rest);
+    }
 
-        if (stack.size() != 1) {
-            throw new IllegalStateException("Invalid postfix regex: stack size = " + stack.size());
+    /**
+     * Copies all states reachable from the fragment's start state, keeping transitions,
+     * tags and counters.
+     */
+    private static NFA copyFragment(NFA nfa) {
+        Map<State, State> copies = new IdentityHashMap<>();
+        Deque<State> pending = new ArrayDeque<>();
+        copies.put(nfa.startState, new State());
+        pending.push(nfa.startState);
+        while (!pending.isEmpty()) {
+            State original = pending.pop();
+            for (Transition t : original.transitions) {
+                if (!copies.containsKey(t.toState)) {
+                    copies.put(t.toState, new State());
+                    pending.push(t.toState);
+                }
+            }
         }
+        for (Map.Entry<State, State> e : copies.entrySet()) {
+            State original = e.getKey();
+            State copy = e.getValue();
+            copy.isFinal = original.isFinal;
+            for (Transition t : original.transitions) {
+                State to = copies.get(t.toState);
+                if (t.counter != null) {
+                    copy.transitions.add(new Transition(to, t.counter, t.counterOp));
+                } else if (t.isTagged()) {
+                    copy.transitions.add(new Transition(to, t.tag));
+                } else {
+                    copy.transitions.add(new Transition(t.symbol, to));
+                }
+            }
+        }
+        return new NFA(copies.get(nfa.startState), copies.get(nfa.endState));
+    }
+
+    /**
+     * Wraps a fragment in the opening and closing tags of a capture group.
+     */
+    private static NFA group(NFA nfa, int group) {
+        State start = new State();
+        State end = new State();
 
-        return stack.pop();
+        start.transitions.add(new Transition(nfa.startState, 2 * (group - 1)));
+        nfa.endState.transitions.add(new Transition(end, 2 * (group - 1) + 1));
+        nfa.endState.isFinal = false;
+
+        return new NFA(start, end);
     }
 
     /**
-     * Handles the '?' operator (zero or one occurrence).
+     * Builds x? (zero or one occurrence).
      */
-    private void handleOptional(Stack<NFA> stack) {
-        NFA nfa = stack.pop();
+    private static NFA optional(NFA nfa) {
         State start = new State();
         State end = new State();
+        nfa.endState.isFinal = false;
 
         start.transitions.add(new Transition(null, nfa.startState)); // epsilon to original
         start.transitions.add(new Transition(null, end));            // epsilon to end
         nfa.endState.transitions.add(new Transition(null, end));     // epsilon from old end to new end
 
-        stack.push(new NFA(start, end));
+        return new NFA(start, end);
     }
 
     /**
-     * Handles the '+' operator (one or more occurrences).
+     * Builds x+ (one or more occurrences).
      */
-    private void handlePlus(Stack<NFA> stack) {
-        NFA nfa = stack.pop();
+    private static NFA plus(NFA nfa) {
         State start = new State();
         State end = new State();
+        nfa.endState.isFinal = false;
 
         start.transitions.add(new Transition(null, nfa.startState)); // must go through once
         nfa.endState.transitions.add(new Transition(null, nfa.startState)); // loop back
         nfa.endState.transitions.add(new Transition(null, end));            // epsilon to end
 
-        stack.push(new NFA(start, end));
+        return new NFA(start, end);
     }
 
     /**
      * Creates an NFA for a single character.
      */
-    private NFA createNfaForCharacter(char c) {
+    private static NFA character(char c) {
         State start = new State();
         State end = new State();
         start.transitions.add(new Transition(c, end));
@@ -111,25 +423,19 @@ public class RegexParser {
     }
 
     /**
-     * Handles the concatenation operator (·).
+     * Builds the concatenation of two fragments.
      */
-    private void handleConcatenation(Stack<NFA> stack) {
-        NFA nfa2 = stack.pop();
-        NFA nfa1 = stack.pop();
-
+    private static NFA concatenate(NFA nfa1, NFA nfa2) {
         nfa1.endState.isFinal = false; // old end no longer final
         nfa1.endState.transitions.add(new Transition(null, nfa2.startState));
 
-        stack.push(new NFA(nfa1.startState, nfa2.endState));
+        return new NFA(nfa1.startState, nfa2.endState);
     }
 
     /**
-     * Handles the union operator (|).
+     * Builds the union of two fragments.
      */
-    private void handleUnion(Stack<NFA> stack) {
-        NFA nfa2 = stack.pop();
-        NFA nfa1 = stack.pop();
-
+    private static NFA union(NFA nfa1, NFA nfa2) {
         State start = new State();
         State end = new State();
 
@@ -142,15 +448,13 @@ public class RegexParser {
         nfa1.endState.isFinal = false;
         nfa2.endState.isFinal = false;
 
-        stack.push(new NFA(start, end));
+        return new NFA(start, end);
     }
 
     /**
-     * Handles the Kleene star operator (*).
+     * Builds x* (zero or more occurrences).
      */
-    private void handleKleeneStar(Stack<NFA> stack) {
-        NFA nfa = stack.pop();
-
+    private static NFA kleeneStar(NFA nfa) {
         State start = new State();
         State end = new State();
 
@@ -162,13 +466,6 @@ public class RegexParser {
 
         nfa.endState.isFinal = false;
 
-        stack.push(new NFA(start, end));
-    }
-
-    /**
-     * Checks if a character is an operand (not an operator).
-     */
-    private boolean isOperand(char c) {
-        return c != '|' && c != '*' && c != '?' && c != '+' && c != '·' && c != '(' && c != ')';
+        return new NFA(start, end);
     }
 }
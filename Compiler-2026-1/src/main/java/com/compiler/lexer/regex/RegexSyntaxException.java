@@ -0,0 +1,55 @@
+package com.compiler.lexer.regex;
+
+/**
+ * Thrown by {@link RegexParser} for a malformed regular expression. The message names the
+ * problem and its position, e.g. "Nothing to repeat at position 0 in '*a'".
+ */
+public class RegexSyntaxException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    /** The problem, without the position. */
+    private final String description;
+
+    /** The malformed pattern. */
+    private final String pattern;
+
+    /** Index of the offending character in the pattern. */
+    private final int index;
+
+    /**
+     * Constructs a syntax error.
+     * @param description The problem.
+     * @param pattern     The malformed pattern.
+     * @param index       The index of the offending character.
+     */
+    public RegexSyntaxException(String description, String pattern, int index) {
+        super(description + " at position " + index + " in '" + pattern + "'");
+        this.description = description;
+        this.pattern = pattern;
+        this.index = index;
+    }
+
+    /**
+     * Returns the problem without the position.
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the malformed pattern.
+     * @return The pattern.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the index of the offending character.
+     * @return The index in the pattern.
+     */
+    public int getIndex() {
+        return index;
+    }
+}
@@ -1,28 +1,48 @@
 package com.compiler.lexer.regex;
 
-import java.util.Map;
-import java.util.HashMap;
 import java.util.ArrayDeque;
 import java.util.Deque;
 
 /**
- * Utility class for regular expression parsing using the Shunting Yard algorithm.
+ * Utility class for converting regular expressions to postfix using the Shunting Yard algorithm.
+ * {@link RegexParser} compiles patterns in a single pass and does not use the postfix form;
+ * this class remains as a standalone converter for callers that want postfix output.
  * Supports operators: union '|', concatenation '·' (explicit), and unary postfix
- * operators '*', '+', '?' with parentheses '(' ')'.
+ * operators '*', '+', '?' and bounded repetition '{m}', '{m,}', '{m,n}' with parentheses '(' ')'.
  *
  * Notes:
  * - Use insertConcatenationOperator first to make implicit concatenations explicit.
  * - Backslash '\' escapes the next character and treats it as a literal.
+ * - A '{' that does not start a well-formed bound is an ordinary literal. In the postfix
+ *   output a bound is written as {@link #REPETITION_MARKER} followed by "m,n}" (n empty when
+ *   unbounded), so it cannot be confused with literal braces.
+ * - When capture groups are requested, every parenthesized group is numbered by the
+ *   position of its '(' (starting at 1) and closed in the postfix output by a group
+ *   marker character (see {@link #GROUP_MARKER}), a unary postfix operator.
  */
 public class ShuntingYard {
 
+    /**
+     * Base character of the group markers emitted by {@link #toPostfix(String, boolean)}.
+     * Group g is closed by the character {@code GROUP_MARKER + g}; markers live in the
+     * Unicode private use area so they cannot clash with ordinary pattern characters.
+     */
+    public static final char GROUP_MARKER = '\uE000';
+
+    /** Largest group number that can be encoded as a marker. */
+    public static final int MAX_GROUPS = 0x18FE;
+
+    /** Character that introduces a bounded repetition in the postfix output. */
+    public static final char REPETITION_MARKER = '\uF8FF';
+
     public ShuntingYard() { }
 
     /**
      * Inserts the explicit concatenation operator ('·') where concatenation is implied.
      * Rules (insert between A and B when):
-     *   Left A ∈ { operand, ')', '*', '+', '?' }
+     *   Left A ∈ { operand, ')', '*', '+', '?', bound }
      *   Right B ∈ { operand, '(', '\' (escape) }
+     * A bound such as '{2,5}' is copied as a single postfix operator.
      */
     public static String insertConcatenationOperator(String regex) {
         if (regex == null || regex.isEmpty()) return "";
@@ -32,9 +52,16 @@ public class ShuntingYard {
 
         for (int i = 0; i < n; i++) {
             char c = regex.charAt(i);
-
-            // Copy escapes as-is: '\x' -> two chars in output
-            if (c == '\\') {
+            boolean leftIsBound = false;
+
+            // Copy bounds whole: '{2,5}' is a single postfix operator
+            int boundEnd = c == '{' ? RegexParser.boundEnd(regex, i) : -1;
+            if (boundEnd >= 0) {
+                out.append(regex, i, boundEnd + 1);
+                i = boundEnd;
+                leftIsBound = true;
+            } else if (c == '\\') {
+                // Copy escapes as-is: '\x' -> two chars in output
                 out.append(c);
                 if (i + 1 < n) {
                     out.append(regex.charAt(++i));
@@ -64,11 +91,12 @@ public class ShuntingYard {
                 boolean leftIsEscape = (left == '\\');
                 // If left was an escape, the real left symbol is the escaped char already appended.
                 // For concatenation decision, an escaped char behaves like an operand.
-                boolean leftCanConcat =
-                        leftIsEscape || isOperand(left) || left == ')' || left == '*' || left == '+' || left == '?';
+                boolean leftCanConcat = leftIsBound
+                        || leftIsEscape || isOperand(left) || left == ')' || left == '*' || left == '+' || left == '?';
 
-                boolean rightCanConcat =
-                        rightIsEscape || isOperand(next) || next == '(';
+                boolean rightIsBound = next == '{' && RegexParser.boundEnd(regex, j) >= 0;
+                boolean rightCanConcat = !rightIsBound
+                        && (rightIsEscape || isOperand(next) || next == '(');
 
                 if (leftCanConcat && rightCanConcat) {
                     out.append('·');
@@ -93,26 +121,26 @@ public class ShuntingYard {
      * Associativity: left for '|' and '·'; right for postfix unary (*, +, ?)
      */
     public static String toPostfix(String infixRegex) {
+        return toPostfix(infixRegex, false);
+    }
+
+    /**
+     * Converts an infix regular expression to postfix, optionally numbering capture groups.
+     * With {@code captureGroups} set, the output contains a group marker right after the
+     * postfix form of each parenthesized subexpression.
+     *
+     * @param infixRegex    The regular expression in infix notation.
+     * @param captureGroups Whether to emit group markers.
+     * @return The postfix form of the expression.
+     */
+    public static String toPostfix(String infixRegex, boolean captureGroups) {
         if (infixRegex == null) throw new IllegalArgumentException("regex null");
         String withConcat = insertConcatenationOperator(infixRegex);
 
-        Map<Character, Integer> prec = new HashMap<>();
-        prec.put('|', 1);
-        prec.put('·', 2);
-        prec.put('*', 3);
-        prec.put('+', 3);
-        prec.put('?', 3);
-
-        // left-assoc for binary ops, right-assoc for unary postfix
-        Map<Character, Boolean> leftAssoc = new HashMap<>();
-        leftAssoc.put('|', true);
-        leftAssoc.put('·', true);
-        leftAssoc.put('*', false);
-        leftAssoc.put('+', false);
-        leftAssoc.put('?', false);
-
         StringBuilder output = new StringBuilder();
         Deque<Character> stack = new ArrayDeque<>();
+        Deque<Integer> openGroups = new ArrayDeque<>();
+        int groupCount = 0;
 
         int n = withConcat.length();
         for (int i = 0; i < n; i++) {
@@ -122,7 +150,16 @@ public class ShuntingYard {
                 continue;
             }
 
-            if (c == '\\') {
+            int boundEnd = c == '{' ? RegexParser.boundEnd(withConcat, i) : -1;
+            if (boundEnd >= 0) {
+                // postfix unary operators bind tighter than anything else, so the bound
+                // applies to the operand or group just written and is emitted right away
+                String bound = withConcat.substring(i + 1, boundEnd); // "m", "m," or "m,n"
+                output.append(REPETITION_MARKER)
+                      .append(bound.indexOf(',') < 0 ? bound + "," + bound : bound)
+                      .append('}');
+                i = boundEnd;
+            } else if (c == '\\') {
                 // escaped literal: output both '\' and the next char as a single literal token
                 output.append(c);
                 if (i + 1 < n) {
@@ -134,6 +171,12 @@ public class ShuntingYard {
                 output.append(c);
             } else if (c == '(') {
                 stack.push(c);
+                if (captureGroups) {
+                    if (++groupCount > MAX_GROUPS) {
+                        throw new IllegalArgumentException("Too many capture groups");
+                    }
+                    openGroups.push(groupCount);
+                }
             } else if (c == ')') {
                 while (!stack.isEmpty() && stack.peek() != '(') {
                     output.append(stack.pop());
@@ -142,14 +185,17 @@ public class ShuntingYard {
                     throw new IllegalArgumentException("Mismatched parentheses");
                 }
                 stack.pop(); // remove '('
+                if (captureGroups) {
+                    output.append((char) (GROUP_MARKER + openGroups.pop()));
+                }
             } else {
                 // operator
                 while (!stack.isEmpty() && stack.peek() != '(') {
                     char top = stack.peek();
-                    int pTop = prec.getOrDefault(top, -1);
-                    int pCur = prec.getOrDefault(c, -1);
+                    int pTop = precedence(top);
+                    int pCur = precedence(c);
 
-                    if (pTop > pCur || (pTop == pCur && leftAssoc.getOrDefault(c, true))) {
+                    if (pTop > pCur || (pTop == pCur && isLeftAssociative(c))) {
                         output.append(stack.pop());
                     } else {
                         break;
@@ -169,4 +215,36 @@ public class ShuntingYard {
 
         return output.toString();
     }
+
+    /**
+     * Returns the precedence of an operator, or -1 for anything else.
+     */
+    private static int precedence(char c) {
+        switch (c) {
+            case '|':
+                return 1;
+            case '·':
+                return 2;
+            case '*':
+            case '+':
+            case '?':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Binary operators are left-associative, unary postfix operators right-associative.
+     */
+    private static boolean isLeftAssociative(char c) {
+        return c != '*' && c != '+' && c != '?';
+    }
+
+    /**
+     * Returns true if c is a group marker emitted by {@link #toPostfix(String, boolean)}.
+     */
+    public static boolean isGroupMarker(char c) {
+        return c > GROUP_MARKER && c <= GROUP_MARKER + MAX_GROUPS;
+    }
 }
@@ -0,0 +1,62 @@
+package com.compiler.lexer.tdfa;
+
+/**
+ * SubmatchResult
+ * --------------
+ * Capture group boundaries of a successful match. Group 0 spans the whole input;
+ * groups that did not take part in the match report -1 as their boundaries.
+ */
+public class SubmatchResult {
+    private final String input;
+    private final int[] spans;
+
+    /**
+     * Constructs a result.
+     * @param input The matched input.
+     * @param spans Start and end offsets for groups 0..n, two entries per group.
+     */
+    public SubmatchResult(String input, int[] spans) {
+        this.input = input;
+        this.spans = spans;
+    }
+
+    /**
+     * Returns the number of capture groups, not counting group 0.
+     * @return the number of capture groups.
+     */
+    public int groupCount() {
+        return spans.length / 2 - 1;
+    }
+
+    /**
+     * Returns the start offset of a group.
+     * @param group The group number.
+     * @return The offset of the first character of the group, or -1.
+     */
+    public int start(int group) {
+        return spans[2 * group];
+    }
+
+    /**
+     * Returns the end offset (exclusive) of a group.
+     * @param group The group number.
+     * @return The offset just past the last character of the group, or -1.
+     */
+    public int end(int group) {
+        return spans[2 * group + 1];
+    }
+
+    /**
+     * Returns the text captured by a group.
+     * @param group The group number.
+     * @return The captured substring, or null if the group did not take part in the match.
+     */
+    public String group(int group) {
+        int start = start(group);
+        int end = end(group);
+        if (start < 0 || end < start) {
+            return null;
+        }
+        return input.substring(start, end);
+    }
+}
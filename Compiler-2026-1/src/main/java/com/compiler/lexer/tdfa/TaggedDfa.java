@@ -0,0 +1,87 @@
+package com.compiler.lexer.tdfa;
+
+/**
+ * TaggedDfa
+ * ---------
+ * A tagged deterministic finite automaton (TDFA) in the style of Laurikari.
+ *
+ * Each state is an ordered list of NFA threads ("slots"), highest priority first. Every slot
+ * owns one register per tag, so register r = slot * tagCount + tag holds the input position
+ * where that thread last crossed the tag. Each transition carries a register operation list
+ * that computes the target state's registers from the source state's registers, either by
+ * copying a register or by storing the current position. Matching therefore runs in a single
+ * left-to-right pass with a bounded number of registers and no backtracking.
+ *
+ * The automaton is stored in flat arrays indexed by {@code state * alphabet.length + symbol}.
+ */
+public class TaggedDfa {
+    /** Register operation code: store the current input position. */
+    public static final int SET_POSITION = -1;
+
+    /** Register operation code (initial operations only): the tag has not been seen. */
+    public static final int UNSET = -2;
+
+    /** Sorted input alphabet; symbols are referred to by their index in this array. */
+    public final char[] alphabet;
+
+    /** Number of tags (two per capture group). */
+    public final int tagCount;
+
+    /** Number of states; state 0 is the start state. */
+    public final int stateCount;
+
+    /** Number of slots of each state. */
+    public final int[] slotCount;
+
+    /** Target state of each transition, or -1 if the input is rejected. */
+    public final int[] transitions;
+
+    /**
+     * Register operations of each transition. Entry k of the list gives the new value of
+     * register k of the target state: a source register index or {@link #SET_POSITION}.
+     */
+    public final int[][] registerOps;
+
+    /** Operations that initialize the registers of the start state ({@link #SET_POSITION} or {@link #UNSET}). */
+    public final int[] initialOps;
+
+    /** Highest priority accepting slot of each state, or -1 if the state is not accepting. */
+    public final int[] finalSlot;
+
+    /** Number of registers needed by the largest state. */
+    public final int registerCount;
+
+    /**
+     * Constructs a tagged DFA from its tables.
+     */
+    public TaggedDfa(char[] alphabet, int tagCount, int[] slotCount, int[] transitions,
+                     int[][] registerOps, int[] initialOps, int[] finalSlot) {
+        this.alphabet = alphabet;
+        this.tagCount = tagCount;
+        this.stateCount = slotCount.length;
+        this.slotCount = slotCount;
+        this.transitions = transitions;
+        this.registerOps = registerOps;
+        this.initialOps = initialOps;
+        this.finalSlot = finalSlot;
+
+        int maxSlots = 0;
+        for (int slots : slotCount) {
+            maxSlots = Math.max(maxSlots, slots);
+        }
+        this.registerCount = maxSlots * tagCount;
+    }
+
+    /**
+     * Returns the number of capture groups, not counting the implicit group 0.
+     * @return the number of capture groups.
+     */
+    public int getGroupCount() {
+        return tagCount / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "TaggedDfa{states=" + stateCount + ", tags=" + tagCount + ", registers=" + registerCount + "}";
+    }
+}
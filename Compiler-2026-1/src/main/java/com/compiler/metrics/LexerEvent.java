@@ -0,0 +1,26 @@
+package com.compiler.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event: Tokenization of an input by the lexer.
+ */
+@Name("com.compiler.Lexer")
+@Label("Lexer Run")
+@Category({"Compiler", "Lexer"})
+@Description("Tokenization of an input by the lexer.")
+class LexerEvent extends jdk.jfr.Event {
+    @Label("Characters")
+    long characters;
+
+    @Label("Tokens")
+    long tokens;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
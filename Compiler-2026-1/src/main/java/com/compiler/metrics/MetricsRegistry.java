@@ -0,0 +1,134 @@
+package com.compiler.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of named counters and summaries.
+ * <p>
+ * The registry is disabled by default; while disabled, instrumented code skips all timing and
+ * bookkeeping (see {@link PipelineMetrics}). Metric names are dot-separated, e.g.
+ * {@code regex.parse.nanos} or {@code simulate.dfa.chars}.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    /**
+     * Creates an empty, disabled registry.
+     */
+    public MetricsRegistry() { }
+
+    /**
+     * Returns the registry used by the compiler pipeline.
+     * @return the global registry.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Enables or disables collection.
+     * @param enabled True to collect metrics.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether metrics are being collected.
+     * @return True if enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds to a counter, creating it if needed.
+     * @param name  The counter name.
+     * @param delta The amount to add.
+     */
+    public void increment(String name, long delta) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Records a value in a summary, creating it if needed.
+     * @param name  The summary name.
+     * @param value The value to record.
+     */
+    public void record(String name, long value) {
+        summaries.computeIfAbsent(name, k -> new Summary()).record(value);
+    }
+
+    /**
+     * Returns the value of a counter.
+     * @param name The counter name.
+     * @return The counter value, or 0 if it does not exist.
+     */
+    public long getCounter(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Returns a summary.
+     * @param name The summary name.
+     * @return The summary (empty if nothing was recorded under that name).
+     */
+    public Summary getSummary(String name) {
+        Summary summary = summaries.get(name);
+        return summary == null ? new Summary() : summary;
+    }
+
+    /**
+     * Returns a throughput in units per second: the counter divided by a duration summary's total.
+     * @param counterName The counter holding the amount of work (e.g. characters).
+     * @param nanosName   The summary holding the time spent, in nanoseconds.
+     * @return The rate per second, or 0 if no time was recorded.
+     */
+    public double getRatePerSecond(String counterName, String nanosName) {
+        long nanos = getSummary(nanosName).getTotal();
+        return nanos == 0 ? 0 : getCounter(counterName) * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Returns the hit rate of a cache tracked with {@code <name>.hits} and {@code <name>.misses} counters.
+     * @param cacheName The cache name.
+     * @return The fraction of hits between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRate(String cacheName) {
+        long hits = getCounter(cacheName + ".hits");
+        long lookups = hits + getCounter(cacheName + ".misses");
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns a sorted snapshot of all counters and summary totals, for logging or export.
+     * Summaries contribute {@code <name>.count}, {@code <name>.total} and {@code <name>.max}.
+     * @return The snapshot.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, value) -> snapshot.put(name, value.sum()));
+        summaries.forEach((name, summary) -> {
+            snapshot.put(name + ".count", summary.getCount());
+            snapshot.put(name + ".total", summary.getTotal());
+            snapshot.put(name + ".max", summary.getMax());
+        });
+        return snapshot;
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        counters.clear();
+        summaries.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package com.compiler.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event: Minimization of a DFA.
+ */
+@Name("com.compiler.Minimization")
+@Label("DFA Minimization")
+@Category({"Compiler", "Lexer"})
+@Description("Minimization of a DFA.")
+class MinimizationEvent extends jdk.jfr.Event {
+    @Label("States Before")
+    int statesBefore;
+
+    @Label("States After")
+    int statesAfter;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
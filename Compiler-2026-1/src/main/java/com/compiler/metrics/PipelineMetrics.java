@@ -0,0 +1,221 @@
+package com.compiler.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * PipelineMetrics
+ * ---------------
+ * Instrumentation entry points for the regex-to-automaton pipeline and the lexer.
+ *
+ * Every measured operation calls {@link #start()} first and one of the recording methods at the
+ * end. When neither the {@link MetricsRegistry#global() global registry} is enabled nor a Flight
+ * Recorder recording is running, {@code start()} returns 0 and the recording methods return
+ * immediately, so the cost of disabled instrumentation is a couple of field reads per operation.
+ * Running recordings are tracked by a {@link FlightRecorderListener}, since Flight Recorder
+ * stays initialized after its last recording stops.
+ *
+ * When enabled, each operation commits a Flight Recorder event (category "Compiler / Lexer")
+ * and updates the registry:
+ * - {@code regex.parse.nanos}, {@code nfa.states}
+ * - {@code subset.construction.nanos}, {@code dfa.states}, {@code subset.construction.aborted}
+ * - {@code dfa.minimization.nanos}, {@code dfa.minimization.states}
+ * - {@code simulate.<automaton>.nanos}, {@code simulate.<automaton>.chars}
+ * - {@code lexer.nanos}, {@code lexer.chars}, {@code lexer.tokens}
+ * - {@code automaton.cache.hits}, {@code automaton.cache.misses}
+ */
+public class PipelineMetrics {
+    private static final Set<Recording> running = ConcurrentHashMap.newKeySet();
+    private static volatile boolean recording;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording r) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running.add(r);
+                } else {
+                    running.remove(r);
+                }
+                recording = !running.isEmpty();
+            }
+        });
+        // Recordings started before this class was loaded, e.g. with -XX:StartFlightRecording
+        if (FlightRecorder.isInitialized()) {
+            for (Recording r : FlightRecorder.getFlightRecorder().getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running.add(r);
+                }
+            }
+            recording = !running.isEmpty();
+        }
+    }
+
+    public PipelineMetrics() {
+        // Utility class, no initialization required
+    }
+
+    /**
+     * Starts measuring an operation.
+     * @return The start time in nanoseconds, or 0 if instrumentation is disabled.
+     */
+    public static long start() {
+        if (MetricsRegistry.global().isEnabled() || recording) {
+            long now = System.nanoTime();
+            return now == 0 ? 1 : now;
+        }
+        return 0L;
+    }
+
+    /**
+     * Records the construction of an NFA from a pattern.
+     * @param start     The value returned by {@link #start()}.
+     * @param pattern   The infix pattern.
+     * @param nfaStates The number of NFA states reachable from the start state.
+     * @param counters  The number of repetition counters.
+     */
+    public static void regexParsed(long start, String pattern, int nfaStates, int counters) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        RegexParseEvent event = new RegexParseEvent();
+        if (event.shouldCommit()) {
+            event.pattern = pattern;
+            event.nfaStates = nfaStates;
+            event.counters = counters;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) {
+            registry.record("regex.parse.nanos", elapsed);
+            registry.record("nfa.states", nfaStates);
+        }
+    }
+
+    /**
+     * Records a subset construction.
+     * @param start          The value returned by {@link #start()}.
+     * @param pattern        The pattern name, or null.
+     * @param dfaStates      The number of DFA states built.
+     * @param frontierStates The number of states left unexpanded.
+     * @param complete       Whether construction finished within budget.
+     */
+    public static void subsetConstructed(long start, String pattern, int dfaStates, int frontierStates, boolean complete) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        SubsetConstructionEvent event = new SubsetConstructionEvent();
+        if (event.shouldCommit()) {
+            event.pattern = pattern;
+            event.dfaStates = dfaStates;
+            event.frontierStates = frontierStates;
+            event.complete = complete;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) {
+            registry.record("subset.construction.nanos", elapsed);
+            registry.record("dfa.states", dfaStates);
+            if (!complete) {
+                registry.increment("subset.construction.aborted", 1);
+            }
+        }
+    }
+
+    /**
+     * Records a DFA minimization.
+     * @param start        The value returned by {@link #start()}.
+     * @param statesBefore The number of states of the original DFA.
+     * @param statesAfter  The number of states of the minimized DFA.
+     */
+    public static void minimized(long start, int statesBefore, int statesAfter) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        MinimizationEvent event = new MinimizationEvent();
+        if (event.shouldCommit()) {
+            event.statesBefore = statesBefore;
+            event.statesAfter = statesAfter;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) {
+            registry.record("dfa.minimization.nanos", elapsed);
+            registry.record("dfa.minimization.states", statesAfter);
+        }
+    }
+
+    /**
+     * Records a simulation run.
+     * @param start      The value returned by {@link #start()}.
+     * @param automaton  The kind of automaton: "dfa", "nfa", "hybrid" or "tdfa".
+     * @param characters The number of input characters.
+     * @param accepted   Whether the input was accepted.
+     */
+    public static void simulated(long start, String automaton, int characters, boolean accepted) {
+        simulated(start, automaton, characters, accepted, 0, 0);
+    }
+
+    /**
+     * Records a simulation run of a matcher that caches automaton states.
+     * @param start       The value returned by {@link #start()}.
+     * @param automaton   The kind of automaton.
+     * @param characters  The number of input characters.
+     * @param accepted    Whether the input was accepted.
+     * @param cacheHits   Characters handled by cached (already determinized) states.
+     * @param cacheMisses Characters that needed NFA simulation.
+     */
+    public static void simulated(long start, String automaton, int characters, boolean accepted,
+                                 long cacheHits, long cacheMisses) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        SimulationEvent event = new SimulationEvent();
+        if (event.shouldCommit()) {
+            event.automaton = automaton;
+            event.characters = characters;
+            event.accepted = accepted;
+            event.cacheHits = cacheHits;
+            event.cacheMisses = cacheMisses;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) {
+            registry.record("simulate." + automaton + ".nanos", elapsed);
+            registry.increment("simulate." + automaton + ".chars", characters);
+            if (cacheHits + cacheMisses > 0) {
+                registry.increment("automaton.cache.hits", cacheHits);
+                registry.increment("automaton.cache.misses", cacheMisses);
+            }
+        }
+    }
+
+    /**
+     * Records a lexer run.
+     * @param start      The value returned by {@link #start()}.
+     * @param characters The number of characters consumed.
+     * @param tokens     The number of tokens produced.
+     */
+    public static void lexed(long start, long characters, long tokens) {
+        if (start == 0L) return;
+        long elapsed = System.nanoTime() - start;
+        LexerEvent event = new LexerEvent();
+        if (event.shouldCommit()) {
+            event.characters = characters;
+            event.tokens = tokens;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        if (registry.isEnabled()) {
+            registry.record("lexer.nanos", elapsed);
+            registry.increment("lexer.chars", characters);
+            registry.increment("lexer.tokens", tokens);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.compiler.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event: Construction of an NFA from a regular expression.
+ */
+@Name("com.compiler.RegexParse")
+@Label("Regex Parse")
+@Category({"Compiler", "Lexer"})
+@Description("Construction of an NFA from a regular expression.")
+class RegexParseEvent extends jdk.jfr.Event {
+    @Label("Pattern")
+    String pattern;
+
+    @Label("NFA States")
+    int nfaStates;
+
+    @Label("Counters")
+    int counters;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
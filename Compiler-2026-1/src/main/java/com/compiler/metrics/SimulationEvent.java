@@ -0,0 +1,35 @@
+package com.compiler.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event: Matching of an input string against an automaton.
+ */
+@Name("com.compiler.Simulation")
+@Label("Automaton Simulation")
+@Category({"Compiler", "Lexer"})
+@Description("Matching of an input string against an automaton.")
+class SimulationEvent extends jdk.jfr.Event {
+    @Label("Automaton")
+    String automaton;
+
+    @Label("Characters")
+    int characters;
+
+    @Label("Accepted")
+    boolean accepted;
+
+    @Label("Cache Hits")
+    long cacheHits;
+
+    @Label("Cache Misses")
+    long cacheMisses;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
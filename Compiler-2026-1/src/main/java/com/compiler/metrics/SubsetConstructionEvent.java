@@ -0,0 +1,32 @@
+package com.compiler.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event: Conversion of an NFA to a DFA by subset construction.
+ */
+@Name("com.compiler.SubsetConstruction")
+@Label("Subset Construction")
+@Category({"Compiler", "Lexer"})
+@Description("Conversion of an NFA to a DFA by subset construction.")
+class SubsetConstructionEvent extends jdk.jfr.Event {
+    @Label("Pattern")
+    String pattern;
+
+    @Label("DFA States")
+    int dfaStates;
+
+    @Label("Frontier States")
+    int frontierStates;
+
+    @Label("Complete")
+    boolean complete;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,64 @@
+package com.compiler.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running summary of recorded values: count, total and maximum.
+ * Used both for durations (in nanoseconds) and for sizes such as state counts.
+ * Safe for concurrent use.
+ */
+public class Summary {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records a value.
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        count.increment();
+        total.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     * @return the total.
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return the maximum, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        long m = max.get();
+        return m == Long.MIN_VALUE ? 0 : m;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return the mean, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getTotal() / n;
+    }
+
+    @Override
+    public String toString() {
+        return "Summary{count=" + getCount() + ", total=" + getTotal() + ", max=" + getMax() + "}";
+    }
+}
@@ -0,0 +1,59 @@
+package com.compiler.parser;
+
+import com.compiler.lexer.Token;
+
+/**
+ * Receives a parse as a stream of events instead of a tree, so a listener that validates,
+ * indexes or measures the input needs no memory beyond the parser's stack.
+ * <p>
+ * Productions and terminals are identified by the IDs of the parser's
+ * {@link com.compiler.parser.grammar.CompactGrammar}. Rule spans run from the offset of the
+ * first token of the rule to the end of its last token; a rule that matched no token has an
+ * empty span at the end of the preceding token.
+ * <p>
+ * A top-down parser knows a rule before reading it and calls {@link #enterRule} and
+ * {@link #exitRule} around its tokens. A bottom-up parser only knows a rule once it reduces
+ * it, so it calls {@link #exitRule} alone, after the rule's tokens and sub-rules.
+ */
+public interface ParseListener {
+
+    /**
+     * Called when a top-down parser starts a rule.
+     * @param production The production index.
+     * @param offset     Offset of the lookahead token, or the end of the input.
+     */
+    default void enterRule(int production, int offset) {
+    }
+
+    /**
+     * Called when a rule is complete (reduced).
+     * @param production The production index.
+     * @param start      Offset of the first character of the rule.
+     * @param end        Offset just past the last character of the rule.
+     */
+    default void exitRule(int production, int start, int end) {
+    }
+
+    /**
+     * Called when a token is matched (shifted).
+     * @param terminal The terminal ID.
+     * @param token    The token.
+     */
+    default void token(int terminal, Token token) {
+    }
+
+    /**
+     * Called when the parse stops at a syntax error.
+     * @param error The error.
+     */
+    default void syntaxError(SyntaxError error) {
+    }
+
+    /**
+     * Checked after every event; returning true stops the parse.
+     * @return true if the listener needs no more events.
+     */
+    default boolean isDone() {
+        return false;
+    }
+}
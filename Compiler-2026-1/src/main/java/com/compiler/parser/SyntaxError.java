@@ -0,0 +1,64 @@
+package com.compiler.parser;
+
+import java.util.List;
+
+import com.compiler.lexer.Token;
+
+/**
+ * A syntax error reported by a parser that recovers and keeps going.
+ */
+public class SyntaxError {
+    private final Token token;
+    private final int offset;
+    private final List<String> expected;
+
+    /**
+     * Creates an error report.
+     * @param token    The offending token, or null at the end of the input.
+     * @param offset   Offset of the token, or the end of the last token at the end of the input.
+     * @param expected Names of the terminals that would have been accepted.
+     */
+    public SyntaxError(Token token, int offset, List<String> expected) {
+        this.token = token;
+        this.offset = offset;
+        this.expected = List.copyOf(expected);
+    }
+
+    /**
+     * Returns the offending token.
+     * @return The token, or null if the input ended too early.
+     */
+    public Token getToken() {
+        return token;
+    }
+
+    /**
+     * Returns where the error was detected.
+     * @return The offset in the input.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the terminals the parser expected instead.
+     * @return Terminal names, possibly including {@code $}.
+     */
+    public List<String> getExpected() {
+        return expected;
+    }
+
+    /**
+     * Returns a human-readable description of the error.
+     * @return The message.
+     */
+    public String getMessage() {
+        String found = token == null ? "end of input" : "'" + token.lexeme + "'";
+        return "Unexpected " + found + " at offset " + offset + ", expected " + String.join(", ", expected);
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
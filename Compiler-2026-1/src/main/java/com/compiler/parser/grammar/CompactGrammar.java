@@ -0,0 +1,241 @@
+package com.compiler.parser.grammar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer view of a {@link Grammar}, for analyses and table builders that index arrays
+ * and bitsets instead of hashing {@link Symbol}s.
+ * <p>
+ * Symbol IDs are assigned terminals first:
+ * <ul>
+ *   <li>0 is the end-of-input marker {@code $} ({@link #END}),</li>
+ *   <li>1 .. terminalCount-1 are the grammar's terminals, in order of first appearance,</li>
+ *   <li>terminalCount .. symbolCount-1 are the non-terminals, in definition order; the first
+ *       one is the start symbol.</li>
+ * </ul>
+ * Productions keep the order of {@link Grammar#getProductions()}. A right-hand side is an
+ * {@code int[]} of symbol IDs; ε is dropped, so an ε-production has an empty right-hand side.
+ * The productions of each non-terminal are also available as a contiguous range of
+ * {@link #getProductionsByLeft() production indices}.
+ */
+public class CompactGrammar {
+    /** ID of the end-of-input marker {@code $}. */
+    public static final int END = 0;
+
+    /** Name of the end-of-input marker. */
+    public static final String END_NAME = "$";
+
+    /** Name of the empty string in grammar definitions. */
+    public static final String EPSILON_NAME = "ε";
+
+    private final Symbol[] symbols;
+    private final Map<Symbol, Integer> ids;
+    private final int terminalCount;
+    private final int[] left;
+    private final int[][] right;
+    private final List<Production> productions;
+    private final int[] byLeftStart;
+    private final int[] byLeft;
+
+    /**
+     * Compiles the compact view of a grammar.
+     *
+     * @param terminals    The terminals, in order.
+     * @param nonTerminals The non-terminals, in order; the first is the start symbol.
+     * @param productions  The productions.
+     * @throws IllegalArgumentException if a production uses a symbol that is not listed.
+     */
+    CompactGrammar(List<Symbol> terminals, List<Symbol> nonTerminals, List<Production> productions) {
+        List<Symbol> all = new ArrayList<>();
+        Symbol end = new Symbol(END_NAME, SymbolType.TERMINAL);
+        all.add(end);
+        for (Symbol t : terminals) {
+            if (!t.equals(end)) {
+                all.add(t);
+            }
+        }
+        this.terminalCount = all.size();
+        all.addAll(nonTerminals);
+        this.symbols = all.toArray(new Symbol[0]);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            ids.put(symbols[i], i);
+        }
+
+        int count = productions.size();
+        this.productions = Collections.unmodifiableList(new ArrayList<>(productions));
+        this.left = new int[count];
+        this.right = new int[count][];
+        int[] perLeft = new int[nonTerminals.size() + 1];
+        for (int p = 0; p < count; p++) {
+            Production production = productions.get(p);
+            left[p] = idOf(production.getLeft());
+            int[] rhs = new int[production.getRight().size()];
+            int n = 0;
+            for (Symbol s : production.getRight()) {
+                if (!s.name.equals(EPSILON_NAME)) {
+                    rhs[n++] = idOf(s);
+                }
+            }
+            right[p] = n == rhs.length ? rhs : Arrays.copyOf(rhs, n);
+            perLeft[left[p] - terminalCount + 1]++;
+        }
+
+        // Counting sort of production indices by left-hand side
+        this.byLeftStart = new int[nonTerminals.size() + 1];
+        for (int a = 0; a < nonTerminals.size(); a++) {
+            byLeftStart[a + 1] = byLeftStart[a] + perLeft[a + 1];
+        }
+        this.byLeft = new int[count];
+        int[] next = Arrays.copyOf(byLeftStart, nonTerminals.size());
+        for (int p = 0; p < count; p++) {
+            byLeft[next[left[p] - terminalCount]++] = p;
+        }
+    }
+
+    private int idOf(Symbol symbol) {
+        Integer id = ids.get(symbol);
+        if (id == null) {
+            throw new IllegalArgumentException("Undefined symbol: " + symbol.name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of terminals, including {@code $}.
+     * @return The terminal count; terminal IDs are 0 .. count-1.
+     */
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    /**
+     * Returns the number of non-terminals.
+     * @return The non-terminal count.
+     */
+    public int getNonTerminalCount() {
+        return symbols.length - terminalCount;
+    }
+
+    /**
+     * Returns the total number of symbols.
+     * @return The symbol count; symbol IDs are 0 .. count-1.
+     */
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    /**
+     * Returns the ID of the start symbol.
+     * @return The start symbol ID.
+     */
+    public int getStartSymbol() {
+        return terminalCount;
+    }
+
+    /**
+     * Checks whether an ID denotes a terminal.
+     * @param id A symbol ID.
+     * @return true if the symbol is a terminal (including {@code $}).
+     */
+    public boolean isTerminal(int id) {
+        return id < terminalCount;
+    }
+
+    /**
+     * Returns the 0-based index of a non-terminal, for arrays sized by {@link #getNonTerminalCount()}.
+     * @param id A non-terminal ID.
+     * @return {@code id - terminalCount}.
+     */
+    public int nonTerminalIndex(int id) {
+        return id - terminalCount;
+    }
+
+    /**
+     * Returns the symbol with the given ID.
+     * @param id A symbol ID.
+     * @return The symbol.
+     */
+    public Symbol getSymbol(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * Returns the name of the symbol with the given ID.
+     * @param id A symbol ID.
+     * @return The symbol name.
+     */
+    public String getName(int id) {
+        return symbols[id].name;
+    }
+
+    /**
+     * Returns the ID of a symbol.
+     * @param symbol A terminal, non-terminal or {@code $}.
+     * @return The ID, or -1 if the symbol is not part of the grammar.
+     */
+    public int getId(Symbol symbol) {
+        Integer id = ids.get(symbol);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the number of productions.
+     * @return The production count.
+     */
+    public int getProductionCount() {
+        return left.length;
+    }
+
+    /**
+     * Returns the left-hand side of a production.
+     * @param production A production index.
+     * @return The ID of the non-terminal.
+     */
+    public int getLeft(int production) {
+        return left[production];
+    }
+
+    /**
+     * Returns the right-hand side of a production. The array is shared and must not be modified.
+     * @param production A production index.
+     * @return The symbol IDs, empty for an ε-production.
+     */
+    public int[] getRight(int production) {
+        return right[production];
+    }
+
+    /**
+     * Returns the original production object.
+     * @param production A production index.
+     * @return The production.
+     */
+    public Production getProduction(int production) {
+        return productions.get(production);
+    }
+
+    /**
+     * Returns the production indices grouped by left-hand side. The productions of the
+     * non-terminal with index {@code a} are the entries from {@code getProductionsByLeftStart()[a]}
+     * (inclusive) to {@code getProductionsByLeftStart()[a + 1]} (exclusive). The array is shared
+     * and must not be modified.
+     * @return The grouped production indices.
+     */
+    public int[] getProductionsByLeft() {
+        return byLeft;
+    }
+
+    /**
+     * Returns the start offsets into {@link #getProductionsByLeft()} per non-terminal index,
+     * with one extra trailing entry. The array is shared and must not be modified.
+     * @return The offsets.
+     */
+    public int[] getProductionsByLeftStart() {
+        return byLeftStart;
+    }
+}
@@ -35,6 +35,10 @@ public class Grammar {
      * The start symbol of the grammar.
      */
     private final Symbol startSymbol;
+    /**
+     * Dense integer view of the grammar, built on first use.
+     */
+    private CompactGrammar compact;
 
     /**
      * Constructs a Grammar from a string definition.
@@ -87,8 +91,11 @@ public class Grammar {
         tempProductions.addAll(buildProductions(productionMap, symbolMap));
 
         GrammarData data = new GrammarData();
-        data.nonTerminals = nonTerminalNames.stream().map(symbolMap::get).collect(java.util.stream.Collectors.toSet());
-        data.terminals = terminalNames.stream().map(symbolMap::get).collect(java.util.stream.Collectors.toSet());
+        // Ordered sets, so the compact view numbers symbols in definition order
+        data.nonTerminals = nonTerminalNames.stream().map(symbolMap::get)
+                .collect(java.util.stream.Collectors.toCollection(java.util.LinkedHashSet::new));
+        data.terminals = terminalNames.stream().map(symbolMap::get)
+                .collect(java.util.stream.Collectors.toCollection(java.util.LinkedHashSet::new));
         data.productions = tempProductions;
         data.startSymbol = symbolMap.get(nonTerminalNames.iterator().next());
         return data;
@@ -239,4 +246,18 @@ public class Grammar {
     public Symbol getStartSymbol() {
         return startSymbol;
     }
+
+    /**
+     * Returns the dense integer view of the grammar, compiling it on first use.
+     * Terminals are numbered in order of first appearance after {@code $} (ID 0), followed by
+     * the non-terminals in definition order.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getCompactGrammar() {
+        if (compact == null) {
+            compact = new CompactGrammar(new java.util.ArrayList<>(terminals),
+                    new java.util.ArrayList<>(nonTerminals), productions);
+        }
+        return compact;
+    }
 }
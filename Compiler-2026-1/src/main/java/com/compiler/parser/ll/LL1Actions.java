@@ -0,0 +1,33 @@
+package com.compiler.parser.ll;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.SyntaxError;
+
+/**
+ * Semantic actions run by {@link LL1Driver} as it parses. Symbols and productions are
+ * identified by the IDs of the table's {@link com.compiler.parser.grammar.CompactGrammar}.
+ */
+public interface LL1Actions {
+
+    /**
+     * Called when a non-terminal on the stack is replaced by the right-hand side of a production.
+     * @param production The production index.
+     */
+    default void expand(int production) {
+    }
+
+    /**
+     * Called when a terminal on the stack matches the current token.
+     * @param terminal The terminal ID.
+     * @param token    The matched token.
+     */
+    default void match(int terminal, Token token) {
+    }
+
+    /**
+     * Called when error recovery reports a syntax error.
+     * @param error The error.
+     */
+    default void error(SyntaxError error) {
+    }
+}
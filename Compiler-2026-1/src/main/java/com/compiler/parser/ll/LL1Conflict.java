@@ -0,0 +1,69 @@
+package com.compiler.parser.ll;
+
+import java.util.List;
+
+import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
+
+/**
+ * A cell of the LL(1) table that more than one production predicts.
+ */
+public class LL1Conflict {
+    private final Symbol nonTerminal;
+    private final Symbol terminal;
+    private final List<Production> productions;
+
+    /**
+     * Creates a conflict report.
+     * @param nonTerminal The row of the cell.
+     * @param terminal    The column of the cell.
+     * @param productions The competing productions, in grammar order.
+     */
+    public LL1Conflict(Symbol nonTerminal, Symbol terminal, List<Production> productions) {
+        this.nonTerminal = nonTerminal;
+        this.terminal = terminal;
+        this.productions = List.copyOf(productions);
+    }
+
+    /**
+     * Returns the non-terminal of the conflicting cell.
+     * @return The non-terminal.
+     */
+    public Symbol getNonTerminal() {
+        return nonTerminal;
+    }
+
+    /**
+     * Returns the lookahead terminal of the conflicting cell.
+     * @return The terminal, possibly {@code $}.
+     */
+    public Symbol getTerminal() {
+        return terminal;
+    }
+
+    /**
+     * Returns the productions that predict the cell.
+     * @return At least two productions of the non-terminal.
+     */
+    public List<Production> getProductions() {
+        return productions;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("M[").append(nonTerminal.name).append(", ").append(terminal.name).append("]:");
+        for (Production p : productions) {
+            sb.append(' ').append(p.getLeft().name).append(" ->");
+            for (Symbol s : p.getRight()) {
+                sb.append(' ').append(s.name);
+            }
+            if (p.getRight().isEmpty()) {
+                sb.append(" ε");
+            }
+            sb.append(';');
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+}
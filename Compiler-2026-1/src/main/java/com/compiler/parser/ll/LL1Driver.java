@@ -0,0 +1,272 @@
+package com.compiler.parser.ll;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenSource;
+import com.compiler.parser.ParseListener;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Streaming LL(1) predictive parser.
+ * <p>
+ * Tokens are pulled one at a time from a {@link TokenSource}, so parsing runs in lockstep with
+ * the lexer and the input never has to be held in memory. The parse stack is an {@code int[]}
+ * of symbol IDs that grows by doubling and is reused across parses; each step is an array
+ * lookup in the {@link LL1Table} and allocates nothing. A token is matched to a terminal by
+ * its {@link Token#type}, which must equal the terminal's name.
+ * <p>
+ * {@link #parse(TokenSource)} stops at the first error; {@link #parseAll(TokenSource)} recovers
+ * and reports every error of the input in one pass. {@link #parse(TokenSource, ParseListener)}
+ * streams the parse as events without building anything.
+ */
+public class LL1Driver {
+    private static final LL1Actions NO_ACTIONS = new LL1Actions() { };
+
+    private final LL1Table table;
+    private final CompactGrammar grammar;
+    private final Map<String, Integer> terminalIds = new HashMap<>();
+    private final int[][] reversedRight;
+    private int[] stack = new int[64];
+
+    /**
+     * Creates a driver for a built table.
+     * @param table The LL(1) table.
+     * @throws IllegalArgumentException if the table has not been built.
+     */
+    public LL1Driver(LL1Table table) {
+        if (!table.isBuilt()) {
+            throw new IllegalArgumentException("LL(1) table has not been built");
+        }
+        this.table = table;
+        this.grammar = table.getCompactGrammar();
+        for (int t = 1; t < grammar.getTerminalCount(); t++) {
+            terminalIds.put(grammar.getName(t), t);
+        }
+        this.reversedRight = new int[grammar.getProductionCount()][];
+        for (int p = 0; p < reversedRight.length; p++) {
+            int[] rhs = grammar.getRight(p);
+            int[] reversed = new int[rhs.length];
+            for (int i = 0; i < rhs.length; i++) {
+                reversed[i] = rhs[rhs.length - 1 - i];
+            }
+            reversedRight[p] = reversed;
+        }
+    }
+
+    /**
+     * Validates the tokens of a source.
+     * @param source The token source.
+     * @return true if the input is accepted, false otherwise.
+     */
+    public boolean parse(TokenSource source) {
+        return parse(source, NO_ACTIONS);
+    }
+
+    /**
+     * Validates the tokens of a source, running semantic actions on every expansion and match.
+     * Parsing stops at the first error.
+     * @param source  The token source.
+     * @param actions The semantic actions.
+     * @return true if the input is accepted, false otherwise.
+     */
+    public boolean parse(TokenSource source, LL1Actions actions) {
+        return run(source, actions, null, null);
+    }
+
+    /**
+     * Parses the tokens of a source as a stream of events. Every expansion is bracketed by
+     * {@link ParseListener#enterRule} and {@link ParseListener#exitRule}, with the matched tokens
+     * in between; the end of a rule is a marker on the parse stack, so memory stays proportional
+     * to the stack depth. Parsing stops at the first error or when the listener is done.
+     * @param source   The token source.
+     * @param listener The listener.
+     * @return true if the input is accepted, false on an error or if the listener stopped early.
+     */
+    public boolean parse(TokenSource source, ParseListener listener) {
+        return run(source, NO_ACTIONS, listener, null);
+    }
+
+    /**
+     * Parses the whole input, recovering from syntax errors so that one pass reports all of them.
+     * @param source The token source.
+     * @return The errors in input order; empty if the input is accepted.
+     */
+    public List<SyntaxError> parseAll(TokenSource source) {
+        return parseAll(source, NO_ACTIONS);
+    }
+
+    /**
+     * Parses the whole input with semantic actions, recovering from syntax errors.
+     * <p>
+     * Recovery is panic mode on the table's precomputed cells, with a phrase-level fix for
+     * terminals:
+     * <ul>
+     *   <li>A terminal on the stack that does not match is popped, as if it had been inserted.</li>
+     *   <li>A non-terminal A with no production for the lookahead a is popped if M[A, a] is a
+     *       {@linkplain LL1Table#isSync(int, int) synchronizing cell} or a is {@code $};
+     *       otherwise a is skipped and A is retried.</li>
+     * </ul>
+     * Only the first error of a recovery is reported; the parser leaves recovery mode once it
+     * matches a token again.
+     * @param source  The token source.
+     * @param actions The semantic actions; {@link LL1Actions#error(SyntaxError)} sees each error.
+     * @return The errors in input order; empty if the input is accepted.
+     */
+    public List<SyntaxError> parseAll(TokenSource source, LL1Actions actions) {
+        List<SyntaxError> errors = new ArrayList<>();
+        run(source, actions, null, errors);
+        return errors;
+    }
+
+    /**
+     * The parsing loop. With errors == null it stops at the first error, otherwise it recovers.
+     * With a listener, each expansion also pushes the lookahead offset, the number of tokens
+     * matched so far and the marker -(production + 1), which is popped when the rule is complete.
+     * @return true if the input was accepted without errors.
+     */
+    private boolean run(TokenSource source, LL1Actions actions, ParseListener events, List<SyntaxError> errors) {
+        int terminalCount = grammar.getTerminalCount();
+        int[] stack = this.stack;
+        int top = 0;
+        stack[top++] = CompactGrammar.END;
+        stack[top++] = grammar.getStartSymbol();
+        boolean recovering = false;
+        int end = 0;
+        int matched = 0;
+
+        Token token = source.next();
+        int lookahead = terminalOf(token);
+        while (top > 0) {
+            int x = stack[--top];
+            if (x < 0) {
+                int count = stack[--top];
+                int start = stack[--top];
+                events.exitRule(-x - 1, matched > count ? start : end, end);
+                if (events.isDone()) {
+                    return false;
+                }
+                continue;
+            }
+            if (x < terminalCount) {
+                if (x == lookahead) {
+                    if (x == CompactGrammar.END) {
+                        break;
+                    }
+                    actions.match(x, token);
+                    if (events != null) {
+                        events.token(x, token);
+                        if (events.isDone()) {
+                            return false;
+                        }
+                    }
+                    matched++;
+                    recovering = false;
+                    end = token.getEnd();
+                    token = source.next();
+                    lookahead = terminalOf(token);
+                    continue;
+                }
+                if (errors == null) {
+                    if (events != null) {
+                        events.syntaxError(error(token, end, List.of(grammar.getName(x))));
+                    }
+                    return false;
+                }
+                if (!recovering) {
+                    recovering = true;
+                    report(errors, actions, token, end, List.of(grammar.getName(x)));
+                }
+                if (x == CompactGrammar.END) {
+                    // Input left over after a complete parse: skip it
+                    stack[top++] = x;
+                    end = token.getEnd();
+                    token = source.next();
+                    lookahead = terminalOf(token);
+                }
+                continue;
+            }
+
+            int a = x - terminalCount;
+            int p = lookahead < 0 ? LL1Table.ERROR : table.lookup(a, lookahead);
+            if (p != LL1Table.ERROR) {
+                actions.expand(p);
+                int[] push = reversedRight[p];
+                int needed = top + push.length + (events == null ? 0 : 3);
+                if (needed > stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(stack.length * 2, needed));
+                    this.stack = stack;
+                }
+                if (events != null) {
+                    int offset = token == null ? end : token.offset;
+                    events.enterRule(p, offset);
+                    if (events.isDone()) {
+                        return false;
+                    }
+                    stack[top++] = offset;
+                    stack[top++] = matched;
+                    stack[top++] = -(p + 1);
+                }
+                System.arraycopy(push, 0, stack, top, push.length);
+                top += push.length;
+                continue;
+            }
+            if (errors == null) {
+                if (events != null) {
+                    events.syntaxError(error(token, end, expected(a)));
+                }
+                return false;
+            }
+            if (!recovering) {
+                recovering = true;
+                report(errors, actions, token, end, expected(a));
+            }
+            if (lookahead != CompactGrammar.END && (lookahead < 0 || !table.isSync(a, lookahead))) {
+                stack[top++] = x;
+                end = token.getEnd();
+                token = source.next();
+                lookahead = terminalOf(token);
+            }
+        }
+        return errors == null || errors.isEmpty();
+    }
+
+    private static SyntaxError error(Token token, int end, List<String> expected) {
+        return new SyntaxError(token, token == null ? end : token.offset, expected);
+    }
+
+    private void report(List<SyntaxError> errors, LL1Actions actions, Token token, int end, List<String> expected) {
+        SyntaxError error = error(token, end, expected);
+        errors.add(error);
+        actions.error(error);
+    }
+
+    /**
+     * Names of the terminals with a production in the row of a non-terminal.
+     */
+    private List<String> expected(int nonTerminalIndex) {
+        List<String> names = new ArrayList<>();
+        for (int t = 0; t < grammar.getTerminalCount(); t++) {
+            if (table.lookup(nonTerminalIndex, t) != LL1Table.ERROR) {
+                names.add(grammar.getName(t));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Maps a token to its terminal ID: {@code $} at the end of input, -1 if the type is unknown.
+     */
+    private int terminalOf(Token token) {
+        if (token == null) {
+            return CompactGrammar.END;
+        }
+        Integer id = terminalIds.get(token.type);
+        return id == null ? -1 : id;
+    }
+}
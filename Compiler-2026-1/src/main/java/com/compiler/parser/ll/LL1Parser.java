@@ -1,8 +1,12 @@
 package com.compiler.parser.ll;
 
+import java.util.Iterator;
 import java.util.List;
 
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeBuilder;
 import com.compiler.lexer.Token;
+import com.compiler.parser.ParseListener;
 
 /**
  * Implements the LL(1) predictive parsing engine using the parsing table.
@@ -17,27 +21,33 @@ public class LL1Parser {
 
     /**
      * Validates a sequence of input tokens using the predictive parsing algorithm with a stack.
+     * The table must have been built; see {@link LL1Driver} for parsing a token stream.
      * @param tokens The token stream from the lexer.
      * @return true if the string is accepted, false otherwise.
      */
     public boolean parse(List<Token> tokens) {
-        // Pseudocode for LL(1) parser driver:
-        // 1. Initialize a stack and push the start symbol.
-        // 2. Set an input pointer to the first token.
-        // 3. While the stack is not empty:
-        //    a. Peek the top of the stack (X).
-        //    b. If X is a terminal:
-        //        i. If X matches the current input token, pop X and advance the input pointer.
-        //        ii. Else, reject (return false).
-        //    c. If X is a non-terminal:
-        //        i. Consult the parsing table with (X, current token).
-        //        ii. If there is a production:
-        //            - Pop X.
-        //            - Push the production's right-hand side symbols onto the stack in reverse order.
-        //        iii. Else, reject (return false).
-        //    d. If X is epsilon, pop X (do not advance input).
-        // 4. If the stack is empty and all input tokens have been consumed, accept (return true).
-        // 5. Else, reject (return false).
-        throw new UnsupportedOperationException("Not implemented");
+        Iterator<Token> iterator = tokens.iterator();
+        return new LL1Driver(table).parse(() -> iterator.hasNext() ? iterator.next() : null);
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses a sequence of input tokens as a stream of events, without building a tree.
+     * @param tokens   The token stream from the lexer.
+     * @param listener Receives the rules and tokens; see {@link LL1Driver#parse(com.compiler.lexer.TokenSource, ParseListener)}.
+     * @return true if the string is accepted, false on an error or if the listener stopped early.
+     */
+    public boolean parse(List<Token> tokens, ParseListener listener) {
+        Iterator<Token> iterator = tokens.iterator();
+        return new LL1Driver(table).parse(() -> iterator.hasNext() ? iterator.next() : null, listener);
+    }
+
+    /**
+     * Parses a sequence of tokens into a syntax tree.
+     * @param tokens The tokens from the lexer.
+     * @return The tree, or null if a syntax error is found.
+     */
+    public SyntaxTree parseTree(List<Token> tokens) {
+        TreeBuilder builder = new TreeBuilder(table.getCompactGrammar());
+        return parse(tokens, builder) ? builder.getTree() : null;
+    }
+}
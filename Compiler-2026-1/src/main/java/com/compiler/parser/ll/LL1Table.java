@@ -1,51 +1,193 @@
 package com.compiler.parser.ll;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 
+import com.compiler.parser.grammar.CompactGrammar;
 import com.compiler.parser.grammar.Production;
 import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.syntax.BitsetAnalyzer;
 import com.compiler.parser.syntax.StaticAnalyzer;
 
 /**
  * Builds and represents the LL(1) parsing table.
  * Main task of Practice 7.
+ * <p>
+ * The table is indexed by the IDs of the grammar's {@link CompactGrammar}: row
+ * {@code nonTerminalIndex(A)}, column terminal ID (0 is {@code $}), and each cell holds a
+ * production index or {@link #ERROR}. It is stored either as a dense
+ * {@code int[nonTerminals × terminals]} or, after {@link #build(boolean) build(true)}, as a
+ * row-displaced comb vector: rows are overlaid in one array at per-row offsets chosen so their
+ * entries do not collide, and a parallel check array records which row owns each slot.
+ * <p>
+ * The FIRST and FOLLOW sets come from a {@link BitsetAnalyzer} of the analyzer's grammar, as
+ * terminal bitsets indexed like the columns. Conflicts are found by intersecting the predict
+ * sets (FIRST(α), plus FOLLOW(A) if α is nullable) of each pair of productions of a
+ * non-terminal, and all conflicting cells are reported. A conflicting cell keeps the production that comes first in the grammar.
+ * <p>
+ * For error recovery every empty cell M[A, a] is also classified once at build time: it is a
+ * synchronizing cell if a is in FOLLOW(A), meaning a parser in panic mode should pop A and
+ * resume with a; otherwise it should skip a. See {@link #isSync(int, int)}.
  */
 public class LL1Table {
-    // The table is a nested Map: Map<NonTerminal, Map<Terminal, Production>>
-    private final Map<Symbol, Map<Symbol, Production>> table;
+    /** Cell value for "no production". */
+    public static final int ERROR = -1;
+
     private final StaticAnalyzer analyzer;
+    private final CompactGrammar grammar;
+    private final int terminalCount;
+    private final List<LL1Conflict> conflicts = new ArrayList<>();
+    private final BitSet sync = new BitSet();
+
+    // Dense form
+    private int[] table;
+    // Compressed form
+    private int[] base;
+    private int[] values;
+    private int[] check;
 
     public LL1Table(StaticAnalyzer analyzer) {
         this.analyzer = analyzer;
-        this.table = new java.util.HashMap<>();
-        // TODO: Initialize the table structure
+        this.grammar = analyzer.getGrammar().getCompactGrammar();
+        this.terminalCount = grammar.getTerminalCount();
     }
 
     /**
-     * Fills the parsing table M using FIRST and FOLLOW sets.
-     * Should detect and report conflicts if the grammar is not LL(1).
-     *
-     * Pseudocode for LL(1) table construction:
-     *
-     * 1. For each production A -> α in the grammar:
-     *      a. For each terminal 'a' in FIRST(α):
-     *          - If 'a' is not ε:
-     *              - If M[A, a] is empty:
-     *                  - Set M[A, a] = production (A -> α)
-     *              - Else:
-     *                  - Report conflict (grammar is not LL(1))
-     *      b. If ε is in FIRST(α):
-     *          - For each terminal 'b' in FOLLOW(A):
-     *              - If M[A, b] is empty:
-     *                  - Set M[A, b] = production (A -> α)
-     *              - Else:
-     *                  - Report conflict (grammar is not LL(1))
-     *
-     * 2. After filling, the table M can be used for parsing.
+     * Fills the parsing table M using FIRST and FOLLOW sets, in dense form.
+     * Conflicts are available from {@link #getConflicts()} afterwards.
      */
     public void build() {
-        // TODO: Implement the LL(1) table construction algorithm as described above.
-        throw new UnsupportedOperationException("Not implemented");
+        build(false);
+    }
+
+    /**
+     * Fills the parsing table M using FIRST and FOLLOW sets.
+     * @param compress true to store the table as a row-displaced comb vector.
+     */
+    public void build(boolean compress) {
+        int nonTerminalCount = grammar.getNonTerminalCount();
+        BitsetAnalyzer sets = new BitsetAnalyzer(analyzer.getGrammar());
+
+        int[] dense = new int[nonTerminalCount * terminalCount];
+        Arrays.fill(dense, ERROR);
+        conflicts.clear();
+        sync.clear();
+        int[] byLeft = grammar.getProductionsByLeft();
+        int[] byLeftStart = grammar.getProductionsByLeftStart();
+        for (int a = 0; a < nonTerminalCount; a++) {
+            BitSet follow = sets.follow(terminalCount + a);
+            int from = byLeftStart[a];
+            int to = byLeftStart[a + 1];
+            BitSet[] predict = new BitSet[to - from];
+            for (int k = from; k < to; k++) {
+                int p = byLeft[k];
+                BitSet set = new BitSet(terminalCount);
+                if (sets.firstOfSequence(grammar.getRight(p), 0, set)) {
+                    set.or(follow);
+                }
+                predict[k - from] = set;
+                int row = a * terminalCount;
+                for (int t = set.nextSetBit(0); t >= 0; t = set.nextSetBit(t + 1)) {
+                    if (dense[row + t] == ERROR) {
+                        dense[row + t] = p;
+                    }
+                }
+            }
+            collectConflicts(a, from, predict);
+            int row = a * terminalCount;
+            for (int t = follow.nextSetBit(0); t >= 0; t = follow.nextSetBit(t + 1)) {
+                if (dense[row + t] == ERROR) {
+                    sync.set(row + t);
+                }
+            }
+        }
+
+        if (compress) {
+            compress(dense, nonTerminalCount);
+            table = null;
+        } else {
+            table = dense;
+            base = values = check = null;
+        }
+    }
+
+    /**
+     * Reports every cell claimed by two or more productions of the non-terminal with index a.
+     */
+    private void collectConflicts(int a, int from, BitSet[] predict) {
+        BitSet overlap = new BitSet(terminalCount);
+        for (int i = 0; i < predict.length; i++) {
+            for (int j = i + 1; j < predict.length; j++) {
+                if (predict[i].intersects(predict[j])) {
+                    BitSet both = (BitSet) predict[i].clone();
+                    both.and(predict[j]);
+                    overlap.or(both);
+                }
+            }
+        }
+        int[] byLeft = grammar.getProductionsByLeft();
+        for (int t = overlap.nextSetBit(0); t >= 0; t = overlap.nextSetBit(t + 1)) {
+            List<Production> competing = new ArrayList<>();
+            for (int i = 0; i < predict.length; i++) {
+                if (predict[i].get(t)) {
+                    competing.add(grammar.getProduction(byLeft[from + i]));
+                }
+            }
+            conflicts.add(new LL1Conflict(grammar.getSymbol(terminalCount + a), grammar.getSymbol(t), competing));
+        }
+    }
+
+    /**
+     * Row displacement: rows are placed densest first at the lowest offset where none of their
+     * entries lands on an occupied slot.
+     */
+    private void compress(int[] dense, int rows) {
+        Integer[] order = new Integer[rows];
+        int[] density = new int[rows];
+        for (int a = 0; a < rows; a++) {
+            order[a] = a;
+            for (int t = 0; t < terminalCount; t++) {
+                if (dense[a * terminalCount + t] != ERROR) {
+                    density[a]++;
+                }
+            }
+        }
+        Arrays.sort(order, (x, y) -> density[y] - density[x]);
+
+        base = new int[rows];
+        int[] packedValues = new int[Math.max(1, rows * terminalCount)];
+        int[] packedCheck = new int[packedValues.length];
+        Arrays.fill(packedCheck, -1);
+        int length = 0;
+        for (int a : order) {
+            int row = a * terminalCount;
+            int offset = 0;
+            while (!fits(dense, row, packedCheck, offset)) {
+                offset++;
+            }
+            base[a] = offset;
+            for (int t = 0; t < terminalCount; t++) {
+                if (dense[row + t] != ERROR) {
+                    packedValues[offset + t] = dense[row + t];
+                    packedCheck[offset + t] = a;
+                    length = Math.max(length, offset + t + 1);
+                }
+            }
+        }
+        values = Arrays.copyOf(packedValues, length);
+        check = Arrays.copyOf(packedCheck, length);
+    }
+
+    private boolean fits(int[] dense, int row, int[] packedCheck, int offset) {
+        for (int t = 0; t < terminalCount; t++) {
+            if (dense[row + t] != ERROR && packedCheck[offset + t] != -1) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -55,11 +197,88 @@ public class LL1Table {
      * @return The production to apply, or null if it is an error.
      */
     public Production getProduction(Symbol nonTerminal, Symbol terminal) {
-        // TODO: Implement the table lookup.
-        // General structure:
-        // 1. Lookup the inner map for the given nonTerminal.
-        // 2. If found, lookup the production for the given terminal.
-        // 3. Return the production, or null if not found.
-        throw new UnsupportedOperationException("Not implemented");
+        int a = grammar.getId(nonTerminal);
+        int t = grammar.getId(terminal);
+        if (a < 0 || t < 0 || grammar.isTerminal(a) || !grammar.isTerminal(t)) {
+            return null;
+        }
+        int p = lookup(grammar.nonTerminalIndex(a), t);
+        return p == ERROR ? null : grammar.getProduction(p);
+    }
+
+    /**
+     * Returns the production index of a cell.
+     * @param nonTerminalIndex The row, {@link CompactGrammar#nonTerminalIndex(int)} of the non-terminal.
+     * @param terminal         The column, a terminal ID.
+     * @return The production index, or {@link #ERROR}.
+     */
+    public int lookup(int nonTerminalIndex, int terminal) {
+        if (table != null) {
+            return table[nonTerminalIndex * terminalCount + terminal];
+        }
+        int slot = base[nonTerminalIndex] + terminal;
+        return slot < check.length && check[slot] == nonTerminalIndex ? values[slot] : ERROR;
+    }
+
+    /**
+     * Checks whether an empty cell synchronizes error recovery: the terminal is in FOLLOW of the
+     * non-terminal, so the non-terminal can be popped and parsing resumed.
+     * @param nonTerminalIndex The row.
+     * @param terminal         The column, a terminal ID.
+     * @return true for a synchronizing cell, false for a production or a cell to skip.
+     */
+    public boolean isSync(int nonTerminalIndex, int terminal) {
+        return sync.get(nonTerminalIndex * terminalCount + terminal);
+    }
+
+    /**
+     * Returns the compact grammar whose IDs index the table.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getCompactGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the conflicts found by the last build.
+     * @return Every conflicting cell, by non-terminal then terminal.
+     */
+    public List<LL1Conflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * Checks whether the last build found no conflicts.
+     * @return true if the grammar is LL(1).
+     */
+    public boolean isLL1() {
+        return conflicts.isEmpty();
+    }
+
+    /**
+     * Checks whether {@link #build()} has been called.
+     * @return true if the table can be used for lookups.
+     */
+    public boolean isBuilt() {
+        return table != null || base != null;
+    }
+
+    /**
+     * Checks whether the table is stored in compressed form.
+     * @return true after {@code build(true)}.
+     */
+    public boolean isCompressed() {
+        return table == null && base != null;
+    }
+
+    /**
+     * Returns the number of ints the table occupies.
+     * @return The dense size, or base + value + check lengths when compressed.
+     */
+    public int getStorageSize() {
+        if (table != null) {
+            return table.length;
+        }
+        return base == null ? 0 : base.length + values.length + check.length;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.compiler.parser.lr;
+
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Read access to LR ACTION and GOTO tables, in the action encoding of {@link LRTable}.
+ * Implemented by the tables as built ({@link LRTable}) and by their packed form
+ * ({@link PackedLRTable}), so parser drivers can run on either.
+ */
+public interface ActionGotoTable {
+
+    /**
+     * Returns ACTION[state, terminal].
+     * @param state    A state.
+     * @param terminal A terminal ID.
+     * @return The action, {@link LRTable#ERROR} if the cell is empty.
+     */
+    int getAction(int state, int terminal);
+
+    /**
+     * Returns GOTO[state, nonTerminal].
+     * @param state       A state.
+     * @param nonTerminal A non-terminal ID.
+     * @return The state, or -1.
+     */
+    int getGoto(int state, int nonTerminal);
+
+    /**
+     * Checks for the accept action.
+     * @param action An action.
+     * @return true if it reduces by the augmented production.
+     */
+    boolean isAccept(int action);
+
+    /**
+     * Returns the number of states.
+     * @return The state count; state 0 is the initial state.
+     */
+    int getStateCount();
+
+    /**
+     * Returns the grammar whose IDs index the table.
+     * @return The compact grammar.
+     */
+    CompactGrammar getCompactGrammar();
+
+    /**
+     * Returns the item numbering, which also defines the augmented production.
+     * @return The item index.
+     */
+    ItemIndex getItemIndex();
+}
@@ -0,0 +1,471 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenSource;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Generalized LR (Tomita) parser for grammars whose LR table has conflicts: ambiguous grammars
+ * and grammars that need more than one token of lookahead.
+ * <p>
+ * Where a cell of the table holds several actions ({@link LRTable#getConflictActions}), the
+ * parser follows all of them. The stacks share their common parts in a graph-structured stack
+ * (GSS): a stack node is a state at a token position, with edges back to the nodes below it,
+ * and stacks that reach the same state at the same position are merged into one node. Each
+ * position is processed in two phases:
+ * <ol>
+ *   <li>Reductions, from a worklist, along every path of the reduced length. A reduction that
+ *       adds an edge to an existing node is redone for the paths through the new edge (Farshi's
+ *       correction, needed for ε-productions).</li>
+ *   <li>Shifts of the next token from every node that can shift it, which give the nodes of
+ *       the next position.</li>
+ * </ol>
+ * Edges are labelled with {@link ParseForest} nodes, one per symbol and span, so the trees of
+ * all stacks share their subtrees and each ambiguity is one node with several alternatives.
+ * <p>
+ * While there is a single stack and its cell has a single action, reductions pop the stack
+ * directly instead of going through the worklist, so deterministic stretches of the input cost
+ * about as much as with an {@link LRDriver} plus building the tree. The GSS and worklist are
+ * {@code int[]} arenas kept across parses.
+ */
+public class GLRParser {
+    private static final int NONE = -1;
+
+    private final LRTable table;
+    private final CompactGrammar grammar;
+    private final Map<String, Integer> terminalIds = new HashMap<>();
+    private final int terminalCount;
+    private final int[] rightLength;
+    private final int[] left;
+    private final Map<Integer, int[]> conflictActions = new HashMap<>();
+    private final boolean[] conflict;
+    private final int[] path;
+
+    // GSS: nodes and their edges to the nodes below
+    private int[] nodeState = new int[64];
+    private int[] nodeLevel = new int[64];
+    private int[] nodeEdge = new int[64];
+    private int nodeCount;
+    private int[] edgeTarget = new int[64];
+    private int[] edgeLabel = new int[64];
+    private int[] edgeNext = new int[64];
+    private int edgeCount;
+
+    // Current position: its nodes, by state too, pending reductions and shifts
+    private final int[] nodeAt;
+    private final int[] nodeAtLevel;
+    private int[] frontier = new int[16];
+    private int frontierSize;
+    private int[] queueNode = new int[16];
+    private int[] queueProduction = new int[16];
+    private int[] queueEdge = new int[16];
+    private int queueHead;
+    private int queueTail;
+    private int[] shiftFrom = new int[16];
+    private int[] shiftTo = new int[16];
+    private int shiftCount;
+    private final SpanTable spans = new SpanTable();
+
+    private ParseForest forest;
+    private int level;
+    private int lookahead;
+    private int accepting;
+    private SyntaxError error;
+
+    /**
+     * Creates a parser for a built table.
+     * @param table The LR table, with its conflicts.
+     * @throws IllegalArgumentException if the table has not been built.
+     */
+    public GLRParser(LRTable table) {
+        if (table.getStateCount() == 0) {
+            throw new IllegalArgumentException("LR table has not been built");
+        }
+        this.table = table;
+        this.grammar = table.getCompactGrammar();
+        this.terminalCount = grammar.getTerminalCount();
+        for (int t = 1; t < terminalCount; t++) {
+            terminalIds.put(grammar.getName(t), t);
+        }
+        int productions = grammar.getProductionCount();
+        this.rightLength = new int[productions];
+        this.left = new int[productions];
+        int longest = 0;
+        for (int p = 0; p < productions; p++) {
+            rightLength[p] = grammar.getRight(p).length;
+            left[p] = grammar.getLeft(p);
+            longest = Math.max(longest, rightLength[p]);
+        }
+        this.path = new int[longest];
+        this.conflict = new boolean[table.getStateCount() * terminalCount];
+        for (LRConflict c : table.getConflicts()) {
+            int cell = c.getState() * terminalCount + grammar.getId(c.getTerminal());
+            conflict[cell] = true;
+            conflictActions.put(cell, table.getConflictActions(c.getState(), grammar.getId(c.getTerminal())));
+        }
+        this.nodeAt = new int[table.getStateCount()];
+        this.nodeAtLevel = new int[table.getStateCount()];
+    }
+
+    /**
+     * Parses a sequence of tokens.
+     * @param tokens The list of tokens from the lexer.
+     * @return The forest of all parse trees, or null if the input has none.
+     * @see #parse(TokenSource)
+     */
+    public ParseForest parse(List<Token> tokens) {
+        Iterator<Token> iterator = tokens.iterator();
+        return parse(() -> iterator.hasNext() ? iterator.next() : null);
+    }
+
+    /**
+     * Parses the tokens of a source. Parsing stops at the first token that no stack can shift,
+     * which is then reported by {@link #getError()}.
+     * @param source The token source.
+     * @return The forest of all parse trees, or null if the input has none.
+     */
+    public ParseForest parse(TokenSource source) {
+        forest = new ParseForest(grammar);
+        error = null;
+        nodeCount = 0;
+        edgeCount = 0;
+        Arrays.fill(nodeAtLevel, NONE);
+        level = 0;
+        frontierSize = 0;
+        frontier[frontierSize++] = newNode(0);
+
+        int end = 0;
+        Token token = source.next();
+        lookahead = terminalOf(token);
+        while (true) {
+            reduceAll();
+            if (accepting != NONE) {
+                forest.setRoot(edgeLabel[nodeEdge[accepting]]);
+                return forest;
+            }
+            if (shiftCount == 0) {
+                error = new SyntaxError(token, token == null ? end : token.offset, expected());
+                return null;
+            }
+            int label = forest.addToken(lookahead, token);
+            level++;
+            frontierSize = 0;
+            for (int i = 0; i < shiftCount; i++) {
+                int state = shiftTo[i];
+                int node = nodeAtLevel[state] == level ? nodeAt[state] : newNode(state);
+                addEdge(node, shiftFrom[i], label);
+            }
+            end = token.getEnd();
+            token = source.next();
+            lookahead = terminalOf(token);
+        }
+    }
+
+    /**
+     * Returns the error that stopped the last parse.
+     * @return The error, or null if the last parse succeeded.
+     */
+    public SyntaxError getError() {
+        return error;
+    }
+
+    /**
+     * Performs every reduction at the current position, collecting the shifts of the lookahead
+     * and the node that accepts, if any.
+     */
+    private void reduceAll() {
+        spans.clear();
+        shiftCount = 0;
+        accepting = NONE;
+        queueHead = 0;
+        queueTail = 0;
+        if (lookahead < 0) {
+            return;
+        }
+
+        // Deterministic steps on a single stack
+        while (frontierSize == 1) {
+            int v = frontier[0];
+            int state = nodeState[v];
+            int action = table.getAction(state, lookahead);
+            if (conflict[state * terminalCount + lookahead] || !LRTable.isReduce(action) || table.isAccept(action)) {
+                break;
+            }
+            int p = LRTable.production(action);
+            int u = v;
+            int i = rightLength[p];
+            while (i > 0 && edgeNext[nodeEdge[u]] == NONE) {
+                int e = nodeEdge[u];
+                path[--i] = edgeLabel[e];
+                u = edgeTarget[e];
+            }
+            int target = table.getGoto(nodeState[u], left[p]);
+            if (i > 0 || target == state) {
+                break;
+            }
+            int label = span(left[p], nodeLevel[u], p);
+            nodeAtLevel[state] = NONE;
+            frontierSize = 0;
+            addEdge(newNode(target), u, label);
+        }
+
+        for (int i = 0; i < frontierSize; i++) {
+            schedule(frontier[i], NONE);
+        }
+        while (queueHead < queueTail) {
+            int v = queueNode[queueHead];
+            int p = queueProduction[queueHead];
+            int required = queueEdge[queueHead++];
+            walk(v, rightLength[p], p, required, required == NONE);
+        }
+    }
+
+    /**
+     * Queues the actions of a node on the lookahead. With a required edge, only reductions
+     * through that edge are queued, so empty ones and shifts are skipped.
+     */
+    private void schedule(int node, int required) {
+        int cell = nodeState[node] * terminalCount + lookahead;
+        if (!conflict[cell]) {
+            act(node, table.getAction(nodeState[node], lookahead), required);
+            return;
+        }
+        for (int action : conflictActions.get(cell)) {
+            act(node, action, required);
+        }
+    }
+
+    private void act(int node, int action, int required) {
+        if (LRTable.isShift(action)) {
+            if (required == NONE) {
+                if (shiftCount == shiftFrom.length) {
+                    shiftFrom = Arrays.copyOf(shiftFrom, shiftCount * 2);
+                    shiftTo = Arrays.copyOf(shiftTo, shiftCount * 2);
+                }
+                shiftFrom[shiftCount] = node;
+                shiftTo[shiftCount++] = LRTable.target(action);
+            }
+        } else if (table.isAccept(action)) {
+            accepting = node;
+        } else if (LRTable.isReduce(action)) {
+            int p = LRTable.production(action);
+            if (required != NONE && rightLength[p] == 0) {
+                return;
+            }
+            if (queueTail == queueNode.length) {
+                queueNode = Arrays.copyOf(queueNode, queueTail * 2);
+                queueProduction = Arrays.copyOf(queueProduction, queueTail * 2);
+                queueEdge = Arrays.copyOf(queueEdge, queueTail * 2);
+            }
+            queueNode[queueTail] = node;
+            queueProduction[queueTail] = p;
+            queueEdge[queueTail++] = required;
+        }
+    }
+
+    /**
+     * Follows every path of a given length down from a node, collecting the edge labels, and
+     * reduces by a production along those that use the required edge.
+     */
+    private void walk(int node, int remaining, int p, int required, boolean used) {
+        if (remaining == 0) {
+            if (used) {
+                reduce(node, p, rightLength[p]);
+            }
+            return;
+        }
+        for (int e = nodeEdge[node]; e != NONE; e = edgeNext[e]) {
+            path[remaining - 1] = edgeLabel[e];
+            walk(edgeTarget[e], remaining - 1, p, required, used || e == required);
+        }
+    }
+
+    /**
+     * Reduces by a production whose children are in {@link #path}, from a node below them.
+     */
+    private void reduce(int below, int p, int length) {
+        int target = table.getGoto(nodeState[below], left[p]);
+        int node = nodeAtLevel[target] == level ? nodeAt[target] : NONE;
+        if (node != NONE) {
+            for (int e = nodeEdge[node]; e != NONE; e = edgeNext[e]) {
+                if (edgeTarget[e] == below) {
+                    forest.addAlternative(edgeLabel[e], p, path, length);
+                    return;
+                }
+            }
+        }
+        int label = span(left[p], nodeLevel[below], p);
+        if (node == NONE) {
+            node = newNode(target);
+            addEdge(node, below, label);
+            schedule(node, NONE);
+            return;
+        }
+        // A new path below an existing node: redo the reductions that can use it
+        int edge = addEdge(node, below, label);
+        for (int i = 0; i < frontierSize; i++) {
+            schedule(frontier[i], edge);
+        }
+    }
+
+    /**
+     * Returns the forest node of a symbol from a start position to the current one, adding the
+     * production over {@link #path} as an alternative.
+     */
+    private int span(int symbol, int start, int p) {
+        int node = spans.get(symbol, start);
+        if (node == NONE) {
+            node = forest.addNode(symbol, start, level);
+            spans.put(symbol, start, node);
+        }
+        forest.addAlternative(node, p, path, rightLength[p]);
+        return node;
+    }
+
+    /**
+     * Adds a node at the current position and to the frontier.
+     */
+    private int newNode(int state) {
+        if (nodeCount == nodeState.length) {
+            nodeState = Arrays.copyOf(nodeState, nodeCount * 2);
+            nodeLevel = Arrays.copyOf(nodeLevel, nodeCount * 2);
+            nodeEdge = Arrays.copyOf(nodeEdge, nodeCount * 2);
+        }
+        nodeState[nodeCount] = state;
+        nodeLevel[nodeCount] = level;
+        nodeEdge[nodeCount] = NONE;
+        nodeAt[state] = nodeCount;
+        nodeAtLevel[state] = level;
+        if (frontierSize == frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontierSize * 2);
+        }
+        frontier[frontierSize++] = nodeCount;
+        return nodeCount++;
+    }
+
+    private int addEdge(int from, int to, int label) {
+        if (edgeCount == edgeTarget.length) {
+            edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+            edgeLabel = Arrays.copyOf(edgeLabel, edgeCount * 2);
+            edgeNext = Arrays.copyOf(edgeNext, edgeCount * 2);
+        }
+        edgeTarget[edgeCount] = to;
+        edgeLabel[edgeCount] = label;
+        edgeNext[edgeCount] = nodeEdge[from];
+        nodeEdge[from] = edgeCount;
+        return edgeCount++;
+    }
+
+    /**
+     * Names of the terminals with an action in some state of the current position.
+     */
+    private List<String> expected() {
+        List<String> names = new ArrayList<>();
+        for (int t = 0; t < terminalCount; t++) {
+            for (int i = 0; i < frontierSize; i++) {
+                if (table.getAction(nodeState[frontier[i]], t) != LRTable.ERROR) {
+                    names.add(grammar.getName(t));
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Maps a token to its terminal ID: {@code $} at the end of input, -1 if the type is unknown.
+     */
+    private int terminalOf(Token token) {
+        if (token == null) {
+            return CompactGrammar.END;
+        }
+        Integer id = terminalIds.get(token.type);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Open-addressing map from (symbol, start) to the forest node ending at the current
+     * position. Clearing it empties only the slots used.
+     */
+    private static final class SpanTable {
+        private long[] keys = new long[64];
+        private int[] values = new int[64];
+        private int[] used = new int[32];
+        private int size;
+
+        SpanTable() {
+            Arrays.fill(keys, -1);
+        }
+
+        int get(int symbol, int start) {
+            long key = key(symbol, start);
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); keys[i] != -1; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return NONE;
+        }
+
+        void put(int symbol, int start, int node) {
+            if (2 * (size + 1) > keys.length) {
+                rehash(keys.length * 2);
+            }
+            insert(key(symbol, start), node);
+        }
+
+        private void insert(long key, int node) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != -1) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = node;
+            if (size == used.length) {
+                used = Arrays.copyOf(used, size * 2);
+            }
+            used[size++] = i;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            int[] oldUsed = used;
+            int oldSize = size;
+            keys = new long[capacity];
+            Arrays.fill(keys, -1);
+            values = new int[capacity];
+            used = new int[oldUsed.length];
+            size = 0;
+            for (int k = 0; k < oldSize; k++) {
+                insert(oldKeys[oldUsed[k]], oldValues[oldUsed[k]]);
+            }
+        }
+
+        void clear() {
+            for (int k = 0; k < size; k++) {
+                keys[used[k]] = -1;
+            }
+            size = 0;
+        }
+
+        private static long key(int symbol, int start) {
+            return ((long) symbol << 32) | start;
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
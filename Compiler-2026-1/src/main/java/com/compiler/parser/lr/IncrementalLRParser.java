@@ -0,0 +1,390 @@
+package com.compiler.parser.lr;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeBuilder;
+import com.compiler.lexer.IncrementalLexer;
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.TextEdit;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenChange;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * LR parser for a document that is edited repeatedly, such as an editor buffer. After the
+ * first parse, each edit relexes and reparses only around the damaged region and reuses the
+ * other subtrees of the previous {@link SyntaxTree} in place. The damaged region is the range
+ * of tokens reported by an {@link IncrementalLexer}.
+ * <p>
+ * Every node of the tree records the LR state the parser was in before its first token. While
+ * reparsing, the old tree is walked alongside the new tokens; where the parser is about to shift
+ * a token, the largest old subtree starting at that token is pushed whole, through GOTO, if
+ * <ul>
+ *   <li>its tokens and the token following it are outside the damaged region, and</li>
+ *   <li>the parser is in the state recorded for it.</li>
+ * </ul>
+ * A deterministic LR parser started in that state on the same tokens and lookahead would build
+ * the same subtree, so the result equals a full parse. Only the nodes on the path from the
+ * damaged region to the root are rebuilt, along with the siblings that must be regrouped.
+ * <p>
+ * A left-recursive list such as {@code P -> P S | S} would make that path as long as the list,
+ * since every {@code P} after the edit contains it. The tree therefore stores each list as one
+ * node over all of its elements, grouped under hidden nodes balanced by width (see
+ * {@link TreeBuilder#reparsing}). Each element after the first is parsed in the state the list
+ * leaves the parser in, and ends with the parser back in it, so a hidden node that does not
+ * hold the first element can be added to the list on top of the stack when the parser is in the
+ * state recorded for its first child. An edit inside a list of n elements thus reuses and
+ * creates O(log n) nodes for the list, and the work of an edit does not grow with the document
+ * unless the damaged region does.
+ * <p>
+ * The tree reads its tokens from the lexer's list, which edits update in place. Reused subtrees
+ * stay in the same arena, so the arena accumulates dead nodes; once they outnumber the live
+ * ones, the next edit does a full parse into a cleared arena.
+ */
+public class IncrementalLRParser {
+    private final ActionGotoTable table;
+    private final IncrementalLexer lexer;
+    private final Map<String, Integer> terminalIds = new HashMap<>();
+    private final int[] rightLength;
+    private final boolean[] recursive;
+    private final SyntaxTree tree;
+
+    private List<Token> tokens;
+    private boolean valid;
+    private int liveNodes;
+    private int[] startState = new int[64];
+    private int[] states = new int[64];
+    private int reused;
+    private int created;
+
+    /**
+     * Creates a parser.
+     * @param table A built ACTION/GOTO table, typically a {@link PackedLRTable}.
+     * @param lexer The lexer whose token types are the table's terminal names.
+     * @throws IllegalArgumentException if the table has not been built.
+     */
+    public IncrementalLRParser(ActionGotoTable table, Lexer lexer) {
+        if (table.getStateCount() == 0) {
+            throw new IllegalArgumentException("LR table has not been built");
+        }
+        this.table = table;
+        this.lexer = new IncrementalLexer(lexer);
+        CompactGrammar grammar = table.getCompactGrammar();
+        for (int t = 1; t < grammar.getTerminalCount(); t++) {
+            terminalIds.put(grammar.getName(t), t);
+        }
+        this.rightLength = new int[grammar.getProductionCount()];
+        this.recursive = new boolean[rightLength.length];
+        for (int p = 0; p < rightLength.length; p++) {
+            rightLength[p] = grammar.getRight(p).length;
+            recursive[p] = rightLength[p] > 0 && grammar.getRight(p)[0] == grammar.getLeft(p);
+        }
+        this.tree = new SyntaxTree(grammar);
+    }
+
+    /**
+     * Parses a whole document, replacing the previous one.
+     * @param text The text.
+     * @return The tree, or null if the text has a syntax error.
+     * @throws IllegalArgumentException if some part of the text matches no lexer rule.
+     */
+    public SyntaxTree parse(String text) {
+        lexer.tokenize(text);
+        return parseAll();
+    }
+
+    private SyntaxTree parseAll() {
+        tokens = lexer.getTokens();
+        tree.reset();
+        valid = run(TreeBuilder.reparsing(tree, tokens), null, 0, 0, 0);
+        liveNodes = tree.getNodeCount();
+        return getTree();
+    }
+
+    /**
+     * Applies an edit to the document and reparses it, reusing the subtrees of the previous tree
+     * that the edit did not damage. The previous tree is updated in place.
+     * @param edit The edit.
+     * @return The tree, or null if the new text has a syntax error.
+     * @throws IllegalArgumentException if there is no document, the edit does not fit in it, or
+     *                                  some part of the new text matches no lexer rule; the
+     *                                  document is then left unchanged.
+     */
+    public SyntaxTree edit(TextEdit edit) {
+        if (tokens == null) {
+            throw new IllegalArgumentException("No document has been parsed");
+        }
+        TokenChange change = lexer.edit(edit);
+        if (!valid || tree.getNodeCount() > 2 * liveNodes + 256) {
+            return parseAll();
+        }
+        if (change.isEmpty() && edit.getDelta() == 0) {
+            reused = 1;
+            created = 0;
+            return tree;
+        }
+        OldTree old = new OldTree(tree);
+        valid = run(TreeBuilder.reparsing(tree, tokens), old, change.start, change.oldEnd, change.newEnd - change.oldEnd);
+        return getTree();
+    }
+
+    /**
+     * Applies an edit to the document and reparses it.
+     * @param offset        Offset of the first replaced character.
+     * @param removedLength Number of characters removed.
+     * @param inserted      Text inserted in their place.
+     * @return The tree, or null if the new text has a syntax error.
+     * @see #edit(TextEdit)
+     */
+    public SyntaxTree edit(int offset, int removedLength, String inserted) {
+        return edit(new TextEdit(offset, removedLength, inserted));
+    }
+
+    /**
+     * Returns the current text of the document.
+     * @return The text, or null before the first parse.
+     */
+    public String getText() {
+        return lexer.getText();
+    }
+
+    /**
+     * Returns the tree of the current text.
+     * @return The tree, or null if the text has a syntax error.
+     */
+    public SyntaxTree getTree() {
+        return valid ? tree : null;
+    }
+
+    /**
+     * Returns the number of old subtrees the last parse pushed whole.
+     * @return The reused subtree count; 0 after a full parse.
+     */
+    public int getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Returns the number of nodes the last parse created.
+     * @return The new node count.
+     */
+    public int getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * The parsing loop.
+     * @param old          The previous tree, or null for a full parse.
+     * @param damageStart  Old index of the first changed token.
+     * @param damageEnd    Old index of the first token of the unchanged suffix.
+     * @param shift        New index minus old index of the suffix tokens.
+     * @return true if the input was accepted.
+     */
+    private boolean run(TreeBuilder builder, OldTree old, int damageStart, int damageEnd, int shift) {
+        int[] states = this.states;
+        int top = 0;
+        states[0] = 0;
+        reused = 0;
+        int nodesBefore = tree.getNodeCount();
+
+        int count = tokens.size();
+        int position = 0;
+        int lookahead = terminalAt(0);
+        while (true) {
+            int state = states[top];
+            int action = lookahead < 0 ? LRTable.ERROR : table.getAction(state, lookahead);
+            int target;
+            if (LRTable.isShift(action)) {
+                int node = old == null ? SyntaxTree.NONE : reusable(old, position, state, damageStart, damageEnd, shift);
+                if (node != SyntaxTree.NONE && tree.isHidden(node)) {
+                    // More elements of the list on top of the stack, which stays as it is
+                    record(builder.reuse(node), states[top - 1]);
+                    position += tree.getWidth(node);
+                    reused++;
+                    lookahead = position < count ? terminalAt(position) : CompactGrammar.END;
+                    continue;
+                }
+                if (node != SyntaxTree.NONE) {
+                    builder.reuse(node);
+                    target = table.getGoto(state, tree.getKind(node));
+                    position += tree.getWidth(node);
+                    reused++;
+                } else {
+                    node = builder.shift(lookahead, tokens.get(position));
+                    record(node, state);
+                    target = LRTable.target(action);
+                    position++;
+                }
+                lookahead = position < count ? terminalAt(position) : CompactGrammar.END;
+            } else if (LRTable.isReduce(action)) {
+                if (table.isAccept(action)) {
+                    builder.getTree();
+                    created = tree.getNodeCount() - nodesBefore;
+                    return true;
+                }
+                int p = LRTable.production(action);
+                top -= rightLength[p];
+                record(builder.reduce(p), states[top]);
+                target = table.getGoto(states[top], tree.getGrammar().getLeft(p));
+            } else {
+                created = tree.getNodeCount() - nodesBefore;
+                return false;
+            }
+            if (++top == states.length) {
+                states = Arrays.copyOf(states, top * 2);
+                this.states = states;
+            }
+            states[top] = target;
+        }
+    }
+
+    /**
+     * Finds the largest old subtree that can be pushed at a new token position.
+     * @return The node, or {@link SyntaxTree#NONE}.
+     */
+    private int reusable(OldTree old, int position, int state, int damageStart, int damageEnd, int shift) {
+        int index;
+        if (position < damageStart) {
+            index = position;
+        } else if (position - shift >= damageEnd) {
+            index = position - shift;
+        } else {
+            return SyntaxTree.NONE;
+        }
+        for (int node = old.seek(index); node != SyntaxTree.NONE; node = old.descend()) {
+            if (tree.isToken(node)) {
+                return SyntaxTree.NONE;
+            }
+            // The following token must be unchanged too, since it decided the last reduction
+            boolean intact = index + tree.getWidth(node) < damageStart || index >= damageEnd;
+            if (intact && (tree.isHidden(node) ? continuesList(node, state) : startState[node] == state)) {
+                old.skip();
+                return node;
+            }
+        }
+        return SyntaxTree.NONE;
+    }
+
+    /**
+     * Checks that a hidden node does not hold the first element of its list and that its first
+     * element was parsed from a state.
+     */
+    private boolean continuesList(int node, int state) {
+        if (!recursive[tree.getProduction(node)]) {
+            return false;
+        }
+        int first = node;
+        while (tree.isHidden(first)) {
+            first = tree.getFirstChild(first);
+        }
+        return startState[first] == state;
+    }
+
+    private void record(int node, int state) {
+        if (node >= startState.length) {
+            startState = Arrays.copyOf(startState, Math.max(node + 1, startState.length * 2));
+        }
+        startState[node] = state;
+    }
+
+    /**
+     * Maps a token to its terminal ID: {@code $} past the end, -1 if the type is unknown.
+     */
+    private int terminalAt(int position) {
+        if (position >= tokens.size()) {
+            return CompactGrammar.END;
+        }
+        Integer id = terminalIds.get(tokens.get(position).type);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Forward walk over the previous tree, in old token indices, stopping at hidden nodes too.
+     * Every node is read before the reparse can overwrite its sibling link: a reused node is
+     * skipped as soon as it is pushed.
+     */
+    private static final class OldTree {
+        private final SyntaxTree tree;
+        private int[] path = new int[64];
+        private int[] start = new int[64];
+        private int depth;
+        private boolean done;
+
+        OldTree(SyntaxTree tree) {
+            this.tree = tree;
+            this.path[0] = tree.getRoot();
+        }
+
+        /**
+         * Moves to the outermost node with tokens that starts at an index.
+         * @return The node, or {@link SyntaxTree#NONE} if none starts there.
+         */
+        int seek(int index) {
+            while (!done) {
+                if (start[depth] + tree.getWidth(path[depth]) <= index) {
+                    skip();
+                } else if (start[depth] < index) {
+                    gotoFirstChild();
+                } else {
+                    return start[depth] == index ? path[depth] : SyntaxTree.NONE;
+                }
+            }
+            return SyntaxTree.NONE;
+        }
+
+        /**
+         * Moves to the first child with tokens, which starts where its parent does.
+         * @return The node, or {@link SyntaxTree#NONE} for a token node.
+         */
+        int descend() {
+            if (!gotoFirstChild()) {
+                return SyntaxTree.NONE;
+            }
+            while (tree.getWidth(path[depth]) == 0) {
+                gotoNextSibling();
+            }
+            return path[depth];
+        }
+
+        /**
+         * Moves past the current node.
+         */
+        void skip() {
+            while (!gotoNextSibling()) {
+                if (depth == 0) {
+                    done = true;
+                    return;
+                }
+                depth--;
+            }
+        }
+
+        private boolean gotoFirstChild() {
+            int child = tree.getFirstChild(path[depth]);
+            if (child == SyntaxTree.NONE) {
+                return false;
+            }
+            if (++depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                start = Arrays.copyOf(start, depth * 2);
+            }
+            path[depth] = child;
+            start[depth] = start[depth - 1];
+            return true;
+        }
+
+        private boolean gotoNextSibling() {
+            int sibling = depth == 0 ? SyntaxTree.NONE : tree.getNextSibling(path[depth]);
+            if (sibling == SyntaxTree.NONE) {
+                return false;
+            }
+            start[depth] += tree.getWidth(path[depth]);
+            path[depth] = sibling;
+            return true;
+        }
+    }
+}
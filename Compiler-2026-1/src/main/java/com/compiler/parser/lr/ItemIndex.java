@@ -0,0 +1,158 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+
+/**
+ * Numbers the LR(0) items of a grammar as consecutive ints.
+ * <p>
+ * The grammar is augmented with a production S' -> S, whose index is
+ * {@link #getAcceptProduction()} (one past the grammar's last production). The items of
+ * production p are {@code firstItem(p) .. firstItem(p) + |rhs|}, one per dot position, so an
+ * item packs both the production and the dot into a single int, advancing the dot is
+ * {@code item + 1}, and sets of items can be sorted {@code int[]}s or bitsets.
+ */
+public class ItemIndex {
+    private final CompactGrammar grammar;
+    private final int acceptProduction;
+    private final int[][] right;
+    private final int[] firstItem;
+    private final int[] itemProduction;
+    private final int[] afterDot;
+
+    /**
+     * Numbers the items of a grammar.
+     * @param grammar The compact grammar.
+     */
+    public ItemIndex(CompactGrammar grammar) {
+        this.grammar = grammar;
+        this.acceptProduction = grammar.getProductionCount();
+        int productions = acceptProduction + 1;
+        this.right = new int[productions][];
+        this.firstItem = new int[productions + 1];
+        for (int p = 0; p < acceptProduction; p++) {
+            right[p] = grammar.getRight(p);
+        }
+        right[acceptProduction] = new int[]{grammar.getStartSymbol()};
+        for (int p = 0; p < productions; p++) {
+            firstItem[p + 1] = firstItem[p] + right[p].length + 1;
+        }
+
+        int count = firstItem[productions];
+        this.itemProduction = new int[count];
+        this.afterDot = new int[count];
+        for (int p = 0; p < productions; p++) {
+            for (int dot = 0; dot <= right[p].length; dot++) {
+                int item = firstItem[p] + dot;
+                itemProduction[item] = p;
+                afterDot[item] = dot < right[p].length ? right[p][dot] : -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the grammar whose items are numbered.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getCompactGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the index of the augmented production S' -> S.
+     * @return The production index, equal to the grammar's production count.
+     */
+    public int getAcceptProduction() {
+        return acceptProduction;
+    }
+
+    /**
+     * Returns the number of items.
+     * @return The item count; items are 0 .. count-1.
+     */
+    public int getItemCount() {
+        return itemProduction.length;
+    }
+
+    /**
+     * Returns the item of a production with the dot at a position.
+     * @param production A production index, possibly {@link #getAcceptProduction()}.
+     * @param dot        The dot position, 0 .. |rhs|.
+     * @return The item.
+     */
+    public int item(int production, int dot) {
+        return firstItem[production] + dot;
+    }
+
+    /**
+     * Returns the production of an item.
+     * @param item An item.
+     * @return The production index.
+     */
+    public int production(int item) {
+        return itemProduction[item];
+    }
+
+    /**
+     * Returns the dot position of an item.
+     * @param item An item.
+     * @return The number of symbols before the dot.
+     */
+    public int dot(int item) {
+        return item - firstItem[itemProduction[item]];
+    }
+
+    /**
+     * Returns the symbol after the dot.
+     * @param item An item.
+     * @return The symbol ID, or -1 if the item is complete.
+     */
+    public int symbolAfterDot(int item) {
+        return afterDot[item];
+    }
+
+    /**
+     * Returns the right-hand side of a production, including the augmented one.
+     * The array is shared and must not be modified.
+     * @param production A production index.
+     * @return The symbol IDs.
+     */
+    public int[] getRight(int production) {
+        return right[production];
+    }
+
+    /**
+     * Returns the readable form of an item.
+     * @param item An item.
+     * @return The item; the augmented production's left side is the start symbol's name plus a quote.
+     */
+    public LR0Item toItem(int item) {
+        int p = itemProduction[item];
+        Production production;
+        if (p == acceptProduction) {
+            Symbol start = grammar.getSymbol(grammar.getStartSymbol());
+            production = new Production(new Symbol(start.name + "'", SymbolType.NON_TERMINAL), List.of(start));
+        } else {
+            production = grammar.getProduction(p);
+        }
+        return new LR0Item(production, dot(item));
+    }
+
+    /**
+     * Returns the readable form of a set of items.
+     * @param items Items.
+     * @return The items, in the same order.
+     */
+    public List<LR0Item> toItems(int[] items) {
+        List<LR0Item> list = new ArrayList<>(items.length);
+        for (int item : items) {
+            list.add(toItem(item));
+        }
+        return list;
+    }
+}
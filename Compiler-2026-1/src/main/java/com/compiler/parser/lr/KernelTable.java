@@ -0,0 +1,86 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hash-consing table of item-set kernels.
+ * <p>
+ * Each distinct kernel (a sorted {@code int[]} of items) is stored once and numbered in order
+ * of insertion, so two states are the same state exactly when their numbers are equal. Lookup
+ * is open addressing on the kernel's hash.
+ */
+class KernelTable {
+    private final List<int[]> kernels = new ArrayList<>();
+    private int[] hashes = new int[0];
+    private int[] slots = new int[16];
+
+    KernelTable() {
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Returns the number of a kernel, adding it if it is new.
+     * @param kernel A sorted item array; the table keeps it, so it must not be modified afterwards.
+     * @return The kernel number.
+     */
+    int intern(int[] kernel) {
+        int hash = Arrays.hashCode(kernel);
+        int mask = slots.length - 1;
+        int slot = mix(hash) & mask;
+        while (slots[slot] >= 0) {
+            int id = slots[slot];
+            if (hashes[id] == hash && Arrays.equals(kernels.get(id), kernel)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = kernels.size();
+        kernels.add(kernel);
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.max(16, id * 2));
+        }
+        hashes[id] = hash;
+        slots[slot] = id;
+        if (2 * kernels.size() > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the kernel with a number.
+     * @param id A kernel number.
+     * @return The shared kernel array.
+     */
+    int[] get(int id) {
+        return kernels.get(id);
+    }
+
+    /**
+     * Returns the number of distinct kernels.
+     * @return The size.
+     */
+    int size() {
+        return kernels.size();
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, -1);
+        int mask = slots.length - 1;
+        for (int id = 0; id < kernels.size(); id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,8 +1,12 @@
 package com.compiler.parser.lr;
 
-import java.util.List; // Asumiendo que existe una clase Token
+import java.util.Iterator;
+import java.util.List;
 
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeBuilder;
 import com.compiler.lexer.Token;
+import com.compiler.parser.ParseListener;
 
 /**
  * Implements the LALR(1) parsing engine.
@@ -11,6 +15,7 @@ import com.compiler.lexer.Token;
  */
 public class LALR1Parser {
     private final LALR1Table table;
+    private LRDriver driver;
 
     public LALR1Parser(LALR1Table table) {
         this.table = table;
@@ -18,35 +23,42 @@ public class LALR1Parser {
 
    /**
     * Parses a sequence of tokens using the LALR(1) parsing algorithm.
+    * The table must have been built; the first parse packs it into a {@link PackedLRTable}
+    * for an {@link LRDriver}, which is then reused. See {@link LRDriver} for parsing a token
+    * stream with semantic actions.
     * @param tokens The list of tokens from the lexer.
     * @return true if the sequence is accepted, false if a syntax error is found.
     */
    public boolean parse(List<Token> tokens) {
-      /*
-       TODO: Implement the LALR(1) parser engine.
-       Detailed pseudocode:
-       1. Initialize a stack with the initial state (usually state 0).
-       2. Append the end-of-input symbol ($) to the list of tokens.
-       3. Set input pointer to the first token.
-       4. Loop:
-         a. Let state = top of the stack.
-         b. Let token = current input token.
-         c. Look up ACTION[state, token] in the LALR(1) table.
-         d. If ACTION is SHIFT(s'):
-            - Push token and new state s' onto the stack.
-            - Advance input pointer to next token.
-         e. Else if ACTION is REDUCE(A -> β):
-            - For each symbol in β:
-               - Pop two elements from the stack (symbol and state).
-            - Let s = new top of the stack (state).
-            - Look up GOTO[s, A] to get new state s_goto.
-            - Push A and s_goto onto the stack.
-         f. Else if ACTION is ACCEPT:
-            - Parsing was successful. Return true.
-         g. Else (ACTION is ERROR or cell is empty):
-            - Report syntax error. Return false.
-       5. End loop when ACCEPT or ERROR is reached.
-      */
-      throw new UnsupportedOperationException("Not implemented");
+      Iterator<Token> iterator = tokens.iterator();
+      return driver().parse(() -> iterator.hasNext() ? iterator.next() : null);
    }
-}
\ No newline at end of file
+
+   /**
+    * Parses a sequence of tokens as a stream of events, without building a tree.
+    * @param tokens   The list of tokens from the lexer.
+    * @param listener Receives the tokens and reductions; see {@link LRDriver#parse(com.compiler.lexer.TokenSource, ParseListener)}.
+    * @return true if the sequence is accepted, false on an error or if the listener stopped early.
+    */
+   public boolean parse(List<Token> tokens, ParseListener listener) {
+      Iterator<Token> iterator = tokens.iterator();
+      return driver().parse(() -> iterator.hasNext() ? iterator.next() : null, listener);
+   }
+
+   /**
+    * Parses a sequence of tokens into a syntax tree.
+    * @param tokens The tokens from the lexer.
+    * @return The tree, or null if a syntax error is found.
+    */
+   public SyntaxTree parseTree(List<Token> tokens) {
+      TreeBuilder builder = new TreeBuilder(table.getCompactGrammar());
+      return parse(tokens, builder) ? builder.getTree() : null;
+   }
+
+   private LRDriver driver() {
+      if (driver == null) {
+         driver = new LRDriver(new PackedLRTable(table));
+      }
+      return driver;
+   }
+}
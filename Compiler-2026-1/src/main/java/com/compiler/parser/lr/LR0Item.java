@@ -1,11 +1,17 @@
 package com.compiler.parser.lr;
 
+import java.util.Objects;
+
 import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
 
 /**
  * Represents an LR(0) item, which is a production with a dot (•)
  * at some position in the right-hand side.
  * Task for Practice 8.
+ * <p>
+ * The automaton itself works on items as ints (see {@link ItemIndex}); this class is the
+ * readable form returned by {@link ItemIndex#toItem(int)}.
  */
 public class LR0Item {
     public final Production production;
@@ -16,33 +22,53 @@ public class LR0Item {
      * Constructs an LR(0) item with the given production and dot position.
      * @param production The production rule.
      * @param dotPosition The position of the dot in the right-hand side.
-     * Detailed pseudocode:
-     * 1. Assign the production to the field.
-     * 2. Assign the dotPosition to the field.
-     * 3. Optionally, validate that dotPosition is within valid bounds (0 <= dotPosition <= production.right.size()).
+     * @throws IllegalArgumentException if the dot is outside 0..production.right.size().
      */
     public LR0Item(Production production, int dotPosition) {
-        // TODO: Implement constructor logic as described above.
-        throw new UnsupportedOperationException("Not implemented");
+        if (dotPosition < 0 || dotPosition > production.getRight().size()) {
+            throw new IllegalArgumentException("Dot position out of range: " + dotPosition);
+        }
+        this.production = production;
+        this.dotPosition = dotPosition;
     }
 
-    // TODO: Implement equals, hashCode, and a method to get the symbol after the dot.
-    /*
-     * Detailed pseudocode:
-     *
-     * equals(Object obj):
-     *   1. If obj is not an LR0Item, return false.
-     *   2. Compare production and dotPosition for equality.
-     *   3. Return true if both match, false otherwise.
-     *
-     * hashCode():
-     *   1. Compute hash using production and dotPosition.
-     *   2. Return the combined hash value.
-     *
-     * getSymbolAfterDot():
-     *   1. If dotPosition < production.right.size():
-     *        - Return production.right.get(dotPosition).
-     *      Else:
-     *        - Return null (dot is at the end).
+    /**
+     * Returns the symbol after the dot.
+     * @return The symbol, or null if the dot is at the end.
      */
-}
\ No newline at end of file
+    public Symbol getSymbolAfterDot() {
+        if (dotPosition < production.getRight().size()) {
+            return production.getRight().get(dotPosition);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof LR0Item)) return false;
+        LR0Item other = (LR0Item) obj;
+        return dotPosition == other.dotPosition
+                && production.getLeft().equals(other.production.getLeft())
+                && production.getRight().equals(other.production.getRight());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(production.getLeft(), production.getRight(), dotPosition);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(production.getLeft().name).append(" ->");
+        for (int i = 0; i <= production.getRight().size(); i++) {
+            if (i == dotPosition) {
+                sb.append(" •");
+            }
+            if (i < production.getRight().size()) {
+                sb.append(' ').append(production.getRight().get(i).name);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.compiler.parser.lr;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.SyntaxError;
+
+/**
+ * Semantic actions run by {@link LRDriver} as it parses. Each symbol on the parse stack carries
+ * a value: a shift pushes the value returned by {@link #shift}, and a reduction replaces the
+ * values of the right-hand side with the value returned by {@link #reduce}. Symbols and
+ * productions are identified by the IDs of the table's
+ * {@link com.compiler.parser.grammar.CompactGrammar}.
+ */
+public interface LRActions {
+
+    /**
+     * Called when a token is shifted.
+     * @param terminal The terminal ID.
+     * @param token    The token.
+     * @return The value of the terminal; the token itself by default.
+     */
+    default Object shift(int terminal, Token token) {
+        return token;
+    }
+
+    /**
+     * Called when the right-hand side of a production is reduced.
+     * @param production The production index.
+     * @param values     The values of the right-hand side symbols. The view is reused by the
+     *                   driver and is only valid during the call.
+     * @return The value of the left-hand side; null by default.
+     */
+    default Object reduce(int production, RightHandSide values) {
+        return null;
+    }
+
+    /**
+     * Called when the parser stops at a syntax error.
+     * @param error The error.
+     */
+    default void error(SyntaxError error) {
+    }
+}
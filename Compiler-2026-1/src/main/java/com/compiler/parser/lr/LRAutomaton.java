@@ -1,76 +1,239 @@
 package com.compiler.parser.lr;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
+import com.compiler.parser.grammar.CompactGrammar;
 import com.compiler.parser.grammar.Grammar;
-import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.syntax.Digraph;
 
 /**
  * Builds the canonical collection of LR(0) items (the DFA automaton).
  * Main task for Practice 8.
+ * <p>
+ * Items are ints numbered by an {@link ItemIndex} and item sets are sorted {@code int[]}s.
+ * A state is identified by its kernel, which is hash-consed in a {@link KernelTable}: state
+ * numbers are kernel numbers, so comparing states is comparing ints. State 0 is the initial
+ * state, with kernel [S' -> • S].
+ * <p>
+ * Only kernels are stored. The non-kernel part of a closure depends only on the non-terminals
+ * after the dot, so the initial items each non-terminal contributes are computed once, as a
+ * bitset over items, and a closure is the union of those bitsets. GOTO for all symbols of a
+ * state is one pass that buckets the closed items by the symbol after the dot.
  */
 public class LRAutomaton {
     private final Grammar grammar;
+    private final CompactGrammar compact;
+    private final ItemIndex items;
+
+    private KernelTable kernels;
+    private BitSet[] closureOf;
+    private int[][] transitionSymbols;
+    private int[][] transitionTargets;
 
     public LRAutomaton(Grammar grammar) {
         this.grammar = grammar;
+        this.compact = grammar.getCompactGrammar();
+        this.items = new ItemIndex(compact);
     }
 
     /**
-     * Implements the CLOSURE operation on a set of LR(0) items.
-     * @param items The initial set of items.
-     * @return The closed set of items.
-     *
-     * Detailed pseudocode:
-     * 1. Initialize closureSet = items.
-     * 2. Repeat until no new items are added:
-     *      a. For each item [A -> α • B β] in closureSet, where B is a non-terminal and the dot is before B:
-     *          i. For each production B -> γ in the grammar:
-     *              - If [B -> • γ] is not in closureSet:
-     *                  - Add [B -> • γ] to closureSet.
-     * 3. Return closureSet.
+     * Computes, for each non-terminal B, the initial items [C -> • γ] in the closure of an item
+     * [A -> α • B β]: those of B and, through {@link Digraph}, of every non-terminal that can
+     * start one of B's right-hand sides.
      */
-    private Set<LR0Item> closure(Set<LR0Item> items) {
-        // TODO: Implement the CLOSURE operation as described above.
-        throw new UnsupportedOperationException("Not implemented");
+    private BitSet[] computeClosures() {
+        int count = compact.getNonTerminalCount();
+        int[] byLeft = compact.getProductionsByLeft();
+        int[] byLeftStart = compact.getProductionsByLeftStart();
+        BitSet[] sets = new BitSet[count];
+        Digraph leading = new Digraph(count);
+        for (int a = 0; a < count; a++) {
+            sets[a] = new BitSet(items.getItemCount());
+            for (int k = byLeftStart[a]; k < byLeftStart[a + 1]; k++) {
+                int p = byLeft[k];
+                sets[a].set(items.item(p, 0));
+                int[] rhs = compact.getRight(p);
+                if (rhs.length > 0 && !compact.isTerminal(rhs[0])) {
+                    leading.addEdge(a, compact.nonTerminalIndex(rhs[0]));
+                }
+            }
+        }
+        leading.propagate(sets);
+        return sets;
     }
 
     /**
-     * Implements the GOTO operation on a state and a symbol.
-     * @param state The current set of items (state).
-     * @param symbol The transition symbol.
-     * @return The new state (set of items).
-     *
-     * Detailed pseudocode:
-     * 1. Initialize nextItems = empty set.
-     * 2. For each item [A -> α • X β] in state, where X == symbol:
-     *      a. Add [A -> α X • β] to nextItems.
-     * 3. Return closure(nextItems).
+     * Implements the CLOSURE operation on a kernel.
+     * @param kernel The kernel items.
+     * @param into   Receives the kernel and the non-kernel items.
      */
-    private Set<LR0Item> goTo(Set<LR0Item> state, Symbol symbol) {
-        // TODO: Implement the GOTO operation as described above.
-        throw new UnsupportedOperationException("Not implemented");
+    private void closure(int[] kernel, BitSet into) {
+        for (int item : kernel) {
+            into.set(item);
+            int b = items.symbolAfterDot(item);
+            if (b >= 0 && !compact.isTerminal(b)) {
+                into.or(closureOf[compact.nonTerminalIndex(b)]);
+            }
+        }
     }
 
     /**
-     * Builds the complete LR(0) automaton.
-     *
-     * Detailed pseudocode:
-     * 1. Create the initial item [S' -> • S], where S' is the augmented start symbol.
-     * 2. Compute the closure of the initial item to form the initial state.
-     * 3. Initialize a set of states with the initial state.
-     * 4. Initialize a worklist (queue) with the initial state.
-     * 5. While the worklist is not empty:
-     *      a. Remove a state from the worklist.
-     *      b. For each grammar symbol X:
-     *          i. Compute goTo(state, X) to get nextState.
-     *          ii. If nextState is not empty and not already in the set of states:
-     *              - Add nextState to the set of states and to the worklist.
-     *      c. Record transitions between states for each symbol.
-     * 6. Store all states and transitions in the automaton.
+     * Builds the complete LR(0) automaton with a worklist over state numbers: every new kernel
+     * interned by GOTO is a new state and is processed once.
      */
     public void build() {
-        // TODO: Use closure() and goTo() to generate all states of the automaton as described above.
-        throw new UnsupportedOperationException("Not implemented");
+        kernels = new KernelTable();
+        closureOf = computeClosures();
+        List<int[]> symbolRows = new ArrayList<>();
+        List<int[]> targetRows = new ArrayList<>();
+
+        kernels.intern(new int[]{items.item(items.getAcceptProduction(), 0)});
+        int symbolCount = compact.getSymbolCount();
+        BitSet closed = new BitSet(items.getItemCount());
+        int[] bucketSize = new int[symbolCount];
+        int[] bucketStart = new int[symbolCount];
+        int[] symbols = new int[symbolCount];
+        int[] advanced = new int[16];
+        for (int state = 0; state < kernels.size(); state++) {
+            closed.clear();
+            closure(kernels.get(state), closed);
+
+            // GOTO for every symbol at once: count, then place each item + 1 in its bucket
+            int count = 0;
+            int total = 0;
+            for (int item = closed.nextSetBit(0); item >= 0; item = closed.nextSetBit(item + 1)) {
+                int x = items.symbolAfterDot(item);
+                if (x >= 0) {
+                    if (bucketSize[x]++ == 0) {
+                        symbols[count++] = x;
+                    }
+                    total++;
+                }
+            }
+            Arrays.sort(symbols, 0, count);
+            int offset = 0;
+            for (int i = 0; i < count; i++) {
+                bucketStart[symbols[i]] = offset;
+                offset += bucketSize[symbols[i]];
+            }
+            if (advanced.length < total) {
+                advanced = new int[Math.max(total, advanced.length * 2)];
+            }
+            for (int item = closed.nextSetBit(0); item >= 0; item = closed.nextSetBit(item + 1)) {
+                int x = items.symbolAfterDot(item);
+                if (x >= 0) {
+                    advanced[bucketStart[x]++] = item + 1;
+                }
+            }
+
+            int[] targets = new int[count];
+            for (int i = 0; i < count; i++) {
+                int x = symbols[i];
+                int end = bucketStart[x];
+                int begin = end - bucketSize[x];
+                targets[i] = kernels.intern(Arrays.copyOfRange(advanced, begin, end));
+                bucketSize[x] = 0;
+            }
+            symbolRows.add(Arrays.copyOf(symbols, count));
+            targetRows.add(targets);
+        }
+        transitionSymbols = symbolRows.toArray(new int[0][]);
+        transitionTargets = targetRows.toArray(new int[0][]);
+    }
+
+    /**
+     * Checks whether {@link #build()} has been called.
+     * @return true if the states are available.
+     */
+    public boolean isBuilt() {
+        return kernels != null;
+    }
+
+    /**
+     * Returns the grammar of the automaton.
+     * @return The grammar.
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the item numbering used by the states.
+     * @return The item index.
+     */
+    public ItemIndex getItemIndex() {
+        return items;
+    }
+
+    /**
+     * Returns the number of states.
+     * @return The state count; states are 0 .. count-1, 0 is the initial state.
+     */
+    public int getStateCount() {
+        return kernels.size();
+    }
+
+    /**
+     * Returns the kernel items of a state. The array is shared and must not be modified.
+     * @param state A state.
+     * @return The sorted kernel.
+     */
+    public int[] getKernel(int state) {
+        return kernels.get(state);
+    }
+
+    /**
+     * Returns all items of a state, computed from the kernel on each call.
+     * @param state A state.
+     * @return The sorted closure of the kernel.
+     */
+    public int[] getItems(int state) {
+        BitSet closed = new BitSet(items.getItemCount());
+        closure(kernels.get(state), closed);
+        return closed.stream().toArray();
+    }
+
+    /**
+     * Returns the initial items that a non-terminal after the dot adds to a closure.
+     * The set is shared and must not be modified.
+     * @param nonTerminal A non-terminal ID.
+     * @return The items [C -> • γ] for every C that B can start with, including B itself.
+     */
+    public BitSet getClosureItems(int nonTerminal) {
+        return closureOf[compact.nonTerminalIndex(nonTerminal)];
+    }
+
+    /**
+     * Returns the state reached from a state on a symbol.
+     * @param state  A state.
+     * @param symbol A symbol ID.
+     * @return The target state, or -1 if there is no transition.
+     */
+    public int getTransition(int state, int symbol) {
+        int i = Arrays.binarySearch(transitionSymbols[state], symbol);
+        return i < 0 ? -1 : transitionTargets[state][i];
+    }
+
+    /**
+     * Returns the symbols with a transition out of a state. The array is shared and must not be
+     * modified.
+     * @param state A state.
+     * @return The symbol IDs, sorted.
+     */
+    public int[] getTransitionSymbols(int state) {
+        return transitionSymbols[state];
+    }
+
+    /**
+     * Returns the targets of the transitions out of a state, parallel to
+     * {@link #getTransitionSymbols(int)}. The array is shared and must not be modified.
+     * @param state A state.
+     * @return The target states.
+     */
+    public int[] getTransitionTargets(int state) {
+        return transitionTargets[state];
     }
-}
\ No newline at end of file
+}
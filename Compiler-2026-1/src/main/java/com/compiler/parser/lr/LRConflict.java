@@ -0,0 +1,60 @@
+package com.compiler.parser.lr;
+
+import com.compiler.parser.grammar.Symbol;
+
+/**
+ * A cell of an LR ACTION table with more than one possible action.
+ */
+public class LRConflict {
+    private final int state;
+    private final Symbol terminal;
+    private final int[] actions;
+    private final boolean shiftReduce;
+    private final String description;
+
+    LRConflict(int state, Symbol terminal, int[] actions, boolean shiftReduce, String description) {
+        this.state = state;
+        this.terminal = terminal;
+        this.actions = actions;
+        this.shiftReduce = shiftReduce;
+        this.description = description;
+    }
+
+    /**
+     * Returns the state of the conflicting cell.
+     * @return The state.
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Returns the lookahead of the conflicting cell.
+     * @return The terminal, possibly {@code $}.
+     */
+    public Symbol getTerminal() {
+        return terminal;
+    }
+
+    /**
+     * Returns all actions of the cell, encoded as in {@link LRTable}; the first one is the action
+     * the table keeps.
+     * @return The actions.
+     */
+    public int[] getActions() {
+        return actions.clone();
+    }
+
+    /**
+     * Checks the kind of conflict.
+     * @return true for shift/reduce, false for reduce/reduce.
+     */
+    public boolean isShiftReduce() {
+        return shiftReduce;
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,237 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenSource;
+import com.compiler.parser.ParseListener;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Streaming shift-reduce parser for any {@link ActionGotoTable}, typically a
+ * {@link PackedLRTable}.
+ * <p>
+ * Tokens are pulled one at a time from a {@link TokenSource}. The parse stack is a pair of
+ * parallel arrays, an {@code int[]} of states and an {@code Object[]} of semantic values, that
+ * grow by doubling and are reused across parses. Right-hand side lengths and left-hand sides
+ * are precomputed per production, and reductions see their values through a single reused
+ * {@link RightHandSide} view, so the loop allocates nothing per token or per reduction. A token
+ * is matched to a terminal by its {@link Token#type}, which must equal the terminal's name.
+ * <p>
+ * {@link #parse(TokenSource, ParseListener)} streams the parse as events instead, keeping rule
+ * spans in place of values.
+ */
+public class LRDriver {
+    private static final LRActions NO_ACTIONS = new LRActions() { };
+
+    private final ActionGotoTable table;
+    private final CompactGrammar grammar;
+    private final Map<String, Integer> terminalIds = new HashMap<>();
+    private final int[] rightLength;
+    private final int[] left;
+    private final RightHandSide view = new RightHandSide();
+    private int[] states = new int[64];
+    private Object[] values = new Object[64];
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private Object result;
+
+    /**
+     * Creates a driver for a built table.
+     * @param table The ACTION/GOTO table.
+     * @throws IllegalArgumentException if the table has not been built.
+     */
+    public LRDriver(ActionGotoTable table) {
+        if (table.getStateCount() == 0) {
+            throw new IllegalArgumentException("LR table has not been built");
+        }
+        this.table = table;
+        this.grammar = table.getCompactGrammar();
+        for (int t = 1; t < grammar.getTerminalCount(); t++) {
+            terminalIds.put(grammar.getName(t), t);
+        }
+        int productions = grammar.getProductionCount();
+        this.rightLength = new int[productions];
+        this.left = new int[productions];
+        for (int p = 0; p < productions; p++) {
+            rightLength[p] = grammar.getRight(p).length;
+            left[p] = grammar.getLeft(p);
+        }
+    }
+
+    /**
+     * Validates the tokens of a source.
+     * @param source The token source.
+     * @return true if the input is accepted, false otherwise.
+     */
+    public boolean parse(TokenSource source) {
+        return parse(source, NO_ACTIONS);
+    }
+
+    /**
+     * Parses the tokens of a source, running semantic actions on every shift and reduction.
+     * Parsing stops at the first error.
+     * @param source  The token source.
+     * @param actions The semantic actions.
+     * @return true if the input is accepted, false otherwise.
+     */
+    public boolean parse(TokenSource source, LRActions actions) {
+        int[] states = this.states;
+        Object[] values = this.values;
+        int top = 0;
+        states[0] = 0;
+        result = null;
+
+        int end = 0;
+        Token token = source.next();
+        int lookahead = terminalOf(token);
+        while (true) {
+            int state = states[top];
+            int action = lookahead < 0 ? LRTable.ERROR : table.getAction(state, lookahead);
+            if (LRTable.isShift(action)) {
+                if (++top == states.length) {
+                    grow(top * 2);
+                    states = this.states;
+                    values = this.values;
+                }
+                states[top] = LRTable.target(action);
+                values[top] = actions.shift(lookahead, token);
+                end = token.getEnd();
+                token = source.next();
+                lookahead = terminalOf(token);
+            } else if (LRTable.isReduce(action)) {
+                if (table.isAccept(action)) {
+                    result = values[top];
+                    Arrays.fill(values, 1, top + 1, null);
+                    return true;
+                }
+                int p = LRTable.production(action);
+                int n = rightLength[p];
+                view.set(values, top - n + 1, n);
+                Object value = actions.reduce(p, view);
+                Arrays.fill(values, top - n + 1, top + 1, null);
+                top -= n;
+                int target = table.getGoto(states[top], left[p]);
+                // An ε-production grows the stack
+                if (++top == states.length) {
+                    grow(top * 2);
+                    states = this.states;
+                    values = this.values;
+                }
+                states[top] = target;
+                values[top] = value;
+            } else {
+                actions.error(new SyntaxError(token, token == null ? end : token.offset, expected(state)));
+                Arrays.fill(values, 1, top + 1, null);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Parses the tokens of a source as a stream of events: a {@link ParseListener#token} per
+     * shift and a {@link ParseListener#exitRule} per reduction, in postorder. The span of every
+     * stack entry is kept in two parallel {@code int[]}s, so memory stays proportional to the
+     * stack depth. Parsing stops at the first error or when the listener is done.
+     * @param source   The token source.
+     * @param listener The listener.
+     * @return true if the input is accepted, false on an error or if the listener stopped early.
+     */
+    public boolean parse(TokenSource source, ParseListener listener) {
+        int[] states = this.states;
+        int[] starts = this.starts;
+        int[] ends = this.ends;
+        int top = 0;
+        states[0] = 0;
+        result = null;
+
+        int end = 0;
+        Token token = source.next();
+        int lookahead = terminalOf(token);
+        while (true) {
+            int state = states[top];
+            int action = lookahead < 0 ? LRTable.ERROR : table.getAction(state, lookahead);
+            int start;
+            int spanEnd;
+            if (LRTable.isShift(action)) {
+                listener.token(lookahead, token);
+                state = LRTable.target(action);
+                start = token.offset;
+                spanEnd = end = token.getEnd();
+                token = source.next();
+                lookahead = terminalOf(token);
+            } else if (LRTable.isReduce(action)) {
+                if (table.isAccept(action)) {
+                    return true;
+                }
+                int p = LRTable.production(action);
+                int n = rightLength[p];
+                // An empty rule gets an empty span at the end of the preceding token
+                start = n == 0 ? end : starts[top - n + 1];
+                spanEnd = n == 0 ? end : ends[top];
+                listener.exitRule(p, start, spanEnd);
+                top -= n;
+                state = table.getGoto(states[top], left[p]);
+            } else {
+                listener.syntaxError(new SyntaxError(token, token == null ? end : token.offset, expected(state)));
+                return false;
+            }
+            if (listener.isDone()) {
+                return false;
+            }
+            if (++top == states.length) {
+                grow(top * 2);
+                states = this.states;
+                starts = this.starts;
+                ends = this.ends;
+            }
+            states[top] = state;
+            starts[top] = start;
+            ends[top] = spanEnd;
+        }
+    }
+
+    private void grow(int capacity) {
+        states = Arrays.copyOf(states, capacity);
+        values = Arrays.copyOf(values, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    /**
+     * Returns the value of the start symbol produced by the last successful parse.
+     * @return The value returned by the last reduction, or null if the last parse failed.
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    /**
+     * Names of the terminals with an action in a state.
+     */
+    private List<String> expected(int state) {
+        List<String> names = new ArrayList<>();
+        for (int t = 0; t < grammar.getTerminalCount(); t++) {
+            if (table.getAction(state, t) != LRTable.ERROR) {
+                names.add(grammar.getName(t));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Maps a token to its terminal ID: {@code $} at the end of input, -1 if the type is unknown.
+     */
+    private int terminalOf(Token token) {
+        if (token == null) {
+            return CompactGrammar.END;
+        }
+        Integer id = terminalIds.get(token.type);
+        return id == null ? -1 : id;
+    }
+}
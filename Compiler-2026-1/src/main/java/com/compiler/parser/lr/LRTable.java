@@ -0,0 +1,274 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * ACTION and GOTO tables of an LR parser, indexed by state and {@link CompactGrammar} ID.
+ * <p>
+ * An action is an int:
+ * <ul>
+ *   <li>{@link #ERROR} (0) for an empty cell,</li>
+ *   <li>{@code state + 1} (positive) to shift and go to {@code state},</li>
+ *   <li>{@code -(production + 1)} (negative) to reduce by {@code production}; reducing by the
+ *       augmented production S' -> S ({@link ItemIndex#getAcceptProduction()}) means accept.</li>
+ * </ul>
+ * GOTO cells hold a state or -1.
+ * <p>
+ * Subclasses decide how states and lookaheads are computed and call {@link #fill}. Conflicts
+ * are resolved the way yacc does (shift over reduce, then the production listed first), every
+ * conflicting cell is reported, and all of its actions stay available through
+ * {@link #getConflictActions(int, int)} for parsers that explore them.
+ */
+public abstract class LRTable implements ActionGotoTable {
+    /** Action of an empty cell. */
+    public static final int ERROR = 0;
+
+    protected final CompactGrammar grammar;
+    protected final ItemIndex items;
+    private final int terminalCount;
+    private final int nonTerminalCount;
+
+    private int stateCount;
+    private int[] action;
+    private int[] goTo;
+    private final List<LRConflict> conflicts = new ArrayList<>();
+    private final Map<Integer, int[]> conflictActions = new HashMap<>();
+
+    protected LRTable(ItemIndex items) {
+        this.items = items;
+        this.grammar = items.getCompactGrammar();
+        this.terminalCount = grammar.getTerminalCount();
+        this.nonTerminalCount = grammar.getNonTerminalCount();
+    }
+
+    /**
+     * Fills ACTION and GOTO.
+     * @param stateCount        Number of states.
+     * @param transitionSymbols Per state, the symbols with a transition.
+     * @param transitionTargets Per state, the targets parallel to the symbols.
+     * @param reductions        Per state, the productions of the complete items.
+     * @param lookaheads        Per state, the lookahead terminals parallel to the reductions.
+     */
+    protected void fill(int stateCount, int[][] transitionSymbols, int[][] transitionTargets,
+                        int[][] reductions, BitSet[][] lookaheads) {
+        this.stateCount = stateCount;
+        this.action = new int[stateCount * terminalCount];
+        this.goTo = new int[stateCount * nonTerminalCount];
+        Arrays.fill(goTo, -1);
+        conflicts.clear();
+        conflictActions.clear();
+
+        int[] cell = new int[4];
+        for (int s = 0; s < stateCount; s++) {
+            int[] symbols = transitionSymbols[s];
+            for (int i = 0; i < symbols.length; i++) {
+                int x = symbols[i];
+                if (grammar.isTerminal(x)) {
+                    action[s * terminalCount + x] = shift(transitionTargets[s][i]);
+                } else {
+                    goTo[s * nonTerminalCount + grammar.nonTerminalIndex(x)] = transitionTargets[s][i];
+                }
+            }
+
+            for (int t = 0; t < terminalCount; t++) {
+                int count = 0;
+                int shift = action[s * terminalCount + t];
+                if (shift != ERROR) {
+                    cell[count++] = shift;
+                }
+                for (int r = 0; r < reductions[s].length; r++) {
+                    if (lookaheads[s][r].get(t)) {
+                        if (count == cell.length) {
+                            cell = Arrays.copyOf(cell, count * 2);
+                        }
+                        cell[count++] = reduce(reductions[s][r]);
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                // Shift first, then reductions by production index: reduce actions are -(p + 1),
+                // so descending order is ascending production index
+                int from = shift != ERROR ? 1 : 0;
+                Arrays.sort(cell, from, count);
+                reverse(cell, from, count);
+                action[s * terminalCount + t] = cell[0];
+                if (count > 1) {
+                    int[] all = Arrays.copyOf(cell, count);
+                    conflictActions.put(s * terminalCount + t, all);
+                    conflicts.add(new LRConflict(s, grammar.getSymbol(t), all, shift != ERROR, describe(s, t, all)));
+                }
+            }
+        }
+    }
+
+    private static void reverse(int[] a, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    private String describe(int state, int terminal, int[] actions) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(actions.length > 1 && isShift(actions[0]) ? "Shift/Reduce" : "Reduce/Reduce")
+                .append(" conflict in state ").append(state)
+                .append(" on '").append(grammar.getName(terminal)).append("':");
+        for (int a : actions) {
+            sb.append(' ');
+            if (isShift(a)) {
+                sb.append("shift ").append(target(a));
+            } else {
+                sb.append("reduce ").append(items.toItem(items.item(production(a), items.getRight(production(a)).length)));
+            }
+            sb.append(';');
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
+    /**
+     * Encodes a shift action.
+     * @param state The state to go to.
+     * @return The action.
+     */
+    public static int shift(int state) {
+        return state + 1;
+    }
+
+    /**
+     * Encodes a reduce action.
+     * @param production The production to reduce by.
+     * @return The action.
+     */
+    public static int reduce(int production) {
+        return -(production + 1);
+    }
+
+    /**
+     * Checks for a shift action.
+     * @param action An action.
+     * @return true if it shifts.
+     */
+    public static boolean isShift(int action) {
+        return action > 0;
+    }
+
+    /**
+     * Checks for a reduce (or accept) action.
+     * @param action An action.
+     * @return true if it reduces.
+     */
+    public static boolean isReduce(int action) {
+        return action < 0;
+    }
+
+    /**
+     * Returns the state a shift action goes to.
+     * @param action A shift action.
+     * @return The state.
+     */
+    public static int target(int action) {
+        return action - 1;
+    }
+
+    /**
+     * Returns the production of a reduce action.
+     * @param action A reduce action.
+     * @return The production index.
+     */
+    public static int production(int action) {
+        return -action - 1;
+    }
+
+    /**
+     * Checks for the accept action.
+     * @param action An action.
+     * @return true if it reduces by the augmented production.
+     */
+    @Override
+    public boolean isAccept(int action) {
+        return action == reduce(items.getAcceptProduction());
+    }
+
+    /**
+     * Returns ACTION[state, terminal].
+     * @param state    A state.
+     * @param terminal A terminal ID.
+     * @return The action, {@link #ERROR} if the cell is empty.
+     */
+    @Override
+    public int getAction(int state, int terminal) {
+        return action[state * terminalCount + terminal];
+    }
+
+    /**
+     * Returns GOTO[state, nonTerminal].
+     * @param state       A state.
+     * @param nonTerminal A non-terminal ID.
+     * @return The state, or -1.
+     */
+    @Override
+    public int getGoto(int state, int nonTerminal) {
+        return goTo[state * nonTerminalCount + grammar.nonTerminalIndex(nonTerminal)];
+    }
+
+    /**
+     * Returns every action of a cell, including those discarded by conflict resolution.
+     * @param state    A state.
+     * @param terminal A terminal ID.
+     * @return The actions, the kept one first; empty for an error cell.
+     */
+    public int[] getConflictActions(int state, int terminal) {
+        int[] all = conflictActions.get(state * terminalCount + terminal);
+        if (all != null) {
+            return all.clone();
+        }
+        int a = getAction(state, terminal);
+        return a == ERROR ? new int[0] : new int[]{a};
+    }
+
+    /**
+     * Returns the conflicts found while filling the table.
+     * @return Every conflicting cell, by state then terminal.
+     */
+    public List<LRConflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * Returns the number of states.
+     * @return The state count; state 0 is the initial state.
+     */
+    @Override
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Returns the grammar whose IDs index the table.
+     * @return The compact grammar.
+     */
+    @Override
+    public CompactGrammar getCompactGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the item numbering, which also defines the augmented production.
+     * @return The item index.
+     */
+    @Override
+    public ItemIndex getItemIndex() {
+        return items;
+    }
+}
@@ -0,0 +1,197 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.syntax.BitsetAnalyzer;
+import com.compiler.parser.syntax.Digraph;
+
+/**
+ * LALR(1) lookahead sets of an LR(0) automaton, computed with the relations of DeRemer and
+ * Pennello rather than by building canonical LR(1) states and merging them.
+ * <p>
+ * The relations are defined on the non-terminal transitions (p, A) of the automaton:
+ * <ul>
+ *   <li>DR(p, A): the terminals shifted out of GOTO(p, A), plus $ for the transition on the
+ *       start symbol out of state 0.</li>
+ *   <li>(p, A) reads (r, C) if r = GOTO(p, A) and C is nullable.</li>
+ *   <li>(p, A) includes (p', B) if B -> β A γ, γ is nullable and p' reaches p on β.</li>
+ *   <li>(q, A -> ω) lookback (p, A) if p reaches q on ω.</li>
+ * </ul>
+ * Read = DR closed under reads, Follow = Read closed under includes, and the lookahead of a
+ * reduction is the union of Follow over its lookback transitions. Both closures are solved
+ * with {@link Digraph} over terminal bitsets, so the work is linear in the size of the relations.
+ */
+public class LalrLookaheads {
+    private final int[][] reductions;
+    private final BitSet[][] lookaheads;
+
+    /**
+     * Computes the lookaheads of every reduction.
+     * @param automaton A built LR(0) automaton.
+     */
+    public LalrLookaheads(LRAutomaton automaton) {
+        ItemIndex items = automaton.getItemIndex();
+        CompactGrammar grammar = items.getCompactGrammar();
+        BitsetAnalyzer analyzer = new BitsetAnalyzer(automaton.getGrammar());
+        int states = automaton.getStateCount();
+
+        // Number the non-terminal transitions; NTs have the highest IDs, so they end each row
+        int[] ntOffset = new int[states + 1];
+        int[] ntStart = new int[states];
+        for (int s = 0; s < states; s++) {
+            int[] symbols = automaton.getTransitionSymbols(s);
+            int i = 0;
+            while (i < symbols.length && grammar.isTerminal(symbols[i])) {
+                i++;
+            }
+            ntStart[s] = i;
+            ntOffset[s + 1] = ntOffset[s] + symbols.length - i;
+        }
+        int transitions = ntOffset[states];
+        int[] from = new int[transitions];
+        int[] symbol = new int[transitions];
+        for (int s = 0; s < states; s++) {
+            int[] symbols = automaton.getTransitionSymbols(s);
+            for (int i = ntStart[s]; i < symbols.length; i++) {
+                int x = ntOffset[s] + i - ntStart[s];
+                from[x] = s;
+                symbol[x] = symbols[i];
+            }
+        }
+
+        // DR and reads
+        BitSet[] follow = new BitSet[transitions];
+        Digraph reads = new Digraph(transitions);
+        for (int x = 0; x < transitions; x++) {
+            int r = automaton.getTransition(from[x], symbol[x]);
+            int[] symbols = automaton.getTransitionSymbols(r);
+            BitSet set = new BitSet(grammar.getTerminalCount());
+            for (int i = 0; i < symbols.length; i++) {
+                if (grammar.isTerminal(symbols[i])) {
+                    set.set(symbols[i]);
+                } else if (analyzer.isNullable(symbols[i])) {
+                    reads.addEdge(x, ntOffset[r] + i - ntStart[r]);
+                }
+            }
+            if (from[x] == 0 && symbol[x] == grammar.getStartSymbol()) {
+                set.set(CompactGrammar.END);
+            }
+            follow[x] = set;
+        }
+        reads.propagate(follow);
+
+        // includes and lookback, found by walking each production from each transition on its left side
+        boolean[] nullableSuffix = new boolean[items.getItemCount()];
+        for (int p = 0; p <= items.getAcceptProduction(); p++) {
+            int[] rhs = items.getRight(p);
+            boolean nullable = true;
+            for (int dot = rhs.length; dot >= 0; dot--) {
+                nullableSuffix[items.item(p, dot)] = nullable;
+                if (dot > 0) {
+                    nullable = nullable && !grammar.isTerminal(rhs[dot - 1]) && analyzer.isNullable(rhs[dot - 1]);
+                }
+            }
+        }
+        Digraph includes = new Digraph(transitions);
+        List<int[]> lookback = new ArrayList<>();
+        int[] byLeft = grammar.getProductionsByLeft();
+        int[] byLeftStart = grammar.getProductionsByLeftStart();
+        for (int x = 0; x < transitions; x++) {
+            int b = grammar.nonTerminalIndex(symbol[x]);
+            for (int k = byLeftStart[b]; k < byLeftStart[b + 1]; k++) {
+                int p = byLeft[k];
+                int[] rhs = items.getRight(p);
+                int state = from[x];
+                for (int i = 0; i < rhs.length; i++) {
+                    if (!grammar.isTerminal(rhs[i]) && nullableSuffix[items.item(p, i + 1)]) {
+                        int[] symbols = automaton.getTransitionSymbols(state);
+                        int j = Arrays.binarySearch(symbols, rhs[i]);
+                        includes.addEdge(ntOffset[state] + j - ntStart[state], x);
+                    }
+                    state = automaton.getTransition(state, rhs[i]);
+                }
+                lookback.add(new int[]{state, p, x});
+            }
+        }
+        includes.propagate(follow);
+
+        // Lookaheads per state, reductions ordered by production
+        List<List<int[]>> byState = new ArrayList<>();
+        for (int s = 0; s < states; s++) {
+            byState.add(new ArrayList<>());
+        }
+        for (int[] entry : lookback) {
+            byState.get(entry[0]).add(entry);
+        }
+        int accepting = automaton.getTransition(0, grammar.getStartSymbol());
+        int[] acceptEntry = {accepting, items.getAcceptProduction(), -1};
+        byState.get(accepting).add(acceptEntry);
+
+        this.reductions = new int[states][];
+        this.lookaheads = new BitSet[states][];
+        for (int s = 0; s < states; s++) {
+            List<int[]> entries = byState.get(s);
+            entries.sort((u, v) -> Integer.compare(u[1], v[1]));
+            int[] productions = new int[entries.size()];
+            BitSet[] sets = new BitSet[entries.size()];
+            int n = 0;
+            for (int[] entry : entries) {
+                if (n == 0 || productions[n - 1] != entry[1]) {
+                    productions[n] = entry[1];
+                    sets[n] = new BitSet(grammar.getTerminalCount());
+                    n++;
+                }
+                if (entry[2] < 0) {
+                    sets[n - 1].set(CompactGrammar.END);
+                } else {
+                    sets[n - 1].or(follow[entry[2]]);
+                }
+            }
+            reductions[s] = Arrays.copyOf(productions, n);
+            lookaheads[s] = Arrays.copyOf(sets, n);
+        }
+    }
+
+    /**
+     * Returns the productions reduced in a state (one per complete item), by production index.
+     * The array is shared and must not be modified.
+     * @param state A state.
+     * @return The production indices; the augmented production appears in the accepting state.
+     */
+    public int[] getReductions(int state) {
+        return reductions[state];
+    }
+
+    /**
+     * Returns the lookahead sets parallel to {@link #getReductions(int)}. The sets are shared
+     * and must not be modified.
+     * @param state A state.
+     * @return Terminal ID bitsets.
+     */
+    public BitSet[] getLookaheads(int state) {
+        return lookaheads[state];
+    }
+
+    /**
+     * Returns the lookaheads of a reduction.
+     * @param state      A state.
+     * @param production A production index.
+     * @return The terminal IDs, or null if the state does not reduce the production.
+     */
+    public BitSet getLookahead(int state, int production) {
+        int i = Arrays.binarySearch(reductions[state], production);
+        return i < 0 ? null : lookaheads[state][i];
+    }
+
+    int[][] reductions() {
+        return reductions;
+    }
+
+    BitSet[][] lookaheads() {
+        return lookaheads;
+    }
+}
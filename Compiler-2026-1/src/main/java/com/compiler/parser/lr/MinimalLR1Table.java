@@ -0,0 +1,364 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.syntax.BitsetAnalyzer;
+
+/**
+ * Builds LR(1) parsing tables with Pager's minimal LR(1) construction.
+ * <p>
+ * States are LR(1) kernels: an LR(0) kernel (the core, hash-consed in a {@link KernelTable})
+ * with a lookahead bitset per item. When GOTO produces a kernel whose core already exists, it
+ * is merged into an existing state with that core if the two are <em>weakly compatible</em>:
+ * for every pair of items i, j, either neither state's lookahead of i meets the other's
+ * lookahead of j, or one of the states already has overlapping lookaheads for i and j. Such a
+ * merge cannot create a reduce/reduce conflict that canonical LR(1) does not have, so the table
+ * has exactly the conflicts of canonical LR(1) with close to the state count of LALR(1). A
+ * merge that adds lookaheads reprocesses the state, and states left unreachable by the
+ * rerouted transitions are dropped at the end.
+ * <p>
+ * With {@code canonical} set, only identical kernels are merged, which yields the canonical
+ * LR(1) automaton.
+ */
+public class MinimalLR1Table extends LRTable {
+    private final Grammar source;
+    private final boolean canonical;
+    private final BitsetAnalyzer analyzer;
+
+    private int coreCount;
+    private List<int[]> kernels;
+    private List<BitSet[]> kernelLookaheads;
+    private int[][] reductions;
+    private BitSet[][] lookaheads;
+
+    // Per item: FIRST of what follows the symbol after the dot, and whether that is nullable
+    private final BitSet[] firstAfter;
+    private final boolean[] nullableAfter;
+
+    /**
+     * Creates a minimal LR(1) table builder.
+     * @param grammar The grammar.
+     */
+    public MinimalLR1Table(Grammar grammar) {
+        this(grammar, false);
+    }
+
+    /**
+     * Creates an LR(1) table builder.
+     * @param grammar   The grammar.
+     * @param canonical true for canonical LR(1) (no merging of different lookaheads).
+     */
+    public MinimalLR1Table(Grammar grammar, boolean canonical) {
+        super(new ItemIndex(grammar.getCompactGrammar()));
+        this.source = grammar;
+        this.canonical = canonical;
+        this.analyzer = new BitsetAnalyzer(grammar);
+        this.firstAfter = new BitSet[items.getItemCount()];
+        this.nullableAfter = new boolean[items.getItemCount()];
+        for (int item = 0; item < items.getItemCount(); item++) {
+            if (items.symbolAfterDot(item) >= 0) {
+                BitSet set = new BitSet(grammar.getCompactGrammar().getTerminalCount());
+                nullableAfter[item] = analyzer.firstOfSequence(items.getRight(items.production(item)), items.dot(item) + 1, set);
+                firstAfter[item] = set;
+            }
+        }
+    }
+
+    /**
+     * Builds the automaton and fills the table.
+     */
+    public void build() {
+        KernelTable coreTable = new KernelTable();
+        List<List<Integer>> statesByCore = new ArrayList<>();
+        List<Integer> coreOf = new ArrayList<>();
+        kernels = new ArrayList<>();
+        kernelLookaheads = new ArrayList<>();
+        List<int[]> symbolRows = new ArrayList<>();
+        List<int[]> targetRows = new ArrayList<>();
+
+        int[] initial = {items.item(items.getAcceptProduction(), 0)};
+        BitSet end = new BitSet();
+        end.set(CompactGrammar.END);
+        coreOf.add(coreTable.intern(initial));
+        statesByCore.add(new ArrayList<>(List.of(0)));
+        kernels.add(initial);
+        kernelLookaheads.add(new BitSet[]{end});
+        symbolRows.add(new int[0]);
+        targetRows.add(new int[0]);
+
+        Deque<Integer> worklist = new ArrayDeque<>();
+        List<Boolean> queued = new ArrayList<>(List.of(true));
+        worklist.add(0);
+        BitSet[] closure = new BitSet[items.getItemCount()];
+        while (!worklist.isEmpty()) {
+            int state = worklist.poll();
+            queued.set(state, false);
+            int[] closed = closure(kernels.get(state), kernelLookaheads.get(state), closure);
+
+            // Bucket the closed items by the symbol after the dot
+            int count = 0;
+            int[] symbols = new int[closed.length];
+            for (int item : closed) {
+                int x = items.symbolAfterDot(item);
+                int at = x < 0 ? 0 : Arrays.binarySearch(symbols, 0, count, x);
+                if (at < 0) {
+                    at = -at - 1;
+                    System.arraycopy(symbols, at, symbols, at + 1, count - at);
+                    symbols[at] = x;
+                    count++;
+                }
+            }
+            symbols = Arrays.copyOf(symbols, count);
+            int[] targets = new int[count];
+            for (int i = 0; i < count; i++) {
+                int x = symbols[i];
+                int size = 0;
+                for (int item : closed) {
+                    if (items.symbolAfterDot(item) == x) size++;
+                }
+                int[] kernel = new int[size];
+                BitSet[] la = new BitSet[size];
+                size = 0;
+                for (int item : closed) {
+                    if (items.symbolAfterDot(item) == x) {
+                        kernel[size] = item + 1;
+                        la[size++] = (BitSet) closure[item].clone();
+                    }
+                }
+
+                int core = coreTable.intern(kernel);
+                if (core == statesByCore.size()) {
+                    statesByCore.add(new ArrayList<>());
+                }
+                int target = -1;
+                for (int candidate : statesByCore.get(core)) {
+                    if (compatible(kernelLookaheads.get(candidate), la)) {
+                        target = candidate;
+                        break;
+                    }
+                }
+                if (target < 0) {
+                    target = kernels.size();
+                    statesByCore.get(core).add(target);
+                    coreOf.add(core);
+                    kernels.add(kernel);
+                    kernelLookaheads.add(la);
+                    symbolRows.add(new int[0]);
+                    targetRows.add(new int[0]);
+                    queued.add(true);
+                    worklist.add(target);
+                } else if (merge(kernelLookaheads.get(target), la) && !queued.get(target)) {
+                    queued.set(target, true);
+                    worklist.add(target);
+                }
+                targets[i] = target;
+            }
+            symbolRows.set(state, symbols);
+            targetRows.set(state, targets);
+            for (int item : closed) {
+                closure[item] = null;
+            }
+        }
+
+        // Keep the states reachable from state 0, numbered in discovery order
+        int total = kernels.size();
+        int[] renumber = new int[total];
+        Arrays.fill(renumber, -1);
+        int[] order = new int[total];
+        int reachable = 0;
+        renumber[0] = 0;
+        order[reachable++] = 0;
+        for (int head = 0; head < reachable; head++) {
+            for (int target : targetRows.get(order[head])) {
+                if (renumber[target] < 0) {
+                    renumber[target] = reachable;
+                    order[reachable++] = target;
+                }
+            }
+        }
+
+        int[][] symbols = new int[reachable][];
+        int[][] targets = new int[reachable][];
+        List<int[]> keptKernels = new ArrayList<>();
+        List<BitSet[]> keptLookaheads = new ArrayList<>();
+        BitSet usedCores = new BitSet();
+        reductions = new int[reachable][];
+        lookaheads = new BitSet[reachable][];
+        for (int s = 0; s < reachable; s++) {
+            int old = order[s];
+            symbols[s] = symbolRows.get(old);
+            targets[s] = targetRows.get(old).clone();
+            for (int i = 0; i < targets[s].length; i++) {
+                targets[s][i] = renumber[targets[s][i]];
+            }
+            keptKernels.add(kernels.get(old));
+            keptLookaheads.add(kernelLookaheads.get(old));
+            usedCores.set(coreOf.get(old));
+            collectReductions(s, kernels.get(old), kernelLookaheads.get(old), closure);
+        }
+        kernels = keptKernels;
+        kernelLookaheads = keptLookaheads;
+        coreCount = usedCores.cardinality();
+        fill(reachable, symbols, targets, reductions, lookaheads);
+    }
+
+    /**
+     * LR(1) closure: [A -> α • B β, L] adds [B -> • γ, FIRST(β L)] until no lookahead grows.
+     * @param lookaheadOf Scratch indexed by item; receives the lookaheads of the closed items.
+     * @return The closed items, sorted.
+     */
+    private int[] closure(int[] kernel, BitSet[] la, BitSet[] lookaheadOf) {
+        int[] byLeft = grammar.getProductionsByLeft();
+        int[] byLeftStart = grammar.getProductionsByLeftStart();
+        int[] closed = new int[Math.max(8, kernel.length * 2)];
+        int size = 0;
+        Deque<Integer> pending = new ArrayDeque<>();
+        for (int i = 0; i < kernel.length; i++) {
+            lookaheadOf[kernel[i]] = (BitSet) la[i].clone();
+            closed[size++] = kernel[i];
+            pending.add(kernel[i]);
+        }
+        BitSet spread = new BitSet();
+        while (!pending.isEmpty()) {
+            int item = pending.poll();
+            int b = items.symbolAfterDot(item);
+            if (b < 0 || grammar.isTerminal(b)) {
+                continue;
+            }
+            spread.clear();
+            spread.or(firstAfter[item]);
+            if (nullableAfter[item]) {
+                spread.or(lookaheadOf[item]);
+            }
+            int a = grammar.nonTerminalIndex(b);
+            for (int k = byLeftStart[a]; k < byLeftStart[a + 1]; k++) {
+                int initial = items.item(byLeft[k], 0);
+                BitSet target = lookaheadOf[initial];
+                if (target == null) {
+                    lookaheadOf[initial] = (BitSet) spread.clone();
+                    if (size == closed.length) {
+                        closed = Arrays.copyOf(closed, size * 2);
+                    }
+                    closed[size++] = initial;
+                    pending.add(initial);
+                } else {
+                    int before = target.cardinality();
+                    target.or(spread);
+                    if (target.cardinality() != before) {
+                        pending.add(initial);
+                    }
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(closed, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void collectReductions(int state, int[] kernel, BitSet[] la, BitSet[] scratch) {
+        int[] closed = closure(kernel, la, scratch);
+        List<Integer> productions = new ArrayList<>();
+        List<BitSet> sets = new ArrayList<>();
+        for (int item : closed) {
+            if (items.symbolAfterDot(item) < 0) {
+                productions.add(items.production(item));
+                sets.add(scratch[item]);
+            }
+            scratch[item] = null;
+        }
+        // Items are sorted, and items of lower productions have lower numbers
+        reductions[state] = productions.stream().mapToInt(Integer::intValue).toArray();
+        lookaheads[state] = sets.toArray(new BitSet[0]);
+    }
+
+    /**
+     * Pager's weak compatibility of two lookahead vectors over the same core.
+     */
+    private boolean compatible(BitSet[] existing, BitSet[] incoming) {
+        if (Arrays.equals(existing, incoming)) {
+            return true;
+        }
+        if (canonical) {
+            return false;
+        }
+        for (int i = 0; i < existing.length; i++) {
+            for (int j = i + 1; j < existing.length; j++) {
+                boolean cross = existing[i].intersects(incoming[j]) || incoming[i].intersects(existing[j]);
+                if (cross && !existing[i].intersects(existing[j]) && !incoming[i].intersects(incoming[j])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the incoming lookaheads to the existing ones; returns true if any grew.
+     */
+    private static boolean merge(BitSet[] existing, BitSet[] incoming) {
+        boolean grew = false;
+        for (int i = 0; i < existing.length; i++) {
+            int before = existing[i].cardinality();
+            existing[i].or(incoming[i]);
+            grew |= existing[i].cardinality() != before;
+        }
+        return grew;
+    }
+
+    /**
+     * Returns the grammar of the table.
+     * @return The grammar.
+     */
+    public Grammar getGrammar() {
+        return source;
+    }
+
+    /**
+     * Returns the number of distinct LR(0) cores among the states, which is the state count of
+     * the LR(0) automaton and of LALR(1).
+     * @return The core count.
+     */
+    public int getCoreCount() {
+        return coreCount;
+    }
+
+    /**
+     * Summarizes the state counts of the LR(0)/LALR(1) automaton and of this one.
+     * @return For example "LR(0)/LALR(1): 13 states, minimal LR(1): 14 states".
+     */
+    public String getStateCountSummary() {
+        return "LR(0)/LALR(1): " + coreCount + " states, " + (canonical ? "canonical" : "minimal")
+                + " LR(1): " + getStateCount() + " states";
+    }
+
+    /**
+     * Returns the LR(0) kernel of a state. The array is shared and must not be modified.
+     * @param state A state.
+     * @return The sorted kernel items.
+     */
+    public int[] getKernel(int state) {
+        return kernels.get(state);
+    }
+
+    /**
+     * Returns the lookaheads of the reductions of a state.
+     * @param state      A state.
+     * @param production A production index.
+     * @return The terminal IDs, or null if the state does not reduce the production.
+     */
+    public BitSet getLookahead(int state, int production) {
+        for (int r = 0; r < reductions[state].length; r++) {
+            if (reductions[state][r] == production) {
+                return lookaheads[state][r];
+            }
+        }
+        return null;
+    }
+}
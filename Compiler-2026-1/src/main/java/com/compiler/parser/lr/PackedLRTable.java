@@ -0,0 +1,340 @@
+package com.compiler.parser.lr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Compressed form of an {@link LRTable} for parsing.
+ * <p>
+ * ACTION is packed in four steps:
+ * <ol>
+ *   <li>Each state gets a default reduction, its most frequent reduce action (never accept).
+ *       Cells holding it, and error cells, are dropped from the row and answered by the
+ *       default. As in yacc, this can delay the detection of an error by some reductions, but
+ *       never past the next shift.</li>
+ *   <li>States whose remaining rows and defaults are identical share one row.</li>
+ *   <li>The distinct rows are overlaid in a single value array by row displacement: each row
+ *       starts at an offset where its entries fall on free slots, and a parallel check array
+ *       records which row owns each slot.</li>
+ *   <li>If every value and row number fits, the value and check arrays are {@code short[]}
+ *       instead of {@code int[]}.</li>
+ * </ol>
+ * GOTO is packed the same way by column: each non-terminal gets its most frequent target as
+ * default, and the other entries are displaced into a value/check array indexed by state.
+ * Empty GOTO cells are never consulted by a parser, so they may return the default too.
+ */
+public class PackedLRTable implements ActionGotoTable {
+    private final CompactGrammar grammar;
+    private final ItemIndex items;
+    private final int stateCount;
+    private final int acceptAction;
+
+    private final int[] rowOf;
+    private final int[] defaultAction;
+    private final int[] actionBase;
+    private final Packed actions;
+
+    private final int[] gotoDefault;
+    private final int[] gotoBase;
+    private final Packed gotos;
+
+    /**
+     * Packs a built table.
+     * @param table The table.
+     */
+    public PackedLRTable(LRTable table) {
+        this.grammar = table.getCompactGrammar();
+        this.items = table.getItemIndex();
+        this.stateCount = table.getStateCount();
+        this.acceptAction = LRTable.reduce(items.getAcceptProduction());
+        int terminals = grammar.getTerminalCount();
+        int nonTerminals = grammar.getNonTerminalCount();
+
+        // ACTION: default reductions, then row sharing
+        rowOf = new int[stateCount];
+        Map<List<Integer>, Integer> rowIds = new HashMap<>();
+        List<int[]> rowColumns = new ArrayList<>();
+        List<int[]> rowValues = new ArrayList<>();
+        List<Integer> rowDefaults = new ArrayList<>();
+        int[] columns = new int[terminals];
+        int[] values = new int[terminals];
+        for (int s = 0; s < stateCount; s++) {
+            int fallback = mostFrequentReduction(table, s, terminals);
+            int count = 0;
+            for (int t = 0; t < terminals; t++) {
+                int a = table.getAction(s, t);
+                if (a != LRTable.ERROR && a != fallback) {
+                    columns[count] = t;
+                    values[count++] = a;
+                }
+            }
+            List<Integer> key = new ArrayList<>(2 * count + 1);
+            key.add(fallback);
+            for (int i = 0; i < count; i++) {
+                key.add(columns[i]);
+                key.add(values[i]);
+            }
+            Integer row = rowIds.get(key);
+            if (row == null) {
+                row = rowColumns.size();
+                rowIds.put(key, row);
+                rowColumns.add(Arrays.copyOf(columns, count));
+                rowValues.add(Arrays.copyOf(values, count));
+                rowDefaults.add(fallback);
+            }
+            rowOf[s] = row;
+        }
+        defaultAction = rowDefaults.stream().mapToInt(Integer::intValue).toArray();
+        actionBase = new int[rowColumns.size()];
+        actions = pack(rowColumns, rowValues, actionBase);
+
+        // GOTO: default target per non-terminal, exceptions by state
+        gotoDefault = new int[nonTerminals];
+        List<int[]> gotoColumns = new ArrayList<>();
+        List<int[]> gotoValues = new ArrayList<>();
+        Map<Integer, Integer> frequency = new HashMap<>();
+        for (int a = 0; a < nonTerminals; a++) {
+            int symbol = grammar.getTerminalCount() + a;
+            frequency.clear();
+            int best = -1;
+            int bestCount = 0;
+            for (int s = 0; s < stateCount; s++) {
+                int target = table.getGoto(s, symbol);
+                if (target >= 0) {
+                    int n = frequency.merge(target, 1, Integer::sum);
+                    if (n > bestCount || (n == bestCount && target < best)) {
+                        best = target;
+                        bestCount = n;
+                    }
+                }
+            }
+            gotoDefault[a] = best;
+            int count = 0;
+            int[] states = new int[stateCount];
+            int[] targets = new int[stateCount];
+            for (int s = 0; s < stateCount; s++) {
+                int target = table.getGoto(s, symbol);
+                if (target >= 0 && target != best) {
+                    states[count] = s;
+                    targets[count++] = target;
+                }
+            }
+            gotoColumns.add(Arrays.copyOf(states, count));
+            gotoValues.add(Arrays.copyOf(targets, count));
+        }
+        gotoBase = new int[nonTerminals];
+        gotos = pack(gotoColumns, gotoValues, gotoBase);
+    }
+
+    /**
+     * Returns the most frequent reduce action of a state other than accept, ties going to the
+     * lower production, or {@link LRTable#ERROR} if the state has none.
+     */
+    private int mostFrequentReduction(LRTable table, int state, int terminals) {
+        Map<Integer, Integer> frequency = new HashMap<>();
+        int best = LRTable.ERROR;
+        int bestCount = 0;
+        for (int t = 0; t < terminals; t++) {
+            int a = table.getAction(state, t);
+            if (LRTable.isReduce(a) && a != acceptAction) {
+                int n = frequency.merge(a, 1, Integer::sum);
+                // Reduce actions are -(p + 1): a larger action is a lower production
+                if (n > bestCount || (n == bestCount && a > best)) {
+                    best = a;
+                    bestCount = n;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Row displacement of sparse rows given as sorted columns and values. Rows are placed
+     * longest first at the lowest offset where all their columns fall on free slots.
+     */
+    private static Packed pack(List<int[]> columns, List<int[]> values, int[] base) {
+        int rows = columns.size();
+        Integer[] order = new Integer[rows];
+        for (int r = 0; r < rows; r++) {
+            order[r] = r;
+        }
+        Arrays.sort(order, (x, y) -> columns.get(y).length - columns.get(x).length);
+
+        int[] packedValues = new int[64];
+        int[] packedCheck = new int[64];
+        Arrays.fill(packedCheck, -1);
+        int length = 0;
+        int firstFree = 0;
+        for (int r : order) {
+            int[] cols = columns.get(r);
+            if (cols.length == 0) {
+                continue;
+            }
+            int offset = Math.max(0, firstFree - cols[0]);
+            while (true) {
+                int needed = offset + cols[cols.length - 1] + 1;
+                if (needed > packedCheck.length) {
+                    int capacity = Math.max(needed, packedCheck.length * 2);
+                    packedValues = Arrays.copyOf(packedValues, capacity);
+                    int old = packedCheck.length;
+                    packedCheck = Arrays.copyOf(packedCheck, capacity);
+                    Arrays.fill(packedCheck, old, capacity, -1);
+                }
+                boolean fits = true;
+                for (int c : cols) {
+                    if (packedCheck[offset + c] >= 0) {
+                        fits = false;
+                        break;
+                    }
+                }
+                if (fits) {
+                    break;
+                }
+                offset++;
+            }
+            base[r] = offset;
+            int[] vals = values.get(r);
+            for (int i = 0; i < cols.length; i++) {
+                packedValues[offset + cols[i]] = vals[i];
+                packedCheck[offset + cols[i]] = r;
+            }
+            length = Math.max(length, offset + cols[cols.length - 1] + 1);
+            while (firstFree < packedCheck.length && packedCheck[firstFree] >= 0) {
+                firstFree++;
+            }
+        }
+        return new Packed(Arrays.copyOf(packedValues, length), Arrays.copyOf(packedCheck, length));
+    }
+
+    @Override
+    public int getAction(int state, int terminal) {
+        int row = rowOf[state];
+        int slot = actionBase[row] + terminal;
+        if (actions.owns(slot, row)) {
+            return actions.value(slot);
+        }
+        return defaultAction[row];
+    }
+
+    @Override
+    public int getGoto(int state, int nonTerminal) {
+        int a = nonTerminal - grammar.getTerminalCount();
+        int slot = gotoBase[a] + state;
+        if (gotos.owns(slot, a)) {
+            return gotos.value(slot);
+        }
+        return gotoDefault[a];
+    }
+
+    @Override
+    public boolean isAccept(int action) {
+        return action == acceptAction;
+    }
+
+    @Override
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    @Override
+    public CompactGrammar getCompactGrammar() {
+        return grammar;
+    }
+
+    @Override
+    public ItemIndex getItemIndex() {
+        return items;
+    }
+
+    /**
+     * Returns the default reduction of a state.
+     * @param state A state.
+     * @return The reduce action, or {@link LRTable#ERROR} if the state has none.
+     */
+    public int getDefaultAction(int state) {
+        return defaultAction[rowOf[state]];
+    }
+
+    /**
+     * Returns the number of distinct ACTION rows after sharing.
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return actionBase.length;
+    }
+
+    /**
+     * Checks whether the packed arrays use 16-bit entries.
+     * @return true if both ACTION and GOTO fit in {@code short[]}s.
+     */
+    public boolean isCompact() {
+        return actions.isShort() && gotos.isShort();
+    }
+
+    /**
+     * Returns the approximate size of the packed tables.
+     * @return The bytes used by all arrays.
+     */
+    public long getSizeInBytes() {
+        return 4L * (rowOf.length + defaultAction.length + actionBase.length + gotoDefault.length + gotoBase.length)
+                + actions.sizeInBytes() + gotos.sizeInBytes();
+    }
+
+    /**
+     * Value and check arrays of a displaced table, as {@code short[]} when everything fits.
+     */
+    private static final class Packed {
+        private final short[] shortValues;
+        private final short[] shortCheck;
+        private final int[] intValues;
+        private final int[] intCheck;
+        private final int length;
+
+        Packed(int[] values, int[] check) {
+            this.length = values.length;
+            boolean fits = true;
+            for (int i = 0; i < length && fits; i++) {
+                fits = values[i] >= Short.MIN_VALUE && values[i] <= Short.MAX_VALUE && check[i] <= Short.MAX_VALUE;
+            }
+            if (fits) {
+                shortValues = new short[length];
+                shortCheck = new short[length];
+                for (int i = 0; i < length; i++) {
+                    shortValues[i] = (short) values[i];
+                    shortCheck[i] = (short) check[i];
+                }
+                intValues = null;
+                intCheck = null;
+            } else {
+                shortValues = null;
+                shortCheck = null;
+                intValues = values;
+                intCheck = check;
+            }
+        }
+
+        boolean owns(int slot, int row) {
+            if (slot >= length) {
+                return false;
+            }
+            return (shortCheck != null ? shortCheck[slot] : intCheck[slot]) == row;
+        }
+
+        int value(int slot) {
+            return shortValues != null ? shortValues[slot] : intValues[slot];
+        }
+
+        boolean isShort() {
+            return shortValues != null;
+        }
+
+        long sizeInBytes() {
+            return (long) length * (isShort() ? 4 : 8);
+        }
+    }
+}
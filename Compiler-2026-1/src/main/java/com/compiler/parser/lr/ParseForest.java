@@ -0,0 +1,424 @@
+package com.compiler.parser.lr;
+
+import java.util.Arrays;
+
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeBuilder;
+import com.compiler.lexer.Token;
+import com.compiler.parser.grammar.CompactGrammar;
+
+/**
+ * Shared packed parse forest (SPPF) built by a {@link GLRParser}: every parse tree of an input,
+ * stored in an arena of parallel {@code int[]}s.
+ * <p>
+ * A node is an int and stands for a symbol deriving the tokens from a start index to an end
+ * index. There is at most one node per symbol and span, so a subtree is shared by every tree
+ * that contains it. A token node has no alternatives; a rule node has one alternative (packed
+ * node) per distinct way of deriving its span, each with a production and one child per symbol
+ * of its right-hand side. A node with more than one alternative is an ambiguity. The number of
+ * trees can be exponential in the input length while the forest stays polynomial.
+ */
+public class ParseForest {
+    /** Value of an absent node or alternative. */
+    public static final int NONE = -1;
+
+    private final CompactGrammar grammar;
+    private int[] symbol = new int[64];
+    private int[] start = new int[64];
+    private int[] end = new int[64];
+    private int[] firstAlternative = new int[64];
+    private int nodeCount;
+
+    private int[] production = new int[64];
+    private int[] nextAlternative = new int[64];
+    private int[] childStart = new int[64];
+    private int alternativeCount;
+    private int[] children = new int[128];
+    private int childCount;
+
+    private Token[] tokens = new Token[64];
+    private int tokenCount;
+    private int root = NONE;
+
+    /**
+     * Creates an empty forest.
+     * @param grammar The grammar whose IDs are the node symbols.
+     */
+    public ParseForest(CompactGrammar grammar) {
+        this.grammar = grammar;
+    }
+
+    /**
+     * Appends a node for the next token.
+     * @return The node.
+     */
+    int addToken(int terminal, Token token) {
+        if (tokenCount == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokenCount * 2);
+        }
+        tokens[tokenCount] = token;
+        int node = addNode(terminal, tokenCount, tokenCount + 1);
+        tokenCount++;
+        return node;
+    }
+
+    /**
+     * Appends a rule node without alternatives. The caller ensures the span is not taken.
+     * @return The node.
+     */
+    int addNode(int symbol, int start, int end) {
+        if (nodeCount == this.symbol.length) {
+            int capacity = nodeCount * 2;
+            this.symbol = Arrays.copyOf(this.symbol, capacity);
+            this.start = Arrays.copyOf(this.start, capacity);
+            this.end = Arrays.copyOf(this.end, capacity);
+            firstAlternative = Arrays.copyOf(firstAlternative, capacity);
+        }
+        this.symbol[nodeCount] = symbol;
+        this.start[nodeCount] = start;
+        this.end[nodeCount] = end;
+        firstAlternative[nodeCount] = NONE;
+        return nodeCount++;
+    }
+
+    /**
+     * Adds an alternative to a rule node unless it has an equal one.
+     * @param children The child nodes, one per symbol of the right-hand side.
+     * @return true if the alternative is new.
+     */
+    boolean addAlternative(int node, int production, int[] children, int count) {
+        int last = NONE;
+        for (int alt = firstAlternative[node]; alt != NONE; alt = nextAlternative[alt]) {
+            if (this.production[alt] == production
+                    && Arrays.equals(this.children, childStart[alt], childStart[alt] + count, children, 0, count)) {
+                return false;
+            }
+            last = alt;
+        }
+        if (alternativeCount == this.production.length) {
+            int capacity = alternativeCount * 2;
+            this.production = Arrays.copyOf(this.production, capacity);
+            nextAlternative = Arrays.copyOf(nextAlternative, capacity);
+            childStart = Arrays.copyOf(childStart, capacity);
+        }
+        if (childCount + count > this.children.length) {
+            this.children = Arrays.copyOf(this.children, Math.max(childCount + count, this.children.length * 2));
+        }
+        int alt = alternativeCount++;
+        this.production[alt] = production;
+        nextAlternative[alt] = NONE;
+        childStart[alt] = childCount;
+        System.arraycopy(children, 0, this.children, childCount, count);
+        childCount += count;
+        if (last == NONE) {
+            firstAlternative[node] = alt;
+        } else {
+            nextAlternative[last] = alt;
+        }
+        return true;
+    }
+
+    void setRoot(int node) {
+        root = node;
+    }
+
+    /**
+     * Returns the grammar whose IDs are the node symbols.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getGrammar() {
+        return grammar;
+    }
+
+    /**
+     * Returns the node of the start symbol spanning the whole input.
+     * @return The root.
+     */
+    public int getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the number of nodes, including those of partial parses that did not survive.
+     * @return The node count; nodes are 0 .. count-1.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of tokens parsed.
+     * @return The token count.
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns a token by index.
+     * @param index A token index.
+     * @return The token.
+     */
+    public Token getToken(int index) {
+        return tokens[index];
+    }
+
+    /**
+     * Returns the symbol of a node.
+     * @param node A node.
+     * @return A terminal ID for a token node, a non-terminal ID for a rule node.
+     */
+    public int getSymbol(int node) {
+        return symbol[node];
+    }
+
+    /**
+     * Checks for a token node.
+     * @param node A node.
+     * @return true if the node is a token.
+     */
+    public boolean isToken(int node) {
+        return grammar.isTerminal(symbol[node]);
+    }
+
+    /**
+     * Returns the index of the first token a node spans.
+     * @param node A node.
+     * @return The start index.
+     */
+    public int getStart(int node) {
+        return start[node];
+    }
+
+    /**
+     * Returns the index after the last token a node spans.
+     * @param node A node.
+     * @return The end index; equal to the start for an empty derivation.
+     */
+    public int getEnd(int node) {
+        return end[node];
+    }
+
+    /**
+     * Checks whether a node derives its span in more than one way.
+     * @param node A node.
+     * @return true if it has several alternatives.
+     */
+    public boolean isAmbiguous(int node) {
+        int alt = firstAlternative[node];
+        return alt != NONE && nextAlternative[alt] != NONE;
+    }
+
+    /**
+     * Returns the first alternative of a node, the first one the parser found.
+     * @param node A node.
+     * @return The alternative, or {@link #NONE} for a token node.
+     */
+    public int getFirstAlternative(int node) {
+        return firstAlternative[node];
+    }
+
+    /**
+     * Returns the alternative after another of the same node.
+     * @param alternative An alternative.
+     * @return The next alternative, or {@link #NONE}.
+     */
+    public int getNextAlternative(int alternative) {
+        return nextAlternative[alternative];
+    }
+
+    /**
+     * Returns the production of an alternative.
+     * @param alternative An alternative.
+     * @return The production index.
+     */
+    public int getProduction(int alternative) {
+        return production[alternative];
+    }
+
+    /**
+     * Returns the number of children of an alternative.
+     * @param alternative An alternative.
+     * @return The length of its production's right-hand side.
+     */
+    public int getChildCount(int alternative) {
+        return grammar.getRight(production[alternative]).length;
+    }
+
+    /**
+     * Returns a child of an alternative.
+     * @param alternative An alternative.
+     * @param index       The position in the right-hand side.
+     * @return The child node.
+     */
+    public int getChild(int alternative, int index) {
+        return children[childStart[alternative] + index];
+    }
+
+    /**
+     * Counts the parse trees of the input.
+     * @return The number of trees, or {@link Long#MAX_VALUE} if it overflows or is infinite
+     *         (a cyclic grammar, A =>+ A).
+     */
+    public long countTrees() {
+        if (root == NONE) {
+            return 0;
+        }
+        // Iterative postorder: an entry ~node finishes the node once its children are counted
+        long[] count = new long[nodeCount];
+        byte[] color = new byte[nodeCount];
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int entry = stack[--top];
+            if (entry < 0) {
+                int node = ~entry;
+                long total = 0;
+                for (int alt = firstAlternative[node]; alt != NONE; alt = nextAlternative[alt]) {
+                    long product = 1;
+                    for (int i = 0, n = getChildCount(alt); i < n; i++) {
+                        product = saturatedMultiply(product, count[getChild(alt, i)]);
+                    }
+                    total = saturatedAdd(total, product);
+                }
+                count[node] = isToken(node) ? 1 : total;
+                color[node] = 2;
+                continue;
+            }
+            if (color[entry] != 0) {
+                continue;
+            }
+            color[entry] = 1;
+            if (top + 1 >= stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = ~entry;
+            for (int alt = firstAlternative[entry]; alt != NONE; alt = nextAlternative[alt]) {
+                for (int i = 0, n = getChildCount(alt); i < n; i++) {
+                    int child = getChild(alt, i);
+                    if (color[child] == 1) {
+                        return Long.MAX_VALUE;
+                    }
+                    if (color[child] == 0) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+        return count[root];
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+
+    /**
+     * Builds the syntax tree made of the first alternative of every node. A child is always
+     * created before the node whose first alternative uses it, so this tree is finite even when
+     * the forest has cycles.
+     * @return The tree, or null if there is no root.
+     */
+    public SyntaxTree toSyntaxTree() {
+        if (root == NONE) {
+            return null;
+        }
+        TreeBuilder builder = new TreeBuilder(grammar);
+        int[] nodes = new int[64];
+        int[] next = new int[64];
+        int top = 0;
+        nodes[top] = root;
+        next[top++] = 0;
+        while (top > 0) {
+            int node = nodes[top - 1];
+            if (isToken(node)) {
+                builder.shift(symbol[node], tokens[start[node]]);
+                top--;
+                continue;
+            }
+            int alt = firstAlternative[node];
+            int i = next[top - 1];
+            if (i == getChildCount(alt)) {
+                builder.reduce(production[alt]);
+                top--;
+                continue;
+            }
+            next[top - 1]++;
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                next = Arrays.copyOf(next, top * 2);
+            }
+            nodes[top] = getChild(alt, i);
+            next[top++] = 0;
+        }
+        return builder.getTree();
+    }
+
+    /**
+     * Renders the forest from the root as an S-expression, like {@link SyntaxTree#toString()},
+     * with the alternatives of an ambiguous node separated by {@code |}. Shared nodes are
+     * printed once per use, and a node repeated inside itself as {@code ...}.
+     */
+    @Override
+    public String toString() {
+        if (root == NONE) {
+            return "";
+        }
+        // Iterative, since a long left-recursive list makes the forest as deep as the list: each
+        // open node keeps the alternative and the index of the next child to print
+        StringBuilder sb = new StringBuilder();
+        boolean[] open = new boolean[nodeCount];
+        int[] nodes = new int[64];
+        int[] alts = new int[64];
+        int[] next = new int[64];
+        int top = 0;
+        int node = root;
+        while (true) {
+            if (isToken(node)) {
+                sb.append(grammar.getName(symbol[node])).append(':').append(tokens[start[node]].lexeme);
+            } else if (open[node]) {
+                sb.append("...");
+            } else {
+                open[node] = true;
+                sb.append('(').append(grammar.getName(symbol[node]));
+                if (top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    alts = Arrays.copyOf(alts, top * 2);
+                    next = Arrays.copyOf(next, top * 2);
+                }
+                nodes[top] = node;
+                alts[top] = firstAlternative[node];
+                next[top++] = 0;
+            }
+            // Find the next child to print, closing the nodes that have none left
+            node = NONE;
+            while (top > 0 && node == NONE) {
+                int alt = alts[top - 1];
+                if (alt == NONE) {
+                    sb.append(')');
+                    open[nodes[--top]] = false;
+                } else if (next[top - 1] == getChildCount(alt)) {
+                    alts[top - 1] = nextAlternative[alt];
+                    next[top - 1] = 0;
+                    if (nextAlternative[alt] != NONE) {
+                        sb.append(" |");
+                    }
+                } else {
+                    sb.append(' ');
+                    node = getChild(alt, next[top - 1]++);
+                }
+            }
+            if (node == NONE) {
+                return sb.toString();
+            }
+        }
+    }
+}
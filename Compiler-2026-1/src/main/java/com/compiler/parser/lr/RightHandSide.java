@@ -0,0 +1,41 @@
+package com.compiler.parser.lr;
+
+/**
+ * The values of the right-hand side being reduced, read in place from the value stack of an
+ * {@link LRDriver}. One instance is reused for every reduction, so a reduction allocates nothing.
+ */
+public final class RightHandSide {
+    private Object[] stack;
+    private int base;
+    private int size;
+
+    RightHandSide() {
+    }
+
+    void set(Object[] stack, int base, int size) {
+        this.stack = stack;
+        this.base = base;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of symbols of the right-hand side.
+     * @return The length; 0 for an ε-production.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of a right-hand side symbol.
+     * @param index The position of the symbol, from 0.
+     * @return The value.
+     * @throws IndexOutOfBoundsException if the index is not below {@link #size()}.
+     */
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return stack[base + index];
+    }
+}
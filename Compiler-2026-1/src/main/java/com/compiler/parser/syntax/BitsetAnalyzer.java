@@ -0,0 +1,305 @@
+package com.compiler.parser.syntax;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+
+/**
+ * Calculates the FIRST and FOLLOW sets of a grammar on terminal bitsets.
+ * <p>
+ * Works on the grammar's {@link CompactGrammar} view, so symbols are ints and sets are
+ * {@link BitSet}s indexed by terminal ID. The analysis runs in three linear steps instead of
+ * fixpoint passes over all productions:
+ * <ol>
+ *   <li>Nullable non-terminals, with a worklist that counts the non-nullable symbols left in
+ *       each right-hand side.</li>
+ *   <li>FIRST: each non-terminal A starts with the terminals t such that A -> α t β with α
+ *       nullable, and includes FIRST(B) whenever A -> α B β with α nullable.</li>
+ *   <li>FOLLOW: each non-terminal B starts with FIRST of what can follow it in a right-hand
+ *       side (and $ for the start symbol), and includes FOLLOW(A) whenever A -> α B β with β
+ *       nullable.</li>
+ * </ol>
+ * Steps 2 and 3 are solved with {@link Digraph}, which collapses cycles of the relation so
+ * every set is computed once.
+ * <p>
+ * {@link #getFirstSets()} and {@link #getFollowSets()} return the same maps as
+ * {@link StaticAnalyzer}; the bitsets are available through {@link #first(int)} and
+ * {@link #follow(int)}.
+ */
+public class BitsetAnalyzer {
+    private static final Symbol EPSILON = new Symbol("ε", SymbolType.TERMINAL);
+
+    private final Grammar grammar;
+    private final CompactGrammar compact;
+    private final boolean[] nullable;
+    private final BitSet[] first;
+    private final BitSet[] follow;
+
+    private Map<Symbol, Set<Symbol>> firstSets;
+    private Map<Symbol, Set<Symbol>> followSets;
+
+    /**
+     * Analyzes a grammar.
+     * @param grammar The grammar.
+     */
+    public BitsetAnalyzer(Grammar grammar) {
+        this.grammar = grammar;
+        this.compact = grammar.getCompactGrammar();
+        this.nullable = computeNullable(compact);
+        this.first = computeFirst(compact, nullable);
+        this.follow = computeFollow(compact, nullable, first);
+    }
+
+    /**
+     * Returns the compact grammar the sets are indexed by.
+     * @return The compact grammar.
+     */
+    public CompactGrammar getCompactGrammar() {
+        return compact;
+    }
+
+    /**
+     * Checks whether a non-terminal derives the empty string.
+     * @param nonTerminal A non-terminal ID.
+     * @return true if it is nullable.
+     */
+    public boolean isNullable(int nonTerminal) {
+        return nullable[compact.nonTerminalIndex(nonTerminal)];
+    }
+
+    /**
+     * Returns FIRST of a non-terminal as terminal IDs, without ε (see {@link #isNullable(int)}).
+     * The set is shared and must not be modified.
+     * @param nonTerminal A non-terminal ID.
+     * @return The FIRST set.
+     */
+    public BitSet first(int nonTerminal) {
+        return first[compact.nonTerminalIndex(nonTerminal)];
+    }
+
+    /**
+     * Returns FOLLOW of a non-terminal as terminal IDs; $ is {@link CompactGrammar#END}.
+     * The set is shared and must not be modified.
+     * @param nonTerminal A non-terminal ID.
+     * @return The FOLLOW set.
+     */
+    public BitSet follow(int nonTerminal) {
+        return follow[compact.nonTerminalIndex(nonTerminal)];
+    }
+
+    /**
+     * Computes FIRST of a sequence of symbols.
+     * @param symbols Symbol IDs.
+     * @param from    Index of the first symbol of the sequence.
+     * @param into    Receives the terminals of FIRST, without ε.
+     * @return true if the whole sequence is nullable (ε is in FIRST).
+     */
+    public boolean firstOfSequence(int[] symbols, int from, BitSet into) {
+        for (int i = from; i < symbols.length; i++) {
+            int s = symbols[i];
+            if (compact.isTerminal(s)) {
+                into.set(s);
+                return false;
+            }
+            into.or(first(s));
+            if (!isNullable(s)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the FIRST sets in the format of {@link StaticAnalyzer#getFirstSets()}: every
+     * terminal maps to itself, ε to {ε}, and every non-terminal to its FIRST set including ε
+     * when it is nullable.
+     * @return A map from Symbol to its FIRST set.
+     */
+    public Map<Symbol, Set<Symbol>> getFirstSets() {
+        if (firstSets == null) {
+            firstSets = new HashMap<>();
+            for (Symbol t : grammar.getTerminals()) {
+                Set<Symbol> self = new HashSet<>();
+                self.add(t);
+                firstSets.put(t, self);
+            }
+            Set<Symbol> epsilon = new HashSet<>();
+            epsilon.add(EPSILON);
+            firstSets.put(EPSILON, epsilon);
+            for (int a = 0; a < first.length; a++) {
+                Set<Symbol> set = toSymbols(first[a]);
+                if (nullable[a]) {
+                    set.add(EPSILON);
+                }
+                firstSets.put(compact.getSymbol(compact.getTerminalCount() + a), set);
+            }
+        }
+        return firstSets;
+    }
+
+    /**
+     * Returns the FOLLOW sets in the format of {@link StaticAnalyzer#getFollowSets()}.
+     * @return A map from non-terminal to its FOLLOW set.
+     */
+    public Map<Symbol, Set<Symbol>> getFollowSets() {
+        if (followSets == null) {
+            followSets = new HashMap<>();
+            for (int a = 0; a < follow.length; a++) {
+                followSets.put(compact.getSymbol(compact.getTerminalCount() + a), toSymbols(follow[a]));
+            }
+        }
+        return followSets;
+    }
+
+    private Set<Symbol> toSymbols(BitSet terminals) {
+        Set<Symbol> set = new HashSet<>();
+        for (int t = terminals.nextSetBit(0); t >= 0; t = terminals.nextSetBit(t + 1)) {
+            set.add(compact.getSymbol(t));
+        }
+        return set;
+    }
+
+    /**
+     * Finds the nullable non-terminals. Each production keeps a count of right-hand side
+     * symbols not yet known to be nullable; when it reaches zero its left side is nullable.
+     */
+    static boolean[] computeNullable(CompactGrammar g) {
+        int terminals = g.getTerminalCount();
+        int productions = g.getProductionCount();
+        boolean[] nullable = new boolean[g.getNonTerminalCount()];
+
+        // Occurrences of each non-terminal in right-hand sides without terminals, grouped by
+        // non-terminal: the productions for a are occurrences[start[a] .. start[a + 1])
+        int[] remaining = new int[productions];
+        int[] start = new int[nullable.length + 1];
+        for (int p = 0; p < productions; p++) {
+            int[] rhs = g.getRight(p);
+            for (int s : rhs) {
+                if (s < terminals) {
+                    remaining[p] = -1; // can never be nullable
+                    break;
+                }
+            }
+            if (remaining[p] == 0) {
+                remaining[p] = rhs.length;
+                for (int s : rhs) {
+                    start[s - terminals + 1]++;
+                }
+            }
+        }
+        for (int a = 0; a < nullable.length; a++) {
+            start[a + 1] += start[a];
+        }
+        int[] occurrences = new int[start[nullable.length]];
+        int[] next = start.clone();
+        int[] worklist = new int[nullable.length];
+        int top = 0;
+        for (int p = 0; p < productions; p++) {
+            if (remaining[p] < 0) continue;
+            for (int s : g.getRight(p)) {
+                occurrences[next[s - terminals]++] = p;
+            }
+            int a = g.getLeft(p) - terminals;
+            if (remaining[p] == 0 && !nullable[a]) {
+                nullable[a] = true;
+                worklist[top++] = a;
+            }
+        }
+
+        while (top > 0) {
+            int b = worklist[--top];
+            for (int i = start[b]; i < start[b + 1]; i++) {
+                int p = occurrences[i];
+                if (--remaining[p] == 0) {
+                    int a = g.getLeft(p) - terminals;
+                    if (!nullable[a]) {
+                        nullable[a] = true;
+                        worklist[top++] = a;
+                    }
+                }
+            }
+        }
+        return nullable;
+    }
+
+    /**
+     * FIRST(A) = { t : A -> α t β, α nullable } ∪ ⋃ { FIRST(B) : A -> α B β, α nullable }.
+     */
+    static BitSet[] computeFirst(CompactGrammar g, boolean[] nullable) {
+        int terminals = g.getTerminalCount();
+        BitSet[] first = new BitSet[g.getNonTerminalCount()];
+        for (int a = 0; a < first.length; a++) {
+            first[a] = new BitSet(terminals);
+        }
+        Digraph includes = new Digraph(first.length);
+        for (int p = 0; p < g.getProductionCount(); p++) {
+            int a = g.getLeft(p) - terminals;
+            for (int s : g.getRight(p)) {
+                if (s < terminals) {
+                    first[a].set(s);
+                    break;
+                }
+                if (s - terminals != a) {
+                    includes.addEdge(a, s - terminals);
+                }
+                if (!nullable[s - terminals]) {
+                    break;
+                }
+            }
+        }
+        includes.propagate(first);
+        return first;
+    }
+
+    /**
+     * FOLLOW(B) = FIRST of whatever follows B in a right-hand side (plus $ for the start symbol)
+     * ∪ ⋃ { FOLLOW(A) : A -> α B β, β nullable }.
+     */
+    static BitSet[] computeFollow(CompactGrammar g, boolean[] nullable, BitSet[] first) {
+        int terminals = g.getTerminalCount();
+        BitSet[] follow = new BitSet[g.getNonTerminalCount()];
+        for (int a = 0; a < follow.length; a++) {
+            follow[a] = new BitSet(terminals);
+        }
+        follow[g.nonTerminalIndex(g.getStartSymbol())].set(CompactGrammar.END);
+
+        Digraph includes = new Digraph(follow.length);
+        for (int p = 0; p < g.getProductionCount(); p++) {
+            int a = g.getLeft(p) - terminals;
+            int[] rhs = g.getRight(p);
+            // Walk right to left, keeping FIRST of the suffix and whether it is nullable
+            BitSet suffixFirst = new BitSet(terminals);
+            boolean suffixNullable = true;
+            for (int i = rhs.length - 1; i >= 0; i--) {
+                int s = rhs[i];
+                if (s < terminals) {
+                    suffixFirst.clear();
+                    suffixFirst.set(s);
+                    suffixNullable = false;
+                    continue;
+                }
+                int b = s - terminals;
+                follow[b].or(suffixFirst);
+                if (suffixNullable && b != a) {
+                    includes.addEdge(b, a);
+                }
+                if (nullable[b]) {
+                    suffixFirst.or(first[b]);
+                } else {
+                    suffixFirst.clear();
+                    suffixFirst.or(first[b]);
+                    suffixNullable = false;
+                }
+            }
+        }
+        includes.propagate(follow);
+        return follow;
+    }
+}
@@ -0,0 +1,131 @@
+package com.compiler.parser.syntax;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Set propagation over a relation, using the digraph algorithm of DeRemer and Pennello.
+ * <p>
+ * Given a relation R on nodes 0..n-1 and an initial set F'(x) per node, {@link #propagate}
+ * computes the smallest sets with F(x) = F'(x) ∪ ⋃ { F(y) : x R y }. The traversal is
+ * Tarjan's strongly-connected-components search: every node of a cycle ends up with the same
+ * set, and each edge is followed once, so the cost is O(nodes + edges) set unions instead of
+ * repeated passes until nothing changes.
+ * <p>
+ * The traversal uses an explicit stack, so deep relations cannot overflow the call stack.
+ */
+public class Digraph {
+    private final int size;
+    private int[][] edges;
+    private int[] degree;
+
+    /**
+     * Creates a relation on nodes 0..size-1 with no edges.
+     * @param size The number of nodes.
+     */
+    public Digraph(int size) {
+        this.size = size;
+        this.edges = new int[size][];
+        this.degree = new int[size];
+    }
+
+    /**
+     * Adds the pair (from, to) to the relation: F(from) will include F(to).
+     * @param from The including node.
+     * @param to   The included node.
+     */
+    public void addEdge(int from, int to) {
+        int[] row = edges[from];
+        if (row == null) {
+            row = edges[from] = new int[4];
+        } else if (degree[from] == row.length) {
+            row = edges[from] = Arrays.copyOf(row, row.length * 2);
+        }
+        row[degree[from]++] = to;
+    }
+
+    /**
+     * Returns the nodes related to a node. The array is shared and must not be modified.
+     * @param node A node.
+     * @return The successors of the node, in insertion order.
+     */
+    public int[] successors(int node) {
+        int[] row = edges[node];
+        if (row == null) {
+            return new int[0];
+        }
+        if (row.length != degree[node]) {
+            row = edges[node] = Arrays.copyOf(row, degree[node]);
+        }
+        return row;
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return The node count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces each initial set with its closure under the relation.
+     * @param sets One set per node; on entry F'(x), on return F(x).
+     */
+    public void propagate(BitSet[] sets) {
+        final int done = Integer.MAX_VALUE;
+        int[] depth = new int[size];
+        int[] sccStack = new int[size];
+        int sccTop = 0;
+        int[] callNode = new int[size];
+        int[] callEdge = new int[size];
+        int[] callDepth = new int[size];
+
+        for (int root = 0; root < size; root++) {
+            if (depth[root] != 0) continue;
+
+            int callTop = 0;
+            callNode[0] = root;
+            callEdge[0] = 0;
+            sccStack[sccTop++] = root;
+            depth[root] = sccTop;
+            callDepth[0] = sccTop;
+
+            while (callTop >= 0) {
+                int x = callNode[callTop];
+                int e = callEdge[callTop];
+                if (e < degree[x]) {
+                    callEdge[callTop]++;
+                    int y = edges[x][e];
+                    if (depth[y] == 0) {
+                        // Descend into y; x continues with this edge when y returns
+                        callEdge[callTop]--;
+                        callTop++;
+                        callNode[callTop] = y;
+                        callEdge[callTop] = 0;
+                        sccStack[sccTop++] = y;
+                        depth[y] = sccTop;
+                        callDepth[callTop] = sccTop;
+                    } else {
+                        depth[x] = Math.min(depth[x], depth[y]);
+                        sets[x].or(sets[y]);
+                    }
+                    continue;
+                }
+
+                // All edges of x followed: close its component if x is the root of one
+                if (depth[x] == callDepth[callTop]) {
+                    int member;
+                    do {
+                        member = sccStack[--sccTop];
+                        depth[member] = done;
+                        if (member != x) {
+                            sets[member].or(sets[x]);
+                        }
+                    } while (member != x);
+                }
+                callTop--;
+            }
+        }
+    }
+}
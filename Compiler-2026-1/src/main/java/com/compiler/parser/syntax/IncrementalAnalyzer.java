@@ -0,0 +1,472 @@
+package com.compiler.parser.syntax;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+
+/**
+ * Keeps FIRST and FOLLOW sets up to date while productions are added and removed.
+ * <p>
+ * Every edit is handled by "delete and rederive" on the part of the grammar that can be
+ * affected, in three stages:
+ * <ol>
+ *   <li>Nullable: the edited non-terminal and, if it was nullable, every nullable non-terminal
+ *       that transitively uses it are reset; facts are then rederived and propagated forward.</li>
+ *   <li>FIRST: the edited non-terminal and the users of any non-terminal whose nullability
+ *       changed are reset together with everything their FIRST flows into (non-terminals that
+ *       reach them through a nullable prefix), then rederived with a worklist.</li>
+ *   <li>FOLLOW: the non-terminals of the edited right-hand side and those sharing a right-hand
+ *       side with a changed symbol are reset together with everything their FOLLOW flows into
+ *       (non-terminals ending a production up to a nullable suffix), then rederived.</li>
+ * </ol>
+ * Sets outside those regions do not depend on anything inside them, so they keep their values.
+ * Resetting (rather than only adding) is what makes removals correct: a symbol that was only
+ * derivable through the removed production is not rederived.
+ * <p>
+ * Symbols may be introduced by added productions. The first non-terminal of the initial
+ * grammar stays the start symbol.
+ */
+public class IncrementalAnalyzer {
+    private static final Symbol EPSILON = new Symbol("ε", SymbolType.TERMINAL);
+    private static final Symbol END = new Symbol("$", SymbolType.TERMINAL);
+
+    // Terminals are encoded in right-hand sides as ~id, non-terminals as their index
+    private final Map<Symbol, Integer> terminalIds = new HashMap<>();
+    private final List<Symbol> terminals = new ArrayList<>();
+    private final Map<Symbol, Integer> nonTerminalIds = new HashMap<>();
+    private final List<Symbol> nonTerminals = new ArrayList<>();
+
+    private final List<int[]> right = new ArrayList<>();
+    private final List<Integer> left = new ArrayList<>();
+    private final List<Set<Integer>> productionsOf = new ArrayList<>();
+    private final List<Set<Integer>> occurrencesOf = new ArrayList<>();
+    private final Deque<Integer> freeProductions = new ArrayDeque<>();
+
+    private final BitSet nullable = new BitSet();
+    private final List<BitSet> first = new ArrayList<>();
+    private final List<BitSet> follow = new ArrayList<>();
+
+    private int lastAffected;
+
+    /**
+     * Analyzes a grammar; later edits are applied incrementally.
+     * @param grammar The initial grammar.
+     */
+    public IncrementalAnalyzer(Grammar grammar) {
+        terminalIds.put(END, 0);
+        terminals.add(END);
+        nonTerminalId(grammar.getStartSymbol());
+        for (Production p : grammar.getProductions()) {
+            insert(p);
+        }
+        Set<Integer> all = new HashSet<>();
+        for (int a = 0; a < nonTerminals.size(); a++) {
+            all.add(a);
+        }
+        rederive(all, all, all);
+    }
+
+    /**
+     * Adds a production and updates the affected sets.
+     * @param production The production to add.
+     */
+    public void addProduction(Production production) {
+        int p = insert(production);
+        update(left.get(p), right.get(p));
+    }
+
+    /**
+     * Removes a production (matched by its left and right symbols) and updates the affected sets.
+     * @param production The production to remove.
+     * @return true if the production was found.
+     */
+    public boolean removeProduction(Production production) {
+        Integer a = nonTerminalIds.get(production.getLeft());
+        if (a == null) {
+            return false;
+        }
+        int[] rhs = encode(production.getRight(), false);
+        for (int p : productionsOf.get(a)) {
+            if (Arrays.equals(right.get(p), rhs)) {
+                productionsOf.get(a).remove(p);
+                for (int s : rhs) {
+                    if (s >= 0) {
+                        occurrencesOf.get(s).remove(p);
+                    }
+                }
+                right.set(p, null);
+                freeProductions.push(p);
+                update(a, rhs);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of sets (nullable, FIRST and FOLLOW) recomputed by the last edit.
+     * @return The size of the affected region.
+     */
+    public int getLastAffectedCount() {
+        return lastAffected;
+    }
+
+    /**
+     * Checks whether a non-terminal derives the empty string.
+     * @param nonTerminal The non-terminal.
+     * @return true if it is nullable.
+     */
+    public boolean isNullable(Symbol nonTerminal) {
+        Integer a = nonTerminalIds.get(nonTerminal);
+        return a != null && nullable.get(a);
+    }
+
+    /**
+     * Returns the FIRST sets in the format of {@link StaticAnalyzer#getFirstSets()}. Every
+     * terminal seen so far maps to itself.
+     * @return A map from Symbol to its FIRST set.
+     */
+    public Map<Symbol, Set<Symbol>> getFirstSets() {
+        Map<Symbol, Set<Symbol>> sets = new HashMap<>();
+        for (int t = 1; t < terminals.size(); t++) {
+            Set<Symbol> self = new HashSet<>();
+            self.add(terminals.get(t));
+            sets.put(terminals.get(t), self);
+        }
+        Set<Symbol> epsilon = new HashSet<>();
+        epsilon.add(EPSILON);
+        sets.put(EPSILON, epsilon);
+        for (int a = 0; a < nonTerminals.size(); a++) {
+            Set<Symbol> set = toSymbols(first.get(a));
+            if (nullable.get(a)) {
+                set.add(EPSILON);
+            }
+            sets.put(nonTerminals.get(a), set);
+        }
+        return sets;
+    }
+
+    /**
+     * Returns the FOLLOW sets in the format of {@link StaticAnalyzer#getFollowSets()}.
+     * @return A map from non-terminal to its FOLLOW set.
+     */
+    public Map<Symbol, Set<Symbol>> getFollowSets() {
+        Map<Symbol, Set<Symbol>> sets = new HashMap<>();
+        for (int a = 0; a < nonTerminals.size(); a++) {
+            sets.put(nonTerminals.get(a), toSymbols(follow.get(a)));
+        }
+        return sets;
+    }
+
+    private Set<Symbol> toSymbols(BitSet bits) {
+        Set<Symbol> set = new HashSet<>();
+        for (int t = bits.nextSetBit(0); t >= 0; t = bits.nextSetBit(t + 1)) {
+            set.add(terminals.get(t));
+        }
+        return set;
+    }
+
+    /**
+     * Recomputes the regions affected by an edit to a production of a with right side rhs.
+     */
+    private void update(int a, int[] rhs) {
+        Set<Integer> seeds = new HashSet<>();
+        seeds.add(a);
+        Set<Integer> followSeeds = new HashSet<>();
+        for (int s : rhs) {
+            if (s >= 0) {
+                followSeeds.add(s);
+            }
+        }
+        rederive(seeds, seeds, followSeeds);
+    }
+
+    /**
+     * Delete-and-rederive for the three stages.
+     * @param nullableSeeds Non-terminals whose nullability may have changed directly.
+     * @param firstSeeds    Non-terminals whose FIRST may have changed directly.
+     * @param followSeeds   Non-terminals whose FOLLOW may have changed directly.
+     */
+    private void rederive(Set<Integer> nullableSeeds, Set<Integer> firstSeeds, Set<Integer> followSeeds) {
+        // 1. Nullable: only nullable users can have been supported by a deleted fact
+        BitSet oldNullable = (BitSet) nullable.clone();
+        Set<Integer> dirtyNullable = new HashSet<>(nullableSeeds);
+        Deque<Integer> pending = new ArrayDeque<>(nullableSeeds);
+        while (!pending.isEmpty()) {
+            int x = pending.poll();
+            if (!nullable.get(x)) continue;
+            for (int user : directUsers(x)) {
+                if (nullable.get(user) && dirtyNullable.add(user)) {
+                    pending.add(user);
+                }
+            }
+        }
+        for (int x : dirtyNullable) {
+            nullable.clear(x);
+        }
+        Deque<Integer> worklist = new ArrayDeque<>(dirtyNullable);
+        while (!worklist.isEmpty()) {
+            int x = worklist.poll();
+            if (!nullable.get(x) && hasNullableProduction(x)) {
+                nullable.set(x);
+                for (int user : directUsers(x)) {
+                    if (!nullable.get(user)) {
+                        worklist.add(user);
+                    }
+                }
+            }
+        }
+
+        oldNullable.xor(nullable);
+        Set<Integer> changedSymbols = new HashSet<>();
+        for (int x = oldNullable.nextSetBit(0); x >= 0; x = oldNullable.nextSetBit(x + 1)) {
+            changedSymbols.add(x);
+        }
+
+        // 2. FIRST: a changed nullability can open or close a prefix in any production using it
+        Set<Integer> dirtyFirst = new HashSet<>(firstSeeds);
+        for (int x : changedSymbols) {
+            dirtyFirst.addAll(directUsers(x));
+        }
+        pending.addAll(dirtyFirst);
+        while (!pending.isEmpty()) {
+            for (int user : firstUsers(pending.poll())) {
+                if (dirtyFirst.add(user)) {
+                    pending.add(user);
+                }
+            }
+        }
+        Map<Integer, BitSet> oldFirst = new HashMap<>();
+        for (int x : dirtyFirst) {
+            oldFirst.put(x, first.get(x));
+            first.set(x, new BitSet());
+        }
+        worklist.addAll(dirtyFirst);
+        while (!worklist.isEmpty()) {
+            int x = worklist.poll();
+            BitSet set = first.get(x);
+            int before = set.cardinality();
+            for (int p : productionsOf.get(x)) {
+                firstOfSequence(right.get(p), 0, set);
+            }
+            if (set.cardinality() != before) {
+                for (int user : firstUsers(x)) {
+                    if (dirtyFirst.contains(user)) {
+                        worklist.add(user);
+                    }
+                }
+            }
+        }
+        for (int x : dirtyFirst) {
+            if (!first.get(x).equals(oldFirst.get(x))) {
+                changedSymbols.add(x);
+            }
+        }
+
+        // 3. FOLLOW: whatever shares a right-hand side with a changed symbol may see new FIRSTs
+        Set<Integer> dirtyFollow = new HashSet<>(followSeeds);
+        for (int x : changedSymbols) {
+            for (int p : occurrencesOf.get(x)) {
+                for (int s : right.get(p)) {
+                    if (s >= 0) {
+                        dirtyFollow.add(s);
+                    }
+                }
+            }
+        }
+        pending.addAll(dirtyFollow);
+        while (!pending.isEmpty()) {
+            for (int target : followTargets(pending.poll())) {
+                if (dirtyFollow.add(target)) {
+                    pending.add(target);
+                }
+            }
+        }
+        for (int x : dirtyFollow) {
+            follow.set(x, new BitSet());
+        }
+        worklist.addAll(dirtyFollow);
+        while (!worklist.isEmpty()) {
+            int x = worklist.poll();
+            BitSet set = follow.get(x);
+            int before = set.cardinality();
+            if (x == 0) {
+                set.set(0);
+            }
+            for (int p : occurrencesOf.get(x)) {
+                int[] rhs = right.get(p);
+                for (int i = 0; i < rhs.length; i++) {
+                    if (rhs[i] == x && firstOfSequence(rhs, i + 1, set)) {
+                        set.or(follow.get(left.get(p)));
+                    }
+                }
+            }
+            if (set.cardinality() != before) {
+                for (int target : followTargets(x)) {
+                    if (dirtyFollow.contains(target)) {
+                        worklist.add(target);
+                    }
+                }
+            }
+        }
+
+        lastAffected = dirtyNullable.size() + dirtyFirst.size() + dirtyFollow.size();
+    }
+
+    private boolean hasNullableProduction(int a) {
+        for (int p : productionsOf.get(a)) {
+            boolean all = true;
+            for (int s : right.get(p)) {
+                if (s < 0 || !nullable.get(s)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds FIRST of rhs[from..] to into; returns true if that suffix is nullable.
+     */
+    private boolean firstOfSequence(int[] rhs, int from, BitSet into) {
+        for (int i = from; i < rhs.length; i++) {
+            int s = rhs[i];
+            if (s < 0) {
+                into.set(~s);
+                return false;
+            }
+            into.or(first.get(s));
+            if (!nullable.get(s)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Non-terminals with a production whose right side mentions a.
+     */
+    private Set<Integer> directUsers(int a) {
+        Set<Integer> users = new HashSet<>();
+        for (int p : occurrencesOf.get(a)) {
+            users.add(left.get(p));
+        }
+        return users;
+    }
+
+    /**
+     * Non-terminals whose FIRST includes FIRST(a): a follows a nullable prefix in one of their
+     * productions.
+     */
+    private Set<Integer> firstUsers(int a) {
+        Set<Integer> users = new HashSet<>();
+        for (int p : occurrencesOf.get(a)) {
+            for (int s : right.get(p)) {
+                if (s == a) {
+                    users.add(left.get(p));
+                }
+                if (s < 0 || !nullable.get(s)) break;
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Non-terminals whose FOLLOW includes FOLLOW(a): they end one of a's productions, up to a
+     * nullable suffix.
+     */
+    private Set<Integer> followTargets(int a) {
+        Set<Integer> targets = new HashSet<>();
+        for (int p : productionsOf.get(a)) {
+            int[] rhs = right.get(p);
+            for (int i = rhs.length - 1; i >= 0 && rhs[i] >= 0; i--) {
+                targets.add(rhs[i]);
+                if (!nullable.get(rhs[i])) break;
+            }
+        }
+        return targets;
+    }
+
+    private int insert(Production production) {
+        int a = nonTerminalId(production.getLeft());
+        int[] rhs = encode(production.getRight(), true);
+        int p;
+        if (freeProductions.isEmpty()) {
+            p = right.size();
+            right.add(rhs);
+            left.add(a);
+        } else {
+            p = freeProductions.pop();
+            right.set(p, rhs);
+            left.set(p, a);
+        }
+        productionsOf.get(a).add(p);
+        for (int s : rhs) {
+            if (s >= 0) {
+                occurrencesOf.get(s).add(p);
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Encodes a right-hand side, dropping ε. Unknown symbols are interned if requested,
+     * otherwise they make the encoding impossible to match.
+     */
+    private int[] encode(List<Symbol> symbols, boolean intern) {
+        int[] rhs = new int[symbols.size()];
+        int n = 0;
+        for (Symbol s : symbols) {
+            if (s.equals(EPSILON)) continue;
+            Integer id;
+            if (s.type == SymbolType.TERMINAL) {
+                id = intern ? terminalId(s) : terminalIds.get(s);
+                rhs[n++] = id == null ? Integer.MIN_VALUE : ~id;
+            } else {
+                id = intern ? nonTerminalId(s) : nonTerminalIds.get(s);
+                rhs[n++] = id == null ? Integer.MIN_VALUE : id;
+            }
+        }
+        return Arrays.copyOf(rhs, n);
+    }
+
+    private int terminalId(Symbol s) {
+        Integer id = terminalIds.get(s);
+        if (id == null) {
+            id = terminals.size();
+            terminalIds.put(s, id);
+            terminals.add(s);
+        }
+        return id;
+    }
+
+    private int nonTerminalId(Symbol s) {
+        Integer id = nonTerminalIds.get(s);
+        if (id == null) {
+            id = nonTerminals.size();
+            nonTerminalIds.put(s, id);
+            nonTerminals.add(s);
+            productionsOf.add(new HashSet<>());
+            occurrencesOf.add(new HashSet<>());
+            first.add(new BitSet());
+            follow.add(new BitSet());
+        }
+        return id;
+    }
+}
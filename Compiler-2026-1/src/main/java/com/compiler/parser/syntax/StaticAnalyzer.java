@@ -24,6 +24,14 @@ public class StaticAnalyzer {
         this.followSets = new HashMap<>();
     }
 
+    /**
+     * Returns the analyzed grammar.
+     * @return The grammar.
+     */
+    public Grammar getGrammar() {
+        return grammar;
+    }
+
     /**
      * Calculates and returns the FIRST sets for all symbols.
      * @return A map from Symbol to its FIRST set.
@@ -0,0 +1,50 @@
+package com.compiler;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.syntax.BitsetAnalyzer;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class BitsetAnalyzerTest {
+
+    private static void assertSameAsStaticAnalyzer(Grammar grammar) {
+        StaticAnalyzer expected = new StaticAnalyzer(grammar);
+        BitsetAnalyzer actual = new BitsetAnalyzer(grammar);
+        assertEquals(expected.getFirstSets(), actual.getFirstSets());
+        assertEquals(expected.getFollowSets(), actual.getFollowSets());
+    }
+
+    @Test
+    public void testExpressionGrammar() {
+        Grammar grammar = new Grammar(TestGrammars.LL_EXPRESSIONS);
+        assertSameAsStaticAnalyzer(grammar);
+
+        BitsetAnalyzer analyzer = new BitsetAnalyzer(grammar);
+        CompactGrammar g = analyzer.getCompactGrammar();
+        int ePrime = g.getStartSymbol() + 1;
+        assertTrue(analyzer.isNullable(ePrime));
+        assertFalse(analyzer.isNullable(g.getStartSymbol()));
+        assertEquals("{0, 4}", analyzer.follow(ePrime).toString()); // $ and )
+    }
+
+    @Test
+    public void testCyclesAndNullableChains() {
+        // A, B and C are mutually recursive and all nullable through each other
+        assertSameAsStaticAnalyzer(new Grammar("S -> A B C d\nA -> B C | a\nB -> C A | ε\nC -> A | S c | ε"));
+    }
+
+    @Test
+    public void testRandomGrammars() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            assertSameAsStaticAnalyzer(new Grammar(TestGrammars.random(random, 8, 4, 3)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.compiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.DeterminizationBudget;
+import com.compiler.lexer.DeterminizationResult;
+import com.compiler.lexer.NfaSimulator;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+
+public class BudgetedDeterminizationTest {
+    // The n-th symbol from the end is an 'a': the minimal DFA has 2^(n+1) states
+    private static final String PATHOLOGICAL = "(a|b)*a(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)";
+
+    @Test
+    public void testStateBudgetFallsBackToNfa() {
+        NFA nfa = new RegexParser().parse(PATHOLOGICAL);
+        DeterminizationResult result = NfaToDfaConverter.convertWithBudget(nfa, DeterminizationBudget.ofStates(100));
+
+        assertFalse(result.isComplete());
+        assertEquals(DeterminizationResult.Limit.STATES, result.getLimit());
+        assertEquals(100, result.getStateCount());
+        assertTrue(result.getFrontierStates() > 0);
+        assertTrue(result.getMatcher().isHybrid());
+
+        NfaSimulator nfaSimulator = new NfaSimulator();
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(30);
+            for (int j = 0; j < length; j++) {
+                sb.append(random.nextBoolean() ? 'a' : 'b');
+            }
+            String input = sb.toString();
+            assertEquals(nfaSimulator.simulate(nfa, input), result.getMatcher().matches(input), "Mismatch on '" + input + "'");
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        NFA nfa = new RegexParser().parse(PATHOLOGICAL);
+        DeterminizationResult result = NfaToDfaConverter.convertWithBudget(nfa, new DeterminizationBudget(Integer.MAX_VALUE, 64 * 1024));
+        assertEquals(DeterminizationResult.Limit.MEMORY, result.getLimit());
+        assertTrue(result.getEstimatedBytes() <= 64 * 1024);
+        assertTrue(result.getMatcher().matches("a".repeat(13)));
+        assertFalse(result.getMatcher().matches("ba" + "b".repeat(11)));
+    }
+
+    @Test
+    public void testCompleteWithinBudget() {
+        DeterminizationResult result = NfaToDfaConverter.convertWithBudget(
+                new RegexParser().parse("a(b|c)*"), DeterminizationBudget.ofStates(100));
+        assertTrue(result.isComplete());
+        assertEquals(0, result.getFrontierStates());
+        assertFalse(result.getMatcher().isHybrid());
+        assertTrue(result.getMatcher().matches("abcb"));
+        assertFalse(result.getMatcher().matches("ba"));
+    }
+
+    @Test
+    public void testDiagnosticsNamePatternsThatBlewUp() {
+        RegexParser parser = new RegexParser();
+        Map<String, NFA> patterns = new LinkedHashMap<>();
+        patterns.put("keyword", parser.parse("while"));
+        patterns.put("pathological", parser.parse(PATHOLOGICAL));
+
+        Map<String, DeterminizationResult> results = NfaToDfaConverter.convertAll(patterns, DeterminizationBudget.ofStates(500));
+        assertTrue(results.get("keyword").isComplete());
+        assertFalse(results.get("pathological").isComplete());
+        assertEquals("pathological", results.get("pathological").getPatternName());
+    }
+}
@@ -0,0 +1,50 @@
+package com.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+
+public class CompactGrammarTest {
+
+    @Test
+    public void testTerminalsFirstInDefinitionOrder() {
+        Grammar grammar = new Grammar("E -> T E'\nE' -> + T E' | ε\nT -> id | ( E )");
+        CompactGrammar g = grammar.getCompactGrammar();
+
+        // $ + id ( ) | E E' T
+        assertEquals(5, g.getTerminalCount());
+        assertEquals(3, g.getNonTerminalCount());
+        assertEquals("$", g.getName(CompactGrammar.END));
+        assertEquals("+", g.getName(1));
+        assertEquals("id", g.getName(2));
+        assertEquals("E", g.getName(g.getStartSymbol()));
+        assertEquals(grammar.getStartSymbol(), g.getSymbol(g.getStartSymbol()));
+        assertTrue(g.isTerminal(4));
+        assertFalse(g.isTerminal(5));
+        assertSame(g, grammar.getCompactGrammar());
+    }
+
+    @Test
+    public void testProductionsAsIntArrays() {
+        CompactGrammar g = new Grammar("E -> T E'\nE' -> + T E' | ε\nT -> id | ( E )").getCompactGrammar();
+        int e = 5, e2 = 6, t = 7;
+
+        assertEquals(5, g.getProductionCount());
+        assertEquals(e2, g.getLeft(1));
+        assertArrayEquals(new int[]{1, t, e2}, g.getRight(1));
+        assertArrayEquals(new int[0], g.getRight(2));
+        assertArrayEquals(new int[]{3, e, 4}, g.getRight(4));
+        assertEquals(g.getProduction(4).getLeft(), g.getSymbol(t));
+
+        int[] start = g.getProductionsByLeftStart();
+        int[] byLeft = g.getProductionsByLeft();
+        assertArrayEquals(new int[]{0, 1, 3, 5}, start);
+        assertEquals(3, byLeft[start[g.nonTerminalIndex(t)]]);
+    }
+}
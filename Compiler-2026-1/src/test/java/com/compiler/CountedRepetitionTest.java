@@ -0,0 +1,110 @@
+package com.compiler;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.compiler.lexer.DfaSimulator;
+import com.compiler.lexer.NfaSimulator;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.TaggedDfaConverter;
+import com.compiler.lexer.TaggedDfaSimulator;
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.nfa.State;
+import com.compiler.lexer.nfa.Transition;
+import com.compiler.lexer.regex.RegexParser;
+
+public class CountedRepetitionTest {
+
+    private static boolean matches(String regex, String input) {
+        NFA nfa = new RegexParser().parse(regex);
+        boolean actualNfa = new NfaSimulator().simulate(nfa, input);
+        boolean actualDfa = new DfaSimulator().simulate(NfaToDfaConverter.convertNfaToDfa(nfa), input);
+        assertEquals(actualNfa, actualDfa, "NFA and DFA disagree on '" + input + "' for " + regex);
+        return actualNfa;
+    }
+
+    private static int countStates(NFA nfa) {
+        Set<State> seen = new HashSet<>();
+        Deque<State> pending = new ArrayDeque<>();
+        seen.add(nfa.startState);
+        pending.push(nfa.startState);
+        while (!pending.isEmpty()) {
+            for (Transition t : pending.pop().transitions) {
+                if (seen.add(t.toState)) {
+                    pending.push(t.toState);
+                }
+            }
+        }
+        return seen.size();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'a{3}',      aaa,    true",
+        "'a{3}',      aa,     false",
+        "'a{3}',      aaaa,   false",
+        "'a{2,4}',    aa,     true",
+        "'a{2,4}',    aaaa,   true",
+        "'a{2,4}',    aaaaa,  false",
+        "'a{2,}',     aaaaaa, true",
+        "'a{2,}',     a,      false",
+        "'(ab){2}c',  ababc,  true",
+        "'(ab){2}c',  abc,    false",
+        "'a{0}b',     b,      true",
+        "'a{b',       a{b,    true",
+        "'x{,3}',     'x{,3}', true"
+    })
+    void testSmallBounds(String regex, String input, boolean expected) {
+        assertEquals(expected, matches(regex, input));
+    }
+
+    @Test
+    public void testLargeBoundsStayCompact() {
+        NFA small = new RegexParser().parse("a{1,64}");
+        NFA large = new RegexParser().parse("a{1,6400}");
+        assertEquals(countStates(small), countStates(large));
+        assertEquals(1, large.counterCount);
+
+        assertFalse(matches("a{1,64}", ""));
+        assertTrue(matches("a{1,64}", "a".repeat(64)));
+        assertFalse(matches("a{1,64}", "a".repeat(65)));
+        assertTrue(new NfaSimulator().simulate(large, "a".repeat(6400)));
+    }
+
+    @Test
+    public void testFixedWidthField() {
+        String digits = "(0|1|2|3|4|5|6|7|8|9){1,20}";
+        DFA dfa = NfaToDfaConverter.convertNfaToDfa(new RegexParser().parse(digits));
+        // One state per count of digits read, plus the start state
+        assertEquals(21, dfa.allStates.size());
+        assertTrue(matches(digits, "20261019"));
+        assertTrue(matches(digits, "12345678901234567890"));
+        assertFalse(matches(digits, "123456789012345678901"));
+    }
+
+    @Test
+    public void testUnboundedAndOptionalLargeBounds() {
+        assertFalse(matches("a{12,}", "a".repeat(11)));
+        assertTrue(matches("a{12,}", "a".repeat(12)));
+        assertTrue(matches("a{12,}", "a".repeat(40)));
+        assertTrue(matches("ba{0,20}", "b"));
+        assertTrue(matches("(a|b)*a(a|b){10}", "ab" + "b".repeat(9)));
+        assertFalse(matches("(a|b)*a(a|b){10}", "ab" + "b".repeat(10)));
+    }
+
+    @Test
+    public void testBoundsWithCaptureGroups() {
+        NFA nfa = new RegexParser().parseWithGroups("(ab){2,12}(c)");
+        assertEquals("ab", new TaggedDfaSimulator().match(TaggedDfaConverter.convert(nfa), "ababababc").group(1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.DfaComparisonResult;
+import com.compiler.lexer.DfaEquivalenceChecker;
+import com.compiler.lexer.DfaMinimizer;
+import com.compiler.lexer.DfaSimulator;
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.dfa.DfaState;
+
+public class DfaEquivalenceTest {
+
+    /**
+     * Builds a DFA from "from symbol to" triples; state 0 is the start state.
+     */
+    private static DFA dfa(int stateCount, int[] finals, String... transitions) {
+        List<DfaState> states = new ArrayList<>();
+        for (int i = 0; i < stateCount; i++) {
+            states.add(new DfaState(new HashSet<>()));
+        }
+        for (int f : finals) {
+            states.get(f).setFinal(true);
+        }
+        for (String t : transitions) {
+            String[] parts = t.split(" ");
+            states.get(Integer.parseInt(parts[0])).addTransition(parts[1].charAt(0), states.get(Integer.parseInt(parts[2])));
+        }
+        return new DFA(states.get(0), states);
+    }
+
+    @Test
+    public void testEquivalentAutomataWithDifferentSizes() {
+        // (a|b)*a with two states vs. an unminimized three-state version
+        DFA small = dfa(2, new int[]{1}, "0 a 1", "0 b 0", "1 a 1", "1 b 0");
+        DFA large = dfa(3, new int[]{1, 2}, "0 a 1", "0 b 0", "1 a 2", "1 b 0", "2 a 1", "2 b 0");
+        DfaComparisonResult result = DfaEquivalenceChecker.checkEquivalence(small, large);
+        assertTrue(result.holds());
+        assertNull(result.getCounterexample());
+    }
+
+    @Test
+    public void testShortestCounterexample() {
+        // a* vs. a*  except "aa"
+        DFA star = dfa(1, new int[]{0}, "0 a 0");
+        DFA holes = dfa(4, new int[]{0, 1, 3}, "0 a 1", "1 a 2", "2 a 3", "3 a 3");
+        DfaComparisonResult result = DfaEquivalenceChecker.checkEquivalence(star, holes);
+        assertFalse(result.holds());
+        assertEquals("aa", result.getCounterexample());
+    }
+
+    @Test
+    public void testMissingTransitionsActAsDeadState() {
+        // "ab" only; the second automaton spells out an explicit dead state
+        DFA implicit = dfa(3, new int[]{2}, "0 a 1", "1 b 2");
+        DFA explicit = dfa(4, new int[]{2}, "0 a 1", "0 b 3", "1 a 3", "1 b 2", "2 a 3", "2 b 3", "3 a 3", "3 b 3");
+        assertTrue(DfaEquivalenceChecker.areEquivalent(implicit, explicit));
+    }
+
+    @Test
+    public void testInclusion() {
+        DFA ab = dfa(3, new int[]{2}, "0 a 1", "1 b 2");
+        DFA anything = dfa(1, new int[]{0}, "0 a 0", "0 b 0");
+        assertTrue(DfaEquivalenceChecker.checkInclusion(ab, anything).holds());
+
+        DfaComparisonResult reverse = DfaEquivalenceChecker.checkInclusion(anything, ab);
+        assertFalse(reverse.holds());
+        assertEquals("", reverse.getCounterexample());
+    }
+
+    @Test
+    public void testIntersectionEmptiness() {
+        // Keyword "if" against identifiers made of letters i and f
+        DFA keyword = dfa(3, new int[]{2}, "0 i 1", "1 f 2");
+        DFA identifier = dfa(2, new int[]{1}, "0 i 1", "0 f 1", "1 i 1", "1 f 1");
+        DFA digits = dfa(2, new int[]{1}, "0 0 1", "1 0 1");
+
+        DfaComparisonResult overlap = DfaEquivalenceChecker.checkIntersectionEmpty(keyword, identifier);
+        assertFalse(overlap.holds());
+        assertEquals("if", overlap.getCounterexample());
+        assertTrue(DfaEquivalenceChecker.checkIntersectionEmpty(keyword, digits).holds());
+    }
+
+    @Test
+    public void testMinimizedDfaIsEquivalent() {
+        DFA large = dfa(3, new int[]{1, 2}, "0 a 1", "0 b 0", "1 a 2", "1 b 0", "2 a 1", "2 b 0");
+        DFA minimized = DfaMinimizer.minimizeDfa(large, Set.of('a', 'b'));
+        assertEquals(2, minimized.allStates.size());
+        assertTrue(DfaEquivalenceChecker.areEquivalent(large, minimized));
+        assertTrue(new DfaSimulator().simulate(minimized, "bba"));
+    }
+}
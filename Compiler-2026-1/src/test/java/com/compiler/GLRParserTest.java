@@ -0,0 +1,173 @@
+package com.compiler;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.ast.SyntaxTree;
+import com.compiler.lexer.Token;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.lr.GLRParser;
+import com.compiler.parser.lr.LALR1Parser;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRAutomaton;
+import com.compiler.parser.lr.ParseForest;
+
+public class GLRParserTest {
+
+    private static List<Token> tokens(String input) {
+        return TestGrammars.lexer(
+                "id", "(a|b|c|d|e)+",
+                "x", "x",
+                "y", "y",
+                "z", "z",
+                "+", "\\+",
+                "*", "\\*",
+                "(", "\\(",
+                ")", "\\)").tokenize(input);
+    }
+
+    @Test
+    public void testDeterministicGrammarMatchesLALR() {
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        assertTrue(table.getConflicts().isEmpty());
+        GLRParser parser = new GLRParser(table);
+        List<Token> tokens = tokens("a + b * (c + d) * e");
+        ParseForest forest = parser.parse(tokens);
+        assertNotNull(forest);
+        assertEquals(1, forest.countTrees());
+        assertEquals(new LALR1Parser(table).parseTree(tokens).toString(), forest.toSyntaxTree().toString());
+    }
+
+    @Test
+    public void testAmbiguityIsPacked() {
+        LALR1Table table = TestGrammars.lalr("E -> E + E | E * E | id");
+        assertFalse(table.getConflicts().isEmpty());
+        GLRParser parser = new GLRParser(table);
+
+        ParseForest forest = parser.parse(tokens("a + b * c"));
+        assertEquals(2, forest.countTrees());
+        assertTrue(forest.isAmbiguous(forest.getRoot()));
+        assertEquals("(E (E (E id:a) +:+ (E id:b)) *:* (E id:c) | (E id:a) +:+ (E (E id:b) *:* (E id:c)))", forest.toString());
+
+        // Catalan(n - 1) trees over n operands, in a forest of polynomial size
+        StringBuilder sb = new StringBuilder("a");
+        long catalan = 1;
+        for (int n = 1; n < 20; n++) {
+            sb.append(" + a");
+            catalan = catalan * 2 * (2 * n - 1) / (n + 1);
+            forest = parser.parse(tokens(sb.toString()));
+            assertEquals(catalan, forest.countTrees(), sb.toString());
+        }
+        assertTrue(forest.getNodeCount() < 20 * 20 + 2 * 20, "nodes: " + forest.getNodeCount());
+    }
+
+    @Test
+    public void testMoreThanOneTokenOfLookahead() {
+        // After 'a', the reduction to A or B depends on the token after 'x'
+        LALR1Table table = TestGrammars.lalr("S -> A x y | B x z\nA -> id\nB -> id");
+        assertFalse(table.getConflicts().isEmpty());
+        GLRParser parser = new GLRParser(table);
+        ParseForest forest = parser.parse(tokens("a x y"));
+        assertEquals("(S (A id:a) x:x y:y)", forest.toString());
+        forest = parser.parse(tokens("a x z"));
+        assertEquals("(S (B id:a) x:x z:z)", forest.toString());
+        assertEquals(1, forest.countTrees());
+        assertNull(new LALR1Parser(table).parseTree(tokens("a x z")));
+    }
+
+    @Test
+    public void testHiddenLeftRecursion() {
+        // S -> A S y with A nullable: the original Tomita algorithm misses these parses
+        GLRParser parser = new GLRParser(TestGrammars.lalr("S -> A S y | x\nA -> ε"));
+        ParseForest forest = parser.parse(tokens("x y y"));
+        assertNotNull(forest);
+        assertEquals("(S (A) (S (A) (S x:x) y:y) y:y)", forest.toString());
+        assertNotNull(parser.parse(tokens("x")));
+        assertNull(parser.parse(tokens("y")));
+    }
+
+    @Test
+    public void testNullableAmbiguity() {
+        GLRParser parser = new GLRParser(TestGrammars.lalr("S -> A A x\nA -> y | ε"));
+        ParseForest forest = parser.parse(tokens("y x"));
+        assertEquals(2, forest.countTrees());
+        forest = parser.parse(tokens("x"));
+        assertEquals(1, forest.countTrees());
+        assertEquals(0, forest.getStart(forest.getRoot()));
+        assertEquals(1, forest.getEnd(forest.getRoot()));
+    }
+
+    @Test
+    public void testCyclicGrammar() {
+        GLRParser parser = new GLRParser(TestGrammars.lalr("S -> S | id"));
+        ParseForest forest = parser.parse(tokens("a"));
+        assertNotNull(forest);
+        assertEquals(Long.MAX_VALUE, forest.countTrees());
+        assertEquals("(S id:a)", forest.toSyntaxTree().toString());
+    }
+
+    @Test
+    public void testLongListsDoNotOverflowTheStack() {
+        // A left-recursive list nests one node per element
+        int n = 50000;
+        GLRParser parser = new GLRParser(TestGrammars.lalr("L -> L x | x"));
+        ParseForest forest = parser.parse(tokens("x ".repeat(n)));
+        assertEquals(1, forest.countTrees());
+        assertEquals("(L ".repeat(n) + "x:x)" + " x:x)".repeat(n - 1), forest.toString());
+    }
+
+    @Test
+    public void testRandomSumsAgainstLALR() {
+        // The unambiguous grammar must give exactly the LALR tree, through the fast path or not
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        GLRParser parser = new GLRParser(table);
+        LALR1Parser lalr = new LALR1Parser(table);
+        Random random = new Random(50);
+        String[] pieces = {"a", "+", "*", "(", ")", "b"};
+        for (int round = 0; round < 300; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(12); i > 0; i--) {
+                sb.append(pieces[random.nextInt(pieces.length)]).append(' ');
+            }
+            List<Token> tokens = tokens(sb.toString());
+            SyntaxTree expected = lalr.parseTree(tokens);
+            ParseForest forest = parser.parse(tokens);
+            if (expected == null) {
+                assertNull(forest, sb.toString());
+                assertNotNull(parser.getError());
+            } else {
+                assertEquals(expected.toString(), forest.toSyntaxTree().toString(), sb.toString());
+                assertNull(parser.getError());
+            }
+        }
+    }
+
+    @Test
+    public void testSyntaxError() {
+        GLRParser parser = new GLRParser(TestGrammars.lalr("E -> E + E | E * E | id"));
+        assertNull(parser.parse(tokens("a + * b")));
+        SyntaxError error = parser.getError();
+        assertEquals("*", error.getToken().type);
+        assertEquals(4, error.getOffset());
+        assertEquals(List.of("id"), error.getExpected());
+
+        assertNull(parser.parse(tokens("a +")));
+        assertNull(parser.getError().getToken());
+        assertEquals(3, parser.getError().getOffset());
+    }
+
+    @Test
+    public void testUnbuiltTable() {
+        LALR1Table table = new LALR1Table(new LRAutomaton(new Grammar("S -> id")));
+        assertThrows(IllegalArgumentException.class, () -> new GLRParser(table));
+    }
+}
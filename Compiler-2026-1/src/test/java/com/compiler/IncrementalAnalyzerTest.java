@@ -0,0 +1,153 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+import com.compiler.parser.syntax.IncrementalAnalyzer;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class IncrementalAnalyzerTest {
+
+    private static Symbol nt(String name) {
+        return new Symbol(name, SymbolType.NON_TERMINAL);
+    }
+
+    private static Symbol t(String name) {
+        return new Symbol(name, SymbolType.TERMINAL);
+    }
+
+    /**
+     * Renders productions as grammar text, grouped by left side in the given order.
+     */
+    private static String render(List<Symbol> nonTerminals, List<Production> productions) {
+        StringBuilder sb = new StringBuilder();
+        for (Symbol a : nonTerminals) {
+            sb.append(a.name).append(" ->");
+            boolean firstAlternative = true;
+            for (Production p : productions) {
+                if (!p.getLeft().equals(a)) continue;
+                if (!firstAlternative) sb.append(" |");
+                firstAlternative = false;
+                if (p.getRight().isEmpty()) sb.append(" ε");
+                for (Symbol s : p.getRight()) {
+                    sb.append(' ').append(s.name);
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameAsStaticAnalyzer(Grammar grammar, IncrementalAnalyzer actual) {
+        StaticAnalyzer expected = new StaticAnalyzer(grammar);
+        Map<Symbol, Set<Symbol>> first = actual.getFirstSets();
+        for (Symbol a : grammar.getNonTerminals()) {
+            assertEquals(expected.getFirstSets().get(a), first.get(a), "FIRST(" + a.name + ")");
+        }
+        assertEquals(expected.getFollowSets(), actual.getFollowSets());
+    }
+
+    @Test
+    public void testAddAndRemoveProduction() {
+        Grammar grammar = new Grammar("S -> A b\nA -> a");
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(grammar);
+        assertFalse(analyzer.isNullable(nt("A")));
+
+        Production empty = new Production(nt("A"), List.of(t("ε")));
+        analyzer.addProduction(empty);
+        assertTrue(analyzer.isNullable(nt("A")));
+        assertEquals(Set.of(t("a"), t("b")), analyzer.getFirstSets().get(nt("S")));
+
+        assertTrue(analyzer.removeProduction(empty));
+        assertFalse(analyzer.isNullable(nt("A")));
+        assertEquals(Set.of(t("a")), analyzer.getFirstSets().get(nt("S")));
+        assertFalse(analyzer.removeProduction(empty));
+    }
+
+    @Test
+    public void testRemovalBreaksCyclicSupport() {
+        // A and B are nullable only through C; removing C -> ε must not leave them self-supporting
+        Grammar grammar = new Grammar("S -> A x\nA -> B | a\nB -> A | C\nC -> ε | c");
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(grammar);
+        assertTrue(analyzer.isNullable(nt("A")));
+
+        analyzer.removeProduction(new Production(nt("C"), List.of(t("ε"))));
+        assertSameAsStaticAnalyzer(new Grammar("S -> A x\nA -> B | a\nB -> A | C\nC -> c"), analyzer);
+        assertFalse(analyzer.isNullable(nt("B")));
+    }
+
+    @Test
+    public void testEditsTouchOnlyTheAffectedRegion() {
+        // A long right-recursive chain N0 -> t N1 -> t N2 ... ; editing the tail is local
+        int n = 5000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n - 1; i++) {
+            sb.append('N').append(i).append(" -> t N").append(i + 1).append(" | u\n");
+        }
+        sb.append('N').append(n - 1).append(" -> t\n");
+        IncrementalAnalyzer analyzer = new IncrementalAnalyzer(new Grammar(sb.toString()));
+
+        Production tail = new Production(nt("N" + (n - 1)), List.of(t("v")));
+        analyzer.addProduction(tail);
+        assertTrue(analyzer.getLastAffectedCount() <= 4);
+        assertEquals(Set.of(t("t"), t("v")), analyzer.getFirstSets().get(nt("N" + (n - 1))));
+        analyzer.removeProduction(tail);
+        assertTrue(analyzer.getLastAffectedCount() <= 4);
+        assertEquals(Set.of(t("t")), analyzer.getFirstSets().get(nt("N" + (n - 1))));
+        assertEquals(Set.of(t("$")), analyzer.getFollowSets().get(nt("N" + (n - 1))));
+    }
+
+    @Test
+    public void testRandomEditsMatchFullRecomputation() {
+        Random random = new Random(11);
+        for (int round = 0; round < 40; round++) {
+            int count = 2 + random.nextInt(6);
+            List<Symbol> nonTerminals = new ArrayList<>();
+            for (int a = 0; a < count; a++) {
+                nonTerminals.add(nt("N" + a));
+            }
+            List<Production> productions = new ArrayList<>();
+            for (Symbol a : nonTerminals) {
+                productions.add(randomProduction(random, a, nonTerminals));
+            }
+            IncrementalAnalyzer analyzer = new IncrementalAnalyzer(new Grammar(render(nonTerminals, productions)));
+
+            for (int edit = 0; edit < 30; edit++) {
+                int victim = random.nextInt(productions.size());
+                Symbol left = productions.get(victim).getLeft();
+                long alternatives = productions.stream().filter(p -> p.getLeft().equals(left)).count();
+                if (random.nextBoolean() && alternatives > 1) {
+                    assertTrue(analyzer.removeProduction(productions.remove(victim)));
+                } else {
+                    Production p = randomProduction(random, nonTerminals.get(random.nextInt(count)), nonTerminals);
+                    productions.add(p);
+                    analyzer.addProduction(p);
+                }
+                assertSameAsStaticAnalyzer(new Grammar(render(nonTerminals, productions)), analyzer);
+            }
+        }
+    }
+
+    private static Production randomProduction(Random random, Symbol left, List<Symbol> nonTerminals) {
+        List<Symbol> right = new ArrayList<>();
+        int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            right.add(random.nextInt(3) == 0
+                    ? t("t" + random.nextInt(4))
+                    : nonTerminals.get(random.nextInt(nonTerminals.size())));
+        }
+        return new Production(left, right);
+    }
+}
@@ -0,0 +1,188 @@
+package com.compiler;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeCursor;
+import com.compiler.lexer.Lexer;
+import com.compiler.parser.lr.IncrementalLRParser;
+import com.compiler.parser.lr.PackedLRTable;
+
+public class IncrementalLRParserTest {
+
+    private static final String PROGRAMS =
+            "P -> P S | S\nS -> id = E ;\nE -> E + T | T\nT -> T * F | F\nF -> ( E ) | id | num";
+
+    private static final PackedLRTable TABLE = table();
+    private static final Lexer LEXER = lexer();
+
+    private static PackedLRTable table() {
+        return new PackedLRTable(TestGrammars.lalr(PROGRAMS));
+    }
+
+    private static Lexer lexer() {
+        return TestGrammars.lexer(
+                "id", "(a|b|c|x|y|z)+",
+                "num", "(0|1|2|3|4|5|6|7|8|9)+",
+                "=", "=",
+                ";", ";",
+                "+", "\\+",
+                "*", "\\*",
+                "(", "\\(",
+                ")", "\\)");
+    }
+
+    private static IncrementalLRParser parser() {
+        return new IncrementalLRParser(TABLE, LEXER);
+    }
+
+    private static String program(Random random, int statements) {
+        String[] expressions = {"a", "b + 1", "(x + y) * 2", "c * (a + b * (c + 3))", "10"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < statements; i++) {
+            sb.append("xyz".charAt(random.nextInt(3))).append(" = ")
+                    .append(expressions[random.nextInt(expressions.length)]).append(";\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The tree of a full parse, or null on a syntax error.
+     */
+    private static String fresh(String text) {
+        SyntaxTree tree = parser().parse(text);
+        return tree == null ? null : tree.toString();
+    }
+
+    @Test
+    public void testEditMatchesFullParse() {
+        IncrementalLRParser parser = parser();
+        assertNotNull(parser.parse("a = 1;\nb = a + 2;\nc = b * 3;\n"));
+        SyntaxTree tree = parser.edit(15, 1, "(a + 4)");
+        assertNotNull(tree);
+        assertEquals("a = 1;\nb = a + (a + 4);\nc = b * 3;\n", parser.getText());
+        assertEquals(fresh(parser.getText()), tree.toString());
+        assertTrue(parser.getReusedCount() > 0);
+    }
+
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(48);
+        String[] inserts = {"a", "1", " + b", "(", ")", ";", "x = 2;", " ", "*", "= "};
+        for (int round = 0; round < 30; round++) {
+            IncrementalLRParser parser = parser();
+            parser.parse(program(random, 1 + random.nextInt(8)));
+            for (int step = 0; step < 20; step++) {
+                String text = parser.getText();
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(4, text.length() - offset) + 1);
+                String inserted = random.nextInt(3) == 0 ? "" : inserts[random.nextInt(inserts.length)];
+                SyntaxTree tree = parser.edit(offset, removed, inserted);
+                String expected = fresh(parser.getText());
+                assertEquals(expected, tree == null ? null : tree.toString(), parser.getText());
+            }
+        }
+    }
+
+    @Test
+    public void testRandomEditsInLongLists() {
+        Random random = new Random(148);
+        String[] inserts = {"x = 2;\n", "a", " + b", "1", ";", "(", "= "};
+        for (int round = 0; round < 10; round++) {
+            IncrementalLRParser parser = parser();
+            parser.parse(program(random, 20 + random.nextInt(60)));
+            for (int step = 0; step < 40; step++) {
+                String text = parser.getText();
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(8, text.length() - offset) + 1);
+                String inserted = random.nextInt(4) == 0 ? "" : inserts[random.nextInt(inserts.length)];
+                SyntaxTree tree = parser.edit(offset, removed, inserted);
+                assertEquals(fresh(parser.getText()), tree == null ? null : tree.toString(), parser.getText());
+            }
+        }
+    }
+
+    @Test
+    public void testListsAreFlat() {
+        SyntaxTree tree = parser().parse("a = 1;\nb = x + 2 + y;\n");
+        assertEquals("(P (S id:a =:= (E (T (F num:1))) ;:;) "
+                + "(S id:b =:= (E (T (F id:x)) +:+ (T (F num:2)) +:+ (T (F id:y))) ;:;))", tree.toString());
+        TreeCursor cursor = tree.cursor();
+        assertTrue(cursor.gotoFirstChild());
+        assertTrue(cursor.gotoNextSibling());
+        assertEquals(1, cursor.depth());
+        assertEquals(4, cursor.startToken());
+        assertFalse(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoParent());
+        assertEquals(tree.getRoot(), cursor.node());
+    }
+
+    @Test
+    public void testReparseIsLocal() {
+        IncrementalLRParser parser = parser();
+        String text = program(new Random(1), 2000);
+        SyntaxTree tree = parser.parse(text);
+
+        // Replace an identifier in the last statement
+        tree = parser.edit(text.lastIndexOf('=') - 2, 1, "abc");
+        assertNotNull(tree);
+        assertTrue(parser.getCreatedCount() < 40, "created " + parser.getCreatedCount());
+
+        // In the middle, the statements around the edit are reused in groups
+        tree = parser.edit(text.length() / 2, 0, " ");
+        assertNotNull(tree);
+        tree = parser.edit(text.indexOf('=', text.length() / 2) - 2, 1, "zz");
+        assertNotNull(tree);
+        assertEquals(fresh(parser.getText()), tree.toString());
+    }
+
+    @Test
+    public void testWorkPerEditDoesNotGrowWithTheDocument() {
+        int[] created = new int[2];
+        int[] reused = new int[2];
+        int[] sizes = {1000, 32000};
+        for (int i = 0; i < sizes.length; i++) {
+            IncrementalLRParser parser = parser();
+            String text = program(new Random(2), sizes[i]);
+            parser.parse(text);
+            int offset = text.indexOf('\n', text.length() / 2) + 1;
+            assertNotNull(parser.edit(offset, 0, "y = (a + b) * c;\n"));
+            assertNotNull(parser.edit(offset, 0, "x"));
+            created[i] = parser.getCreatedCount();
+            reused[i] = parser.getReusedCount();
+        }
+        // 32 times the statements: a few more levels of list groups, nothing per statement
+        assertTrue(created[1] <= created[0] + 15, "created " + created[0] + ", then " + created[1]);
+        assertTrue(reused[1] <= reused[0] + 10, "reused " + reused[0] + ", then " + reused[1]);
+    }
+
+    @Test
+    public void testRecoversAfterSyntaxError() {
+        IncrementalLRParser parser = parser();
+        parser.parse("a = 1;\nb = 2;\n");
+        assertNull(parser.edit(4, 1, "+"));
+        assertNull(parser.getTree());
+        SyntaxTree tree = parser.edit(4, 1, "3");
+        assertNotNull(tree);
+        assertEquals(fresh("a = 3;\nb = 2;\n"), tree.toString());
+    }
+
+    @Test
+    public void testInvalidEditsLeaveTheDocument() {
+        IncrementalLRParser parser = parser();
+        assertThrows(IllegalArgumentException.class, () -> parser.edit(0, 0, "a"));
+        parser.parse("a = 1;");
+        assertThrows(IllegalArgumentException.class, () -> parser.edit(3, 10, "2"));
+        assertThrows(IllegalArgumentException.class, () -> parser.edit(4, 1, "?"));
+        assertEquals("a = 1;", parser.getText());
+        assertNotNull(parser.getTree());
+    }
+}
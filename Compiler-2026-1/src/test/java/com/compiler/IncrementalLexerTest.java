@@ -0,0 +1,178 @@
+package com.compiler;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.IncrementalLexer;
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.TextEdit;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenChange;
+
+public class IncrementalLexerTest {
+
+    private static Lexer lexer() {
+        return TestGrammars.lexer(
+                "ABC", "abc",
+                "IF", "if",
+                "ID", "(a|b|c|f|i|x)+",
+                "NUM", "(0|1|2)+",
+                "DOTS", "\\.\\.\\.",
+                "DOT", "\\.",
+                "=", "=");
+    }
+
+    @Test
+    public void testEditInsideAToken() {
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        lexer.tokenize("x = 10\nfi = 2");
+        TokenChange change = lexer.edit(new TextEdit(5, 0, "2"));
+        assertEquals("x = 120\nfi = 2", lexer.getText());
+        assertEquals(2, change.start);
+        assertEquals(3, change.oldEnd);
+        assertEquals(3, change.newEnd);
+        assertEquals(new Token("NUM", "120", 4), lexer.getTokens().get(2));
+        assertEquals(new Token("ID", "fi", 8), lexer.getTokens().get(3));
+        assertEquals(1, lexer.getRelexedCount());
+    }
+
+    @Test
+    public void testLookaheadBeforeTheEdit() {
+        // DOT examined the character after '..' hoping for DOTS; completing it changes that token
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        lexer.tokenize("x ..= 1");
+        assertEquals(List.of("ID", "DOT", "DOT", "=", "NUM"), types(lexer.getTokens()));
+        TokenChange change = lexer.edit(new TextEdit(4, 0, "."));
+        assertEquals(List.of("ID", "DOTS", "=", "NUM"), types(lexer.getTokens()));
+        assertEquals(1, change.start);
+        assertEquals(3, change.oldEnd);
+        assertEquals(2, change.newEnd);
+    }
+
+    @Test
+    public void testSplittingAndJoiningTokens() {
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        lexer.tokenize("abc if x");
+        lexer.edit(new TextEdit(3, 1, ""));
+        assertEquals(List.of("ID", "ID"), types(lexer.getTokens()));
+        assertEquals("abcif", lexer.getTokens().get(0).lexeme);
+        lexer.edit(new TextEdit(3, 0, " "));
+        assertEquals(lexer().tokenize("abc if x"), lexer.getTokens());
+    }
+
+    @Test
+    public void testRandomEditsMatchFullTokenization() {
+        assertRandomEditsMatch(lexer(), "abcfix012.= \n", 49);
+    }
+
+    @Test
+    public void testRandomEditsWithSkipRules() {
+        // A comment runs to the last "*/", so the DFA reads on far past a skipped comment and
+        // the token after it depends on characters the comment examined
+        Lexer lexer = TestGrammars.lexer(Set.of("COMMENT", "WS"),
+                "ID", "(a|b)+",
+                "COMMENT", "/\\*(a|b| |\n|/|\\*)*\\*/",
+                "/", "/",
+                "*", "\\*",
+                "WS", "( |\n)+");
+        assertRandomEditsMatch(lexer, "ab/* \n", 32);
+    }
+
+    private static void assertRandomEditsMatch(Lexer full, String alphabet, long seed) {
+        Random random = new Random(seed);
+        for (int round = 0; round < 200; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(40); i > 0; i--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            IncrementalLexer lexer = new IncrementalLexer(full);
+            lexer.tokenize(sb.toString());
+            for (int step = 0; step < 20; step++) {
+                String text = lexer.getText();
+                List<Token> before = List.copyOf(lexer.getTokens());
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(3, text.length() - offset) + 1);
+                StringBuilder inserted = new StringBuilder();
+                for (int i = random.nextInt(4); i > 0; i--) {
+                    inserted.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                TextEdit edit = new TextEdit(offset, removed, inserted.toString());
+                TokenChange change = lexer.edit(edit);
+                assertEquals(edit.apply(text), lexer.getText());
+                List<Token> after = lexer.getTokens();
+                assertEquals(full.tokenize(lexer.getText()), after, lexer.getText());
+
+                // Outside the change, tokens are equal, moved by the edit after it
+                assertEquals(before.subList(0, change.start), after.subList(0, change.start));
+                assertEquals(before.size() - change.oldEnd, after.size() - change.newEnd);
+                for (int i = change.oldEnd; i < before.size(); i++) {
+                    Token t = before.get(i);
+                    assertEquals(new Token(t.type, t.lexeme, t.offset + edit.getDelta()), after.get(i - change.oldEnd + change.newEnd));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRelexingIsLocal() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            sb.append("x").append(i % 3).append(" = if\n");
+        }
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        lexer.tokenize(sb.toString());
+        TokenChange change = lexer.edit(new TextEdit(sb.length() / 2, 0, "a"));
+        assertTrue(lexer.getRelexedCount() <= 2, "relexed " + lexer.getRelexedCount());
+        assertTrue(change.newEnd - change.start <= 2);
+        assertEquals(lexer().tokenize(lexer.getText()), lexer.getTokens());
+    }
+
+    @Test
+    public void testTokensAfterTheEditAreNotRecreated() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            sb.append("x").append(i % 3).append(" = if\n");
+        }
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        List<Token> tokens = lexer.tokenize(sb.toString());
+        Token last = tokens.get(tokens.size() - 1);
+
+        // Type and erase a word at the top; the tokens below are moved back without being touched
+        for (int i = 0; i < 3; i++) {
+            lexer.edit(new TextEdit(i, 0, "a"));
+        }
+        assertEquals("aaax0 = if", lexer.getText().substring(0, 10));
+        for (int i = 2; i >= 0; i--) {
+            lexer.edit(new TextEdit(i, 1, ""));
+        }
+        assertSame(last, tokens.get(tokens.size() - 1));
+        lexer.edit(new TextEdit(0, 0, "a"));
+        assertEquals(new Token("IF", "if", last.offset + 1), tokens.get(tokens.size() - 1));
+
+        // Editing far apart moves the gap across the tokens in between
+        lexer.edit(new TextEdit(sb.length() - 3, 0, "1"));
+        lexer.edit(new TextEdit(1, 0, "12"));
+        assertEquals(lexer().tokenize(lexer.getText()), tokens);
+    }
+
+    @Test
+    public void testInvalidEditLeavesTheDocument() {
+        IncrementalLexer lexer = new IncrementalLexer(lexer());
+        assertThrows(IllegalArgumentException.class, () -> lexer.edit(new TextEdit(0, 0, "x")));
+        lexer.tokenize("x = 1");
+        assertThrows(IllegalArgumentException.class, () -> lexer.edit(new TextEdit(2, 1, "?")));
+        assertEquals("x = 1", lexer.getText());
+        assertEquals(3, lexer.getTokens().size());
+    }
+
+    private static List<String> types(List<Token> tokens) {
+        return tokens.stream().map(t -> t.type).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.compiler;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRConflict;
+import com.compiler.parser.lr.LRTable;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class LALR1TableTest {
+
+    private static int id(LRTable table, String name, SymbolType type) {
+        return table.getCompactGrammar().getId(new Symbol(name, type));
+    }
+
+    private static String names(LRTable table, BitSet terminals) {
+        StringBuilder sb = new StringBuilder();
+        for (int t = terminals.nextSetBit(0); t >= 0; t = terminals.nextSetBit(t + 1)) {
+            sb.append(sb.length() == 0 ? "" : " ").append(table.getCompactGrammar().getName(t));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testExpressionGrammar() {
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        assertTrue(table.getConflicts().isEmpty());
+        assertEquals(12, table.getStateCount());
+
+        int id = id(table, "id", SymbolType.TERMINAL);
+        int afterId = LRTable.target(table.getAction(0, id));
+        int reduceF = table.getAction(afterId, CompactGrammar.END);
+        assertTrue(LRTable.isReduce(reduceF));
+        BitSet lookahead = table.getLookaheads().getLookahead(afterId, LRTable.production(reduceF));
+        assertEquals(Set.of("+", "*", ")", "$"), Set.of(names(table, lookahead).split(" ")));
+
+        int afterE = table.getGoto(0, id(table, "E", SymbolType.NON_TERMINAL));
+        assertTrue(table.isAccept(table.getAction(afterE, CompactGrammar.END)));
+        assertEquals(LRTable.ERROR, table.getAction(afterE, id));
+    }
+
+    @Test
+    public void testLalrButNotSlr() {
+        // FOLLOW(R) contains '=', so SLR has a shift/reduce conflict after L; LALR does not
+        assertTrue(TestGrammars.lalr("S -> L = R | R\nL -> * R | id\nR -> L").getConflicts().isEmpty());
+    }
+
+    @Test
+    public void testLookaheadsThroughNullableSymbols() {
+        LALR1Table table = TestGrammars.lalr("S -> A B c\nA -> a | ε\nB -> b | ε");
+        int emptyA = 2;
+        assertEquals("c b", names(table, table.getLookaheads().getLookahead(0, emptyA)));
+        int afterA = table.getGoto(0, id(table, "A", SymbolType.NON_TERMINAL));
+        assertEquals("c", names(table, table.getLookaheads().getLookahead(afterA, 4)));
+    }
+
+    @Test
+    public void testDanglingElseIsResolvedAsShift() {
+        LALR1Table table = TestGrammars.lalr("S -> if E then S | if E then S else S | other\nE -> b");
+        List<LRConflict> conflicts = table.getConflicts();
+        assertEquals(1, conflicts.size());
+        LRConflict conflict = conflicts.get(0);
+        assertTrue(conflict.isShiftReduce());
+        assertEquals("else", conflict.getTerminal().name);
+        int kept = table.getAction(conflict.getState(), id(table, "else", SymbolType.TERMINAL));
+        assertTrue(LRTable.isShift(kept));
+        assertEquals(2, table.getConflictActions(conflict.getState(), id(table, "else", SymbolType.TERMINAL)).length);
+        assertTrue(conflict.toString().startsWith("Shift/Reduce conflict in state " + conflict.getState() + " on 'else': shift "));
+    }
+
+    @Test
+    public void testReportsLalrReduceReduceConflicts() {
+        LALR1Table table = TestGrammars.lalr("S -> a A d | b B d | a B e | b A e\nA -> c\nB -> c");
+        assertEquals(2, table.getConflicts().size());
+        for (LRConflict conflict : table.getConflicts()) {
+            assertFalse(conflict.isShiftReduce());
+            assertTrue(conflict.toString().endsWith(": reduce A -> c •; reduce B -> c •"), conflict.toString());
+        }
+    }
+
+    @Test
+    public void testLookaheadsAreWithinFollowSets() {
+        Random random = new Random(3);
+        for (int round = 0; round < 100; round++) {
+            String text = TestGrammars.random(random, 6, 3, 2);
+            Grammar grammar = new Grammar(text);
+            LALR1Table table = TestGrammars.lalr(grammar);
+            Map<Symbol, Set<Symbol>> follow = new StaticAnalyzer(grammar).getFollowSets();
+            CompactGrammar g = table.getCompactGrammar();
+            for (int s = 0; s < table.getStateCount(); s++) {
+                int[] reductions = table.getLookaheads().getReductions(s);
+                for (int r = 0; r < reductions.length; r++) {
+                    if (reductions[r] == table.getItemIndex().getAcceptProduction()) continue;
+                    Symbol left = g.getSymbol(g.getLeft(reductions[r]));
+                    BitSet la = table.getLookaheads().getLookaheads(s)[r];
+                    for (int t = la.nextSetBit(0); t >= 0; t = la.nextSetBit(t + 1)) {
+                        assertTrue(follow.get(left).contains(g.getSymbol(t)), text);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.Token;
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.ll.LL1Actions;
+import com.compiler.parser.ll.LL1Driver;
+import com.compiler.parser.ll.LL1Parser;
+import com.compiler.parser.ll.LL1Table;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class LL1DriverTest {
+
+    private static LL1Table table() {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(TestGrammars.LL_EXPRESSIONS)));
+        table.build(true);
+        return table;
+    }
+
+    @Test
+    public void testParsesInLockstepWithTheLexer() {
+        LL1Driver driver = new LL1Driver(table());
+        Lexer lexer = TestGrammars.expressionLexer();
+        assertTrue(driver.parse(lexer.stream("a + b * (c + x)")));
+        assertTrue(driver.parse(lexer.stream("((a))")));
+        assertFalse(driver.parse(lexer.stream("a + * b")));
+        assertFalse(driver.parse(lexer.stream("(a")));
+        assertFalse(driver.parse(lexer.stream("")));
+    }
+
+    @Test
+    public void testSemanticActions() {
+        LL1Table table = table();
+        CompactGrammar g = table.getCompactGrammar();
+        List<String> events = new ArrayList<>();
+        LL1Actions actions = new LL1Actions() {
+            @Override
+            public void expand(int production) {
+                events.add(g.getName(g.getLeft(production)) + "/" + g.getRight(production).length);
+            }
+
+            @Override
+            public void match(int terminal, Token token) {
+                events.add(g.getName(terminal) + ":" + token.lexeme);
+            }
+        };
+        assertTrue(new LL1Driver(table).parse(TestGrammars.expressionLexer().stream("a*b"), actions));
+        assertEquals(List.of("E/2", "T/2", "F/1", "id:a", "T'/3", "*:*", "F/1", "id:b", "T'/0", "E'/0"), events);
+    }
+
+    @Test
+    public void testDeepNestingGrowsTheStack() {
+        int depth = 20000;
+        String input = "(".repeat(depth) + "a" + ")".repeat(depth);
+        assertTrue(new LL1Driver(table()).parse(TestGrammars.expressionLexer().stream(input)));
+    }
+
+    @Test
+    public void testListParserUsesTheDriver() {
+        LL1Parser parser = new LL1Parser(table());
+        assertTrue(parser.parse(TestGrammars.expressionTokens("a+b")));
+        assertFalse(parser.parse(List.of(new Token("id", "a", 0), new Token("unknown", "?", 1))));
+    }
+
+    @Test
+    public void testRequiresBuiltTable() {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(TestGrammars.LL_EXPRESSIONS)));
+        assertThrows(IllegalArgumentException.class, () -> new LL1Driver(table));
+    }
+}
@@ -0,0 +1,85 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.ll.LL1Actions;
+import com.compiler.parser.ll.LL1Driver;
+import com.compiler.parser.ll.LL1Table;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class LL1RecoveryTest {
+
+    private static LL1Driver driver() {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(TestGrammars.LL_EXPRESSIONS)));
+        table.build();
+        return new LL1Driver(table);
+    }
+
+    private static List<String> messages(String input) {
+        return driver().parseAll(TestGrammars.expressionLexer().stream(input)).stream()
+                .map(SyntaxError::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testValidInputHasNoErrors() {
+        assertTrue(driver().parseAll(TestGrammars.expressionLexer().stream("a + b * (c + x)")).isEmpty());
+    }
+
+    @Test
+    public void testSkipsTokensThatCannotStartANonTerminal() {
+        assertEquals(List.of("Unexpected '*' at offset 4, expected (, id"), messages("a + * b"));
+    }
+
+    @Test
+    public void testMissingTerminalIsInserted() {
+        List<SyntaxError> errors = driver().parseAll(TestGrammars.expressionLexer().stream("(a"));
+        assertEquals(1, errors.size());
+        assertNull(errors.get(0).getToken());
+        assertEquals(2, errors.get(0).getOffset());
+        assertEquals(List.of(")"), errors.get(0).getExpected());
+    }
+
+    @Test
+    public void testReportsEveryErrorInOnePass() {
+        // A missing operand before ')' (synchronizing: FOLLOW(T) contains ')'), a stray '*'
+        // and an unclosed group
+        assertEquals(List.of(
+                "Unexpected ')' at offset 5, expected (, id",
+                "Unexpected '*' at offset 13, expected (, id",
+                "Unexpected end of input at offset 21, expected )"),
+                messages("(a + ) * b + * c + (x"));
+    }
+
+    @Test
+    public void testTrailingInputIsReportedOnce() {
+        assertEquals(List.of("Unexpected ')' at offset 2, expected $"), messages("a ) ) b"));
+    }
+
+    @Test
+    public void testErrorsReachTheActions() {
+        List<String> events = new ArrayList<>();
+        driver().parseAll(TestGrammars.expressionLexer().stream("a + * b"), new LL1Actions() {
+            @Override
+            public void match(int terminal, Token token) {
+                events.add(token.lexeme);
+            }
+
+            @Override
+            public void error(SyntaxError error) {
+                events.add("error@" + error.getOffset());
+            }
+        });
+        assertEquals(List.of("a", "+", "error@4", "b"), events);
+    }
+}
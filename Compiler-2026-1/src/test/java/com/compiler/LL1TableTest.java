@@ -0,0 +1,101 @@
+package com.compiler;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Production;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+import com.compiler.parser.ll.LL1Conflict;
+import com.compiler.parser.ll.LL1Table;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class LL1TableTest {
+
+    private static Symbol nt(String name) {
+        return new Symbol(name, SymbolType.NON_TERMINAL);
+    }
+
+    private static Symbol t(String name) {
+        return new Symbol(name, SymbolType.TERMINAL);
+    }
+
+    private static LL1Table table(String grammar, boolean compress) {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(grammar)));
+        table.build(compress);
+        return table;
+    }
+
+    @Test
+    public void testExpressionGrammar() {
+        LL1Table table = table(TestGrammars.LL_EXPRESSIONS, false);
+        assertTrue(table.isLL1());
+
+        Production p = table.getProduction(nt("E'"), t(")"));
+        assertEquals(nt("E'"), p.getLeft());
+        assertEquals(List.of(t("ε")), p.getRight());
+        assertEquals(List.of(t("("), nt("E"), t(")")), table.getProduction(nt("F"), t("(")).getRight());
+        assertEquals(List.of(nt("F"), nt("T'")), table.getProduction(nt("T"), t("id")).getRight());
+        assertEquals(List.of(t("ε")), table.getProduction(nt("T'"), t("$")).getRight());
+        assertNull(table.getProduction(nt("E"), t("+")));
+        assertNull(table.getProduction(nt("E"), t("unknown")));
+    }
+
+    @Test
+    public void testCompressedTableMatchesDenseTable() {
+        LL1Table dense = table(TestGrammars.LL_EXPRESSIONS, false);
+        LL1Table compressed = table(TestGrammars.LL_EXPRESSIONS, true);
+        assertTrue(compressed.isCompressed());
+        assertFalse(dense.isCompressed());
+
+        CompactGrammar g = dense.getCompactGrammar();
+        for (int a = 0; a < g.getNonTerminalCount(); a++) {
+            for (int t = 0; t < g.getTerminalCount(); t++) {
+                assertEquals(dense.lookup(a, t), compressed.lookup(a, t), "M[" + a + ", " + t + "]");
+            }
+        }
+    }
+
+    @Test
+    public void testCompressionShrinksSparseTables() {
+        // Each statement kind is selected by its own keyword: one entry per row
+        StringBuilder sb = new StringBuilder("S -> ");
+        for (int i = 0; i < 60; i++) {
+            sb.append(i == 0 ? "" : " | ").append("K").append(i);
+        }
+        sb.append('\n');
+        for (int i = 0; i < 60; i++) {
+            sb.append('K').append(i).append(" -> kw").append(i).append(" x\n");
+        }
+        LL1Table dense = table(sb.toString(), false);
+        LL1Table compressed = table(sb.toString(), true);
+        assertTrue(compressed.getStorageSize() * 10 < dense.getStorageSize());
+        assertEquals(List.of(t("kw7"), t("x")), compressed.getProduction(nt("K7"), t("kw7")).getRight());
+        assertNull(compressed.getProduction(nt("K7"), t("kw8")));
+    }
+
+    @Test
+    public void testReportsEveryConflictingCell() {
+        // a conflicts in S (FIRST/FIRST) and in A (FIRST/FOLLOW); b conflicts in S through nullable A
+        LL1Table table = table("S -> a b | A a | A b | b\nA -> a | ε", false);
+        assertFalse(table.isLL1());
+        List<String> cells = table.getConflicts().stream()
+                .map(c -> c.getNonTerminal().name + "," + c.getTerminal().name)
+                .collect(Collectors.toList());
+        assertEquals(List.of("S,a", "S,b", "A,a"), cells);
+
+        LL1Conflict first = table.getConflicts().get(0);
+        assertEquals(3, first.getProductions().size());
+        assertEquals("M[S, a]: S -> a b; S -> A a; S -> A b", first.toString());
+        // The cell keeps the production listed first
+        assertEquals(List.of(t("a"), t("b")), table.getProduction(nt("S"), t("a")).getRight());
+    }
+}
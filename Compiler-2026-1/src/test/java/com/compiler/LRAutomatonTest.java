@@ -0,0 +1,89 @@
+package com.compiler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+import com.compiler.parser.lr.ItemIndex;
+import com.compiler.parser.lr.LR0Item;
+import com.compiler.parser.lr.LRAutomaton;
+
+public class LRAutomatonTest {
+
+    private static LRAutomaton automaton(String grammar) {
+        LRAutomaton automaton = new LRAutomaton(new Grammar(grammar));
+        automaton.build();
+        return automaton;
+    }
+
+    private static List<String> describe(LRAutomaton automaton, int[] items) {
+        return automaton.getItemIndex().toItems(items).stream().map(LR0Item::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testCanonicalCollectionOfExpressionGrammar() {
+        LRAutomaton automaton = automaton(TestGrammars.EXPRESSIONS);
+        assertEquals(12, automaton.getStateCount());
+        assertEquals(List.of("E' -> • E"), describe(automaton, automaton.getKernel(0)));
+        assertEquals(List.of(
+                "E -> • E + T", "E -> • T", "T -> • T * F", "T -> • F", "F -> • ( E )", "F -> • id", "E' -> • E"),
+                describe(automaton, automaton.getItems(0)));
+
+        CompactGrammar g = automaton.getItemIndex().getCompactGrammar();
+        int e = g.getId(new Symbol("E", SymbolType.NON_TERMINAL));
+        int plus = g.getId(new Symbol("+", SymbolType.TERMINAL));
+        int afterE = automaton.getTransition(0, e);
+        assertEquals(List.of("E -> E • + T", "E' -> E •"), describe(automaton, automaton.getKernel(afterE)));
+        assertEquals(-1, automaton.getTransition(0, plus));
+
+        // "( E" and "E" from the initial state both lead to the shared state "E -> E + • T" on '+'
+        int open = g.getId(new Symbol("(", SymbolType.TERMINAL));
+        int inParens = automaton.getTransition(automaton.getTransition(0, open), e);
+        assertEquals(automaton.getTransition(afterE, plus), automaton.getTransition(inParens, plus));
+    }
+
+    @Test
+    public void testClosureItemsPerNonTerminal() {
+        LRAutomaton automaton = automaton(TestGrammars.EXPRESSIONS);
+        CompactGrammar g = automaton.getItemIndex().getCompactGrammar();
+        int t = g.getId(new Symbol("T", SymbolType.NON_TERMINAL));
+        int[] items = automaton.getClosureItems(t).stream().toArray();
+        assertEquals(List.of("T -> • T * F", "T -> • F", "F -> • ( E )", "F -> • id"), describe(automaton, items));
+    }
+
+    @Test
+    public void testKernelsAreUnique() {
+        LRAutomaton automaton = automaton("S -> A A\nA -> a A | b | ε");
+        Set<List<Integer>> kernels = new HashSet<>();
+        for (int s = 0; s < automaton.getStateCount(); s++) {
+            kernels.add(Arrays.stream(automaton.getKernel(s)).boxed().collect(Collectors.toList()));
+        }
+        assertEquals(automaton.getStateCount(), kernels.size());
+    }
+
+    @Test
+    public void testItemNumbering() {
+        ItemIndex index = new ItemIndex(new Grammar(TestGrammars.EXPRESSIONS).getCompactGrammar());
+        // 6 productions with 3+1+3+1+3+1 symbols, plus E' -> E
+        assertEquals(6 + 12 + 2, index.getItemCount());
+        for (int item = 0; item < index.getItemCount(); item++) {
+            assertEquals(item, index.item(index.production(item), index.dot(item)));
+        }
+        LR0Item complete = index.toItem(index.item(1, 1));
+        assertEquals("E -> T •", complete.toString());
+        assertNull(complete.getSymbolAfterDot());
+        assertEquals(new LR0Item(complete.production, 1), complete);
+        assertTrue(index.symbolAfterDot(index.item(1, 1)) < 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.Token;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.lr.LALR1Parser;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRActions;
+import com.compiler.parser.lr.LRAutomaton;
+import com.compiler.parser.lr.LRDriver;
+import com.compiler.parser.lr.PackedLRTable;
+import com.compiler.parser.lr.RightHandSide;
+
+public class LRDriverTest {
+
+    /**
+     * Evaluates the expression grammar, with productions numbered in the order they are listed.
+     */
+    private static final LRActions EVALUATE = new LRActions() {
+        @Override
+        public Object shift(int terminal, Token token) {
+            return "id".equals(token.type) ? Integer.valueOf(token.lexeme) : null;
+        }
+
+        @Override
+        public Object reduce(int production, RightHandSide values) {
+            switch (production) {
+                case 0: return (Integer) values.get(0) + (Integer) values.get(2);
+                case 2: return (Integer) values.get(0) * (Integer) values.get(2);
+                case 4: return values.get(1);
+                default: return values.get(0);
+            }
+        }
+    };
+
+    @Test
+    public void testParsesInLockstepWithTheLexer() {
+        LRDriver driver = new LRDriver(new PackedLRTable(TestGrammars.lalr(TestGrammars.EXPRESSIONS)));
+        Lexer lexer = TestGrammars.expressionLexer();
+        assertTrue(driver.parse(lexer.stream("1 + 2 * (3 + 4)")));
+        assertTrue(driver.parse(lexer.stream("((5))")));
+        assertFalse(driver.parse(lexer.stream("1 + * 2")));
+        assertFalse(driver.parse(lexer.stream("(1")));
+        assertFalse(driver.parse(lexer.stream("")));
+    }
+
+    @Test
+    public void testSemanticValues() {
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        for (LRDriver driver : List.of(new LRDriver(table), new LRDriver(new PackedLRTable(table)))) {
+            assertTrue(driver.parse(TestGrammars.expressionLexer().stream("2 + 3 * (4 + 1)"), EVALUATE));
+            assertEquals(17, driver.getResult());
+            assertTrue(driver.parse(TestGrammars.expressionLexer().stream("(2 + 3) * 4"), EVALUATE));
+            assertEquals(20, driver.getResult());
+        }
+    }
+
+    @Test
+    public void testEmptyProductions() {
+        LALR1Table table = TestGrammars.lalr("S -> A B c\nA -> a | ε\nB -> b | ε");
+        CompactGrammar g = table.getCompactGrammar();
+        List<String> reductions = new ArrayList<>();
+        LRActions actions = new LRActions() {
+            @Override
+            public Object reduce(int production, RightHandSide values) {
+                reductions.add(g.getName(g.getLeft(production)) + "/" + values.size());
+                return null;
+            }
+        };
+        LRDriver driver = new LRDriver(new PackedLRTable(table));
+        List<Token> tokens = List.of(new Token("b", "b", 0), new Token("c", "c", 1));
+        var iterator = tokens.iterator();
+        assertTrue(driver.parse(() -> iterator.hasNext() ? iterator.next() : null, actions));
+        assertEquals(List.of("A/0", "B/1", "S/3"), reductions);
+    }
+
+    @Test
+    public void testReportsTheError() {
+        List<SyntaxError> errors = new ArrayList<>();
+        LRActions actions = new LRActions() {
+            @Override
+            public void error(SyntaxError error) {
+                errors.add(error);
+            }
+        };
+        LRDriver driver = new LRDriver(TestGrammars.lalr(TestGrammars.EXPRESSIONS));
+        assertFalse(driver.parse(TestGrammars.expressionLexer().stream("1 + )"), actions));
+        assertNull(driver.getResult());
+        assertEquals(1, errors.size());
+        assertEquals(4, errors.get(0).getOffset());
+        assertEquals(List.of("(", "id"), errors.get(0).getExpected());
+    }
+
+    @Test
+    public void testDeepNestingGrowsTheStack() {
+        int depth = 20000;
+        String input = "(".repeat(depth) + "7" + ")".repeat(depth);
+        LRDriver driver = new LRDriver(new PackedLRTable(TestGrammars.lalr(TestGrammars.EXPRESSIONS)));
+        assertTrue(driver.parse(TestGrammars.expressionLexer().stream(input), EVALUATE));
+        assertEquals(7, driver.getResult());
+    }
+
+    @Test
+    public void testListParserUsesTheDriver() {
+        LALR1Parser parser = new LALR1Parser(TestGrammars.lalr(TestGrammars.EXPRESSIONS));
+        assertTrue(parser.parse(TestGrammars.expressionTokens("1+2")));
+        assertFalse(parser.parse(List.of(new Token("id", "1", 0), new Token("unknown", "?", 1))));
+    }
+
+    @Test
+    public void testRequiresBuiltTable() {
+        LALR1Table table = new LALR1Table(new LRAutomaton(new Grammar(TestGrammars.EXPRESSIONS)));
+        assertThrows(IllegalArgumentException.class, () -> new LRDriver(table));
+    }
+}
@@ -0,0 +1,93 @@
+package com.compiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.Token;
+import com.compiler.lexer.TokenStream;
+import com.compiler.metrics.MetricsRegistry;
+
+public class LexerTest {
+
+    private static Lexer lexer() {
+        return TestGrammars.lexer(
+                "IF", "if",
+                "ID", "(a|b|c|f|i|x)(a|b|c|f|i|x|0|1)*",
+                "NUM", "(0|1)+",
+                "EQ", "=",
+                "EQEQ", "==");
+    }
+
+    @Test
+    public void testMaximalMunchAndPriority() {
+        List<Token> tokens = lexer().tokenize("if iff x1 == 10=a");
+        assertEquals(List.of(
+                new Token("IF", "if", 0),
+                new Token("ID", "iff", 3),
+                new Token("ID", "x1", 7),
+                new Token("EQEQ", "==", 10),
+                new Token("NUM", "10", 13),
+                new Token("EQ", "=", 15),
+                new Token("ID", "a", 16)), tokens);
+    }
+
+    @Test
+    public void testCountedRepetitionAboveUnrollLimit() {
+        // Both rules get counters; the second one's must not overlap the first one's
+        Lexer lexer = TestGrammars.lexer("HEX", "x(0|1|2){1,12}", "NUM", "(0|1|2){1,20}");
+        List<Token> tokens = lexer.tokenize("x0120 " + "1".repeat(21) + " x" + "2".repeat(13));
+        assertEquals(List.of(
+                new Token("HEX", "x0120", 0),
+                new Token("NUM", "1".repeat(20), 6),
+                new Token("NUM", "1", 26),
+                new Token("HEX", "x" + "2".repeat(12), 28),
+                new Token("NUM", "2", 41)), tokens);
+    }
+
+    @Test
+    public void testStreamAndMetrics() {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.reset();
+        registry.setEnabled(true);
+        try {
+            TokenStream stream = lexer().stream("  a = b\n");
+            assertEquals("a", stream.next().lexeme);
+            assertEquals("=", stream.next().lexeme);
+            assertEquals("b", stream.next().lexeme);
+            assertNull(stream.next());
+            assertEquals(3, registry.getCounter("lexer.tokens"));
+            assertEquals(8, registry.getCounter("lexer.chars"));
+        } finally {
+            registry.setEnabled(false);
+            registry.reset();
+        }
+    }
+
+    @Test
+    public void testSkipRules() {
+        // Newlines are tokens; spaces are dropped only because WS is skipped
+        Lexer lexer = TestGrammars.lexer(Set.of("WS"), "ID", "(a|b|c)+", "NL", "\n", "WS", "( |\t)+");
+        assertEquals(List.of(
+                new Token("ID", "a", 0),
+                new Token("ID", "b", 2),
+                new Token("NL", "\n", 3),
+                new Token("ID", "c", 6),
+                new Token("NL", "\n", 7)), lexer.tokenize("a b\n \tc\n"));
+        assertThrows(IllegalArgumentException.class, () -> TestGrammars.lexer(Set.of("WS"), "ID", "a+", "WS", " ").tokenize("a\na"));
+        assertThrows(IllegalArgumentException.class, () -> TestGrammars.lexer(Set.of("COMMENT"), "ID", "a+"));
+    }
+
+    @Test
+    public void testErrors() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> lexer().tokenize("a ? b"));
+        assertEquals("Unexpected character '?' at offset 2", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new Lexer(Map.of("OPT", "a?")));
+    }
+}
@@ -0,0 +1,81 @@
+package com.compiler;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRAutomaton;
+import com.compiler.parser.lr.MinimalLR1Table;
+
+public class MinimalLR1TableTest {
+
+    private static final String LALR_REDUCE_REDUCE = "S -> a A d | b B d | a B e | b A e\nA -> c\nB -> c";
+
+    private static MinimalLR1Table table(String grammar, boolean canonical) {
+        MinimalLR1Table table = new MinimalLR1Table(new Grammar(grammar), canonical);
+        table.build();
+        return table;
+    }
+
+    @Test
+    public void testSplitsStatesOnlyWhereLalrMergingConflicts() {
+        Grammar grammar = new Grammar(LALR_REDUCE_REDUCE);
+        LALR1Table lalr = TestGrammars.lalr(grammar);
+        assertEquals(2, lalr.getConflicts().size());
+
+        MinimalLR1Table minimal = table(LALR_REDUCE_REDUCE, false);
+        assertTrue(minimal.getConflicts().isEmpty());
+        assertEquals(lalr.getStateCount(), minimal.getCoreCount());
+        assertEquals(lalr.getStateCount() + 1, minimal.getStateCount());
+        assertEquals("LR(0)/LALR(1): 13 states, minimal LR(1): 14 states", minimal.getStateCountSummary());
+    }
+
+    @Test
+    public void testLalrGrammarKeepsLalrStateCount() {
+        MinimalLR1Table minimal = table(TestGrammars.EXPRESSIONS, false);
+        assertEquals(12, minimal.getStateCount());
+        assertTrue(minimal.getConflicts().isEmpty());
+
+        MinimalLR1Table canonical = table(TestGrammars.EXPRESSIONS, true);
+        assertEquals(22, canonical.getStateCount());
+        assertEquals("LR(0)/LALR(1): 12 states, canonical LR(1): 22 states", canonical.getStateCountSummary());
+    }
+
+    @Test
+    public void testAgainstCanonicalLR1OnRandomGrammars() {
+        Random random = new Random(5);
+        for (int round = 0; round < 150; round++) {
+            String text = TestGrammars.random(random, 5, 3, 2);
+            MinimalLR1Table canonical = table(text, true);
+            MinimalLR1Table minimal = table(text, false);
+            LALR1Table lalr = TestGrammars.lalr(text);
+
+            // Minimal LR(1) has a conflict exactly when canonical LR(1) has one
+            assertEquals(canonical.getConflicts().isEmpty(), minimal.getConflicts().isEmpty(), text);
+            assertTrue(minimal.getStateCount() <= canonical.getStateCount(), text);
+            assertEquals(lalr.getStateCount(), minimal.getCoreCount(), text);
+
+            // LALR(1) lookaheads are the union of the canonical ones over states with the same core
+            LRAutomaton automaton = lalr.getAutomaton();
+            for (int s = 0; s < lalr.getStateCount(); s++) {
+                int[] reductions = lalr.getLookaheads().getReductions(s);
+                for (int r = 0; r < reductions.length; r++) {
+                    BitSet union = new BitSet();
+                    for (int c = 0; c < canonical.getStateCount(); c++) {
+                        if (Arrays.equals(canonical.getKernel(c), automaton.getKernel(s))) {
+                            BitSet la = canonical.getLookahead(c, reductions[r]);
+                            if (la != null) union.or(la);
+                        }
+                    }
+                    assertEquals(union, lalr.getLookaheads().getLookaheads(s)[r], text);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.compiler;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Symbol;
+import com.compiler.parser.grammar.SymbolType;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRTable;
+import com.compiler.parser.lr.PackedLRTable;
+
+public class PackedLRTableTest {
+
+    /**
+     * Every non-error action and every GOTO target must be preserved; an error cell may only
+     * turn into the state's default reduction.
+     */
+    private static void assertSameTable(LRTable table, PackedLRTable packed) {
+        CompactGrammar grammar = table.getCompactGrammar();
+        assertEquals(table.getStateCount(), packed.getStateCount());
+        for (int s = 0; s < table.getStateCount(); s++) {
+            for (int t = 0; t < grammar.getTerminalCount(); t++) {
+                int expected = table.getAction(s, t);
+                int actual = packed.getAction(s, t);
+                if (expected == LRTable.ERROR) {
+                    assertTrue(actual == LRTable.ERROR || actual == packed.getDefaultAction(s));
+                } else {
+                    assertEquals(expected, actual);
+                    assertEquals(table.isAccept(expected), packed.isAccept(actual));
+                }
+            }
+            for (int a = grammar.getTerminalCount(); a < grammar.getSymbolCount(); a++) {
+                int expected = table.getGoto(s, a);
+                if (expected >= 0) {
+                    assertEquals(expected, packed.getGoto(s, a));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExpressionGrammar() {
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        PackedLRTable packed = new PackedLRTable(table);
+        assertSameTable(table, packed);
+        assertTrue(packed.isCompact());
+
+        CompactGrammar grammar = table.getCompactGrammar();
+        long dense = 4L * table.getStateCount() * grammar.getSymbolCount();
+        assertTrue(packed.getSizeInBytes() < dense);
+    }
+
+    @Test
+    public void testDefaultReductionsShareRows() {
+        // After id, ( E ) and T * F the only action is a reduction on every lookahead, so
+        // those rows are empty apart from their default
+        LALR1Table table = TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+        PackedLRTable packed = new PackedLRTable(table);
+        int id = table.getCompactGrammar().getId(new Symbol("id", SymbolType.TERMINAL));
+        int afterId = LRTable.target(table.getAction(0, id));
+        assertEquals(table.getAction(afterId, CompactGrammar.END), packed.getDefaultAction(afterId));
+        assertTrue(packed.getRowCount() < table.getStateCount());
+        assertEquals(LRTable.ERROR, packed.getDefaultAction(0));
+    }
+
+    @Test
+    public void testAcceptIsNeverADefault() {
+        LALR1Table table = TestGrammars.lalr("S -> a");
+        PackedLRTable packed = new PackedLRTable(table);
+        for (int s = 0; s < table.getStateCount(); s++) {
+            assertFalse(packed.isAccept(packed.getDefaultAction(s)));
+        }
+        assertSameTable(table, packed);
+    }
+
+    @Test
+    public void testRandomGrammars() {
+        Random random = new Random(44);
+        String[] terminals = {"a", "b", "c", "d"};
+        String[] nonTerminals = {"S", "A", "B", "C"};
+        for (int round = 0; round < 200; round++) {
+            StringBuilder sb = new StringBuilder();
+            for (String left : nonTerminals) {
+                sb.append(left).append(" ->");
+                int alternatives = 1 + random.nextInt(3);
+                for (int k = 0; k < alternatives; k++) {
+                    if (k > 0) {
+                        sb.append(" |");
+                    }
+                    int length = random.nextInt(4);
+                    if (length == 0) {
+                        sb.append(" ε");
+                    }
+                    for (int i = 0; i < length; i++) {
+                        sb.append(' ').append(random.nextBoolean()
+                                ? terminals[random.nextInt(terminals.length)]
+                                : nonTerminals[random.nextInt(nonTerminals.length)]);
+                    }
+                }
+                sb.append('\n');
+            }
+            LALR1Table table = TestGrammars.lalr(sb.toString().trim());
+            assertSameTable(table, new PackedLRTable(table));
+        }
+    }
+}
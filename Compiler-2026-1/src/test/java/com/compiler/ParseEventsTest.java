@@ -0,0 +1,125 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.Token;
+import com.compiler.parser.ParseListener;
+import com.compiler.parser.SyntaxError;
+import com.compiler.parser.grammar.CompactGrammar;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.ll.LL1Parser;
+import com.compiler.parser.ll.LL1Table;
+import com.compiler.parser.lr.LALR1Parser;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class ParseEventsTest {
+
+    private static LL1Table llTable() {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(TestGrammars.LL_EXPRESSIONS)));
+        table.build();
+        return table;
+    }
+
+    private static LALR1Table lrTable() {
+        return TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+    }
+
+    /**
+     * Records events as "enter E@0", "exit E[0,5)" and "id:a".
+     */
+    private static class Recorder implements ParseListener {
+        final CompactGrammar grammar;
+        final List<String> events = new ArrayList<>();
+        final List<SyntaxError> errors = new ArrayList<>();
+        int limit = Integer.MAX_VALUE;
+
+        Recorder(CompactGrammar grammar) {
+            this.grammar = grammar;
+        }
+
+        @Override
+        public void enterRule(int production, int offset) {
+            events.add("enter " + grammar.getName(grammar.getLeft(production)) + "@" + offset);
+        }
+
+        @Override
+        public void exitRule(int production, int start, int end) {
+            events.add("exit " + grammar.getName(grammar.getLeft(production)) + "[" + start + "," + end + ")");
+        }
+
+        @Override
+        public void token(int terminal, Token token) {
+            events.add(grammar.getName(terminal) + ":" + token.lexeme);
+        }
+
+        @Override
+        public void syntaxError(SyntaxError error) {
+            errors.add(error);
+        }
+
+        @Override
+        public boolean isDone() {
+            return events.size() >= limit;
+        }
+    }
+
+    @Test
+    public void testTopDownEvents() {
+        LL1Table table = llTable();
+        Recorder recorder = new Recorder(table.getCompactGrammar());
+        assertTrue(new LL1Parser(table).parse(TestGrammars.expressionTokens("a * bb"), recorder));
+        assertEquals(List.of(
+                "enter E@0", "enter T@0", "enter F@0", "id:a", "exit F[0,1)",
+                "enter T'@2", "*:*", "enter F@4", "id:bb", "exit F[4,6)",
+                "enter T'@6", "exit T'[6,6)", "exit T'[2,6)", "exit T[0,6)",
+                "enter E'@6", "exit E'[6,6)", "exit E[0,6)"), recorder.events);
+    }
+
+    @Test
+    public void testBottomUpEvents() {
+        LALR1Table table = lrTable();
+        Recorder recorder = new Recorder(table.getCompactGrammar());
+        assertTrue(new LALR1Parser(table).parse(TestGrammars.expressionTokens("a * (b)"), recorder));
+        assertEquals(List.of(
+                "id:a", "exit F[0,1)", "exit T[0,1)", "*:*", "(:(", "id:b", "exit F[5,6)",
+                "exit T[5,6)", "exit E[5,6)", "):)", "exit F[4,7)", "exit T[0,7)", "exit E[0,7)"),
+                recorder.events);
+    }
+
+    @Test
+    public void testListenerStopsEarly() {
+        LL1Table ll = llTable();
+        Recorder top = new Recorder(ll.getCompactGrammar());
+        top.limit = 4;
+        assertFalse(new LL1Parser(ll).parse(TestGrammars.expressionTokens("a + b + c"), top));
+        assertEquals(4, top.events.size());
+
+        LALR1Table lr = lrTable();
+        Recorder bottom = new Recorder(lr.getCompactGrammar());
+        bottom.limit = 2;
+        assertFalse(new LALR1Parser(lr).parse(TestGrammars.expressionTokens("a + b + c"), bottom));
+        assertEquals(List.of("id:a", "exit F[0,1)"), bottom.events);
+    }
+
+    @Test
+    public void testSyntaxErrorEvent() {
+        LL1Table ll = llTable();
+        Recorder top = new Recorder(ll.getCompactGrammar());
+        assertFalse(new LL1Parser(ll).parse(TestGrammars.expressionTokens("a + )"), top));
+        assertEquals(1, top.errors.size());
+        assertEquals(4, top.errors.get(0).getOffset());
+
+        LALR1Table lr = lrTable();
+        Recorder bottom = new Recorder(lr.getCompactGrammar());
+        assertFalse(new LALR1Parser(lr).parse(TestGrammars.expressionTokens("(a"), bottom));
+        assertEquals(1, bottom.errors.size());
+        assertEquals("Unexpected end of input at offset 2, expected +, )", bottom.errors.get(0).getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package com.compiler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.DeterminizationBudget;
+import com.compiler.lexer.DeterminizationResult;
+import com.compiler.lexer.DfaMinimizer;
+import com.compiler.lexer.DfaSimulator;
+import com.compiler.lexer.NfaSimulator;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.dfa.DFA;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+import com.compiler.metrics.MetricsRegistry;
+import com.compiler.metrics.PipelineMetrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class PipelineMetricsTest {
+
+    @AfterEach
+    public void disableMetrics() {
+        MetricsRegistry.global().setEnabled(false);
+        MetricsRegistry.global().reset();
+    }
+
+    @Test
+    public void testDisabledRegistryRecordsNothing() {
+        MetricsRegistry.global().reset();
+        new RegexParser().parse("a(b|c)*");
+        assertTrue(MetricsRegistry.global().snapshot().isEmpty());
+    }
+
+    @Test
+    public void testRegistryCoversPipeline() {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.reset();
+        registry.setEnabled(true);
+
+        NFA nfa = new RegexParser().parse("a(b|c)*");
+        DFA dfa = NfaToDfaConverter.convertNfaToDfa(nfa);
+        DFA minimized = DfaMinimizer.minimizeDfa(dfa, NfaToDfaConverter.alphabetOf(nfa));
+        new DfaSimulator().simulate(minimized, "abcb");
+        new NfaSimulator().simulate(nfa, "abc");
+
+        assertEquals(1, registry.getSummary("regex.parse.nanos").getCount());
+        assertTrue(registry.getSummary("nfa.states").getMax() > 0);
+        assertEquals(1, registry.getSummary("subset.construction.nanos").getCount());
+        assertEquals(minimized.allStates.size(), registry.getSummary("dfa.minimization.states").getMax());
+        assertEquals(4, registry.getCounter("simulate.dfa.chars"));
+        assertEquals(3, registry.getCounter("simulate.nfa.chars"));
+        assertTrue(registry.getRatePerSecond("simulate.dfa.chars", "simulate.dfa.nanos") > 0);
+    }
+
+    @Test
+    public void testHybridMatcherCacheHitRate() {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.reset();
+        registry.setEnabled(true);
+
+        DeterminizationResult result = NfaToDfaConverter.convertWithBudget(
+                new RegexParser().parse("(a|b)*a(a|b)(a|b)(a|b)(a|b)(a|b)(a|b)"), DeterminizationBudget.ofStates(8));
+        result.getMatcher().matches("ab".repeat(20));
+
+        long hits = registry.getCounter("automaton.cache.hits");
+        long misses = registry.getCounter("automaton.cache.misses");
+        assertEquals(40, hits + misses);
+        assertTrue(misses > 0);
+        assertEquals((double) hits / 40, registry.getHitRate("automaton.cache"), 1e-9);
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("pipeline", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.compiler.RegexParse");
+            recording.enable("com.compiler.Minimization");
+            recording.start();
+            assertTrue(PipelineMetrics.start() != 0);
+            NFA nfa = new RegexParser().parse("ab|ac");
+            DfaMinimizer.minimizeDfa(NfaToDfaConverter.convertNfaToDfa(nfa), NfaToDfaConverter.alphabetOf(nfa));
+            recording.stop();
+            recording.dump(file);
+        }
+        // Flight Recorder stays initialized, but nothing is measured without a running recording
+        assertEquals(0, PipelineMetrics.start());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        RecordedEvent parse = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.compiler.RegexParse"))
+                .findFirst().orElseThrow();
+        assertEquals("ab|ac", parse.getString("pattern"));
+        assertTrue(parse.getInt("nfaStates") > 0);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.compiler.Minimization")));
+    }
+}
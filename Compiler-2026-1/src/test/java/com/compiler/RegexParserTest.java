@@ -0,0 +1,80 @@
+package com.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.compiler.lexer.DfaSimulator;
+import com.compiler.lexer.NfaSimulator;
+import com.compiler.lexer.NfaToDfaConverter;
+import com.compiler.lexer.nfa.NFA;
+import com.compiler.lexer.regex.RegexParser;
+import com.compiler.lexer.regex.RegexSyntaxException;
+
+public class RegexParserTest {
+
+    private static boolean matches(String regex, String input) {
+        NFA nfa = new RegexParser().parse(regex);
+        boolean actualNfa = new NfaSimulator().simulate(nfa, input);
+        boolean actualDfa = new DfaSimulator().simulate(NfaToDfaConverter.convertNfaToDfa(nfa), input);
+        assertEquals(actualNfa, actualDfa, "NFA and DFA disagree on '" + input + "' for " + regex);
+        return actualNfa;
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '#', value = {
+        // escaped operators are literals
+        "a\\*b     # a*b   # true",
+        "a\\*b     # aab   # false",
+        "\\(x\\)+  # (x)+  # false",
+        "\\(x\\)+  # (x)   # true",
+        "a\\|b     # a|b   # true",
+        "a\\|b     # a     # false",
+        "\\\\      # \\    # true",
+        "a\\{2}    # a{2}  # true",
+        // escaped space and control characters
+        "a\\ b     # 'a b' # true",
+        "a b       # 'a b' # true",
+        "a b       # ab    # false",
+        // precedence and nesting
+        "ab|cd*    # cddd  # true",
+        "ab|cd*    # abd   # false",
+        "(a|b)+c?  # abba  # true",
+        "((a)(b))* # abab  # true",
+        "x{2}y+    # xxyy  # true",
+        // '{' that is not a bound is a literal
+        "a{b       # a{b   # true",
+        "a{,2}     # a{,2} # true"
+    })
+    public void testSyntax(String regex, String input, boolean expected) {
+        assertEquals(expected, matches(regex.trim(), input.trim()));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '#', value = {
+        "*a       # 0 # Nothing to repeat",
+        "a|+      # 2 # Nothing to repeat",
+        "{2}      # 0 # Nothing to repeat",
+        "a(b      # 1 # Missing ')' for group opened",
+        "ab)c     # 2 # Unmatched ')'",
+        "a||b     # 2 # Expected an expression",
+        "()       # 1 # Expected an expression",
+        "ab\\     # 2 # Dangling escape at end of regex",
+        "a{3,2}   # 1 # Invalid repetition bounds {3,2}"
+    })
+    public void testErrorPositions(String regex, int index, String description) {
+        RegexSyntaxException e = assertThrows(RegexSyntaxException.class, () -> new RegexParser().parse(regex.trim()));
+        assertEquals(index, e.getIndex());
+        assertEquals(description.trim(), e.getDescription());
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '#', value = {
+        "a\\tb  # 'a\tb'",
+        "a\\nb  # 'a\nb'"
+    })
+    public void testControlEscapes(String regex, String input) {
+        assertEquals(true, matches(regex.trim(), input.trim().replace("'", "")));
+    }
+}
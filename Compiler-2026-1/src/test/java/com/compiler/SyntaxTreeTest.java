@@ -0,0 +1,119 @@
+package com.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.ast.SyntaxTree;
+import com.compiler.ast.TreeBuilder;
+import com.compiler.ast.TreeCursor;
+import com.compiler.ast.TreeVisitor;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.ll.LL1Parser;
+import com.compiler.parser.ll.LL1Table;
+import com.compiler.parser.lr.LALR1Parser;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.syntax.StaticAnalyzer;
+
+public class SyntaxTreeTest {
+
+    private static LL1Parser llParser() {
+        LL1Table table = new LL1Table(new StaticAnalyzer(new Grammar(TestGrammars.LL_EXPRESSIONS)));
+        table.build();
+        return new LL1Parser(table);
+    }
+
+    private static LALR1Table lrTable() {
+        return TestGrammars.lalr(TestGrammars.EXPRESSIONS);
+    }
+
+    @Test
+    public void testTopDownTree() {
+        SyntaxTree tree = llParser().parseTree(TestGrammars.expressionTokens("a * b"));
+        assertEquals("(E (T (F id:a) (T' *:* (F id:b) (T'))) (E'))", tree.toString());
+        TreeCursor cursor = tree.cursor();
+        assertEquals(0, cursor.startOffset());
+        assertEquals(5, cursor.endOffset());
+        assertEquals(3, cursor.endToken());
+        assertEquals(3, tree.getWidth(tree.getRoot()));
+    }
+
+    @Test
+    public void testBottomUpTree() {
+        SyntaxTree tree = new LALR1Parser(lrTable()).parseTree(TestGrammars.expressionTokens("a + (b)"));
+        assertEquals("(E (E (T (F id:a))) +:+ (T (F (:( (E (T (F id:b))) ):))))", tree.toString());
+        assertEquals(tree.getNodeCount() - 1, tree.getRoot());
+        assertEquals(5, tree.getTokenCount());
+    }
+
+    @Test
+    public void testSpansOfEmptyRules() {
+        SyntaxTree tree = llParser().parseTree(TestGrammars.expressionTokens("a"));
+        TreeCursor cursor = tree.cursor();
+        assertTrue(cursor.gotoFirstChild());
+        assertTrue(cursor.gotoNextSibling());
+        int rest = cursor.node();
+        assertEquals("E'", tree.getGrammar().getName(tree.getKind(rest)));
+        assertEquals(1, cursor.startToken());
+        assertEquals(1, cursor.endToken());
+        assertEquals(1, cursor.startOffset());
+        assertEquals(1, cursor.endOffset());
+        assertFalse(cursor.gotoFirstChild());
+        assertFalse(cursor.gotoNextSibling());
+        assertTrue(cursor.gotoParent());
+        assertEquals(tree.getRoot(), cursor.node());
+        assertFalse(cursor.gotoParent());
+    }
+
+    @Test
+    public void testVisitorCanSkipSubtrees() {
+        SyntaxTree tree = new LALR1Parser(lrTable()).parseTree(TestGrammars.expressionTokens("a + (b * c)"));
+        List<String> tokens = new ArrayList<>();
+        tree.accept(new TreeVisitor() {
+            @Override
+            public boolean enter(TreeCursor cursor) {
+                SyntaxTree t = cursor.tree();
+                int node = cursor.node();
+                if (t.isToken(node)) {
+                    tokens.add(cursor.token().lexeme);
+                }
+                // Do not descend into parenthesized factors
+                return !(t.getGrammar().getName(t.getKind(node)).equals("F") && t.getWidth(node) > 1);
+            }
+        });
+        assertEquals(List.of("a", "+"), tokens);
+    }
+
+    @Test
+    public void testDeepTreesAndArenaReuse() {
+        int depth = 20000;
+        LALR1Table table = lrTable();
+        LALR1Parser parser = new LALR1Parser(table);
+        SyntaxTree arena = new SyntaxTree(table.getCompactGrammar());
+        TreeBuilder builder = new TreeBuilder(arena);
+        assertTrue(parser.parse(TestGrammars.expressionTokens("(".repeat(depth) + "a" + ")".repeat(depth)), builder));
+        int[] count = new int[1];
+        arena.accept(new TreeVisitor() {
+            @Override
+            public void exit(TreeCursor cursor) {
+                count[0]++;
+            }
+        });
+        assertEquals(arena.getNodeCount(), count[0]);
+
+        assertTrue(parser.parse(TestGrammars.expressionTokens("x"), new TreeBuilder(arena)));
+        assertEquals("(E (T (F id:x)))", arena.toString());
+        assertEquals(4, arena.getNodeCount());
+    }
+
+    @Test
+    public void testSyntaxErrorGivesNoTree() {
+        assertNull(llParser().parseTree(TestGrammars.expressionTokens("a +")));
+        assertNull(new LALR1Parser(lrTable()).parseTree(TestGrammars.expressionTokens("a )")));
+    }
+}
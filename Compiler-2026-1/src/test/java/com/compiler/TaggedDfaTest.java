@@ -0,0 +1,81 @@
+package com.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+import com.compiler.lexer.TaggedDfaConverter;
+import com.compiler.lexer.TaggedDfaSimulator;
+import com.compiler.lexer.regex.RegexParser;
+import com.compiler.lexer.tdfa.SubmatchResult;
+import com.compiler.lexer.tdfa.TaggedDfa;
+
+public class TaggedDfaTest {
+
+    private static SubmatchResult match(String regex, String input) {
+        TaggedDfa tdfa = TaggedDfaConverter.convert(new RegexParser().parseWithGroups(regex));
+        return new TaggedDfaSimulator().match(tdfa, input);
+    }
+
+    @Test
+    public void testConsecutiveGroups() {
+        SubmatchResult result = match("(a*)(b*)", "aabbb");
+        assertNotNull(result);
+        assertEquals(2, result.groupCount());
+        assertEquals("aabbb", result.group(0));
+        assertEquals("aa", result.group(1));
+        assertEquals("bbb", result.group(2));
+        assertEquals(2, result.start(2));
+        assertEquals(5, result.end(2));
+    }
+
+    @Test
+    public void testRejectedInput() {
+        assertNull(match("(a*)(b*)", "aabba"));
+        assertNull(match("(a*)(b*)", "c"));
+    }
+
+    @Test
+    public void testGreedyPriorities() {
+        SubmatchResult result = match("(a*)(a*)", "aaa");
+        assertEquals("aaa", result.group(1));
+        assertEquals("", result.group(2));
+
+        // Leftmost alternative wins when both lead to a full match
+        result = match("(a|ab)(c|bcd)", "abcd");
+        assertEquals("a", result.group(1));
+        assertEquals("bcd", result.group(2));
+    }
+
+    @Test
+    public void testNestedAndRepeatedGroups() {
+        // The outer group reports its last iteration, the inner one its last participation
+        SubmatchResult result = match("((a)|b)+", "ab");
+        assertEquals("b", result.group(1));
+        assertEquals("a", result.group(2));
+    }
+
+    @Test
+    public void testOptionalGroupNotParticipating() {
+        SubmatchResult result = match("x(y)?z", "xz");
+        assertNotNull(result);
+        assertNull(result.group(1));
+        assertEquals(-1, result.start(1));
+        assertEquals("y", match("x(y)?z", "xyz").group(1));
+    }
+
+    @Test
+    public void testLongInputSinglePass() {
+        // (a|b)*(a)(b*) forces many simultaneous threads; extraction stays linear
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            sb.append(i % 3 == 0 ? 'a' : 'b');
+        }
+        sb.append("abbb");
+        SubmatchResult result = match("(a|b)*(a)(b*)", sb.toString());
+        assertNotNull(result);
+        assertEquals(sb.length() - 4, result.start(2));
+        assertEquals("bbb", result.group(3));
+    }
+}
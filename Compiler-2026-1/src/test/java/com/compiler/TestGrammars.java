@@ -0,0 +1,124 @@
+package com.compiler;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.compiler.lexer.Lexer;
+import com.compiler.lexer.Token;
+import com.compiler.parser.grammar.Grammar;
+import com.compiler.parser.lr.LALR1Table;
+import com.compiler.parser.lr.LRAutomaton;
+
+/**
+ * Grammars, tables and lexers shared by the parser tests.
+ */
+final class TestGrammars {
+
+    /** The left-recursive expression grammar, for the LR parsers. */
+    static final String EXPRESSIONS = "E -> E + T | T\nT -> T * F | F\nF -> ( E ) | id";
+
+    /** The expression grammar without left recursion, for the LL(1) parsers. */
+    static final String LL_EXPRESSIONS =
+            "E -> T E'\nE' -> + T E' | ε\nT -> F T'\nT' -> * F T' | ε\nF -> ( E ) | id";
+
+    private TestGrammars() { }
+
+    /**
+     * Builds the LALR(1) table of a grammar.
+     * @param grammar The grammar definition.
+     * @return The built table.
+     */
+    static LALR1Table lalr(String grammar) {
+        return lalr(new Grammar(grammar));
+    }
+
+    /**
+     * Builds the LALR(1) table of a grammar.
+     * @param grammar The grammar.
+     * @return The built table.
+     */
+    static LALR1Table lalr(Grammar grammar) {
+        LALR1Table table = new LALR1Table(new LRAutomaton(grammar));
+        table.build();
+        return table;
+    }
+
+    /**
+     * Builds a lexer from rule names and patterns.
+     * @param rules Names and patterns, alternating, in priority order.
+     * @return The lexer.
+     */
+    static Lexer lexer(String... rules) {
+        return lexer(null, rules);
+    }
+
+    /**
+     * Builds a lexer that drops the tokens of some rules instead of whitespace.
+     * @param skip  The names of the skipped rules, or null to drop whitespace.
+     * @param rules Names and patterns, alternating, in priority order.
+     * @return The lexer.
+     */
+    static Lexer lexer(Set<String> skip, String... rules) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < rules.length; i += 2) {
+            map.put(rules[i], rules[i + 1]);
+        }
+        return new Lexer(map, skip);
+    }
+
+    /**
+     * Builds the lexer of the expression grammars: id is a run of the letters a, b, c, x, y, z
+     * and digits, and +, *, ( and ) are tokens named after themselves.
+     * @return The lexer.
+     */
+    static Lexer expressionLexer() {
+        return lexer(
+                "id", "(a|b|c|x|y|z|0|1|2|3|4|5|6|7|8|9)+",
+                "+", "\\+",
+                "*", "\\*",
+                "(", "\\(",
+                ")", "\\)");
+    }
+
+    /**
+     * Tokenizes an expression with {@link #expressionLexer()}.
+     * @param input The expression.
+     * @return The tokens.
+     */
+    static List<Token> expressionTokens(String input) {
+        return expressionLexer().tokenize(input);
+    }
+
+    /**
+     * Generates a random grammar over non-terminals N0, N1, ... (N0 is the start symbol) and
+     * terminals t0, t1, ...: each non-terminal has one to three alternatives of zero to three
+     * symbols, zero being ε.
+     * @param random          The source of randomness.
+     * @param maxNonTerminals The largest number of non-terminals.
+     * @param terminals       The number of terminals to choose from.
+     * @param terminalOdds    A symbol is a terminal with probability 1 / terminalOdds.
+     * @return The grammar definition.
+     */
+    static String random(Random random, int maxNonTerminals, int terminals, int terminalOdds) {
+        int nonTerminals = 1 + random.nextInt(maxNonTerminals);
+        StringBuilder sb = new StringBuilder();
+        for (int a = 0; a < nonTerminals; a++) {
+            sb.append('N').append(a).append(" ->");
+            int alternatives = 1 + random.nextInt(3);
+            for (int k = 0; k < alternatives; k++) {
+                if (k > 0) sb.append(" |");
+                int length = random.nextInt(4);
+                if (length == 0) sb.append(" ε");
+                for (int i = 0; i < length; i++) {
+                    sb.append(random.nextInt(terminalOdds) == 0
+                            ? " t" + random.nextInt(terminals) : " N" + random.nextInt(nonTerminals));
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}